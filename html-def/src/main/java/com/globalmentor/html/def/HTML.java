@@ -217,6 +217,8 @@ public static boolean isHTML(final MediaType mediaType) { //TODO maybe move this
 	/** HTML element local name definition. */
 	public static final String ELEMENT_COL = "col";
 	/** HTML element local name definition. */
+	public static final String ELEMENT_COLGROUP = "colgroup";
+	/** HTML element local name definition. */
 	public static final String ELEMENT_CODE = "code";
 	/** HTML element local name definition. */
 	public static final String ELEMENT_DATA = "data";
@@ -287,6 +289,8 @@ public static boolean isHTML(final MediaType mediaType) { //TODO maybe move this
 	/** HTML element local name definition. */
 	public static final String ELEMENT_KBD = "kbd";
 	/** HTML element local name definition. */
+	public static final String ELEMENT_KEYGEN = "keygen";
+	/** HTML element local name definition. */
 	public static final String ELEMENT_LI = "li";
 	/** HTML element local name definition. */
 	public static final String ELEMENT_LABEL = "label";
@@ -313,6 +317,8 @@ public static boolean isHTML(final MediaType mediaType) { //TODO maybe move this
 	/** HTML element local name definition. */
 	public static final String ELEMENT_OL = "ol";
 	/** HTML element local name definition. */
+	public static final String ELEMENT_OPTGROUP = "optgroup";
+	/** HTML element local name definition. */
 	public static final String ELEMENT_OPTION = "option";
 	/** HTML element local name definition. */
 	public static final String ELEMENT_OUTPUT = "output";
@@ -0,0 +1,266 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html.def;
+
+import static com.globalmentor.html.def.HTML.*;
+import static com.globalmentor.java.Conditions.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.regex.Pattern;
+
+import javax.annotation.*;
+
+import com.globalmentor.xml.def.NsName;
+
+/**
+ * Interned symbol tables mapping the HTML element and attribute names defined in {@link HTML} to small integer identifiers, so that decisions about elements
+ * and attributes can be made using array lookups rather than repeated string hashing and comparisons.
+ * <p>
+ * Element identifiers are only assigned to elements in the {@value HTML#XHTML_NAMESPACE_URI_STRING} namespace; attribute identifiers are only assigned to
+ * attributes in no namespace. Identifiers are assigned in alphabetical order of name, starting at zero, and are stable for a given version of this library.
+ * Names not defined in {@link HTML} have the identifier {@link #UNKNOWN_ID}. Only lowercase names are included, as HTML names are matched in lowercase; names
+ * defined in mixed case for use in XML, such as {@value HTML#ELEMENT_IFRAME_ATTRIBUTE_ALLOW_TRANSPARENCY}, have no identifier.
+ * </p>
+ * @implNote The tables use open addressing with a load factor of at most one half over the cached {@link String#hashCode()} of the name, and first check for
+ *           reference equality, so that lookups of names interned to the {@link HTML} constants (such as those produced by an interning HTML parser) usually
+ *           require only a single probe and no character comparisons.
+ * @author Garret Wilson
+ */
+public final class HtmlNames {
+
+	/** The identifier indicating a name not defined in {@link HTML}. */
+	public static final int UNKNOWN_ID = -1;
+
+	/** The names of the constants in {@link HTML} defining element names. */
+	private static final Pattern ELEMENT_CONSTANT_NAME_PATTERN = Pattern.compile("ELEMENT_[A-Z0-9]+");
+
+	/** The names of the constants in {@link HTML} defining attribute names. */
+	private static final Pattern ATTRIBUTE_CONSTANT_NAME_PATTERN = Pattern.compile("(?:(?:ELEMENT_[A-Z0-9]+|LINK)_)?ATTRIBUTE_[A-Z0-9_]+");
+
+	/** The element names, indexed by identifier. */
+	private static final String[] ELEMENT_NAMES = definedNames(ELEMENT_CONSTANT_NAME_PATTERN);
+
+	/** The attribute names, indexed by identifier. */
+	private static final String[] ATTRIBUTE_NAMES = definedNames(ATTRIBUTE_CONSTANT_NAME_PATTERN);
+
+	/** The lookup table for element identifiers. */
+	private static final int[] ELEMENT_TABLE = createTable(ELEMENT_NAMES);
+
+	/** The lookup table for attribute identifiers. */
+	private static final int[] ATTRIBUTE_TABLE = createTable(ATTRIBUTE_NAMES);
+
+	/** Whether each element is one of the {@link HTML#EMPTY_ELEMENTS}, indexed by identifier. */
+	private static final boolean[] EMPTY_ELEMENT_FLAGS = elementFlags(EMPTY_ELEMENTS);
+
+	/** Whether each element is one of the {@link HTML#VOID_ELEMENTS}, indexed by identifier. */
+	private static final boolean[] VOID_ELEMENT_FLAGS = elementFlags(VOID_ELEMENTS);
+
+	/** Whether each element is one of the {@link HTML#BLOCK_ELEMENTS}, indexed by identifier. */
+	private static final boolean[] BLOCK_ELEMENT_FLAGS = elementFlags(BLOCK_ELEMENTS);
+
+	/** This class cannot be publicly instantiated. */
+	private HtmlNames() {
+	}
+
+	/**
+	 * Collects the lowercase values of the string constants in {@link HTML} with names matching the given pattern.
+	 * @param constantNamePattern The pattern for matching constant names.
+	 * @return The distinct defined lowercase names, in alphabetical order.
+	 */
+	private static String[] definedNames(@Nonnull final Pattern constantNamePattern) {
+		return Arrays.stream(HTML.class.getFields()).filter(field -> Modifier.isStatic(field.getModifiers()) && field.getType() == String.class)
+				.filter(field -> constantNamePattern.matcher(field.getName()).matches()).map(field -> {
+					try {
+						return (String)field.get(null);
+					} catch(final IllegalAccessException illegalAccessException) {
+						throw new AssertionError(illegalAccessException);
+					}
+				}).filter(name -> name.equals(name.toLowerCase(Locale.ROOT))).distinct().sorted().toArray(String[]::new);
+	}
+
+	/**
+	 * Creates an open-addressed lookup table for the given names.
+	 * @param names The names, indexed by identifier.
+	 * @return A table the size of a power of two at least twice the number of names, containing identifiers or {@link #UNKNOWN_ID} for empty slots.
+	 */
+	private static int[] createTable(@Nonnull final String[] names) {
+		int capacity = 16;
+		while(capacity < names.length * 2) {
+			capacity <<= 1;
+		}
+		final int[] table = new int[capacity];
+		Arrays.fill(table, UNKNOWN_ID);
+		final int mask = capacity - 1;
+		for(int id = 0; id < names.length; id++) {
+			int slot = spread(names[id].hashCode()) & mask;
+			while(table[slot] != UNKNOWN_ID) {
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = id;
+		}
+		return table;
+	}
+
+	/**
+	 * Creates flags indicating which elements are in the given set.
+	 * @param elements The set of elements.
+	 * @return An array of flags indexed by element identifier.
+	 * @throws IllegalStateException if one of the elements has no identifier, indicating an inconsistency in the definitions of {@link HTML}.
+	 */
+	private static boolean[] elementFlags(@Nonnull final Set<NsName> elements) {
+		final boolean[] flags = new boolean[ELEMENT_NAMES.length];
+		for(final NsName element : elements) {
+			final int id = getElementId(element.getNamespaceString(), element.getLocalName());
+			checkState(id != UNKNOWN_ID, "Element %s has no identifier.", element);
+			flags[id] = true;
+		}
+		return flags;
+	}
+
+	/**
+	 * Spreads the higher bits of a hash code into the lower bits for use with a power-of-two table.
+	 * @param hash The hash code.
+	 * @return The spread hash code.
+	 */
+	private static int spread(final int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Looks up a name in a table.
+	 * @param table The lookup table.
+	 * @param names The names, indexed by identifier.
+	 * @param name The name to look up.
+	 * @return The identifier of the name, or {@link #UNKNOWN_ID} if the name is not in the table.
+	 */
+	private static int lookup(@Nonnull final int[] table, @Nonnull final String[] names, @Nonnull final String name) {
+		final int mask = table.length - 1;
+		for(int slot = spread(name.hashCode()) & mask;; slot = (slot + 1) & mask) {
+			final int id = table[slot];
+			if(id == UNKNOWN_ID) {
+				return UNKNOWN_ID;
+			}
+			final String candidate = names[id];
+			if(candidate == name || candidate.equals(name)) { //interned names will usually match by reference
+				return id;
+			}
+		}
+	}
+
+	//# elements
+
+	/** @return The number of element identifiers; valid identifiers range from zero to one less than this value. */
+	public static int getElementCount() {
+		return ELEMENT_NAMES.length;
+	}
+
+	/**
+	 * Returns the identifier of an HTML element.
+	 * @param namespaceURI The namespace of the element, or <code>null</code> if the element is in no namespace.
+	 * @param localName The local name of the element, or <code>null</code> if the element has no local name, as when created by DOM Level 1 methods.
+	 * @return The identifier of the element, or {@link #UNKNOWN_ID} if the element is not in the {@value HTML#XHTML_NAMESPACE_URI_STRING} namespace or is not
+	 *         defined in {@link HTML}.
+	 */
+	public static int getElementId(@Nullable final String namespaceURI, @Nullable final String localName) {
+		if(localName == null || !XHTML_NAMESPACE_URI_STRING.equals(namespaceURI)) {
+			return UNKNOWN_ID;
+		}
+		return lookup(ELEMENT_TABLE, ELEMENT_NAMES, localName);
+	}
+
+	/**
+	 * Returns the identifier of an HTML element known to be defined in {@link HTML}. This is useful for determining the identifiers of well-known elements during
+	 * class initialization, so that comparisons with them can never accidentally match {@link #UNKNOWN_ID}.
+	 * @param localName The local name of an element in the {@value HTML#XHTML_NAMESPACE_URI_STRING} namespace.
+	 * @return The identifier of the element, which is never {@link #UNKNOWN_ID}.
+	 * @throws IllegalArgumentException if the element is not defined in {@link HTML}.
+	 */
+	public static int getDefinedElementId(@Nonnull final String localName) {
+		final int elementId = getElementId(XHTML_NAMESPACE_URI_STRING, localName);
+		checkArgument(elementId != UNKNOWN_ID, "Element `%s` is not defined.", localName);
+		return elementId;
+	}
+
+	/**
+	 * Returns the local name of an HTML element.
+	 * @param elementId The identifier of the element.
+	 * @return The local name of the element, the same instance as the constant defined in {@link HTML}.
+	 * @throws IndexOutOfBoundsException if the identifier is not valid.
+	 */
+	public static String getElementName(final int elementId) {
+		return ELEMENT_NAMES[elementId];
+	}
+
+	/**
+	 * Determines whether an element is one of the {@link HTML#EMPTY_ELEMENTS}.
+	 * @param elementId The identifier of the element, or {@link #UNKNOWN_ID}.
+	 * @return <code>true</code> if the identified element must be empty.
+	 */
+	public static boolean isEmptyElement(final int elementId) {
+		return elementId != UNKNOWN_ID && EMPTY_ELEMENT_FLAGS[elementId];
+	}
+
+	/**
+	 * Determines whether an element is one of the {@link HTML#VOID_ELEMENTS}.
+	 * @param elementId The identifier of the element, or {@link #UNKNOWN_ID}.
+	 * @return <code>true</code> if the identified element is an HTML5 void element.
+	 */
+	public static boolean isVoidElement(final int elementId) {
+		return elementId != UNKNOWN_ID && VOID_ELEMENT_FLAGS[elementId];
+	}
+
+	/**
+	 * Determines whether an element is one of the {@link HTML#BLOCK_ELEMENTS}.
+	 * @param elementId The identifier of the element, or {@link #UNKNOWN_ID}.
+	 * @return <code>true</code> if the identified element is a block element.
+	 */
+	public static boolean isBlockElement(final int elementId) {
+		return elementId != UNKNOWN_ID && BLOCK_ELEMENT_FLAGS[elementId];
+	}
+
+	//# attributes
+
+	/** @return The number of attribute identifiers; valid identifiers range from zero to one less than this value. */
+	public static int getAttributeCount() {
+		return ATTRIBUTE_NAMES.length;
+	}
+
+	/**
+	 * Returns the identifier of an HTML attribute.
+	 * @param namespaceURI The namespace of the attribute, or <code>null</code> if the attribute is in no namespace.
+	 * @param localName The local name of the attribute, or <code>null</code> if the attribute has no local name, as when created by DOM Level 1 methods.
+	 * @return The identifier of the attribute, or {@link #UNKNOWN_ID} if the attribute is in a namespace or is not defined in {@link HTML}.
+	 */
+	public static int getAttributeId(@Nullable final String namespaceURI, @Nullable final String localName) {
+		if(localName == null || namespaceURI != null) {
+			return UNKNOWN_ID;
+		}
+		return lookup(ATTRIBUTE_TABLE, ATTRIBUTE_NAMES, localName);
+	}
+
+	/**
+	 * Returns the local name of an HTML attribute.
+	 * @param attributeId The identifier of the attribute.
+	 * @return The local name of the attribute, the same instance as the constant defined in {@link HTML}.
+	 * @throws IndexOutOfBoundsException if the identifier is not valid.
+	 */
+	public static String getAttributeName(final int attributeId) {
+		return ATTRIBUTE_NAMES[attributeId];
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html.def;
+
+import static com.globalmentor.html.def.HTML.*;
+import static com.globalmentor.html.def.HtmlNames.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.*;
+
+import com.globalmentor.xml.def.NsName;
+
+/**
+ * Tests of {@link HtmlNames}.
+ * @author Garret Wilson
+ */
+public class HtmlNamesTest {
+
+	/** @see HtmlNames#getElementId(String, String) */
+	@Test
+	public void testElementIdsRoundTrip() {
+		assertThat(getElementCount(), is(greaterThan(100)));
+		for(int elementId = 0; elementId < getElementCount(); elementId++) {
+			final String elementName = getElementName(elementId);
+			assertThat(elementName, getElementId(XHTML_NAMESPACE_URI_STRING, elementName), is(elementId));
+			assertThat("Element lookup does not depend on interned names.", getElementId(XHTML_NAMESPACE_URI_STRING, new String(elementName)), is(elementId));
+			if(elementId > 0) {
+				assertThat("Element identifiers are assigned in alphabetical order.", getElementName(elementId - 1), is(lessThan(elementName)));
+			}
+		}
+		assertThat(getElementName(getElementId(XHTML_NAMESPACE_URI_STRING, ELEMENT_DIV)), is(sameInstance(ELEMENT_DIV)));
+	}
+
+	/** @see HtmlNames#getElementId(String, String) */
+	@Test
+	public void testUnknownElementIds() {
+		assertThat(getElementId(XHTML_NAMESPACE_URI_STRING, "foo"), is(UNKNOWN_ID));
+		assertThat(getElementId(XHTML_NAMESPACE_URI_STRING, "DIV"), is(UNKNOWN_ID));
+		assertThat(getElementId(XHTML_NAMESPACE_URI_STRING, null), is(UNKNOWN_ID));
+		assertThat(getElementId(null, ELEMENT_DIV), is(UNKNOWN_ID));
+		assertThat(getElementId("http://www.w3.org/2000/svg", ELEMENT_A), is(UNKNOWN_ID));
+		assertThrows(IndexOutOfBoundsException.class, () -> getElementName(UNKNOWN_ID));
+		assertThrows(IndexOutOfBoundsException.class, () -> getElementName(getElementCount()));
+	}
+
+	/** @see HtmlNames#getDefinedElementId(String) */
+	@Test
+	public void testGetDefinedElementId() {
+		assertThat(getDefinedElementId(ELEMENT_SCRIPT), is(getElementId(XHTML_NAMESPACE_URI_STRING, ELEMENT_SCRIPT)));
+		assertThat(getDefinedElementId(ELEMENT_SCRIPT), is(not(UNKNOWN_ID)));
+		assertThrows(IllegalArgumentException.class, () -> getDefinedElementId("foo"));
+	}
+
+	/**
+	 * @see HtmlNames#isEmptyElement(int)
+	 * @see HtmlNames#isVoidElement(int)
+	 * @see HtmlNames#isBlockElement(int)
+	 */
+	@Test
+	public void testElementFlags() {
+		for(int elementId = 0; elementId < getElementCount(); elementId++) {
+			final NsName element = NsName.of(XHTML_NAMESPACE_URI_STRING, getElementName(elementId));
+			assertThat(element.toString(), isEmptyElement(elementId), is(EMPTY_ELEMENTS.contains(element)));
+			assertThat(element.toString(), isVoidElement(elementId), is(VOID_ELEMENTS.contains(element)));
+			assertThat(element.toString(), isBlockElement(elementId), is(BLOCK_ELEMENTS.contains(element)));
+		}
+		assertThat(isVoidElement(getDefinedElementId(ELEMENT_BR)), is(true));
+		assertThat(isVoidElement(getDefinedElementId(ELEMENT_FRAME)), is(false));
+		assertThat(isEmptyElement(getDefinedElementId(ELEMENT_FRAME)), is(true));
+		assertThat(isBlockElement(getDefinedElementId(ELEMENT_DIV)), is(true));
+		assertThat(isBlockElement(getDefinedElementId(ELEMENT_SPAN)), is(false));
+		assertThat(isEmptyElement(UNKNOWN_ID), is(false));
+		assertThat(isVoidElement(UNKNOWN_ID), is(false));
+		assertThat(isBlockElement(UNKNOWN_ID), is(false));
+	}
+
+	/** @see HtmlNames#getAttributeId(String, String) */
+	@Test
+	public void testAttributeIds() {
+		assertThat(getAttributeCount(), is(greaterThan(50)));
+		for(int attributeId = 0; attributeId < getAttributeCount(); attributeId++) {
+			final String attributeName = getAttributeName(attributeId);
+			assertThat(attributeName, getAttributeId(null, attributeName), is(attributeId));
+			assertThat("Attribute lookup does not depend on interned names.", getAttributeId(null, new String(attributeName)), is(attributeId));
+			assertThat("Attribute names are lowercase.", attributeName, is(attributeName.toLowerCase(Locale.ROOT)));
+		}
+		assertThat(getAttributeId(null, ELEMENT_IFRAME_ATTRIBUTE_ALLOW_TRANSPARENCY), is(UNKNOWN_ID));
+		assertThat(getAttributeName(getAttributeId(null, ATTRIBUTE_CLASS)), is(sameInstance(ATTRIBUTE_CLASS)));
+		assertThat(getAttributeId(null, "foo"), is(UNKNOWN_ID));
+		assertThat(getAttributeId(null, null), is(UNKNOWN_ID));
+		assertThat(getAttributeId(XHTML_NAMESPACE_URI_STRING, ATTRIBUTE_CLASS), is(UNKNOWN_ID));
+	}
+
+}
@@ -17,12 +17,16 @@
 package com.globalmentor.html;
 
 import static com.globalmentor.html.def.HTML.*;
+import static com.globalmentor.util.Optionals.*;
+import static com.globalmentor.xml.XmlDom.*;
 import static java.util.stream.Collectors.*;
 import static java.util.stream.Stream.*;
 
 import java.util.*;
 import java.util.stream.Stream;
 
+import org.w3c.dom.*;
+
 import com.globalmentor.html.def.HTML;
 import com.globalmentor.java.Characters;
 import com.globalmentor.xml.AbstractXmlFormatProfile;
@@ -32,6 +36,7 @@
  * A base format profile for HTML formatting.
  * @author Garret Wilson
  * @see HTML#SPACE_CHARACTERS
+ * @see XML#ATTRIBUTE_SPACE
  */
 public abstract class BaseHtmlFormatProfile extends AbstractXmlFormatProfile {
 
@@ -60,7 +65,9 @@ public abstract class BaseHtmlFormatProfile extends AbstractXmlFormatProfile {
 			//<script>
 			NsName.of(XHTML_NAMESPACE_URI_STRING, ELEMENT_SCRIPT),
 			//<style>
-			NsName.of(XHTML_NAMESPACE_URI_STRING, ELEMENT_STYLE));
+			NsName.of(XHTML_NAMESPACE_URI_STRING, ELEMENT_STYLE),
+			//<textarea>
+			NsName.of(XHTML_NAMESPACE_URI_STRING, ELEMENT_TEXTAREA));
 
 	/**
 	 * {@inheritDoc}
@@ -98,7 +105,24 @@ protected boolean isBreak(final NsName element) {
 
 	/**
 	 * {@inheritDoc}
-	 * @implSpec This implementation preserves space of HTML <code>&lt;pre&gt;</code> and <code>&lt;script&gt;</code> elements.
+	 * @implSpec This implementation considers an element to preserve formatting if its <code>xml:space</code> attribute is set to
+	 *           {@value XML#ATTRIBUTE_SPACE_PRESERVE}. Otherwise it delegates to {@link #isPreserved(NsName)}.
+	 * @see XML#ATTRIBUTE_SPACE
+	 * @see XML#ATTRIBUTE_SPACE_PRESERVE
+	 */
+	@Override
+	public boolean isPreserved(final Element element) {
+		if(isPresentAndEquals(findAttribute(element, XML.ATTRIBUTE_SPACE), XML.ATTRIBUTE_SPACE_PRESERVE)) {
+			return true;
+		}
+		return super.isPreserved(element);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation preserves space of HTML <code>&lt;pre&gt;</code>, <code>&lt;script&gt;</code>, <code>&lt;style&gt;</code>, and
+	 *           <code>&lt;textarea&gt;</code> elements.
+	 * @see #PRESERVED_ELEMENTS
 	 */
 	@Override
 	protected boolean isPreserved(final NsName element) {
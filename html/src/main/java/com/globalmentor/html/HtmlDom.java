@@ -439,6 +439,16 @@ public static Optional<String> findTitle(@Nonnull final Document document) {
 		return findHtmlHeadTitleElement(document).map(Element::getTextContent);
 	}
 
+	/**
+	 * Creates an indexed view of the named {@code <html><head><meta>} elements of an HTML document, for efficiently looking up and setting many metadata values.
+	 * @param document The XHTML document tree.
+	 * @return A view of the named metadata of the document, indexed by name.
+	 * @see HtmlHeadMetadata
+	 */
+	public static HtmlHeadMetadata htmlHeadMetadata(@Nonnull final Document document) {
+		return new HtmlHeadMetadata(document);
+	}
+
 	/**
 	 * Finds the {@code <html><head><meta>} elements that have a <code>name</code>, returning the name and <code>content</code> as name-value pairs. Note that it
 	 * is possible for a returned metadata name to be the empty string. Note also that while a named {@code <meta>} element is supposed to have a
@@ -514,6 +524,7 @@ public static Element setNamedMetadata(@Nonnull Document document, @Nonnull Map.
 	 * @see HTML#ELEMENT_META
 	 * @see HTML#ELEMENT_META_ATTRIBUTE_NAME
 	 * @see HTML#ELEMENT_META_ATTRIBUTE_CONTENT
+	 * @see #htmlHeadMetadata(Document)
 	 */
 	public static Element setNamedMetadata(@Nonnull Document document, @Nonnull final String metaName, @Nonnull final String metaContent) {
 		requireNonNull(metaName);
@@ -550,6 +561,8 @@ public static Element addNamedMetadata(@Nonnull Element headElement, @Nonnull fi
 
 	/**
 	 * Finds the first {@code <html><head><meta>} element with the given name. The meta name is matched in an ASCII case insensitive manner.
+	 * @apiNote This method searches all the {@code <meta>} elements each time it is called. To access many metadata values in the same document, use the
+	 *          indexed view returned by {@link #htmlHeadMetadata(Document)} instead.
 	 * @param document The XHTML document tree.
 	 * @param metaName The name of the meta element to return.
 	 * @return The first {@code <html><head><meta>} element with the given name, ASCII case insensitive, if found.
@@ -579,6 +592,7 @@ public static Optional<Element> findHtmlHeadMetaElementByName(@Nonnull final Doc
 	 * @see HTML#ELEMENT_META_ATTRIBUTE_CONTENT
 	 * @see ASCII#equalsIgnoreCase(CharSequence, CharSequence)
 	 * @see <a href="https://www.w3.org/TR/html52/document-metadata.html#the-meta-element">HTML 5.2 § 4.2.5. The meta element</a>
+	 * @see #htmlHeadMetadata(Document)
 	 */
 	public static Optional<String> findHtmlHeadMetaElementContent(@Nonnull final Document document, @Nonnull final String metaName) {
 		//getAttributeNS() is supposed to return an empty string for missing content, which matches the HTML default "" for no specified content
@@ -590,9 +604,11 @@ public static Optional<String> findHtmlHeadMetaElementContent(@Nonnull final Doc
 	/**
 	 * Merges the attributes of some element into the target element in an HTML-aware manner. If an attribute exists in the other element, its value will replace
 	 * the value, if any, in the target element. Any target element attributes not present in the other element will remain. If the target element is an HTML
-	 * element, the {@value HTML#ATTRIBUTE_CLASS} attribute, if any, will be merged by the individual class names, not by the entire attribute value.
+	 * element, the {@value HTML#ATTRIBUTE_CLASS} attribute, if any, will be merged by the individual class names, not by the entire attribute value; the resulting
+	 * {@value HTML#ATTRIBUTE_CLASS} attribute is normalized, with duplicate class names removed and the class names separated by single spaces.
 	 * @apiNote This method functions similarly to {@link XmlDom#mergeAttributesNS(Element, Element)} except that the {@value HTML#ATTRIBUTE_CLASS} attribute is
 	 *          treated specially.
+	 * @implSpec This implementation delegates to {@link #mergeAttributes(Element, Iterable)}.
 	 * @implNote Any attribute value set or updated by this method will use the namespace prefix of the other element, which means that even if the target element
 	 *           contains an attribute with the same value, its namespace prefix may change. Although the namespace URI is guaranteed to be correct, no checks are
 	 *           performed to ensure that the target document has defined the new namespace prefix, if any.
@@ -602,21 +618,39 @@ public static Optional<String> findHtmlHeadMetaElementContent(@Nonnull final Doc
 	 * @see HTML#ATTRIBUTE_CLASS
 	 */
 	public static void mergeAttributes(@Nonnull final Element targetElement, @Nonnull final Element element) {
+		mergeAttributes(targetElement, List.of(element));
+	}
+
+	/**
+	 * Merges the attributes of several elements, in order, into the target element in an HTML-aware manner, as if {@link #mergeAttributes(Element, Element)} were
+	 * called for each element. If the target element is an HTML element, the class names of all the elements are accumulated and the
+	 * {@value HTML#ATTRIBUTE_CLASS} attribute of the target element is updated at most once. As with {@link #mergeAttributes(Element, Element)}, the resulting
+	 * {@value HTML#ATTRIBUTE_CLASS} attribute is normalized, with duplicate class names removed and the class names separated by single spaces, even if no new
+	 * class names were merged.
+	 * @implNote Any attribute value set or updated by this method will use the namespace prefix of the other element, which means that even if the target element
+	 *           contains an attribute with the same value, its namespace prefix may change. Although the namespace URI is guaranteed to be correct, no checks are
+	 *           performed to ensure that the target document has defined the new namespace prefix, if any.
+	 * @param targetElement The element into which the attributes will be merged.
+	 * @param elements The elements the attributes of which will be merged into the target element.
+	 * @see Element#setAttributeNS(String, String, String)
+	 * @see HTML#ATTRIBUTE_CLASS
+	 */
+	public static void mergeAttributes(@Nonnull final Element targetElement, @Nonnull final Iterable<? extends Element> elements) {
 		final boolean isTargetHtml = XHTML_NAMESPACE_URI_STRING.equals(targetElement.getNamespaceURI());
-		Stream<Attr> attributes = attributesOf(element);
-		if(isTargetHtml) { //skip the class attribute if this is HTML, to treat it specially later
-			attributes = attributes.filter(attr -> !attr.getLocalName().equals(ATTRIBUTE_CLASS) || attr.getNamespaceURI() != null);
-		}
-		mergeAttributesNS(targetElement, attributes);
-		if(isTargetHtml) { //for HTML, merge the contents of the class attribute as individual class name tokens
-			final Set<String> targetClasses = getClasses(targetElement);
-			final Set<String> classes = getClasses(element);
-			if(!targetClasses.isEmpty() || !classes.isEmpty()) { //if there are no classes on either side, there is nothing to merge
-				final Set<String> mergedClasses = new LinkedHashSet<>(targetClasses); //maintain order for aesthetics
-				mergedClasses.addAll(classes);
-				targetElement.setAttributeNS(null, ATTRIBUTE_CLASS, String.join(String.valueOf(SPACE_CHAR), mergedClasses));
+		final Set<String> mergedClasses = isTargetHtml ? new LinkedHashSet<>(getClasses(targetElement)) : null; //maintain order for aesthetics
+		for(final Element element : elements) {
+			forEachAttribute(element, attr -> { //skip the class attribute if this is HTML, to treat it specially later
+				if(!isTargetHtml || !attr.getLocalName().equals(ATTRIBUTE_CLASS) || attr.getNamespaceURI() != null) {
+					targetElement.setAttributeNS(attr.getNamespaceURI(), attr.getName(), attr.getValue());
+				}
+			});
+			if(isTargetHtml) { //for HTML, merge the contents of the class attribute as individual class name tokens
+				mergedClasses.addAll(getClasses(element));
 			}
 		}
+		if(isTargetHtml && !mergedClasses.isEmpty()) { //if there are no classes on either side, there is nothing to merge
+			targetElement.setAttributeNS(null, ATTRIBUTE_CLASS, String.join(String.valueOf(SPACE_CHAR), mergedClasses));
+		}
 	}
 
 	//##class
@@ -640,4 +674,199 @@ public static Set<String> getClasses(@Nonnull final Element element) {
 		return new LinkedHashSet<>(SPACE_CHARACTERS.split(element.getAttributeNS(null, ATTRIBUTE_CLASS)));
 	}
 
+	/**
+	 * Determines whether an element has a class name among the tokens of its <code>class</code> attribute, without splitting the attribute value.
+	 * @apiNote As with {@link #getClasses(Element)}, this method makes no checks of whether the given element is in the XHTML namespace or not.
+	 * @param element The element on which a <code>class</code> attribute may be defined.
+	 * @param className The class name to check.
+	 * @return <code>true</code> if the given class name appears in the <code>class</code> attribute, if any, of the given element.
+	 * @throws IllegalArgumentException if the class name is empty or contains a space character.
+	 * @see HTML#ATTRIBUTE_CLASS
+	 */
+	public static boolean hasClass(@Nonnull final Element element, @Nonnull final String className) {
+		checkClassName(className);
+		return indexOfClass(element.getAttributeNS(null, ATTRIBUTE_CLASS), className) >= 0;
+	}
+
+	/**
+	 * Adds a class name to the <code>class</code> attribute of an element if it is not already present, appending it to the existing attribute value.
+	 * @param element The element to which the class should be added.
+	 * @param className The class name to add.
+	 * @return <code>true</code> if the class name was added, or <code>false</code> if it was already present.
+	 * @throws IllegalArgumentException if the class name is empty or contains a space character.
+	 * @see HTML#ATTRIBUTE_CLASS
+	 */
+	public static boolean addClass(@Nonnull final Element element, @Nonnull final String className) {
+		checkClassName(className);
+		final String classes = element.getAttributeNS(null, ATTRIBUTE_CLASS);
+		if(indexOfClass(classes, className) >= 0) {
+			return false;
+		}
+		final boolean isSeparatorNeeded = !classes.isEmpty() && !SPACE_CHARACTERS.contains(classes.charAt(classes.length() - 1));
+		element.setAttributeNS(null, ATTRIBUTE_CLASS, isSeparatorNeeded ? classes + SPACE_CHAR + className : classes + className);
+		return true;
+	}
+
+	/**
+	 * Removes a class name from the <code>class</code> attribute of an element. If the class name is present, the remaining class names are separated by single
+	 * spaces, and if no class names remain the <code>class</code> attribute is removed altogether.
+	 * @param element The element from which the class should be removed.
+	 * @param className The class name to remove.
+	 * @return <code>true</code> if the class name was removed, or <code>false</code> if it was not present.
+	 * @throws IllegalArgumentException if the class name is empty or contains a space character.
+	 * @see HTML#ATTRIBUTE_CLASS
+	 */
+	public static boolean removeClass(@Nonnull final Element element, @Nonnull final String className) {
+		checkClassName(className);
+		final String classes = element.getAttributeNS(null, ATTRIBUTE_CLASS);
+		if(indexOfClass(classes, className) < 0) {
+			return false;
+		}
+		final StringBuilder classesBuilder = new StringBuilder(classes.length());
+		final int length = classes.length();
+		int index = 0;
+		while(index < length) {
+			while(index < length && SPACE_CHARACTERS.contains(classes.charAt(index))) {
+				index++;
+			}
+			final int tokenStart = index;
+			while(index < length && !SPACE_CHARACTERS.contains(classes.charAt(index))) {
+				index++;
+			}
+			final int tokenLength = index - tokenStart;
+			final boolean isRemoved = tokenLength == className.length() && classes.regionMatches(tokenStart, className, 0, tokenLength);
+			if(tokenLength > 0 && !isRemoved) { //keep other class names, normalizing the separators
+				if(classesBuilder.length() > 0) {
+					classesBuilder.append(SPACE_CHAR);
+				}
+				classesBuilder.append(classes, tokenStart, index);
+			}
+		}
+		if(classesBuilder.length() > 0) {
+			element.setAttributeNS(null, ATTRIBUTE_CLASS, classesBuilder.toString());
+		} else {
+			element.removeAttributeNS(null, ATTRIBUTE_CLASS);
+		}
+		return true;
+	}
+
+	/**
+	 * Toggles a class name in the <code>class</code> attribute of an element, removing it if present and adding it otherwise.
+	 * @param element The element the class of which should be toggled.
+	 * @param className The class name to toggle.
+	 * @return <code>true</code> if the class name is now present, or <code>false</code> if it was removed.
+	 * @throws IllegalArgumentException if the class name is empty or contains a space character.
+	 * @see #addClass(Element, String)
+	 * @see #removeClass(Element, String)
+	 */
+	public static boolean toggleClass(@Nonnull final Element element, @Nonnull final String className) {
+		return !removeClass(element, className) && addClass(element, className);
+	}
+
+	/**
+	 * Merges class names into the <code>class</code> attribute of an element, appending those not already present in order and leaving the existing attribute
+	 * value otherwise unchanged.
+	 * @param element The element into which the classes should be merged.
+	 * @param classes The space-separated class names to merge, as they would appear in a <code>class</code> attribute.
+	 * @return <code>true</code> if any class names were added.
+	 * @see HTML#ATTRIBUTE_CLASS
+	 */
+	public static boolean mergeClasses(@Nonnull final Element element, @Nonnull final CharSequence classes) {
+		final StringBuilder classesBuilder = new StringBuilder(element.getAttributeNS(null, ATTRIBUTE_CLASS));
+		if(!appendClasses(classesBuilder, new HashSet<>(getClasses(element)), classes)) {
+			return false;
+		}
+		element.setAttributeNS(null, ATTRIBUTE_CLASS, classesBuilder.toString());
+		return true;
+	}
+
+	/**
+	 * Appends to a set of class names those tokens in another set of class names not already present.
+	 * @param classesBuilder The space-separated class names to which classes should be appended.
+	 * @param classNames The class names already present in the builder, for efficient lookup; appended class names will be added.
+	 * @param classes The space-separated class names to append.
+	 * @return <code>true</code> if any class names were appended.
+	 */
+	private static boolean appendClasses(@Nonnull final StringBuilder classesBuilder, @Nonnull final Set<String> classNames,
+			@Nonnull final CharSequence classes) {
+		boolean isModified = false;
+		final int length = classes.length();
+		int index = 0;
+		while(index < length) {
+			while(index < length && SPACE_CHARACTERS.contains(classes.charAt(index))) {
+				index++;
+			}
+			final int tokenStart = index;
+			while(index < length && !SPACE_CHARACTERS.contains(classes.charAt(index))) {
+				index++;
+			}
+			if(index > tokenStart && classNames.add(classes.subSequence(tokenStart, index).toString())) {
+				final int builderLength = classesBuilder.length();
+				if(builderLength > 0 && !SPACE_CHARACTERS.contains(classesBuilder.charAt(builderLength - 1))) {
+					classesBuilder.append(SPACE_CHAR);
+				}
+				classesBuilder.append(classes, tokenStart, index);
+				isModified = true;
+			}
+		}
+		return isModified;
+	}
+
+	/**
+	 * Finds a class name among the space-separated tokens of a <code>class</code> attribute value.
+	 * @param classes The space-separated class names to search.
+	 * @param className The class name to find.
+	 * @return The index of the class name token, or <code>-1</code> if the class name does not appear as a token.
+	 */
+	private static int indexOfClass(@Nonnull final CharSequence classes, @Nonnull final CharSequence className) {
+		return indexOfClass(classes, className, 0, className.length());
+	}
+
+	/**
+	 * Finds a class name, given as a range of characters, among the space-separated tokens of a <code>class</code> attribute value.
+	 * @param classes The space-separated class names to search.
+	 * @param classNameSource The characters containing the class name to find.
+	 * @param classNameStart The index of the start of the class name, inclusive.
+	 * @param classNameEnd The index of the end of the class name, exclusive.
+	 * @return The index of the class name token, or <code>-1</code> if the class name does not appear as a token.
+	 */
+	private static int indexOfClass(@Nonnull final CharSequence classes, @Nonnull final CharSequence classNameSource, final int classNameStart,
+			final int classNameEnd) {
+		final int classNameLength = classNameEnd - classNameStart;
+		final int length = classes.length();
+		int index = 0;
+		while(index < length) {
+			while(index < length && SPACE_CHARACTERS.contains(classes.charAt(index))) {
+				index++;
+			}
+			final int tokenStart = index;
+			while(index < length && !SPACE_CHARACTERS.contains(classes.charAt(index))) {
+				index++;
+			}
+			if(index - tokenStart == classNameLength && classNameLength > 0) {
+				int i = 0;
+				while(i < classNameLength && classes.charAt(tokenStart + i) == classNameSource.charAt(classNameStart + i)) {
+					i++;
+				}
+				if(i == classNameLength) {
+					return tokenStart;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks that a class name is a valid token for a <code>class</code> attribute.
+	 * @param className The class name to check.
+	 * @throws IllegalArgumentException if the class name is empty or contains a space character.
+	 * @see HTML#SPACE_CHARACTERS
+	 */
+	private static void checkClassName(@Nonnull final String className) {
+		checkArgument(!className.isEmpty(), "Class name must not be empty.");
+		for(int i = className.length() - 1; i >= 0; i--) {
+			checkArgument(!SPACE_CHARACTERS.contains(className.charAt(i)), "Class name `%s` must not contain space characters.", className);
+		}
+	}
+
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html;
+
+import static com.globalmentor.html.HtmlDom.*;
+import static com.globalmentor.html.def.HTML.*;
+import static java.util.Collections.*;
+import static java.util.Objects.*;
+
+import java.util.*;
+
+import javax.annotation.*;
+
+import org.w3c.dom.*;
+
+import com.globalmentor.html.def.HTML;
+import com.globalmentor.text.ASCII;
+
+/**
+ * An indexed view of the named metadata of an HTML document, that is, the {@code <html><head><meta>} elements having a
+ * {@value HTML#ELEMENT_META_ATTRIBUTE_NAME} attribute.
+ * <p>
+ * The {@code <meta>} elements are indexed by name in a single pass when the view is created, so that each subsequent lookup takes constant time rather than
+ * searching all the {@code <meta>} elements as {@link HtmlDom#findHtmlHeadMetaElementByName(Document, String)} does. Metadata names are matched in an ASCII
+ * case-insensitive manner; as with {@link HtmlDom#findHtmlHeadMetaElementByName(Document, String)}, if several {@code <meta>} elements have the same name, the
+ * first one in document order is used.
+ * </p>
+ * <p>
+ * The index is kept consistent with metadata set or added using {@link #set(String, String)} and {@link #add(String, String)}. Changes made to the
+ * {@code <meta>} elements of the document by other means, including changes to the {@value HTML#ELEMENT_META_ATTRIBUTE_NAME} attribute of an indexed element,
+ * are not reflected in the index; create a new view after such changes.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ * @author Garret Wilson
+ * @see HtmlDom#htmlHeadMetadata(Document)
+ * @see <a href="https://www.w3.org/TR/html52/document-metadata.html#the-meta-element">HTML 5.2 § 4.2.5. The meta element</a>
+ */
+public class HtmlHeadMetadata {
+
+	private final Document document;
+
+	/** @return The XHTML document tree. */
+	public Document getDocument() {
+		return document;
+	}
+
+	/** The {@code <html><head>} element, or <code>null</code> if the document has none. */
+	@Nullable
+	private final Element headElement;
+
+	/** The first {@code <meta>} element for each name, normalized to ASCII lowercase, in document order. */
+	private final Map<String, Element> metaElementsByName = new LinkedHashMap<>();
+
+	/**
+	 * Document constructor. The named {@code <html><head><meta>} elements of the document are indexed immediately.
+	 * @param document The XHTML document tree.
+	 */
+	public HtmlHeadMetadata(@Nonnull final Document document) {
+		this.document = requireNonNull(document);
+		this.headElement = findHtmlHeadElement(document).orElse(null);
+		htmlHeadMetaElements(document).forEach(metaElement -> {
+			final Attr nameAttribute = metaElement.getAttributeNodeNS(null, ELEMENT_META_ATTRIBUTE_NAME);
+			if(nameAttribute != null) {
+				metaElementsByName.putIfAbsent(ASCII.toLowerCaseString(nameAttribute.getValue()), metaElement);
+			}
+		});
+	}
+
+	/**
+	 * Returns the names of the metadata present, normalized to ASCII lowercase, in document order of the first {@code <meta>} element with each name.
+	 * @return The metadata names.
+	 */
+	public Set<String> getNames() {
+		return unmodifiableSet(metaElementsByName.keySet());
+	}
+
+	/**
+	 * Finds the first {@code <html><head><meta>} element with the given name, matched in an ASCII case insensitive manner.
+	 * @param metaName The name of the meta element to return.
+	 * @return The first {@code <html><head><meta>} element with the given name, if found.
+	 * @see HtmlDom#findHtmlHeadMetaElementByName(Document, String)
+	 */
+	public Optional<Element> findElementByName(@Nonnull final String metaName) {
+		return Optional.ofNullable(metaElementsByName.get(ASCII.toLowerCaseString(metaName)));
+	}
+
+	/**
+	 * Finds the {@value HTML#ELEMENT_META_ATTRIBUTE_CONTENT} attribute of the first {@code <html><head><meta>} element with the given name, matched in an ASCII
+	 * case insensitive manner. If a metadata element has a name but no content attribute, an empty string is returned as per the HTML specification.
+	 * @param metaName The name of the meta element the content of which to return.
+	 * @return The content of the first {@code <html><head><meta>} element with the given name, if found.
+	 * @see HtmlDom#findHtmlHeadMetaElementContent(Document, String)
+	 */
+	public Optional<String> findContent(@Nonnull final String metaName) {
+		return findElementByName(metaName).map(metaElement -> metaElement.getAttributeNS(null, ELEMENT_META_ATTRIBUTE_CONTENT));
+	}
+
+	/**
+	 * Sets named metadata. If an existing {@code <html><head><meta>} element exists with the given ASCII case-insensitive <code>name</code>, its
+	 * <code>content</code> attribute is updated to the given value (and its name is not changed); otherwise, a new metadata element is added with the given name
+	 * and value, and indexed.
+	 * @param metaName The name of the metadata to set.
+	 * @param metaContent The metadata value to set.
+	 * @return The {@code <html><head><meta>} element that was added or updated.
+	 * @throws IllegalArgumentException if a new element is needed and the document has no {@code <html><head>} element.
+	 * @see HtmlDom#setNamedMetadata(Document, String, String)
+	 */
+	public Element set(@Nonnull final String metaName, @Nonnull final String metaContent) {
+		requireNonNull(metaContent);
+		final Element existingMetaElement = metaElementsByName.get(ASCII.toLowerCaseString(metaName));
+		if(existingMetaElement != null) {
+			existingMetaElement.setAttributeNS(null, ELEMENT_META_ATTRIBUTE_CONTENT, metaContent);
+			return existingMetaElement;
+		}
+		return add(metaName, metaContent);
+	}
+
+	/**
+	 * Adds named metadata as a new {@code <meta>} element at the end of the {@code <html><head>} element, indexing it if there is no other {@code <meta>} element
+	 * with the same name.
+	 * @param metaName The name of the metadata to add.
+	 * @param metaContent The metadata value to add.
+	 * @return The {@code <meta>} element that was added.
+	 * @throws IllegalArgumentException if the document has no {@code <html><head>} element.
+	 * @see HtmlDom#addNamedMetadata(Element, String, String)
+	 */
+	public Element add(@Nonnull final String metaName, @Nonnull final String metaContent) {
+		if(headElement == null) {
+			throw new IllegalArgumentException("Missing <html><head> element for adding child <meta> element.");
+		}
+		final Element metaElement = addNamedMetadata(headElement, metaName, metaContent);
+		metaElementsByName.putIfAbsent(ASCII.toLowerCaseString(metaName), metaElement); //an earlier element with the same name takes precedence
+		return metaElement;
+	}
+
+}
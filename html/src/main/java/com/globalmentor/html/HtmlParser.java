@@ -0,0 +1,782 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html;
+
+import static com.globalmentor.html.def.HTML.*;
+import static com.globalmentor.xml.XmlDom.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.util.*;
+
+import javax.annotation.*;
+
+import org.w3c.dom.*;
+
+import com.globalmentor.html.def.HTML;
+import com.globalmentor.mathml.def.MathML;
+import com.globalmentor.model.ConfiguredStateException;
+import com.globalmentor.svg.def.SVG;
+import com.globalmentor.xml.def.XML;
+
+/**
+ * Parses HTML5 markup, which need not be well-formed, into a DOM document with elements in the {@link HTML#XHTML_NAMESPACE_URI} namespace, suitable for use
+ * with {@link HtmlDom} and {@link HtmlSerializer}.
+ * <p>
+ * Tokens are produced by an {@link HtmlTokenizer} and processed directly by a tree builder, which implements the parts of the HTML5 tree construction
+ * algorithm most important for real-world markup:
+ * </p>
+ * <ul>
+ * <li>The {@code <html>}, {@code <head>}, and {@code <body>} elements are always created, with metadata content placed in the head if it appears before the
+ * body.</li>
+ * <li>Void elements such as {@code <br>} never have content.</li>
+ * <li>End tags are implied for elements such as {@code <p>}, {@code <li>}, {@code <dt>}, {@code <dd>}, {@code <option>}, table rows and cells, and headings;
+ * and missing {@code <tbody>} and {@code <tr>} elements are inserted for table content.</li>
+ * <li>Unmatched end tags are ignored, and an end tag closes any unclosed elements nested within its element.</li>
+ * <li>The {@code <svg>} and {@code <math>} elements and their descendants are placed in the SVG and MathML namespaces, respectively, with self-closing tags
+ * honored.</li>
+ * </ul>
+ * <p>
+ * This class is not thread-safe; a separate parser should be used for each thread.
+ * </p>
+ * @implNote This implementation does not implement the HTML5 adoption agency algorithm for misnested formatting elements, the reconstruction of active
+ *           formatting elements, or foster parenting of misplaced table content; in these cases the resulting tree may differ from that produced by a browser.
+ * @author Garret Wilson
+ * @see <a href="https://html.spec.whatwg.org/multipage/parsing.html#tree-construction">HTML Living Standard § 13.2.6 Tree construction</a>
+ */
+public class HtmlParser {
+
+	/** Elements the start tag of which closes any open {@code <p>} element in button scope. */
+	private static final Set<String> P_CLOSING_ELEMENTS = Set.of(ELEMENT_ADDRESS, ELEMENT_ARTICLE, ELEMENT_ASIDE, ELEMENT_BLOCKQUOTE, ELEMENT_CENTER,
+			ELEMENT_DETAILS, ELEMENT_DIALOG, ELEMENT_DIR, ELEMENT_DIV, ELEMENT_DL, ELEMENT_DD, ELEMENT_DT, ELEMENT_FIELDSET, ELEMENT_FIGCAPTION, ELEMENT_FIGURE,
+			ELEMENT_FOOTER, ELEMENT_FORM, ELEMENT_H1, ELEMENT_H2, ELEMENT_H3, ELEMENT_H4, ELEMENT_H5, ELEMENT_H6, ELEMENT_HEADER, ELEMENT_HGROUP, ELEMENT_HR,
+			ELEMENT_LI, ELEMENT_LISTING, ELEMENT_MAIN, ELEMENT_MENU, ELEMENT_NAV, ELEMENT_OL, ELEMENT_P, ELEMENT_PLAINTEXT, ELEMENT_PRE, ELEMENT_SECTION,
+			ELEMENT_SUMMARY, ELEMENT_TABLE, ELEMENT_UL, ELEMENT_XMP);
+
+	/** Heading elements. */
+	private static final Set<String> HEADING_ELEMENTS = Set.of(ELEMENT_H1, ELEMENT_H2, ELEMENT_H3, ELEMENT_H4, ELEMENT_H5, ELEMENT_H6);
+
+	/** Metadata elements which are placed in the head if they appear before the body. */
+	private static final Set<String> HEAD_ELEMENTS = Set.of(ELEMENT_BASE, ELEMENT_LINK, ELEMENT_META, ELEMENT_NOSCRIPT, ELEMENT_SCRIPT, ELEMENT_STYLE,
+			ELEMENT_TEMPLATE, ELEMENT_TITLE);
+
+	/** Void elements, which never have content. */
+	private static final Set<String> VOID_ELEMENT_NAMES = Set.of(ELEMENT_AREA, ELEMENT_BASE, ELEMENT_BASEFONT, ELEMENT_BGSOUND, ELEMENT_BR, ELEMENT_COL,
+			ELEMENT_EMBED, ELEMENT_FRAME, ELEMENT_HR, ELEMENT_IMG, ELEMENT_INPUT, ELEMENT_ISINDEX, ELEMENT_KEYGEN, ELEMENT_LINK, ELEMENT_META, ELEMENT_PARAM,
+			ELEMENT_SOURCE, ELEMENT_TRACK, ELEMENT_WBR);
+
+	/** Elements bounding the default scope. */
+	private static final Set<String> SCOPE_BOUNDARY_ELEMENTS = Set.of(ELEMENT_APPLET, ELEMENT_CAPTION, ELEMENT_HTML, ELEMENT_TABLE, ELEMENT_TD, ELEMENT_TH,
+			ELEMENT_MARQUEE, ELEMENT_OBJECT, ELEMENT_TEMPLATE);
+
+	/** Elements the end tag of which closes any unclosed elements nested within them, if the element is in scope. */
+	private static final Set<String> BLOCK_END_TAG_ELEMENTS = Set.of(ELEMENT_ADDRESS, ELEMENT_ARTICLE, ELEMENT_ASIDE, ELEMENT_BLOCKQUOTE, ELEMENT_BUTTON,
+			ELEMENT_CENTER, ELEMENT_DETAILS, ELEMENT_DIALOG, ELEMENT_DIR, ELEMENT_DIV, ELEMENT_DL, ELEMENT_FIELDSET, ELEMENT_FIGCAPTION, ELEMENT_FIGURE,
+			ELEMENT_FOOTER, ELEMENT_HEADER, ELEMENT_HGROUP, ELEMENT_LISTING, ELEMENT_MAIN, ELEMENT_MENU, ELEMENT_NAV, ELEMENT_OL, ELEMENT_PRE, ELEMENT_SECTION,
+			ELEMENT_SUMMARY, ELEMENT_UL, ELEMENT_DD, ELEMENT_DT);
+
+	/** Table elements the end tag of which closes any unclosed elements nested within them, if the element is in table scope. */
+	private static final Set<String> TABLE_END_TAG_ELEMENTS = Set.of(ELEMENT_TABLE, ELEMENT_TBODY, ELEMENT_THEAD, ELEMENT_TFOOT, ELEMENT_TR, ELEMENT_TD,
+			ELEMENT_TH, ELEMENT_CAPTION, ELEMENT_COLGROUP);
+
+	/** No elements bounding a scope in addition to those of the default scope. */
+	private static final Set<String> NO_ADDITIONAL_SCOPE_BOUNDARY_ELEMENTS = Set.of();
+
+	/** List item elements closed by the start tag of a {@code <li>} element. */
+	private static final Set<String> LIST_ITEM_ELEMENTS = Set.of(ELEMENT_LI);
+
+	/** Description list item elements closed by the start tag of a {@code <dd>} or {@code <dt>} element. */
+	private static final Set<String> DESCRIPTION_LIST_ITEM_ELEMENTS = Set.of(ELEMENT_DD, ELEMENT_DT);
+
+	/** Table row elements, to which open elements are closed before a table cell is inserted. */
+	private static final Set<String> TABLE_ROW_ELEMENTS = Set.of(ELEMENT_TR);
+
+	/** Elements bounding the list item scope, in addition to those of the default scope. */
+	private static final Set<String> LIST_ITEM_SCOPE_BOUNDARY_ELEMENTS = Set.of(ELEMENT_OL, ELEMENT_UL);
+
+	/** Elements bounding the button scope, in addition to those of the default scope. */
+	private static final Set<String> BUTTON_SCOPE_BOUNDARY_ELEMENTS = Set.of(ELEMENT_BUTTON);
+
+	/** Elements bounding the table scope. */
+	private static final Set<String> TABLE_SCOPE_BOUNDARY_ELEMENTS = Set.of(ELEMENT_HTML, ELEMENT_TABLE, ELEMENT_TEMPLATE);
+
+	/** Table section elements. */
+	private static final Set<String> TABLE_SECTION_ELEMENTS = Set.of(ELEMENT_TBODY, ELEMENT_THEAD, ELEMENT_TFOOT);
+
+	/**
+	 * The <dfn>special</dfn> elements, at which the search for an element to close stops.
+	 * @see <a href="https://html.spec.whatwg.org/multipage/parsing.html#special">HTML Living Standard § 13.2.4.2 The stack of open elements</a>
+	 */
+	private static final Set<String> SPECIAL_ELEMENTS = Set.of(ELEMENT_ADDRESS, ELEMENT_APPLET, ELEMENT_AREA, ELEMENT_ARTICLE, ELEMENT_ASIDE, ELEMENT_BASE,
+			ELEMENT_BASEFONT, ELEMENT_BGSOUND, ELEMENT_BLOCKQUOTE, ELEMENT_BODY, ELEMENT_BR, ELEMENT_BUTTON, ELEMENT_CAPTION, ELEMENT_CENTER, ELEMENT_COL,
+			ELEMENT_COLGROUP, ELEMENT_DD, ELEMENT_DETAILS, ELEMENT_DIR, ELEMENT_DIV, ELEMENT_DL, ELEMENT_DT, ELEMENT_EMBED, ELEMENT_FIELDSET, ELEMENT_FIGCAPTION,
+			ELEMENT_FIGURE, ELEMENT_FOOTER, ELEMENT_FORM, ELEMENT_FRAME, ELEMENT_FRAMESET, ELEMENT_H1, ELEMENT_H2, ELEMENT_H3, ELEMENT_H4, ELEMENT_H5, ELEMENT_H6,
+			ELEMENT_HEAD, ELEMENT_HEADER, ELEMENT_HGROUP, ELEMENT_HR, ELEMENT_HTML, ELEMENT_IFRAME, ELEMENT_IMG, ELEMENT_INPUT, ELEMENT_LI, ELEMENT_LINK,
+			ELEMENT_LISTING, ELEMENT_MAIN, ELEMENT_MARQUEE, ELEMENT_MENU, ELEMENT_META, ELEMENT_NAV, ELEMENT_NOEMBED, ELEMENT_NOFRAMES, ELEMENT_NOSCRIPT,
+			ELEMENT_OBJECT, ELEMENT_OL, ELEMENT_P, ELEMENT_PARAM, ELEMENT_PLAINTEXT, ELEMENT_PRE, ELEMENT_SCRIPT, ELEMENT_SECTION, ELEMENT_SELECT, ELEMENT_SOURCE,
+			ELEMENT_STYLE, ELEMENT_SUMMARY, ELEMENT_TABLE, ELEMENT_TBODY, ELEMENT_TD, ELEMENT_TEMPLATE, ELEMENT_TEXTAREA, ELEMENT_TFOOT, ELEMENT_TH, ELEMENT_THEAD,
+			ELEMENT_TITLE, ELEMENT_TR, ELEMENT_TRACK, ELEMENT_UL, ELEMENT_WBR, ELEMENT_XMP);
+
+	/** The mixed-case forms of SVG element and attribute names, which the tokenizer will have lowercased. */
+	private static final Map<String, String> SVG_NAME_CASES = Map.ofEntries(Map.entry("clippath", "clipPath"), Map.entry("foreignobject", "foreignObject"),
+			Map.entry("lineargradient", "linearGradient"), Map.entry("radialgradient", "radialGradient"), Map.entry("textpath", "textPath"),
+			Map.entry("viewbox", "viewBox"), Map.entry("preserveaspectratio", "preserveAspectRatio"), Map.entry("gradientunits", "gradientUnits"),
+			Map.entry("gradienttransform", "gradientTransform"), Map.entry("patternunits", "patternUnits"), Map.entry("patterntransform", "patternTransform"),
+			Map.entry("markerwidth", "markerWidth"), Map.entry("markerheight", "markerHeight"), Map.entry("refx", "refX"), Map.entry("refy", "refY"),
+			Map.entry("stddeviation", "stdDeviation"), Map.entry("viewtarget", "viewTarget"));
+
+	private final DOMImplementation domImplementation;
+
+	/**
+	 * Default constructor using the DOM implementation of a namespace-aware document builder.
+	 * @throws ConfiguredStateException if a document builder cannot be created.
+	 */
+	public HtmlParser() {
+		this(createDocumentBuilder(true).getDOMImplementation());
+	}
+
+	/**
+	 * DOM implementation constructor.
+	 * @param domImplementation The DOM implementation to use for creating documents.
+	 */
+	public HtmlParser(@Nonnull final DOMImplementation domImplementation) {
+		this.domImplementation = requireNonNull(domImplementation);
+	}
+
+	/**
+	 * Parses HTML from a string.
+	 * @param html The HTML markup to parse.
+	 * @return A new document containing the parsed HTML.
+	 */
+	public Document parse(@Nonnull final String html) {
+		final char[] chars = html.toCharArray();
+		return parse(chars, 0, chars.length);
+	}
+
+	/**
+	 * Parses HTML from a reader. The reader is read to the end but is not closed.
+	 * @param reader The source of the HTML markup to parse.
+	 * @return A new document containing the parsed HTML.
+	 * @throws IOException if there was an error reading from the reader.
+	 */
+	public Document parse(@Nonnull final Reader reader) throws IOException {
+		char[] chars = new char[8192];
+		int length = 0;
+		int readCount;
+		while((readCount = reader.read(chars, length, chars.length - length)) != -1) {
+			length += readCount;
+			if(length == chars.length) {
+				chars = Arrays.copyOf(chars, length * 2);
+			}
+		}
+		return parse(chars, 0, length);
+	}
+
+	/**
+	 * Parses HTML from a range of characters.
+	 * @param chars The characters containing the HTML markup to parse.
+	 * @param start The index of the first character to parse.
+	 * @param end The index after the last character to parse.
+	 * @return A new document containing the parsed HTML.
+	 * @throws IndexOutOfBoundsException if the start or end index is out of bounds.
+	 */
+	public Document parse(@Nonnull final char[] chars, final int start, final int end) {
+		final TreeBuilder treeBuilder = new TreeBuilder();
+		new HtmlTokenizer(treeBuilder).tokenize(chars, start, end);
+		return treeBuilder.finish();
+	}
+
+	/**
+	 * Builds a DOM tree from tokens.
+	 * @author Garret Wilson
+	 */
+	private class TreeBuilder implements HtmlTokenizer.Handler {
+
+		/** The document being built, created when the first token other than a document type is encountered. */
+		@Nullable
+		private Document document = null;
+
+		@Nullable
+		private DocumentType documentType = null;
+
+		/** Comments encountered before the document was created. */
+		private final List<String> leadingComments = new ArrayList<>();
+
+		private Element htmlElement;
+
+		@Nullable
+		private Element headElement = null;
+
+		@Nullable
+		private Element bodyElement = null;
+
+		/** The stack of open elements; the {@code <html>} element is always at the bottom once the document is created. */
+		private final List<Element> openElements = new ArrayList<>();
+
+		/** The lowercase local names of the open elements, for efficient comparison. */
+		private final List<String> openElementNames = new ArrayList<>();
+
+		/** Whether the most recent start tag was processed as an HTML element rather than as foreign content. */
+		private boolean htmlElementStarted = true;
+
+		//## handler
+
+		@Override
+		public void doctype(final String name, final String publicId, final String systemId) {
+			if(document == null && documentType == null) { //document types after content are ignored
+				documentType = domImplementation.createDocumentType(name != null ? name : ELEMENT_HTML, publicId, systemId);
+			}
+		}
+
+		@Override
+		public void startTag(final HtmlTokenizer tokenizer, final String name, final boolean selfClosing) {
+			ensureDocument();
+			htmlElementStarted = true;
+			final String currentNamespaceURI = currentElement().getNamespaceURI();
+			final boolean inForeignContent = !XHTML_NAMESPACE_URI_STRING.equals(currentNamespaceURI);
+			if(inForeignContent) {
+				if(SVG.NAMESPACE_URI_STRING.equals(currentNamespaceURI) && ELEMENT_FOREIGN_OBJECT_LOWERCASE.equals(currentElementName())) {
+					//`<foreignObject>` is an integration point back into HTML
+				} else {
+					insertForeignElement(tokenizer, currentNamespaceURI, name, selfClosing);
+					return;
+				}
+			}
+			switch(name) {
+				case ELEMENT_HTML:
+					mergeAttributes(htmlElement, tokenizer);
+					return;
+				case ELEMENT_HEAD:
+					if(headElement == null && bodyElement == null) {
+						headElement = insertElement(tokenizer, name);
+					}
+					return;
+				case ELEMENT_BODY:
+					if(bodyElement == null) {
+						ensureHead();
+						popUntil(ELEMENT_HTML, false);
+						bodyElement = insertElement(tokenizer, name);
+					} else {
+						mergeAttributes(bodyElement, tokenizer);
+					}
+					return;
+				case SVG.ELEMENT_SVG:
+					ensureBody();
+					insertForeignElement(tokenizer, SVG.NAMESPACE_URI_STRING, name, selfClosing);
+					return;
+				case ELEMENT_MATH:
+					ensureBody();
+					insertForeignElement(tokenizer, MathML.NAMESPACE_URI_STRING, name, selfClosing);
+					return;
+				default:
+					break;
+			}
+			if(bodyElement == null && HEAD_ELEMENTS.contains(name)) { //metadata before the body goes in the head
+				ensureHead();
+				if(!openElements.contains(headElement)) { //content after an explicit `</head>`
+					push(headElement, ELEMENT_HEAD);
+				}
+				popUntilElement(headElement);
+				final Element element = insertElement(tokenizer, name);
+				if(element != null && VOID_ELEMENT_NAMES.contains(name)) {
+					pop();
+				}
+				return;
+			}
+			ensureBody();
+			//implied end tags
+			if(P_CLOSING_ELEMENTS.contains(name) && hasInScope(ELEMENT_P, BUTTON_SCOPE_BOUNDARY_ELEMENTS)) {
+				popUntil(ELEMENT_P, true);
+			}
+			if(HEADING_ELEMENTS.contains(name) && HEADING_ELEMENTS.contains(currentElementName())) {
+				pop();
+			}
+			switch(name) {
+				case ELEMENT_LI:
+					closeListItem(LIST_ITEM_ELEMENTS);
+					break;
+				case ELEMENT_DD:
+				case ELEMENT_DT:
+					closeListItem(DESCRIPTION_LIST_ITEM_ELEMENTS);
+					break;
+				case ELEMENT_OPTION:
+					if(ELEMENT_OPTION.equals(currentElementName())) {
+						pop();
+					}
+					break;
+				case ELEMENT_OPTGROUP:
+					if(ELEMENT_OPTION.equals(currentElementName())) {
+						pop();
+					}
+					if(ELEMENT_OPTGROUP.equals(currentElementName())) {
+						pop();
+					}
+					break;
+				case ELEMENT_A:
+					if(hasInScope(ELEMENT_A, NO_ADDITIONAL_SCOPE_BOUNDARY_ELEMENTS)) { //anchors cannot be nested
+						popUntil(ELEMENT_A, true);
+					}
+					break;
+				case ELEMENT_TBODY:
+				case ELEMENT_THEAD:
+				case ELEMENT_TFOOT:
+				case ELEMENT_CAPTION:
+				case ELEMENT_COLGROUP:
+					if(hasInScope(ELEMENT_TABLE, TABLE_SCOPE_BOUNDARY_ELEMENTS)) {
+						popUntilCurrent(ELEMENT_TABLE);
+					}
+					break;
+				case ELEMENT_TR:
+					if(hasInScope(ELEMENT_TABLE, TABLE_SCOPE_BOUNDARY_ELEMENTS)) {
+						popUntilCurrentIn(TABLE_SECTION_ELEMENTS, ELEMENT_TABLE);
+						if(ELEMENT_TABLE.equals(currentElementName())) {
+							insertElement(null, ELEMENT_TBODY);
+						}
+					}
+					break;
+				case ELEMENT_TD:
+				case ELEMENT_TH:
+					if(hasInScope(ELEMENT_TABLE, TABLE_SCOPE_BOUNDARY_ELEMENTS)) {
+						popUntilCurrentIn(TABLE_ROW_ELEMENTS, ELEMENT_TABLE);
+						if(ELEMENT_TABLE.equals(currentElementName())) {
+							insertElement(null, ELEMENT_TBODY);
+						}
+						if(!ELEMENT_TR.equals(currentElementName())) {
+							insertElement(null, ELEMENT_TR);
+						}
+					}
+					break;
+				default:
+					break;
+			}
+			final Element element = insertElement(tokenizer, name);
+			if(element != null && VOID_ELEMENT_NAMES.contains(name)) {
+				pop();
+			}
+		}
+
+		@Override
+		public void endTag(final String name) {
+			ensureDocument();
+			switch(name) {
+				case ELEMENT_HTML:
+				case ELEMENT_BODY:
+					return; //the body remains open for any trailing content
+				case ELEMENT_HEAD:
+					if(headElement != null && openElements.contains(headElement)) {
+						popUntilElement(headElement);
+						pop();
+					}
+					return;
+				case ELEMENT_BR: //`</br>` is treated as `<br>`
+					ensureBody();
+					insertElement(null, ELEMENT_BR);
+					pop();
+					return;
+				case ELEMENT_P:
+					if(!hasInScope(ELEMENT_P, BUTTON_SCOPE_BOUNDARY_ELEMENTS)) { //`</p>` with no open paragraph creates an empty one
+						ensureBody();
+						insertElement(null, ELEMENT_P);
+					}
+					popUntil(ELEMENT_P, true);
+					return;
+				case ELEMENT_LI:
+					if(hasInScope(ELEMENT_LI, LIST_ITEM_SCOPE_BOUNDARY_ELEMENTS)) {
+						popUntil(ELEMENT_LI, true);
+					}
+					return;
+				default:
+					break;
+			}
+			if(BLOCK_END_TAG_ELEMENTS.contains(name)) {
+				if(hasInScope(name, NO_ADDITIONAL_SCOPE_BOUNDARY_ELEMENTS)) {
+					popUntil(name, true);
+				}
+				return;
+			}
+			if(TABLE_END_TAG_ELEMENTS.contains(name)) {
+				if(hasInScope(name, TABLE_SCOPE_BOUNDARY_ELEMENTS)) {
+					popUntil(name, true);
+				}
+				return;
+			}
+			if(HEADING_ELEMENTS.contains(name)) { //any heading end tag closes any open heading
+				if(hasHeadingInScope()) {
+					while(openElements.size() > 1 && !HEADING_ELEMENTS.contains(currentElementName())) {
+						pop();
+					}
+					pop();
+				}
+				return;
+			}
+			//close the nearest matching element, unless a special element is encountered first
+			for(int index = openElements.size() - 1; index > 0; index--) {
+				final Element element = openElements.get(index);
+				final String elementName = openElementNames.get(index);
+				if(elementName.equals(name) || (!XHTML_NAMESPACE_URI_STRING.equals(element.getNamespaceURI()) && elementName.equalsIgnoreCase(name))) {
+					popUntilElement(element);
+					pop();
+					return;
+				}
+				if(XHTML_NAMESPACE_URI_STRING.equals(element.getNamespaceURI()) && SPECIAL_ELEMENTS.contains(elementName)) {
+					return; //ignore the end tag
+				}
+			}
+		}
+
+		@Override
+		public void text(final char[] chars, final int start, final int length) {
+			if(bodyElement == null) { //whitespace outside the body is only kept in elements such as `<title>`
+				final boolean inHeadContent = openElements.size() > 1 && currentElement() != headElement;
+				if(!inHeadContent) {
+					int nonWhitespaceIndex = start;
+					final int end = start + length;
+					while(nonWhitespaceIndex < end && HtmlTokenizer.isWhitespace(chars[nonWhitespaceIndex])) {
+						nonWhitespaceIndex++;
+					}
+					if(nonWhitespaceIndex == end) {
+						return;
+					}
+					ensureBody();
+					appendText(chars, nonWhitespaceIndex, end - nonWhitespaceIndex);
+					return;
+				}
+			}
+			ensureDocument();
+			appendText(chars, start, length);
+		}
+
+		@Override
+		public void comment(final String comment) {
+			if(document == null) {
+				leadingComments.add(comment);
+			} else {
+				currentElement().appendChild(document.createComment(comment));
+			}
+		}
+
+		@Override
+		public boolean isHtmlElementStarted() {
+			return htmlElementStarted;
+		}
+
+		//## tree
+
+		/**
+		 * Finishes building the tree, ensuring that the required elements are present.
+		 * @return The built document.
+		 */
+		public Document finish() {
+			ensureBody();
+			return document;
+		}
+
+		/** Creates the document and its {@code <html>} element if they have not yet been created. */
+		private void ensureDocument() {
+			if(document == null) {
+				document = domImplementation.createDocument(XHTML_NAMESPACE_URI_STRING, ELEMENT_HTML, documentType);
+				htmlElement = document.getDocumentElement();
+				for(final String comment : leadingComments) {
+					document.insertBefore(document.createComment(comment), htmlElement);
+				}
+				leadingComments.clear();
+				push(htmlElement, ELEMENT_HTML);
+			}
+		}
+
+		/** Creates the {@code <head>} element if it has not yet been created. */
+		private void ensureHead() {
+			ensureDocument();
+			if(headElement == null) {
+				popUntil(ELEMENT_HTML, false);
+				headElement = insertElement(null, ELEMENT_HEAD);
+			}
+		}
+
+		/** Creates the {@code <body>} element if it has not yet been created, first closing the {@code <head>} element. */
+		private void ensureBody() {
+			if(bodyElement == null) {
+				ensureHead();
+				popUntil(ELEMENT_HTML, false);
+				bodyElement = insertElement(null, ELEMENT_BODY);
+			}
+		}
+
+		/** @return The current element, at the top of the stack of open elements. */
+		private Element currentElement() {
+			return openElements.get(openElements.size() - 1);
+		}
+
+		/** @return The lowercase local name of the current element. */
+		private String currentElementName() {
+			return openElementNames.get(openElementNames.size() - 1);
+		}
+
+		/**
+		 * Pushes an element onto the stack of open elements.
+		 * @param element The element to push.
+		 * @param name The lowercase local name of the element.
+		 */
+		private void push(@Nonnull final Element element, @Nonnull final String name) {
+			openElements.add(element);
+			openElementNames.add(name);
+		}
+
+		/** Pops the current element from the stack of open elements, never popping the {@code <html>} element. */
+		private void pop() {
+			final int size = openElements.size();
+			if(size > 1) {
+				openElements.remove(size - 1);
+				openElementNames.remove(size - 1);
+			}
+		}
+
+		/**
+		 * Pops elements until the current element is the given element.
+		 * @param element The element which should become the current element.
+		 */
+		private void popUntilElement(@Nonnull final Element element) {
+			while(openElements.size() > 1 && currentElement() != element) {
+				pop();
+			}
+		}
+
+		/**
+		 * Pops elements until an element with the given name is the current element, optionally popping that element as well.
+		 * @param name The name of the element to find.
+		 * @param inclusive Whether the found element should be popped as well.
+		 */
+		private void popUntil(@Nonnull final String name, final boolean inclusive) {
+			while(openElements.size() > 1 && !name.equals(currentElementName())) {
+				pop();
+			}
+			if(inclusive) {
+				pop();
+			}
+		}
+
+		/**
+		 * Pops elements until an element with the given name is the current element, without popping that element.
+		 * @param name The name of the element to find.
+		 */
+		private void popUntilCurrent(@Nonnull final String name) {
+			popUntil(name, false);
+		}
+
+		/**
+		 * Pops elements until the current element has one of the given names, or the given boundary name.
+		 * @param names The names of the elements to find.
+		 * @param boundaryName The name of an element at which to stop.
+		 */
+		private void popUntilCurrentIn(@Nonnull final Set<String> names, @Nonnull final String boundaryName) {
+			while(openElements.size() > 1 && !names.contains(currentElementName()) && !boundaryName.equals(currentElementName())) {
+				pop();
+			}
+		}
+
+		/**
+		 * Determines whether an HTML element with the given name is in scope.
+		 * @param name The name of the element to find.
+		 * @param additionalBoundaryNames The names of elements which bound the scope in addition to the default scope boundaries; or for table scope, the table
+		 *          scope boundaries.
+		 * @return <code>true</code> if the element is in scope.
+		 */
+		private boolean hasInScope(@Nonnull final String name, @Nonnull final Set<String> additionalBoundaryNames) {
+			final boolean tableScope = additionalBoundaryNames == TABLE_SCOPE_BOUNDARY_ELEMENTS;
+			for(int index = openElements.size() - 1; index >= 0; index--) {
+				final String elementName = openElementNames.get(index);
+				final boolean html = XHTML_NAMESPACE_URI_STRING.equals(openElements.get(index).getNamespaceURI());
+				if(html && elementName.equals(name)) {
+					return true;
+				}
+				if(!html || additionalBoundaryNames.contains(elementName) || (!tableScope && SCOPE_BOUNDARY_ELEMENTS.contains(elementName))) {
+					return false;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Determines whether any HTML heading element is in scope.
+		 * @return <code>true</code> if a heading element is in scope.
+		 * @see #hasInScope(String, Set)
+		 */
+		private boolean hasHeadingInScope() {
+			for(int index = openElements.size() - 1; index >= 0; index--) {
+				final String elementName = openElementNames.get(index);
+				final boolean html = XHTML_NAMESPACE_URI_STRING.equals(openElements.get(index).getNamespaceURI());
+				if(html && HEADING_ELEMENTS.contains(elementName)) {
+					return true;
+				}
+				if(!html || SCOPE_BOUNDARY_ELEMENTS.contains(elementName)) {
+					return false;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Closes any open list item of the given names before a new list item is inserted.
+		 * @param itemNames The names of the list items to close.
+		 */
+		private void closeListItem(@Nonnull final Set<String> itemNames) {
+			for(int index = openElements.size() - 1; index > 0; index--) {
+				final String elementName = openElementNames.get(index);
+				if(itemNames.contains(elementName)) {
+					popUntilElement(openElements.get(index));
+					pop();
+					return;
+				}
+				if(SPECIAL_ELEMENTS.contains(elementName) && !elementName.equals(ELEMENT_ADDRESS) && !elementName.equals(ELEMENT_DIV)
+						&& !elementName.equals(ELEMENT_P)) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Creates an HTML element, appends it to the current element, and pushes it onto the stack of open elements.
+		 * @param tokenizer The tokenizer from which to retrieve attributes, or <code>null</code> if the element is implied and has no attributes.
+		 * @param name The lowercase local name of the element.
+		 * @return The inserted element, or <code>null</code> if the name was not valid for an element and the tag was ignored.
+		 */
+		private Element insertElement(@Nullable final HtmlTokenizer tokenizer, @Nonnull final String name) {
+			final Element element;
+			try {
+				element = document.createElementNS(XHTML_NAMESPACE_URI_STRING, name);
+			} catch(final DOMException domException) { //tag soup may produce names that are not valid XML names
+				return null;
+			}
+			if(tokenizer != null) {
+				setAttributes(element, tokenizer, false);
+			}
+			currentElement().appendChild(element);
+			push(element, name);
+			return element;
+		}
+
+		/**
+		 * Creates an SVG or MathML element and appends it to the current element, pushing it onto the stack of open elements unless it is self-closing.
+		 * @param tokenizer The tokenizer from which to retrieve attributes.
+		 * @param namespaceURI The namespace of the foreign content.
+		 * @param name The lowercase local name of the element.
+		 * @param selfClosing Whether the start tag was self-closing.
+		 */
+		private void insertForeignElement(@Nonnull final HtmlTokenizer tokenizer, @Nonnull final String namespaceURI, @Nonnull final String name,
+				final boolean selfClosing) {
+			htmlElementStarted = false;
+			final boolean svg = SVG.NAMESPACE_URI_STRING.equals(namespaceURI);
+			final String localName = svg ? SVG_NAME_CASES.getOrDefault(name, name) : name;
+			final Element element;
+			try {
+				element = document.createElementNS(namespaceURI, localName);
+			} catch(final DOMException domException) {
+				return;
+			}
+			setAttributes(element, tokenizer, svg);
+			currentElement().appendChild(element);
+			if(!selfClosing) {
+				push(element, name);
+			}
+		}
+
+		/**
+		 * Sets the attributes of a newly created element from the current start tag.
+		 * @param element The element on which to set the attributes.
+		 * @param tokenizer The tokenizer from which to retrieve attributes.
+		 * @param svg Whether SVG attribute name case adjustment should be performed.
+		 */
+		private void setAttributes(@Nonnull final Element element, @Nonnull final HtmlTokenizer tokenizer, final boolean svg) {
+			final int attributeCount = tokenizer.getAttributeCount();
+			for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+				final String attributeName = tokenizer.getAttributeName(attributeIndex);
+				setAttribute(element, svg ? SVG_NAME_CASES.getOrDefault(attributeName, attributeName) : attributeName, tokenizer.getAttributeValue(attributeIndex));
+			}
+		}
+
+		/**
+		 * Adds any attributes from the current start tag not already present on an existing element, as for a repeated {@code <html>} or {@code <body>} tag.
+		 * @param element The element to which attributes should be added.
+		 * @param tokenizer The tokenizer from which to retrieve attributes.
+		 */
+		private void mergeAttributes(@Nonnull final Element element, @Nonnull final HtmlTokenizer tokenizer) {
+			final int attributeCount = tokenizer.getAttributeCount();
+			for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+				final String attributeName = tokenizer.getAttributeName(attributeIndex);
+				if(!element.hasAttributeNS(null, attributeName)) {
+					setAttribute(element, attributeName, tokenizer.getAttributeValue(attributeIndex));
+				}
+			}
+		}
+
+		/**
+		 * Sets an attribute parsed from HTML. The <code>xml:</code> and <code>xlink:</code> prefixes are mapped to their namespaces, namespace declarations are
+		 * ignored, and attributes with names that are not valid XML names are skipped.
+		 * @param element The element on which to set the attribute.
+		 * @param name The name of the attribute.
+		 * @param value The value of the attribute.
+		 */
+		private void setAttribute(@Nonnull final Element element, @Nonnull final String name, @Nonnull final String value) {
+			final String namespaceURI;
+			if(name.startsWith(XML.XML_NAMESPACE_PREFIX + XML.NAMESPACE_DIVIDER)) {
+				namespaceURI = XML.XML_NAMESPACE_URI_STRING;
+			} else if(name.startsWith(XLINK_NAMESPACE_PREFIX + XML.NAMESPACE_DIVIDER)) {
+				namespaceURI = XLINK_NAMESPACE_URI_STRING;
+			} else if(name.equals(XML.XMLNS_NAMESPACE_PREFIX) || name.startsWith(XML.XMLNS_NAMESPACE_PREFIX + XML.NAMESPACE_DIVIDER)) {
+				return; //namespace declarations have no meaning in HTML
+			} else {
+				namespaceURI = null;
+			}
+			try {
+				element.setAttributeNS(namespaceURI, name, value);
+			} catch(final DOMException domException) { //tag soup may produce names that are not valid XML names
+				//skip the attribute
+			}
+		}
+
+		/**
+		 * Appends text to the current element, combining it with any preceding text node.
+		 * @param chars The array containing the characters.
+		 * @param start The start index of the characters.
+		 * @param length The number of characters.
+		 */
+		private void appendText(@Nonnull final char[] chars, final int start, final int length) {
+			final Element element = currentElement();
+			final String text = new String(chars, start, length);
+			final Node lastChild = element.getLastChild();
+			if(lastChild instanceof Text && lastChild.getNodeType() == Node.TEXT_NODE) {
+				((Text)lastChild).appendData(text);
+			} else {
+				element.appendChild(document.createTextNode(text));
+			}
+		}
+
+	}
+
+	/** The MathML document element name. */
+	private static final String ELEMENT_MATH = "math";
+
+	/** The lowercase form of the SVG {@code <foreignObject>} element name. */
+	private static final String ELEMENT_FOREIGN_OBJECT_LOWERCASE = "foreignobject";
+
+	/** The prefix conventionally used for the XLink namespace. */
+	private static final String XLINK_NAMESPACE_PREFIX = "xlink";
+
+	/** The XLink namespace. */
+	private static final String XLINK_NAMESPACE_URI_STRING = "http://www.w3.org/1999/xlink";
+
+}
@@ -21,16 +21,17 @@
 import static com.globalmentor.xml.XmlDom.*;
 
 import java.io.IOException;
+import java.util.*;
 
-import javax.annotation.Nonnull;
+import javax.annotation.*;
 
 import org.w3c.dom.*;
 
 import com.globalmentor.html.def.HTML;
+import com.globalmentor.html.def.HtmlNames;
 import com.globalmentor.text.ASCII;
 import com.globalmentor.xml.XMLSerializer;
 import com.globalmentor.xml.XmlFormatProfile;
-import com.globalmentor.xml.def.NsName;
 import com.globalmentor.xml.def.XML;
 
 /**
@@ -50,6 +51,9 @@ public class HtmlSerializer extends XMLSerializer {
 	/** Default to serializing empty attributes when possible. */
 	public static final boolean OPTION_USE_EMPTY_ATTRIBUTES_DEFAULT = true;
 
+	/** The interned identifier of the HTML {@code <script>} element. */
+	private static final int SCRIPT_ELEMENT_ID = HtmlNames.getDefinedElementId(ELEMENT_SCRIPT);
+
 	private boolean useEmptyAttributes = OPTION_USE_EMPTY_ATTRIBUTES_DEFAULT;
 
 	/** @return Whether to serialize an attribute in empty attribute form if possible. */
@@ -66,6 +70,105 @@ public void setUseEmptyAttributes(final boolean useEmptyAttributes) {
 		this.useEmptyAttributes = useEmptyAttributes;
 	}
 
+	/** Whether output should be minified. */
+	public static final String OPTION_MINIFIED = "minified"; //TODO use with property setting when integrated with Confound
+
+	/** Default to not minifying output. */
+	public static final boolean OPTION_MINIFIED_DEFAULT = false;
+
+	private boolean minified = OPTION_MINIFIED_DEFAULT;
+
+	/** @return Whether output is minified. */
+	public boolean isMinified() {
+		return minified;
+	}
+
+	/**
+	 * Sets whether output should be minified. Minified output:
+	 * <ul>
+	 * <li>is never formatted, regardless of {@link #setFormatted(boolean)};</li>
+	 * <li>has runs of space characters in text collapsed, and spaces trimmed next to block elements, except within elements the format profile indicates are
+	 * preserved;</li>
+	 * <li>omits end tags of HTML elements where HTML allows;</li>
+	 * <li>omits quotes around attribute values where HTML allows, and omits the value of attributes with empty values;</li>
+	 * <li>omits the redundant default namespace declaration on HTML elements; and</li>
+	 * <li>omits comments.</li>
+	 * </ul>
+	 * @apiNote Minification takes place during serialization in a single pass. Minified output is HTML, not XML, and in general cannot be parsed by an XML
+	 *          processor.
+	 * @implSpec This option defaults to {@value #OPTION_MINIFIED_DEFAULT}.
+	 * @param minified <code>true</code> if output should be minified.
+	 * @see <a href="https://html.spec.whatwg.org/multipage/syntax.html#optional-tags">HTML Living Standard § 13.1.2.4 Optional tags</a>
+	 * @see <a href="https://html.spec.whatwg.org/multipage/syntax.html#unquoted">HTML Living Standard § 13.1.2.3 Attributes</a>
+	 */
+	public void setMinified(final boolean minified) {
+		this.minified = minified;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This version returns <code>false</code> if output is minified.
+	 * @see #isMinified()
+	 */
+	@Override
+	public boolean isFormatted() {
+		return super.isFormatted() && !isMinified();
+	}
+
+	/** Whether the content of script elements should be escaped. */
+	public static final String OPTION_SCRIPT_CONTENT_ESCAPED = "scriptContentEscaped"; //TODO use with property setting when integrated with Confound
+
+	/** Default to writing script content unchanged. */
+	public static final boolean OPTION_SCRIPT_CONTENT_ESCAPED_DEFAULT = false;
+
+	private boolean scriptContentEscaped = OPTION_SCRIPT_CONTENT_ESCAPED_DEFAULT;
+
+	/** @return Whether the content of script elements is escaped. */
+	public boolean isScriptContentEscaped() {
+		return scriptContentEscaped;
+	}
+
+	/**
+	 * Sets whether the content of HTML {@code <script>} elements, which is never encoded, should be escaped by neutralizing any sequences that would end the
+	 * script element or change how its content is parsed, as {@link ScriptContentWriter} does. This allows script code and JSON containing arbitrary strings to
+	 * be placed in script elements without first being scanned.
+	 * @implSpec This option defaults to {@value #OPTION_SCRIPT_CONTENT_ESCAPED_DEFAULT}.
+	 * @param scriptContentEscaped <code>true</code> if script content should be escaped.
+	 * @see ScriptContentWriter
+	 */
+	public void setScriptContentEscaped(final boolean scriptContentEscaped) {
+		this.scriptContentEscaped = scriptContentEscaped;
+	}
+
+	/** The key of the DOM user data holding the {@link ScriptContent} of a script element. */
+	private static final String SCRIPT_CONTENT_USER_DATA_KEY = ScriptContent.class.getName();
+
+	/**
+	 * Associates script content with an HTML {@code <script>} element, to be written directly to the output in place of the element's child nodes when the
+	 * element is serialized. This allows JavaScript and JSON generators to write into the serializer output without the content first being placed in the
+	 * document as text.
+	 * @apiNote The script content is stored as DOM user data of the element, and so is not copied if the element is cloned or imported.
+	 * @param scriptElement The script element.
+	 * @param scriptContent The content to write, or <code>null</code> if the child nodes of the element should be serialized as normal.
+	 * @see ScriptContentWriter
+	 */
+	public static void setScriptContent(@Nonnull final Element scriptElement, @Nullable final ScriptContent scriptContent) {
+		scriptElement.setUserData(SCRIPT_CONTENT_USER_DATA_KEY, scriptContent, null);
+	}
+
+	/**
+	 * Retrieves the script content associated with an element.
+	 * @param element The element, which may be any element.
+	 * @return The script content associated with the element, if any.
+	 * @see #setScriptContent(Element, ScriptContent)
+	 */
+	public static Optional<ScriptContent> findScriptContent(@Nonnull final Element element) {
+		return Optional.ofNullable((ScriptContent)element.getUserData(SCRIPT_CONTENT_USER_DATA_KEY));
+	}
+
+	/** The number of preserved elements currently being serialized while minifying. */
+	private int minifiedPreservedDepth = 0;
+
 	/** Default constructor for unformatted output with no XML prolog. */
 	public HtmlSerializer() {
 		this(false);
@@ -89,20 +192,104 @@ public HtmlSerializer(final boolean formatted, @Nonnull final XmlFormatProfile f
 		setPrologWritten(false);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If minifying, this version turns off formatting and keeps track of whether the element is preserved by the format profile.
+	 * @see #isMinified()
+	 */
+	@Override
+	protected Appendable serialize(final Appendable appendable, final Element element, final boolean isContentFormatted) throws IOException {
+		if(!isMinified()) {
+			return super.serialize(appendable, element, isContentFormatted);
+		}
+		final boolean isPreserved = getFormatProfile().isPreserved(element);
+		if(isPreserved) {
+			minifiedPreservedDepth++;
+		}
+		try {
+			return super.serialize(appendable, element, false);
+		} finally {
+			if(isPreserved) {
+				minifiedPreservedDepth--;
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If script content is escaped, this version writes the content of HTML {@code <script>} elements through a {@link ScriptContentWriter}.
+	 * @implSpec If {@link ScriptContent} has been associated with an HTML {@code <script>} element, this version writes it in place of the child nodes of the
+	 *           element; as its output cannot be examined beforehand, it is always written through a {@link ScriptContentWriter}.
+	 * @see #isScriptContentEscaped()
+	 * @see #setScriptContent(Element, ScriptContent)
+	 */
+	@Override
+	protected Appendable serializeContent(final Appendable appendable, final Node node, final boolean isContentFormatted) throws IOException {
+		if(!isScriptElement(node)) {
+			return super.serializeContent(appendable, node, isContentFormatted);
+		}
+		final ScriptContent scriptContent = findScriptContent((Element)node).orElse(null);
+		if(scriptContent == null && !isScriptContentEscaped()) {
+			return super.serializeContent(appendable, node, isContentFormatted);
+		}
+		final ScriptContentWriter scriptContentWriter = new ScriptContentWriter(appendable);
+		if(scriptContent != null) {
+			scriptContent.write(scriptContentWriter);
+		} else {
+			super.serializeContent(scriptContentWriter, node, isContentFormatted);
+		}
+		scriptContentWriter.close(); //write any characters held back at the end of the content
+		return appendable;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If minifying, this version normalizes spaces in all content not within a preserved element.
+	 * @see #isMinified()
+	 */
+	@Override
+	protected boolean isSpaceNormalized(final Node node, final boolean isContentFormatted) {
+		return super.isSpaceNormalized(node, isContentFormatted) || (isMinified() && minifiedPreservedDepth == 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If minifying, this version does not serialize comments.
+	 * @see #isMinified()
+	 */
+	@Override
+	protected Appendable serialize(final Appendable appendable, final Comment comment) throws IOException {
+		if(isMinified()) {
+			return appendable;
+		}
+		return super.serialize(appendable, comment);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @implSpec This version only serializes elements using an empty element tag if one of the HTML specifications forbids the use of an ending tag; this
 	 *           includes HTML5 <dfn>void elements</dfn> but also obsolete HTML 4.0.1 elements forbidden from having end tags such as {@code <frame>}.
 	 * @implNote This implementation results in an empty element tag for an HTML element forbidden to have children even if the element does in fact have
 	 *           children.
+	 * @implNote This implementation uses the interned element identifiers of {@link HtmlNames} rather than creating a name object for each element.
 	 */
 	@Override
 	protected boolean isEmptyElementTag(final Element element) {
-		final boolean isEmptyElement = EMPTY_ELEMENTS.contains(NsName.ofNode(element));
+		final boolean isEmptyElement = isEmptyElementTag(element.getNamespaceURI(), element.getLocalName());
 		//TODO log a warning or throw an exception if a void element has children
 		return isEmptyElement;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This version only uses an empty element tag if one of the HTML specifications forbids the use of an ending tag, as does
+	 *           {@link #isEmptyElementTag(Element)}.
+	 */
+	@Override
+	protected boolean isEmptyElementTag(final String namespaceURI, final String localName) {
+		return HtmlNames.isEmptyElement(HtmlNames.getElementId(namespaceURI, localName));
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @implSpec This version ignores the <code>xml:lang</code> attribute if a <code>lang</code> attribute is present with the same value; otherwise if no
@@ -113,6 +300,13 @@ protected boolean isEmptyElementTag(final Element element) {
 	 */
 	@Override
 	protected Appendable serializeAttribute(final Appendable appendable, final Element element, final Attr attribute) throws IOException {
+		if(attribute.getNamespaceURI() == null) { //most HTML attributes are in no namespace and need no special handling
+			return super.serializeAttribute(appendable, element, attribute);
+		}
+		if(isMinified() && XML.ATTRIBUTE_XMLNS.matches(attribute) && XHTML_NAMESPACE_URI_STRING.equals(attribute.getValue())
+				&& XHTML_NAMESPACE_URI_STRING.equals(element.getNamespaceURI())) {
+			return appendable; //the HTML syntax places HTML elements in the HTML namespace by default
+		}
 		if(XML.ATTRIBUTE_LANG.matches(attribute)) { //convert `xml:lang` to `lang` as appropriate
 			final String attributeValue = attribute.getValue();
 			final String htmlLang = findAttributeNS(element, null, HTML.ATTRIBUTE_LANG).orElse(null);
@@ -135,31 +329,177 @@ protected Appendable serializeAttribute(final Appendable appendable, final Eleme
 	 * {@inheritDoc}
 	 * @implSpec This version will write an empty attribute if that option is enabled and the attribute value is the same as its name. For example:
 	 *           <pre>{@code <button disabled/>}</pre>
+	 * @implSpec If minifying, this version also writes an empty attribute if the attribute value is empty, and otherwise omits the quotes around the attribute
+	 *           value if HTML allows.
 	 * @see #isUseEmptyAttributes()
+	 * @see #isMinified()
 	 */
 	@Override
 	protected Appendable serializeAttribute(final Appendable appendable, final String attributeName, final String attributeValue) throws IOException {
 		if(attributeValue.equals(attributeName)) { //if the attribute value is the same as its name TODO do we need to restrict this to some predefined list? 
 			return appendable.append(SPACE_CHAR).append(attributeName); //append just the attribute name
 		}
+		if(isMinified()) {
+			if(attributeValue.isEmpty()) {
+				return appendable.append(SPACE_CHAR).append(attributeName); //an empty attribute has an empty string value
+			}
+			if(isUnquotedAttributeValueAllowed(attributeValue)) {
+				appendable.append(SPACE_CHAR).append(attributeName).append('=');
+				return encodeContent(appendable, attributeValue);
+			}
+		}
 		return super.serializeAttribute(appendable, attributeName, attributeValue); //otherwise serialize the attribute normally as per XML
 	}
 
+	/**
+	 * Determines whether the given non-empty attribute value may be serialized using the unquoted attribute value syntax.
+	 * @param attributeValue The attribute value.
+	 * @return <code>true</code> if the value contains no space characters and none of the characters <code>"'=&lt;&gt;`</code>.
+	 * @see <a href="https://html.spec.whatwg.org/multipage/syntax.html#unquoted">HTML Living Standard § 13.1.2.3 Attributes: Unquoted attribute value syntax</a>
+	 */
+	private static boolean isUnquotedAttributeValueAllowed(@Nonnull final String attributeValue) {
+		final int length = attributeValue.length();
+		for(int i = 0; i < length; i++) {
+			final char c = attributeValue.charAt(i);
+			switch(c) {
+				case '"':
+				case '\'':
+				case '=':
+				case '<':
+				case '>':
+				case '`':
+					return false;
+				default:
+					if(SPACE_CHARACTERS.contains(c)) {
+						return false;
+					}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The elements the start tag of which closes an open {@code <p>} element, allowing the end tag of a preceding {@code <p>} sibling to be omitted.
+	 * @see <a href="https://html.spec.whatwg.org/multipage/syntax.html#optional-tags">HTML Living Standard § 13.1.2.4 Optional tags</a>
+	 */
+	private static final Set<String> P_END_TAG_OMITTING_ELEMENTS = Set.of(ELEMENT_ADDRESS, ELEMENT_ARTICLE, ELEMENT_ASIDE, ELEMENT_BLOCKQUOTE, ELEMENT_DETAILS,
+			ELEMENT_DIV, ELEMENT_DL, ELEMENT_FIELDSET, ELEMENT_FIGCAPTION, ELEMENT_FIGURE, ELEMENT_FOOTER, ELEMENT_FORM, ELEMENT_H1, ELEMENT_H2, ELEMENT_H3, ELEMENT_H4,
+			ELEMENT_H5, ELEMENT_H6, ELEMENT_HEADER, ELEMENT_HGROUP, ELEMENT_HR, ELEMENT_MAIN, ELEMENT_MENU, ELEMENT_NAV, ELEMENT_OL, ELEMENT_P, ELEMENT_PRE,
+			ELEMENT_SECTION, ELEMENT_TABLE, ELEMENT_UL);
+
+	/**
+	 * The parent elements in which the end tag of a last child {@code <p>} element may not be omitted.
+	 * @see <a href="https://html.spec.whatwg.org/multipage/syntax.html#optional-tags">HTML Living Standard § 13.1.2.4 Optional tags</a>
+	 */
+	private static final Set<String> P_END_TAG_REQUIRING_PARENT_ELEMENTS = Set.of(ELEMENT_A, ELEMENT_AUDIO, ELEMENT_DEL, ELEMENT_INS, ELEMENT_MAP, ELEMENT_NOSCRIPT,
+			ELEMENT_VIDEO);
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec If minifying, this version omits the end tags of HTML elements as allowed by HTML, based upon the next sibling that will be serialized. As
+	 *           comments are not serialized when minifying, they are ignored, as is any text consisting only of space characters.
+	 * @implNote Ignoring text consisting only of spaces may result in such text, if it is not removed by space normalization, being placed inside the preceding
+	 *           element when the output is parsed. Because spaces at the end of the elements whose end tags are omitted are not significant, this has no effect
+	 *           on rendering.
+	 * @see #isMinified()
+	 * @see <a href="https://html.spec.whatwg.org/multipage/syntax.html#optional-tags">HTML Living Standard § 13.1.2.4 Optional tags</a>
+	 */
+	@Override
+	protected boolean isEndTagOmitted(final Element element) {
+		if(!isMinified() || !XHTML_NAMESPACE_URI_STRING.equals(element.getNamespaceURI())) {
+			return false;
+		}
+		final String localName = element.getLocalName();
+		if(localName == null) {
+			return false;
+		}
+		Node nextSibling = element.getNextSibling();
+		while(nextSibling != null && (nextSibling.getNodeType() == Node.COMMENT_NODE || nextSibling.getNodeType() == Node.PROCESSING_INSTRUCTION_NODE
+				|| (nextSibling.getNodeType() == Node.TEXT_NODE && isSpace(nextSibling.getNodeValue())))) {
+			nextSibling = nextSibling.getNextSibling();
+		}
+		final boolean isLast = nextSibling == null;
+		final String next = nextSibling != null && nextSibling.getNodeType() == Node.ELEMENT_NODE
+				&& XHTML_NAMESPACE_URI_STRING.equals(nextSibling.getNamespaceURI()) ? nextSibling.getLocalName() : null; //the name of the next HTML element, if any
+		switch(localName) {
+			case ELEMENT_HTML:
+			case ELEMENT_BODY:
+				return isLast;
+			case ELEMENT_HEAD:
+				return isLast || ELEMENT_BODY.equals(next);
+			case ELEMENT_LI:
+				return isLast || ELEMENT_LI.equals(next);
+			case ELEMENT_DT:
+				return ELEMENT_DT.equals(next) || ELEMENT_DD.equals(next);
+			case ELEMENT_DD:
+				return isLast || ELEMENT_DT.equals(next) || ELEMENT_DD.equals(next);
+			case ELEMENT_P:
+				if(isLast) {
+					final Node parentNode = element.getParentNode();
+					return parentNode instanceof Element && XHTML_NAMESPACE_URI_STRING.equals(parentNode.getNamespaceURI())
+							&& !P_END_TAG_REQUIRING_PARENT_ELEMENTS.contains(parentNode.getLocalName());
+				}
+				return next != null && P_END_TAG_OMITTING_ELEMENTS.contains(next);
+			case ELEMENT_RT:
+			case ELEMENT_RP:
+				return isLast || ELEMENT_RT.equals(next) || ELEMENT_RP.equals(next);
+			case ELEMENT_OPTGROUP:
+				return isLast || ELEMENT_OPTGROUP.equals(next);
+			case ELEMENT_OPTION:
+				return isLast || ELEMENT_OPTION.equals(next) || ELEMENT_OPTGROUP.equals(next);
+			case ELEMENT_THEAD:
+				return ELEMENT_TBODY.equals(next) || ELEMENT_TFOOT.equals(next);
+			case ELEMENT_TBODY:
+				return isLast || ELEMENT_TBODY.equals(next) || ELEMENT_TFOOT.equals(next);
+			case ELEMENT_TFOOT:
+				return isLast;
+			case ELEMENT_TR:
+				return isLast || ELEMENT_TR.equals(next);
+			case ELEMENT_TD:
+			case ELEMENT_TH:
+				return isLast || ELEMENT_TD.equals(next) || ELEMENT_TH.equals(next);
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Determines whether the given text consists only of HTML space characters.
+	 * @param text The text to check.
+	 * @return <code>true</code> if the text is empty or contains only characters in {@link HTML#SPACE_CHARACTERS}.
+	 */
+	private static boolean isSpace(@Nonnull final CharSequence text) {
+		final int length = text.length();
+		for(int i = 0; i < length; i++) {
+			if(!SPACE_CHARACTERS.contains(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @implSpec This implementation disables encoding for HTML {@code <script>} elements.
+	 * @see #isScriptContentEscaped()
 	 * @see <a href="https://www.w3.org/TR/html52/semantics-scripting.html#script-content-restrictions">HTML 5.2 § 4.12.1.3. Restrictions for contents of script
 	 *      elements</a>
 	 */
 	@Override
 	protected boolean isChildTextEncoded(final Node parentNode) {
-		if(parentNode instanceof Element) {
-			final Element parentElement = (Element)parentNode;
-			if(XHTML_NAMESPACE_URI_STRING.equals(parentElement.getNamespaceURI()) && ELEMENT_SCRIPT.equals(parentElement.getLocalName())) {
-				return false; //turn off encoding for <script>
-			}
+		if(isScriptElement(parentNode)) {
+			return false; //turn off encoding for <script>
 		}
 		return super.isChildTextEncoded(parentNode);
 	}
 
+	/**
+	 * Determines whether the given node is an HTML {@code <script>} element.
+	 * @param node The node to check.
+	 * @return <code>true</code> if the node is a script element.
+	 */
+	private static boolean isScriptElement(@Nonnull final Node node) {
+		return node instanceof Element && HtmlNames.getElementId(node.getNamespaceURI(), node.getLocalName()) == SCRIPT_ELEMENT_ID;
+	}
+
 }
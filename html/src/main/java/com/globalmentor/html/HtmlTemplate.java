@@ -0,0 +1,460 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html;
+
+import static com.globalmentor.java.Conditions.*;
+import static com.globalmentor.xml.XmlDom.*;
+import static com.globalmentor.xml.def.XML.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Collections.*;
+import static java.util.Objects.*;
+import static java.util.stream.Collectors.*;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.*;
+
+import org.w3c.dom.*;
+
+import com.globalmentor.xml.CompressingOutputStream;
+import com.globalmentor.xml.XmlFormatProfile;
+
+/**
+ * A precompiled HTML document with named slots for dynamic content.
+ * <p>
+ * A template is compiled from a document in which the locations of dynamic content are marked by slot elements in the {@link #SLOT_NAMESPACE_URI_STRING}
+ * namespace, created using {@link #createSlotElement(Document, String)}. During compilation the static parts of the document are serialized once to byte
+ * chunks in the output charset. Rendering then writes the precomputed chunks directly, serializing only the values of the slots between them, so that the cost
+ * of rendering scales with the dynamic content only.
+ * </p>
+ * <p>
+ * A slot value may be any {@link CharSequence}, which will be encoded as text; or a {@link Text}, {@link Element}, or {@link DocumentFragment} node, which will
+ * be serialized as HTML. A slot with no value produces no output. The same slot name may appear multiple times in a template.
+ * </p>
+ * <p>
+ * This class is immutable and thread-safe.
+ * </p>
+ * @apiNote Slot values are always serialized unformatted, even if the template was compiled with formatting enabled.
+ * @author Garret Wilson
+ * @see HtmlSerializer
+ */
+public final class HtmlTemplate {
+
+	/** The namespace of template slot elements. */
+	public static final String SLOT_NAMESPACE_URI_STRING = "https://ns.globalmentor.io/html/template/";
+
+	/** The local name of a template slot element. */
+	public static final String ELEMENT_SLOT = "slot";
+
+	/** The attribute of a template slot element indicating the slot name. */
+	public static final String ELEMENT_SLOT_ATTRIBUTE_NAME = "name";
+
+	private final boolean formatted;
+
+	private final XmlFormatProfile formatProfile;
+
+	private final Charset charset;
+
+	/** @return The charset in which the template is rendered. */
+	public Charset getCharset() {
+		return charset;
+	}
+
+	/** The precompiled static chunks; there is always one more chunk than slots. */
+	private final List<byte[]> chunks;
+
+	private final List<String> slotNames;
+
+	/** The namespace declarations in scope at each slot, mapping prefixes to namespace URIs, with <code>null</code> for the default namespace or no namespace. */
+	private final List<Map<String, String>> slotNamespaces;
+
+	/** The static chunks compressed for each compression level, lazily created when first rendered to a compressing output stream. */
+	private final Map<Integer, List<CompressingOutputStream.Segment>> compressedChunksByLevel = new ConcurrentHashMap<>();
+
+	/** @return The names of the slots in the order they appear in the template, including any duplicates. */
+	public List<String> getSlotNames() {
+		return slotNames;
+	}
+
+	/**
+	 * Compiled constructor.
+	 * @param formatted Whether the template was formatted.
+	 * @param formatProfile The profile used to guide formatting.
+	 * @param charset The charset in which the template is rendered.
+	 * @param chunks The precompiled static chunks; there must be one more chunk than slots.
+	 * @param slotNames The names of the slots in the order they appear in the template.
+	 * @param slotNamespaces The namespace declarations in scope at each slot.
+	 */
+	private HtmlTemplate(final boolean formatted, @Nonnull final XmlFormatProfile formatProfile, @Nonnull final Charset charset,
+			@Nonnull final List<byte[]> chunks, @Nonnull final List<String> slotNames, @Nonnull final List<Map<String, String>> slotNamespaces) {
+		assert chunks.size() == slotNames.size() + 1;
+		assert slotNamespaces.size() == slotNames.size();
+		this.formatted = formatted;
+		this.formatProfile = requireNonNull(formatProfile);
+		this.charset = requireNonNull(charset);
+		this.chunks = unmodifiableList(new ArrayList<>(chunks));
+		this.slotNames = unmodifiableList(new ArrayList<>(slotNames));
+		this.slotNamespaces = unmodifiableList(new ArrayList<>(slotNamespaces));
+	}
+
+	/**
+	 * Creates a slot element for marking the location of dynamic content in a template document.
+	 * @param document The template document.
+	 * @param name The name of the slot.
+	 * @return A new slot element, which must be added to the document at the location of the dynamic content.
+	 * @throws DOMException if there was an error creating the element.
+	 */
+	public static Element createSlotElement(@Nonnull final Document document, @Nonnull final String name) throws DOMException {
+		final Element slotElement = document.createElementNS(SLOT_NAMESPACE_URI_STRING, ELEMENT_SLOT);
+		slotElement.setAttributeNS(null, ELEMENT_SLOT_ATTRIBUTE_NAME, requireNonNull(name));
+		return slotElement;
+	}
+
+	/**
+	 * Compiles a template from an unformatted document using the {@link DefaultHtmlFormatProfile#INSTANCE} format profile and the UTF-8 charset.
+	 * @param document The template document, with slots indicated by slot elements.
+	 * @return A new template.
+	 * @throws IllegalArgumentException if a slot element has no name.
+	 * @see #createSlotElement(Document, String)
+	 */
+	public static HtmlTemplate compile(@Nonnull final Document document) {
+		return compile(document, false, DefaultHtmlFormatProfile.INSTANCE, UTF_8);
+	}
+
+	/**
+	 * Compiles a template from a document.
+	 * @param document The template document, with slots indicated by slot elements.
+	 * @param formatted Whether the template should be formatted.
+	 * @param formatProfile The profile to use to guide formatting.
+	 * @param charset The charset in which the template will be rendered.
+	 * @return A new template.
+	 * @throws IllegalArgumentException if a slot element has no name.
+	 * @see #createSlotElement(Document, String)
+	 */
+	public static HtmlTemplate compile(@Nonnull final Document document, final boolean formatted, @Nonnull final XmlFormatProfile formatProfile,
+			@Nonnull final Charset charset) {
+		final ByteArrayOutputStream chunkOutputStream = new ByteArrayOutputStream();
+		final List<byte[]> chunks = new ArrayList<>();
+		final List<String> slotNames = new ArrayList<>();
+		final List<Map<String, String>> slotNamespaces = new ArrayList<>();
+		final TemplateSerializer serializer = new TemplateSerializer(formatted, formatProfile) {
+			@Override
+			protected Appendable serialize(final Appendable appendable, final Element element, final boolean isContentFormatted) throws IOException {
+				if(!isSlotElement(element)) {
+					return super.serialize(appendable, element, isContentFormatted);
+				}
+				final String slotName = element.getAttributeNS(null, ELEMENT_SLOT_ATTRIBUTE_NAME);
+				checkArgument(!slotName.isEmpty(), "Template slot element has no name.");
+				if(appendable instanceof Flushable) { //make sure everything serialized so far has reached the chunk output stream
+					((Flushable)appendable).flush();
+				}
+				chunks.add(chunkOutputStream.toByteArray());
+				chunkOutputStream.reset();
+				slotNames.add(slotName);
+				slotNamespaces.add(getSlotNamespaces(element));
+				return appendable;
+			}
+		};
+		try {
+			serializer.serialize(document, chunkOutputStream, charset);
+		} catch(final IOException ioException) { //there should never by an I/O exception writing to a byte array output stream
+			throw new AssertionError(ioException);
+		}
+		chunks.add(chunkOutputStream.toByteArray()); //the final chunk after the last slot
+		return new HtmlTemplate(formatted, formatProfile, charset, chunks, slotNames, slotNamespaces);
+	}
+
+	/**
+	 * Determines the namespace declarations in scope at the location of a slot element, which will also be in scope for the serialized slot value.
+	 * @param slotElement The slot element.
+	 * @return The in-scope namespace declarations, mapping prefixes to namespace URIs, with <code>null</code> for the default namespace or no namespace.
+	 */
+	private static Map<String, String> getSlotNamespaces(@Nonnull final Element slotElement) {
+		final Map<String, String> namespaces = new HashMap<>();
+		for(Node node = slotElement.getParentNode(); node != null && node.getNodeType() == Node.ELEMENT_NODE; node = node.getParentNode()) {
+			final NamedNodeMap attributes = node.getAttributes();
+			for(int i = attributes.getLength() - 1; i >= 0; i--) {
+				final Node attribute = attributes.item(i);
+				if(XMLNS_NAMESPACE_URI_STRING.equals(attribute.getNamespaceURI())) { //closer declarations take precedence
+					final String prefix = XMLNS_NAMESPACE_PREFIX.equals(attribute.getPrefix()) ? attribute.getLocalName() : null;
+					final String namespaceURI = attribute.getNodeValue();
+					if(!namespaces.containsKey(prefix)) {
+						namespaces.put(prefix, !namespaceURI.isEmpty() ? namespaceURI : null);
+					}
+				}
+			}
+		}
+		return namespaces;
+	}
+
+	/**
+	 * Determines whether the given element is a template slot element.
+	 * @param element The element to check.
+	 * @return <code>true</code> if the element is a template slot element.
+	 */
+	public static boolean isSlotElement(@Nonnull final Element element) {
+		return SLOT_NAMESPACE_URI_STRING.equals(element.getNamespaceURI()) && ELEMENT_SLOT.equals(element.getLocalName());
+	}
+
+	/**
+	 * Returns the static chunks compressed at the given level, compressing them if this is the first time they have been requested for that level.
+	 * @param level The compression level.
+	 * @return The compressed static chunks.
+	 */
+	private List<CompressingOutputStream.Segment> getCompressedChunks(final int level) {
+		return compressedChunksByLevel.computeIfAbsent(level, l -> chunks.stream().map(chunk -> CompressingOutputStream.Segment.compress(chunk, l))
+				.collect(collectingAndThen(toList(), Collections::unmodifiableList)));
+	}
+
+	/**
+	 * Renders the template to an output stream, writing the precompiled static chunks and serializing the given slot values between them.
+	 * <p>
+	 * If the output stream is a {@link CompressingOutputStream}, the static chunks are written as segments that have already been compressed at the level of
+	 * the stream, so that only the slot values need to be compressed during rendering.
+	 * </p>
+	 * @apiNote The output stream is neither flushed nor closed; a compressing output stream is not finished.
+	 * @param outputStream The output stream to which the template should be rendered.
+	 * @param slotValues The values of the slots, keyed to slot names.
+	 * @throws IllegalArgumentException if a slot value is of an unsupported type.
+	 * @throws IOException if there was an error writing to the output stream.
+	 */
+	public void render(@Nonnull final OutputStream outputStream, @Nonnull final Map<String, ?> slotValues) throws IOException {
+		final Writer slotWriter = new OutputStreamWriter(outputStream, charset); //flushed after each slot so that output is interleaved correctly
+		final CompressingOutputStream compressingOutputStream = outputStream instanceof CompressingOutputStream ? (CompressingOutputStream)outputStream : null;
+		final List<CompressingOutputStream.Segment> compressedChunks = compressingOutputStream != null ? getCompressedChunks(compressingOutputStream.getLevel())
+				: null;
+		TemplateSerializer serializer = null; //created lazily, as it is only needed for slot values
+		final int slotCount = slotNames.size();
+		for(int slotIndex = 0; slotIndex < slotCount; slotIndex++) {
+			if(compressingOutputStream != null) {
+				compressingOutputStream.write(compressedChunks.get(slotIndex));
+			} else {
+				outputStream.write(chunks.get(slotIndex));
+			}
+			final Object slotValue = slotValues.get(slotNames.get(slotIndex));
+			if(slotValue != null) {
+				if(serializer == null) {
+					serializer = new TemplateSerializer(formatted, formatProfile);
+				}
+				serializer.serializeSlotValue(slotWriter, slotValue, slotNamespaces.get(slotIndex));
+				slotWriter.flush();
+			}
+		}
+		if(compressingOutputStream != null) {
+			compressingOutputStream.write(compressedChunks.get(slotCount));
+		} else {
+			outputStream.write(chunks.get(slotCount));
+		}
+	}
+
+	/**
+	 * Renders the template to a byte array.
+	 * @param slotValues The values of the slots, keyed to slot names.
+	 * @return The rendered template bytes in the template charset.
+	 * @throws IllegalArgumentException if a slot value is of an unsupported type.
+	 * @see #getCharset()
+	 */
+	public byte[] render(@Nonnull final Map<String, ?> slotValues) {
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try {
+			render(byteArrayOutputStream, slotValues);
+		} catch(final IOException ioException) { //there should never by an I/O exception writing to a byte array output stream
+			throw new AssertionError(ioException);
+		}
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	/**
+	 * Serializer for compiling the template and serializing slot values.
+	 * @author Garret Wilson
+	 */
+	private static class TemplateSerializer extends HtmlSerializer {
+
+		/**
+		 * Constructor.
+		 * @param formatted Whether the serializer should be formatted.
+		 * @param formatProfile The profile to use to guide formatting.
+		 */
+		public TemplateSerializer(final boolean formatted, @Nonnull final XmlFormatProfile formatProfile) {
+			super(formatted, formatProfile);
+		}
+
+		/**
+		 * The namespace declarations in scope for the slot value element being serialized, including those in scope at the slot and those written on ancestors
+		 * within the slot value, or <code>null</code> if no slot value is being serialized.
+		 * @implNote The map is replaced rather than modified when declarations are added, so that the map of an ancestor can be restored after serializing an
+		 *           element.
+		 */
+		@Nullable
+		private Map<String, String> scopeNamespaces = null;
+
+		/**
+		 * The elements within the slot value on which the declarations in {@link #scopeNamespaces} were written, keyed to prefix; declarations in scope at the slot
+		 * itself have no entry.
+		 */
+		private Map<String, Element> declaringElements = emptyMap();
+
+		/** The namespace declarations missing from the element being serialized, keyed to prefix, to be written along with its attributes. */
+		private Map<String, String> elementNamespaceDeclarations = emptyMap();
+
+		/**
+		 * Serializes a slot value, always unformatted.
+		 * @implNote The slot value is never modified; namespace declarations it is missing are written along with the attributes of the elements needing them.
+		 * @param appendable The destination into which the value should be written.
+		 * @param slotValue The slot value to serialize.
+		 * @param slotNamespaces The namespace declarations in scope at the slot, which will not be declared again.
+		 * @throws IllegalArgumentException if the slot value is of an unsupported type.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		public void serializeSlotValue(@Nonnull final Appendable appendable, @Nonnull final Object slotValue, @Nonnull final Map<String, String> slotNamespaces)
+				throws IOException {
+			this.scopeNamespaces = requireNonNull(slotNamespaces);
+			try {
+				if(slotValue instanceof CharSequence) {
+					encodeContent(appendable, (CharSequence)slotValue);
+				} else if(slotValue instanceof Text) {
+					encodeContent(appendable, ((Text)slotValue).getData());
+				} else if(slotValue instanceof Element) {
+					serialize(appendable, (Element)slotValue, false);
+				} else if(slotValue instanceof DocumentFragment) {
+					serializeContent(appendable, (DocumentFragment)slotValue, false);
+				} else {
+					throw new IllegalArgumentException(String.format("Unsupported template slot value type %s.", slotValue.getClass().getName()));
+				}
+			} finally {
+				this.scopeNamespaces = null;
+				this.declaringElements = emptyMap();
+				this.elementNamespaceDeclarations = emptyMap();
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @implSpec When serializing a slot value, this version restores the namespace declarations in scope after the element has been serialized.
+		 */
+		@Override
+		protected Appendable serialize(final Appendable appendable, final Element element, final boolean isContentFormatted) throws IOException {
+			if(scopeNamespaces == null) {
+				return super.serialize(appendable, element, isContentFormatted);
+			}
+			final Map<String, String> outerScopeNamespaces = scopeNamespaces;
+			final Map<String, Element> outerDeclaringElements = declaringElements;
+			try {
+				return super.serialize(appendable, element, isContentFormatted);
+			} finally {
+				scopeNamespaces = outerScopeNamespaces;
+				declaringElements = outerDeclaringElements;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @implSpec When serializing a slot value, this version does not modify the element, but instead records the declarations it needs so that they may be
+		 *           written with its attributes. Namespaces already in scope at the slot or declared on an ancestor within the slot value are not declared again,
+		 *           unless the prefix has been declared differently in between.
+		 * @see #serializeAttributes(Appendable, Element, Attr[], int)
+		 */
+		@Override
+		protected void ensureElementNamespaceDeclarations(final Element element) {
+			if(scopeNamespaces == null) {
+				super.ensureElementNamespaceDeclarations(element);
+				return;
+			}
+			Map<String, String> declarations = emptyMap();
+			for(final Map.Entry<String, String> prefixNamespacePair : getUndefinedNamespaces(element)) {
+				final String prefix = prefixNamespacePair.getKey();
+				final String namespaceURI = prefixNamespacePair.getValue();
+				if(!isInScope(element, prefix, namespaceURI)) {
+					if(declarations.isEmpty()) {
+						declarations = new LinkedHashMap<>();
+					}
+					declarations.put(prefix, namespaceURI);
+				}
+			}
+			elementNamespaceDeclarations = declarations;
+			if(!declarations.isEmpty()) {
+				scopeNamespaces = new HashMap<>(scopeNamespaces);
+				scopeNamespaces.putAll(declarations);
+				declaringElements = new HashMap<>(declaringElements);
+				for(final String prefix : declarations.keySet()) {
+					declaringElements.put(prefix, element);
+				}
+			}
+		}
+
+		/**
+		 * Determines whether a namespace declaration is in scope for an element of the slot value being serialized, and not overridden in between.
+		 * @param element The element of the slot value needing the declaration.
+		 * @param prefix The prefix of the declaration, or <code>null</code> for the default namespace.
+		 * @param namespaceURI The namespace URI of the declaration, or <code>null</code> for no namespace.
+		 * @return <code>true</code> if the given declaration is already in scope for the element.
+		 */
+		private boolean isInScope(@Nonnull final Element element, @Nullable final String prefix, @Nullable final String namespaceURI) {
+			if(!scopeNamespaces.containsKey(prefix) || !Objects.equals(scopeNamespaces.get(prefix), namespaceURI)) {
+				return false;
+			}
+			final Element declaringElement = declaringElements.get(prefix); //`null` if declared at the slot itself
+			final String declarationLocalName = prefix != null ? prefix : XMLNS_NAMESPACE_PREFIX;
+			for(Node node = element; node != null && node != declaringElement && node.getNodeType() == Node.ELEMENT_NODE; node = node.getParentNode()) {
+				if(((Element)node).hasAttributeNS(XMLNS_NAMESPACE_URI_STRING, declarationLocalName)) { //the slot value has its own declaration for the prefix
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @implSpec This version first writes any namespace declarations recorded as missing by {@link #ensureElementNamespaceDeclarations(Element)}.
+		 */
+		@Override
+		protected Appendable serializeAttributes(final Appendable appendable, final Element element, final Attr[] attributes, final int attributeCount)
+				throws IOException {
+			try {
+				for(final Map.Entry<String, String> declaration : elementNamespaceDeclarations.entrySet()) {
+					final String prefix = declaration.getKey();
+					final String attributeName = prefix != null ? createQualifiedName(XMLNS_NAMESPACE_PREFIX, prefix) : ATTRIBUTE_XMLNS.getLocalName();
+					serializeAttribute(appendable, attributeName, declaration.getValue() != null ? declaration.getValue() : "");
+				}
+				return super.serializeAttributes(appendable, element, attributes, attributeCount);
+			} finally {
+				elementNamespaceDeclarations = emptyMap();
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @implSpec This version skips any namespace declaration attribute of the element for a prefix that is being declared differently, as the written
+		 *           declaration replaces it.
+		 */
+		@Override
+		protected Appendable serializeAttribute(final Appendable appendable, final Element element, final Attr attribute) throws IOException {
+			if(!elementNamespaceDeclarations.isEmpty() && XMLNS_NAMESPACE_URI_STRING.equals(attribute.getNamespaceURI())) {
+				final String localName = attribute.getLocalName();
+				if(elementNamespaceDeclarations.containsKey(XMLNS_NAMESPACE_PREFIX.equals(localName) ? null : localName)) {
+					return appendable;
+				}
+			}
+			return super.serializeAttribute(appendable, element, attribute);
+		}
+
+	}
+
+}
@@ -0,0 +1,928 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html;
+
+import static com.globalmentor.html.def.HTML.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.regex.*;
+import java.util.stream.*;
+
+import javax.annotation.*;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import com.globalmentor.html.def.HTML;
+import com.globalmentor.html.def.HtmlNames;
+import com.globalmentor.xml.DefaultEntityResolver;
+
+/**
+ * A tokenizer for HTML5 markup, which need not be well-formed. The tokenizer reports tokens to a {@link Handler} as they are encountered, so that a tree
+ * builder can process them without any intermediate token objects being created.
+ * <p>
+ * The tokenizer works directly on a character array. Tag and attribute names are lowercased and interned, so that names of elements and attributes defined in
+ * {@link HTML} are reported as the very same {@link String} instances as the constants themselves, and other names are only allocated once per tokenizer.
+ * Attributes of the current start tag are kept in reusable arrays which the handler may query using {@link #getAttributeCount()},
+ * {@link #getAttributeName(int)}, and {@link #getAttributeValue(int)}.
+ * </p>
+ * <p>
+ * The contents of the raw text elements {@code <script>}, {@code <style>}, {@code <xmp>}, {@code <iframe>}, {@code <noembed>}, and {@code <noframes>} are
+ * reported as text without recognizing any markup; the contents of {@code <title>} and {@code <textarea>} additionally have character references decoded; and
+ * everything after {@code <plaintext>} is reported as text. This only applies to elements the handler reports to be {@link Handler#isHtmlElementStarted() HTML
+ * elements}.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ * <p>
+ * Carriage returns and carriage return/line feed pairs in the input are normalized to line feeds before tokenizing.
+ * </p>
+ * @implNote The named character references recognized are those of HTML 4 and XHTML 1, loaded from the XHTML character entity sets; the names HTML5 added are
+ *           not recognized, and any unrecognized named reference is left as literal text. Numeric character references are fully supported.
+ * @author Garret Wilson
+ * @see <a href="https://html.spec.whatwg.org/multipage/parsing.html#tokenization">HTML Living Standard § 13.2.5 Tokenization</a>
+ */
+public class HtmlTokenizer {
+
+	/**
+	 * The receiver of tokens from the tokenizer.
+	 * @author Garret Wilson
+	 */
+	public interface Handler {
+
+		/**
+		 * Reports a document type declaration.
+		 * @param name The lowercase name of the document type, or <code>null</code> if no name was given.
+		 * @param publicId The public identifier, or <code>null</code> if none was given.
+		 * @param systemId The system identifier, or <code>null</code> if none was given.
+		 */
+		void doctype(@Nullable String name, @Nullable String publicId, @Nullable String systemId);
+
+		/**
+		 * Reports a start tag. The attributes of the tag may be retrieved from the tokenizer during this call.
+		 * @param tokenizer The tokenizer reporting the tag.
+		 * @param name The lowercase, interned name of the tag.
+		 * @param selfClosing Whether the start tag was self-closing, e.g. {@code <br/>}.
+		 */
+		void startTag(@Nonnull HtmlTokenizer tokenizer, @Nonnull String name, boolean selfClosing);
+
+		/**
+		 * Reports an end tag.
+		 * @param name The lowercase, interned name of the tag.
+		 */
+		void endTag(@Nonnull String name);
+
+		/**
+		 * Reports character data, with any character references already decoded.
+		 * @apiNote Adjacent runs of text may be reported in separate calls.
+		 * @param chars The array containing the characters; the contents are only valid during this call.
+		 * @param start The start index of the characters.
+		 * @param length The number of characters.
+		 */
+		void text(@Nonnull char[] chars, int start, int length);
+
+		/**
+		 * Reports a comment.
+		 * @param comment The text of the comment.
+		 */
+		void comment(@Nonnull String comment);
+
+		/**
+		 * Indicates whether the start tag most recently reported started an element in the HTML namespace. Only then is the content of elements such as
+		 * {@code <script>} and {@code <style>} tokenized as text; elements of the same names in foreign content such as SVG have their content tokenized as
+		 * markup.
+		 * @implSpec The default implementation returns <code>true</code>.
+		 * @return <code>true</code> if the most recent start tag started an HTML element.
+		 */
+		default boolean isHtmlElementStarted() {
+			return true;
+		}
+
+	}
+
+	/** The names of raw text elements, the content of which is not parsed for markup. */
+	private static final Set<String> RAW_TEXT_ELEMENTS = Set.of(ELEMENT_SCRIPT, ELEMENT_STYLE, ELEMENT_XMP, ELEMENT_IFRAME, ELEMENT_NOEMBED, ELEMENT_NOFRAMES);
+
+	/** The names of escapable raw text elements, the content of which is not parsed for markup but which may contain character references. */
+	private static final Set<String> ESCAPABLE_RAW_TEXT_ELEMENTS = Set.of(ELEMENT_TITLE, ELEMENT_TEXTAREA);
+
+	/** The public identifier of the XHTML Latin 1 character entity set, the entities of which are also recognized without a terminating semicolon in text. */
+	private static final String LATIN_1_ENTITIES_PUBLIC_ID = "-//W3C//ENTITIES Latin 1 for XHTML//EN";
+
+	/** The public identifiers of the other XHTML character entity sets. */
+	private static final List<String> OTHER_ENTITIES_PUBLIC_IDS = List.of("-//W3C//ENTITIES Special for XHTML//EN", "-//W3C//ENTITIES Symbols for XHTML//EN");
+
+	/**
+	 * The pattern of a character entity declaration in an XHTML entity set, such as <code>&lt;!ENTITY nbsp "&amp;#160;"&gt;</code>. The replacement text of
+	 * the markup-significant entities is itself escaped, e.g. <code>&lt;!ENTITY amp "&amp;#38;#38;"&gt;</code>; the code point is in the last group.
+	 */
+	private static final Pattern ENTITY_DECLARATION_PATTERN = Pattern.compile("<!ENTITY\\s+(\\w+)\\s+\"(?:&#38;)?&?#(\\d+);\">");
+
+	/**
+	 * The recognized named character references and their values, loaded from the XHTML character entity sets, which provide the named character references of
+	 * HTML 4 and XHTML 1.
+	 * @see DefaultEntityResolver
+	 * @see <a href="https://www.w3.org/TR/xhtml1/#h-A2">XHTML™ 1.0 § A.2. Entity Sets</a>
+	 */
+	private static final Map<String, String> NAMED_CHARACTER_REFERENCES;
+
+	/**
+	 * Named character references that are recognized without a terminating semicolon in text, for compatibility with legacy content: the Latin 1 entities and
+	 * the markup-significant entities other than <code>apos</code>.
+	 * @see <a href="https://html.spec.whatwg.org/multipage/named-characters.html">HTML Living Standard § 13.5 Named character references</a>
+	 */
+	private static final Set<String> LEGACY_NAMED_CHARACTER_REFERENCES;
+
+	static {
+		final Map<String, String> legacyNamedCharacterReferences = loadEntities(LATIN_1_ENTITIES_PUBLIC_ID);
+		final Map<String, String> namedCharacterReferences = new HashMap<>(legacyNamedCharacterReferences);
+		for(final String publicId : OTHER_ENTITIES_PUBLIC_IDS) {
+			namedCharacterReferences.putAll(loadEntities(publicId));
+		}
+		NAMED_CHARACTER_REFERENCES = Map.copyOf(namedCharacterReferences);
+		final Set<String> legacyNames = new HashSet<>(legacyNamedCharacterReferences.keySet());
+		legacyNames.addAll(List.of("amp", "lt", "gt", "quot"));
+		LEGACY_NAMED_CHARACTER_REFERENCES = Set.copyOf(legacyNames);
+	}
+
+	/**
+	 * Loads the character entities of an XHTML character entity set using the {@link DefaultEntityResolver}.
+	 * @param publicId The public identifier of the entity set.
+	 * @return The values of the character entities, keyed to the entity names.
+	 * @throws IllegalStateException if the entity set is not available or cannot be read.
+	 */
+	private static Map<String, String> loadEntities(@Nonnull final String publicId) {
+		final String entitySet;
+		try {
+			final InputSource inputSource = DefaultEntityResolver.getInstance().resolveEntity(publicId, null);
+			if(inputSource == null) {
+				throw new IllegalStateException(String.format("Missing entity set resource %s.", publicId));
+			}
+			try (final InputStream inputStream = inputSource.getByteStream()) {
+				entitySet = new String(inputStream.readAllBytes(), UTF_8);
+			}
+		} catch(final IOException | SAXException exception) {
+			throw new IllegalStateException(String.format("Unable to load entity set resource %s.", publicId), exception);
+		}
+		final Map<String, String> entities = new HashMap<>();
+		final Matcher matcher = ENTITY_DECLARATION_PATTERN.matcher(entitySet);
+		while(matcher.find()) {
+			entities.put(matcher.group(1), Character.toString(Integer.parseInt(matcher.group(2))));
+		}
+		if(entities.isEmpty()) {
+			throw new IllegalStateException(String.format("No entities found in entity set resource %s.", publicId));
+		}
+		return entities;
+	}
+
+	/** The longest recognized named character reference name. */
+	private static final int MAX_NAMED_CHARACTER_REFERENCE_LENGTH = NAMED_CHARACTER_REFERENCES.keySet().stream().mapToInt(String::length).max().orElse(0);
+
+	/** The names of all elements and attributes defined in {@link HTML}, used to seed the name table of each tokenizer. */
+	private static final String[] DEFINED_NAMES = Stream
+			.concat(IntStream.range(0, HtmlNames.getElementCount()).mapToObj(HtmlNames::getElementName),
+					IntStream.range(0, HtmlNames.getAttributeCount()).mapToObj(HtmlNames::getAttributeName))
+			.distinct().toArray(String[]::new);
+
+	private final Handler handler;
+
+	/** The table of interned names; a power of two in size. */
+	private String[] names;
+
+	/** The number of interned names. */
+	private int nameCount = 0;
+
+	/** The characters being tokenized. */
+	private char[] chars;
+
+	/** The number of characters being tokenized. */
+	private int length;
+
+	/** The current position in the characters. */
+	private int position;
+
+	/** Reusable buffer for collecting decoded text and attribute values. */
+	private char[] buffer = new char[256];
+
+	/** The number of characters in the buffer. */
+	private int bufferLength = 0;
+
+	private String[] attributeNames = new String[8];
+
+	private String[] attributeValues = new String[8];
+
+	private int attributeCount = 0;
+
+	/** @return The number of attributes of the start tag currently being reported. */
+	public int getAttributeCount() {
+		return attributeCount;
+	}
+
+	/**
+	 * Returns the name of an attribute of the start tag currently being reported.
+	 * @param index The index of the attribute.
+	 * @return The lowercase, interned name of the attribute.
+	 * @throws IndexOutOfBoundsException if the index is not less than the attribute count.
+	 */
+	public String getAttributeName(final int index) {
+		return attributeNames[Objects.checkIndex(index, attributeCount)];
+	}
+
+	/**
+	 * Returns the value of an attribute of the start tag currently being reported.
+	 * @param index The index of the attribute.
+	 * @return The value of the attribute, with any character references decoded; the empty string for an attribute with no value.
+	 * @throws IndexOutOfBoundsException if the index is not less than the attribute count.
+	 */
+	public String getAttributeValue(final int index) {
+		return attributeValues[Objects.checkIndex(index, attributeCount)];
+	}
+
+	/**
+	 * Handler constructor.
+	 * @param handler The receiver of tokens.
+	 */
+	public HtmlTokenizer(@Nonnull final Handler handler) {
+		this.handler = requireNonNull(handler);
+		int capacity = 16;
+		while(capacity < DEFINED_NAMES.length * 2) {
+			capacity <<= 1;
+		}
+		names = new String[capacity];
+		for(final String name : DEFINED_NAMES) {
+			addName(name);
+		}
+	}
+
+	/**
+	 * Tokenizes the given characters, reporting the tokens to the handler.
+	 * @param chars The characters to tokenize.
+	 * @param start The index of the first character to tokenize.
+	 * @param end The index after the last character to tokenize.
+	 * @throws IndexOutOfBoundsException if the start or end index is out of bounds.
+	 */
+	public void tokenize(@Nonnull final char[] chars, final int start, final int end) {
+		Objects.checkFromToIndex(start, end, chars.length);
+		this.chars = chars;
+		this.length = end;
+		this.position = start;
+		for(int index = start; index < end; index++) {
+			if(chars[index] == '\r') { //only copy the input if there are newlines to normalize
+				this.chars = normalizeNewlines(chars, start, index, end);
+				this.length = this.chars.length;
+				this.position = 0;
+				break;
+			}
+		}
+		try {
+			while(position < length) {
+				final char c = this.chars[position];
+				if(c == '<') {
+					tag();
+				} else if(c == '&') {
+					characterReference(false);
+				} else {
+					appendBuffer(c);
+					position++;
+				}
+			}
+			flushText();
+		} finally {
+			this.chars = null; //don't hold on to the input
+		}
+	}
+
+	/**
+	 * Creates a copy of a range of characters with carriage returns and carriage return/line feed pairs normalized to line feeds.
+	 * @param chars The characters to normalize.
+	 * @param start The index of the first character to normalize.
+	 * @param carriageReturnIndex The index of the first carriage return in the range.
+	 * @param end The index after the last character to normalize.
+	 * @return A new array containing exactly the normalized characters.
+	 * @see <a href="https://html.spec.whatwg.org/multipage/parsing.html#preprocessing-the-input-stream">HTML Living Standard § 13.2.3.5 Preprocessing the input
+	 *      stream</a>
+	 */
+	private static char[] normalizeNewlines(@Nonnull final char[] chars, final int start, final int carriageReturnIndex, final int end) {
+		final char[] normalizedChars = new char[end - start];
+		int normalizedLength = carriageReturnIndex - start;
+		System.arraycopy(chars, start, normalizedChars, 0, normalizedLength);
+		for(int index = carriageReturnIndex; index < end; index++) {
+			final char c = chars[index];
+			if(c == '\r') {
+				normalizedChars[normalizedLength++] = '\n';
+				if(index + 1 < end && chars[index + 1] == '\n') {
+					index++;
+				}
+			} else {
+				normalizedChars[normalizedLength++] = c;
+			}
+		}
+		return normalizedLength == normalizedChars.length ? normalizedChars : Arrays.copyOf(normalizedChars, normalizedLength);
+	}
+
+	//## tags
+
+	/** Processes markup starting with <code>&lt;</code>, which may turn out to be literal text. */
+	private void tag() {
+		final int next = position + 1;
+		if(next < length) {
+			final char c = chars[next];
+			if(isAsciiLetter(c)) {
+				flushText();
+				startTag();
+				return;
+			}
+			if(c == '/') {
+				if(next + 1 < length && isAsciiLetter(chars[next + 1])) {
+					flushText();
+					position = next + 1;
+					final String name = readName();
+					skipPast('>'); //attributes on end tags are ignored
+					handler.endTag(name);
+					return;
+				}
+				if(next + 1 < length && chars[next + 1] == '>') { //`</>` is ignored altogether
+					flushText();
+					position = next + 2;
+					return;
+				}
+				flushText();
+				bogusComment(next + 1);
+				return;
+			}
+			if(c == '!') {
+				flushText();
+				if(regionMatches(next + 1, "--")) {
+					comment(next + 3);
+				} else if(regionMatchesIgnoreCase(next + 1, "DOCTYPE")) {
+					doctype(next + 8);
+				} else {
+					bogusComment(next + 1);
+				}
+				return;
+			}
+			if(c == '?') {
+				flushText();
+				bogusComment(next);
+				return;
+			}
+		}
+		appendBuffer('<'); //not markup after all
+		position++;
+	}
+
+	/** Processes a start tag, with the position at the <code>&lt;</code> character. */
+	private void startTag() {
+		position++;
+		final String name = readName();
+		attributeCount = 0;
+		boolean selfClosing = false;
+		while(true) {
+			skipWhitespace();
+			if(position >= length) { //a tag cut off by the end of input is discarded
+				return;
+			}
+			final char c = chars[position];
+			if(c == '>') {
+				position++;
+				break;
+			}
+			if(c == '/') {
+				position++;
+				if(position < length && chars[position] == '>') {
+					selfClosing = true;
+					position++;
+					break;
+				}
+				continue;
+			}
+			attribute();
+		}
+		handler.startTag(this, name, selfClosing);
+		if(!handler.isHtmlElementStarted()) { //the content of elements in foreign content is always markup
+			return;
+		}
+		if(RAW_TEXT_ELEMENTS.contains(name) || ESCAPABLE_RAW_TEXT_ELEMENTS.contains(name)) {
+			rawText(name, ESCAPABLE_RAW_TEXT_ELEMENTS.contains(name));
+		} else if(ELEMENT_PLAINTEXT.equals(name)) {
+			handler.text(chars, position, length - position);
+			position = length;
+		}
+	}
+
+	/** Reads an attribute of a start tag, with the position at the first character of the attribute name. */
+	private void attribute() {
+		final int nameStart = position;
+		position++; //the first character is always part of the name, even if it is `=`
+		while(position < length) {
+			final char c = chars[position];
+			if(isWhitespace(c) || c == '/' || c == '>' || c == '=') {
+				break;
+			}
+			position++;
+		}
+		final String name = intern(nameStart, position);
+		skipWhitespace();
+		final String value;
+		if(position < length && chars[position] == '=') {
+			position++;
+			skipWhitespace();
+			value = attributeValue();
+		} else {
+			value = "";
+		}
+		for(int i = 0; i < attributeCount; i++) { //later duplicate attributes are ignored
+			if(attributeNames[i] == name) { //names are interned
+				return;
+			}
+		}
+		if(attributeCount == attributeNames.length) {
+			attributeNames = Arrays.copyOf(attributeNames, attributeCount * 2);
+			attributeValues = Arrays.copyOf(attributeValues, attributeCount * 2);
+		}
+		attributeNames[attributeCount] = name;
+		attributeValues[attributeCount] = value;
+		attributeCount++;
+	}
+
+	/**
+	 * Reads an attribute value, with the position after the <code>=</code> character and any whitespace.
+	 * @return The decoded attribute value.
+	 */
+	private String attributeValue() {
+		if(position >= length) {
+			return "";
+		}
+		final char quote = chars[position];
+		final boolean quoted = quote == '"' || quote == '\'';
+		if(quoted) {
+			position++;
+		}
+		final int valueStart = position;
+		boolean hasReference = false;
+		while(position < length) {
+			final char c = chars[position];
+			if(quoted ? c == quote : (isWhitespace(c) || c == '>')) {
+				break;
+			}
+			if(c == '&') {
+				hasReference = true;
+			}
+			position++;
+		}
+		final int valueEnd = position;
+		if(quoted && position < length) {
+			position++; //skip the closing quote
+		}
+		if(!hasReference) {
+			return valueStart == valueEnd ? "" : new String(chars, valueStart, valueEnd - valueStart);
+		}
+		//decode character references using the buffer, which is otherwise unused inside a tag
+		assert bufferLength == 0 : "Text should have been flushed before tag.";
+		final int savedLength = length;
+		length = valueEnd;
+		position = valueStart;
+		while(position < length) {
+			final char c = chars[position];
+			if(c == '&') {
+				characterReference(true);
+			} else {
+				appendBuffer(c);
+				position++;
+			}
+		}
+		length = savedLength;
+		if(quoted && position < length) {
+			position++; //skip the closing quote
+		}
+		final String value = new String(buffer, 0, bufferLength);
+		bufferLength = 0;
+		return value;
+	}
+
+	/**
+	 * Processes the content of a raw text element up to its end tag, which is left to be processed normally.
+	 * @param name The name of the element.
+	 * @param escapable Whether character references should be decoded.
+	 */
+	private void rawText(@Nonnull final String name, final boolean escapable) {
+		final int textStart = position;
+		int end = position;
+		while(true) {
+			while(end < length && chars[end] != '<') {
+				end++;
+			}
+			if(end >= length) {
+				break;
+			}
+			final int nameEnd = end + 2 + name.length();
+			if(end + 1 < length && chars[end + 1] == '/' && regionMatchesIgnoreCase(end + 2, name)
+					&& (nameEnd >= length || isWhitespace(chars[nameEnd]) || chars[nameEnd] == '/' || chars[nameEnd] == '>')) {
+				break;
+			}
+			end++;
+		}
+		if(escapable) {
+			final int savedLength = length;
+			length = end;
+			while(position < length) {
+				final char c = chars[position];
+				if(c == '&') {
+					characterReference(false);
+				} else {
+					appendBuffer(c);
+					position++;
+				}
+			}
+			length = savedLength;
+			flushText();
+		} else if(end > textStart) {
+			handler.text(chars, textStart, end - textStart);
+		}
+		position = end;
+	}
+
+	/**
+	 * Processes a comment, with the position at the <code>&lt;</code> character.
+	 * @param contentStart The index of the start of the comment content, after <code>&lt;!--</code>.
+	 */
+	private void comment(final int contentStart) {
+		int end = contentStart;
+		while(end < length && !regionMatches(end, "-->")) {
+			end++;
+		}
+		handler.comment(new String(chars, contentStart, Math.min(end, length) - contentStart));
+		position = Math.min(end + 3, length);
+	}
+
+	/**
+	 * Processes a malformed markup declaration or processing instruction as a comment extending to the next <code>&gt;</code> character.
+	 * @param contentStart The index of the start of the comment content.
+	 */
+	private void bogusComment(final int contentStart) {
+		position = contentStart;
+		skipTo('>');
+		handler.comment(new String(chars, contentStart, position - contentStart));
+		if(position < length) {
+			position++;
+		}
+	}
+
+	/**
+	 * Processes a document type declaration.
+	 * @param contentStart The index after the <code>DOCTYPE</code> keyword.
+	 */
+	private void doctype(final int contentStart) {
+		position = contentStart;
+		skipWhitespace();
+		final int nameStart = position;
+		while(position < length && !isWhitespace(chars[position]) && chars[position] != '>') {
+			position++;
+		}
+		final String name = position > nameStart ? intern(nameStart, position) : null;
+		String publicId = null;
+		String systemId = null;
+		skipWhitespace();
+		if(regionMatchesIgnoreCase(position, "PUBLIC")) {
+			position += 6;
+			publicId = quotedIdentifier();
+			systemId = quotedIdentifier();
+		} else if(regionMatchesIgnoreCase(position, "SYSTEM")) {
+			position += 6;
+			systemId = quotedIdentifier();
+		}
+		skipPast('>');
+		handler.doctype(name, publicId, systemId);
+	}
+
+	/**
+	 * Reads an optional quoted identifier in a document type declaration, skipping any preceding whitespace.
+	 * @return The identifier, or <code>null</code> if there is no quoted identifier at the current position.
+	 */
+	private String quotedIdentifier() {
+		skipWhitespace();
+		if(position >= length || (chars[position] != '"' && chars[position] != '\'')) {
+			return null;
+		}
+		final char quote = chars[position++];
+		final int start = position;
+		while(position < length && chars[position] != quote && chars[position] != '>') {
+			position++;
+		}
+		final String identifier = new String(chars, start, position - start);
+		if(position < length && chars[position] == quote) {
+			position++;
+		}
+		return identifier;
+	}
+
+	//## character references
+
+	/**
+	 * Decodes a character reference into the buffer, with the position at the <code>&amp;</code> character. If the reference is not recognized, the
+	 * <code>&amp;</code> character is added as literal text.
+	 * @param inAttribute Whether the reference appears in an attribute value, in which case named references not terminated by a semicolon are not decoded.
+	 */
+	private void characterReference(final boolean inAttribute) {
+		final int start = position + 1;
+		if(start < length && chars[start] == '#') {
+			int index = start + 1;
+			final boolean hex = index < length && (chars[index] == 'x' || chars[index] == 'X');
+			if(hex) {
+				index++;
+			}
+			final int digitsStart = index;
+			int codePoint = 0;
+			while(index < length) {
+				final int digit = Character.digit(chars[index], hex ? 16 : 10);
+				if(digit < 0) {
+					break;
+				}
+				codePoint = Math.min(codePoint * (hex ? 16 : 10) + digit, Character.MAX_CODE_POINT + 1); //clamp to prevent overflow
+				index++;
+			}
+			if(index > digitsStart) {
+				if(index < length && chars[index] == ';') {
+					index++;
+				}
+				if(codePoint == 0 || codePoint > Character.MAX_CODE_POINT || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+					codePoint = '\uFFFD'; //replacement character
+				}
+				if(Character.isBmpCodePoint(codePoint)) {
+					appendBuffer((char)codePoint);
+				} else {
+					appendBuffer(Character.highSurrogate(codePoint));
+					appendBuffer(Character.lowSurrogate(codePoint));
+				}
+				position = index;
+				return;
+			}
+		} else {
+			int index = start;
+			while(index < length && index - start < MAX_NAMED_CHARACTER_REFERENCE_LENGTH && isAsciiLetterOrDigit(chars[index])) {
+				index++;
+			}
+			//try the longest name first; shorter prefixes can only match legacy references with no semicolon, e.g. `&ampfoo`
+			for(int end = index; end > start; end--) {
+				final String name = new String(chars, start, end - start);
+				final String value = NAMED_CHARACTER_REFERENCES.get(name);
+				if(value != null) {
+					final boolean terminated = end < length && chars[end] == ';';
+					if(terminated || (!inAttribute && LEGACY_NAMED_CHARACTER_REFERENCES.contains(name))) {
+						for(int i = 0; i < value.length(); i++) {
+							appendBuffer(value.charAt(i));
+						}
+						position = terminated ? end + 1 : end;
+						return;
+					}
+				}
+			}
+		}
+		appendBuffer('&'); //not a recognized reference
+		position++;
+	}
+
+	//## text buffer
+
+	/**
+	 * Appends a character to the text buffer, growing it as needed.
+	 * @param c The character to append.
+	 */
+	private void appendBuffer(final char c) {
+		if(bufferLength == buffer.length) {
+			buffer = Arrays.copyOf(buffer, bufferLength * 2);
+		}
+		buffer[bufferLength++] = c;
+	}
+
+	/** Reports any text collected in the buffer and clears the buffer. */
+	private void flushText() {
+		if(bufferLength > 0) {
+			handler.text(buffer, 0, bufferLength);
+			bufferLength = 0;
+		}
+	}
+
+	//## names
+
+	/**
+	 * Reads a tag name, with the position at its first character.
+	 * @return The interned, lowercase name.
+	 */
+	private String readName() {
+		final int start = position;
+		while(position < length) {
+			final char c = chars[position];
+			if(isWhitespace(c) || c == '/' || c == '>') {
+				break;
+			}
+			position++;
+		}
+		return intern(start, position);
+	}
+
+	/**
+	 * Returns the interned, lowercase form of a name in the input, only creating a new string the first time the name is encountered.
+	 * @param start The start index of the name in the input.
+	 * @param end The end index of the name in the input.
+	 * @return The interned, lowercase name.
+	 */
+	private String intern(final int start, final int end) {
+		int hash = 0;
+		for(int i = start; i < end; i++) {
+			hash = 31 * hash + toAsciiLowerCase(chars[i]); //the same hash as `String.hashCode()` of the lowercase name
+		}
+		final int mask = names.length - 1;
+		for(int slot = spread(hash) & mask;; slot = (slot + 1) & mask) {
+			final String name = names[slot];
+			if(name == null) {
+				break;
+			}
+			if(name.length() == end - start && matchesLowerCase(name, start)) {
+				return name;
+			}
+		}
+		final char[] nameChars = new char[end - start];
+		for(int i = start; i < end; i++) {
+			nameChars[i - start] = toAsciiLowerCase(chars[i]);
+		}
+		final String name = new String(nameChars);
+		addName(name);
+		return name;
+	}
+
+	/**
+	 * Adds a name to the table of interned names, growing the table as needed.
+	 * @param name The lowercase name to add, which must not already be present.
+	 */
+	private void addName(@Nonnull final String name) {
+		if((nameCount + 1) * 2 > names.length) { //keep the load factor at most one half
+			final String[] oldNames = names;
+			names = new String[oldNames.length * 2];
+			nameCount = 0;
+			for(final String oldName : oldNames) {
+				if(oldName != null) {
+					addName(oldName);
+				}
+			}
+		}
+		final int mask = names.length - 1;
+		int slot = spread(name.hashCode()) & mask;
+		while(names[slot] != null) {
+			if(names[slot].equals(name)) { //defined names may include duplicates
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		names[slot] = name;
+		nameCount++;
+	}
+
+	/**
+	 * Spreads the higher bits of a hash code into the lower bits for use with a power-of-two table.
+	 * @param hash The hash code.
+	 * @return The spread hash code.
+	 */
+	private static int spread(final int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * Determines whether the input at the given index matches the given lowercase name, ignoring ASCII case in the input.
+	 * @param name The lowercase name.
+	 * @param start The index in the input at which to compare.
+	 * @return <code>true</code> if the input matches the name.
+	 */
+	private boolean matchesLowerCase(@Nonnull final String name, final int start) {
+		final int nameLength = name.length();
+		for(int i = 0; i < nameLength; i++) {
+			if(toAsciiLowerCase(chars[start + i]) != name.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	//## utilities
+
+	/** Skips any whitespace at the current position. */
+	private void skipWhitespace() {
+		while(position < length && isWhitespace(chars[position])) {
+			position++;
+		}
+	}
+
+	/**
+	 * Advances the position to the given character, or to the end of input if it is not found.
+	 * @param c The character to find.
+	 */
+	private void skipTo(final char c) {
+		while(position < length && chars[position] != c) {
+			position++;
+		}
+	}
+
+	/**
+	 * Advances the position past the given character, or to the end of input if it is not found.
+	 * @param c The character to find.
+	 */
+	private void skipPast(final char c) {
+		skipTo(c);
+		if(position < length) {
+			position++;
+		}
+	}
+
+	/**
+	 * Determines whether the input at the given index matches the given string exactly.
+	 * @param index The index in the input.
+	 * @param string The string to match.
+	 * @return <code>true</code> if the input matches.
+	 */
+	private boolean regionMatches(final int index, @Nonnull final String string) {
+		final int stringLength = string.length();
+		if(index + stringLength > length) {
+			return false;
+		}
+		for(int i = 0; i < stringLength; i++) {
+			if(chars[index + i] != string.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determines whether the input at the given index matches the given string, ignoring ASCII case.
+	 * @param index The index in the input.
+	 * @param string The string to match.
+	 * @return <code>true</code> if the input matches.
+	 */
+	private boolean regionMatchesIgnoreCase(final int index, @Nonnull final String string) {
+		final int stringLength = string.length();
+		if(index + stringLength > length) {
+			return false;
+		}
+		for(int i = 0; i < stringLength; i++) {
+			if(toAsciiLowerCase(chars[index + i]) != toAsciiLowerCase(string.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determines whether a character is HTML whitespace: tab, line feed, form feed, carriage return, or space.
+	 * @param c The character to check.
+	 * @return <code>true</code> if the character is HTML whitespace.
+	 */
+	static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+	}
+
+	/**
+	 * Determines whether a character is an ASCII letter.
+	 * @param c The character to check.
+	 * @return <code>true</code> if the character is an ASCII letter.
+	 */
+	private static boolean isAsciiLetter(final char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	/**
+	 * Determines whether a character is an ASCII letter or digit.
+	 * @param c The character to check.
+	 * @return <code>true</code> if the character is an ASCII letter or digit.
+	 */
+	private static boolean isAsciiLetterOrDigit(final char c) {
+		return isAsciiLetter(c) || (c >= '0' && c <= '9');
+	}
+
+	/**
+	 * Converts an ASCII uppercase letter to lowercase, leaving all other characters unchanged.
+	 * @param c The character to convert.
+	 * @return The lowercase form of the character.
+	 */
+	private static char toAsciiLowerCase(final char c) {
+		return c >= 'A' && c <= 'Z' ? (char)(c + ('a' - 'A')) : c;
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html;
+
+import java.io.IOException;
+
+import javax.annotation.*;
+
+/**
+ * Content of an HTML {@code <script>} element that is written directly to the serializer output, such as JavaScript or JSON produced by a generator, rather
+ * than first being placed in the document as text. Script content is associated with a script element using
+ * {@link HtmlSerializer#setScriptContent(org.w3c.dom.Element, ScriptContent)}.
+ * <pre>
+ * {@code
+ * HtmlSerializer.setScriptContent(scriptElement, appendable -> JSON.appendValue(appendable, value));
+ * }
+ * </pre>
+ * @author Garret Wilson
+ * @see HtmlSerializer#setScriptContent(org.w3c.dom.Element, ScriptContent)
+ */
+@FunctionalInterface
+public interface ScriptContent {
+
+	/**
+	 * Writes the script content.
+	 * @param appendable The destination to which the script content should be written, which neutralizes any sequences that would end the script element.
+	 * @throws IOException if there is an error writing the content.
+	 */
+	void write(@Nonnull Appendable appendable) throws IOException;
+
+}
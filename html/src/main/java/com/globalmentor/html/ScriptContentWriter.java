@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html;
+
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.nio.CharBuffer;
+
+import javax.annotation.*;
+
+/**
+ * A writer of the content of an HTML {@code <script>} element, which neutralizes as it streams the sequences that would end the script element or change how
+ * its content is parsed.
+ * <p>
+ * The <code>&lt;</code> beginning any <code>&lt;/script</code> (in any case) or <code>&lt;!--</code> is written as the escape sequence
+ * <code>&#92;u003C</code>, which has the same meaning within JavaScript string literals, template literals, and regular expressions, and within JSON strings.
+ * Script code produced by JavaScript or JSON generators contains these sequences only within such literals, so code written through this writer remains
+ * unchanged in meaning. All other characters are written unchanged, in runs directly from the text provided.
+ * </p>
+ * <p>
+ * Characters that might begin one of the sequences are held back until the sequence is either completed or ruled out. Such characters are written when the
+ * writer is closed, which does not close the destination.
+ * </p>
+ * <pre>
+ * {@code
+ * try (final ScriptContentWriter scriptContentWriter = new ScriptContentWriter(writer)) {
+ *   JSON.appendValue(scriptContentWriter, value);
+ * }
+ * }
+ * </pre>
+ * @author Garret Wilson
+ * @see HtmlSerializer#setScriptContentEscaped(boolean)
+ * @see <a href="https://html.spec.whatwg.org/multipage/scripting.html#restrictions-for-contents-of-script-elements">HTML Living Standard § 4.12.1.3
+ *      Restrictions for contents of script elements</a>
+ */
+public class ScriptContentWriter extends Writer {
+
+	/** The sequence beginning a script end tag, the letters of which are matched in any case. */
+	private static final String SCRIPT_END_TAG_START = "</script";
+
+	/** The sequence beginning an HTML comment, which inside a script element may cause a script end tag to be ignored. */
+	private static final String COMMENT_START = "<!--";
+
+	/** The escape sequence written in place of the <code>&lt;</code> beginning a neutralized sequence. */
+	private static final String ESCAPED_LESS_THAN = "\\u003C";
+
+	private final Appendable appendable;
+
+	/** The characters held back as matching the start of a sequence to neutralize. */
+	private final char[] pending = new char[SCRIPT_END_TAG_START.length()];
+
+	private int pendingLength = 0;
+
+	/**
+	 * Appendable constructor.
+	 * @param appendable The destination to which script content should be written.
+	 */
+	public ScriptContentWriter(@Nonnull final Appendable appendable) {
+		this.appendable = requireNonNull(appendable);
+	}
+
+	@Override
+	public void write(final char[] cbuf, final int off, final int len) throws IOException {
+		writeContent(CharBuffer.wrap(cbuf), off, off + len);
+	}
+
+	@Override
+	public void write(final String str, final int off, final int len) throws IOException {
+		writeContent(str, off, off + len);
+	}
+
+	@Override
+	public ScriptContentWriter append(final CharSequence csq) throws IOException {
+		final CharSequence text = csq != null ? csq : "null";
+		writeContent(text, 0, text.length());
+		return this;
+	}
+
+	@Override
+	public ScriptContentWriter append(final CharSequence csq, final int start, final int end) throws IOException {
+		final CharSequence text = csq != null ? csq : "null";
+		if(start < 0 || start > end || end > text.length()) {
+			throw new IndexOutOfBoundsException("Range " + start + " to " + end + " not within length " + text.length() + ".");
+		}
+		writeContent(text, start, end);
+		return this;
+	}
+
+	/**
+	 * Writes script content, neutralizing sequences as needed.
+	 * @param text The text containing the content.
+	 * @param start The index of the first character to write.
+	 * @param end The index after the last character to write.
+	 * @throws IOException if there is an error writing the content.
+	 */
+	protected void writeContent(@Nonnull final CharSequence text, final int start, final int end) throws IOException {
+		int runStart = start;
+		for(int i = start; i < end; i++) {
+			final char c = text.charAt(i);
+			if(pendingLength > 0) {
+				final String sequence = pendingLength == 1 ? (c == '/' ? SCRIPT_END_TAG_START : c == '!' ? COMMENT_START : null)
+						: pending[1] == '/' ? SCRIPT_END_TAG_START : COMMENT_START;
+				if(sequence != null && matches(c, sequence.charAt(pendingLength))) {
+					pending[pendingLength++] = c;
+					if(pendingLength == sequence.length()) { //neutralize the complete sequence
+						appendable.append(ESCAPED_LESS_THAN).append(CharBuffer.wrap(pending, 1, pendingLength - 1));
+						pendingLength = 0;
+					}
+					runStart = i + 1;
+					continue;
+				}
+				writePending(); //the held back characters turned out not to start a sequence
+				runStart = i;
+			}
+			if(c == '<') {
+				if(i > runStart) {
+					appendable.append(text, runStart, i);
+				}
+				pending[pendingLength++] = c;
+				runStart = i + 1;
+			}
+		}
+		if(runStart < end) {
+			appendable.append(text, runStart, end);
+		}
+	}
+
+	/**
+	 * Determines whether a character matches a character of a sequence to neutralize, ignoring the case of ASCII letters.
+	 * @param c The character to check.
+	 * @param expected The character expected in the sequence, with letters in lowercase.
+	 * @return <code>true</code> if the character matches.
+	 */
+	private static boolean matches(final char c, final char expected) {
+		return c == expected || (expected >= 'a' && expected <= 'z' && c == expected - ('a' - 'A'));
+	}
+
+	/**
+	 * Writes any characters held back, as they do not start a sequence to neutralize.
+	 * @throws IOException if there is an error writing the characters.
+	 */
+	private void writePending() throws IOException {
+		if(pendingLength > 0) {
+			appendable.append(CharBuffer.wrap(pending, 0, pendingLength));
+			pendingLength = 0;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation flushes the destination if it is {@link Flushable}. Characters held back are not written.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if(appendable instanceof Flushable) {
+			((Flushable)appendable).flush();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation writes any characters held back, as the content has ended without completing a sequence to neutralize. The destination is
+	 *           not flushed or closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		writePending();
+	}
+
+}
@@ -16,12 +16,14 @@
 
 package com.globalmentor.html;
 
+import static com.github.npathai.hamcrestopt.OptionalMatchers.*;
 import static com.globalmentor.html.HtmlDom.*;
 import static com.globalmentor.html.def.HTML.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 
-import java.util.Set;
+import java.util.*;
 
 import org.junit.jupiter.api.*;
 import org.w3c.dom.*;
@@ -121,4 +123,95 @@ public void testMergeAttributesNS() {
 		assertThat(element2.getAttributeNodeNS(EXAMPLE_NS_URI_STRING, "one").getName(), is("new:one"));
 	}
 
+	/** @see HtmlDom#mergeAttributes(Element, Iterable) */
+	@Test
+	public void testMergeAttributesMultiple() {
+		final Document document = createXHTMLDocument("Test");
+		final Element targetElement = findHtmlBodyElement(document).orElseThrow(AssertionError::new);
+		targetElement.setAttributeNS(null, ATTRIBUTE_CLASS, "one");
+		final Element element1 = document.createElementNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_DIV);
+		element1.setAttributeNS(null, ATTRIBUTE_CLASS, "two one");
+		element1.setAttributeNS(null, "test", "foo");
+		final Element element2 = document.createElementNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_DIV);
+		element2.setAttributeNS(null, ATTRIBUTE_CLASS, " three  two ");
+		element2.setAttributeNS(null, "test", "bar");
+		HtmlDom.mergeAttributes(targetElement, List.of(element1, element2));
+		assertThat(targetElement.getAttributeNS(null, ATTRIBUTE_CLASS), is("one two three"));
+		assertThat(targetElement.getAttributeNS(null, "test"), is("bar"));
+		targetElement.setAttributeNS(null, ATTRIBUTE_CLASS, " two\tone  two ");
+		HtmlDom.mergeAttributes(targetElement, document.createElementNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_DIV));
+		assertThat("Existing classes are normalized even if no classes are merged.", targetElement.getAttributeNS(null, ATTRIBUTE_CLASS), is("two one"));
+	}
+
+	/**
+	 * @see HtmlDom#hasClass(Element, String)
+	 * @see HtmlDom#addClass(Element, String)
+	 * @see HtmlDom#removeClass(Element, String)
+	 * @see HtmlDom#toggleClass(Element, String)
+	 * @see HtmlDom#mergeClasses(Element, CharSequence)
+	 */
+	@Test
+	public void testClassOperations() {
+		final Document document = createXHTMLDocument("Test");
+		final Element element = findHtmlBodyElement(document).orElseThrow(AssertionError::new);
+		assertThat(hasClass(element, "foo"), is(false));
+		element.setAttributeNS(null, ATTRIBUTE_CLASS, " foo\tbar  foobar ");
+		assertThat(hasClass(element, "foo"), is(true));
+		assertThat(hasClass(element, "fo"), is(false));
+		assertThat(hasClass(element, "foobar"), is(true));
+
+		assertThat(addClass(element, "bar"), is(false));
+		assertThat(addClass(element, "baz"), is(true));
+		assertThat(element.getAttributeNS(null, ATTRIBUTE_CLASS), is(" foo\tbar  foobar baz"));
+
+		assertThat(removeClass(element, "foo"), is(true));
+		assertThat(removeClass(element, "foo"), is(false));
+		assertThat(element.getAttributeNS(null, ATTRIBUTE_CLASS), is("bar foobar baz"));
+
+		assertThat(toggleClass(element, "new"), is(true));
+		assertThat(element.getAttributeNS(null, ATTRIBUTE_CLASS), is("bar foobar baz new"));
+		assertThat(toggleClass(element, "new"), is(false));
+		assertThat(element.getAttributeNS(null, ATTRIBUTE_CLASS), is("bar foobar baz"));
+
+		assertThat(mergeClasses(element, " baz bar "), is(false));
+		assertThat(mergeClasses(element, "one bar two"), is(true));
+		assertThat(getClasses(element), contains("bar", "foobar", "baz", "one", "two"));
+
+		for(final String className : List.of("bar", "foobar", "baz", "one", "two")) {
+			removeClass(element, className);
+		}
+		assertThat(element.hasAttributeNS(null, ATTRIBUTE_CLASS), is(false));
+
+		assertThrows(IllegalArgumentException.class, () -> addClass(element, ""));
+		assertThrows(IllegalArgumentException.class, () -> addClass(element, "foo bar"));
+	}
+
+	/** @see HtmlDom#htmlHeadMetadata(Document) */
+	@Test
+	public void testHtmlHeadMetadata() {
+		final Document document = createXHTMLDocument("Test");
+		final Element headElement = findHtmlHeadElement(document).orElseThrow(AssertionError::new);
+		addNamedMetadata(headElement, "Description", "first");
+		addNamedMetadata(headElement, "description", "second");
+		addNamedMetadata(headElement, "author", "Jane Doe");
+
+		final HtmlHeadMetadata headMetadata = htmlHeadMetadata(document);
+		assertThat(headMetadata.getNames(), contains("description", "author"));
+		assertThat(headMetadata.findContent("DESCRIPTION"), isPresentAndIs("first"));
+		assertThat(headMetadata.findContent("keywords"), isEmpty());
+
+		final Element descriptionElement = headMetadata.set("description", "updated");
+		assertThat(descriptionElement.getAttributeNS(null, ELEMENT_META_ATTRIBUTE_NAME), is("Description"));
+		assertThat(findHtmlHeadMetaElementContent(document, "description"), isPresentAndIs("updated"));
+
+		final Element keywordsElement = headMetadata.set("keywords", "foo, bar");
+		assertThat(headElement.getLastChild(), is((Node)keywordsElement));
+		assertThat(headMetadata.findElementByName("Keywords"), isPresentAndIs(keywordsElement));
+		assertThat(headMetadata.getNames(), contains("description", "author", "keywords"));
+
+		headMetadata.add("author", "John Doe");
+		assertThat(headMetadata.findContent("author"), isPresentAndIs("Jane Doe"));
+		assertThat(htmlHeadMetaElements(document).count(), is(5L));
+	}
+
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html;
+
+import static com.globalmentor.html.def.HTML.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.*;
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+import org.w3c.dom.*;
+
+import com.globalmentor.xml.def.NsName;
+
+/**
+ * Tests of {@link HtmlParser}.
+ * @author Garret Wilson
+ */
+public class HtmlParserTest {
+
+	/** Verifies that the implied document structure is created and that the result works with {@link HtmlDom}. */
+	@Test
+	public void testImpliedStructure() {
+		final Document document = new HtmlParser().parse("<!DOCTYPE html><title>A &amp; B</title><p>one<p>two");
+		assertThat(document.getDoctype().getName(), is(ELEMENT_HTML));
+		assertThat(HtmlDom.findHtmlHeadTitleElement(document).map(Element::getTextContent).orElseThrow(), is("A & B"));
+		final Element body = HtmlDom.findHtmlBodyElement(document).orElseThrow();
+		assertThat(body.getNamespaceURI(), is(XHTML_NAMESPACE_URI_STRING));
+		assertThat(body.getChildNodes().getLength(), is(2));
+		assertThat(body.getFirstChild().getTextContent(), is("one"));
+		assertThat(body.getLastChild().getTextContent(), is("two"));
+	}
+
+	/** Verifies that element names are interned to the {@link com.globalmentor.html.def.HTML} constants. */
+	@Test
+	public void testElementNamesInterned() {
+		final Document document = new HtmlParser().parse("<DIV Class=x>text</DIV>");
+		final Element div = (Element)HtmlDom.findHtmlBodyElement(document).orElseThrow().getFirstChild();
+		assertThat(div.getLocalName(), is(sameInstance(ELEMENT_DIV)));
+		assertThat(div.getAttributeNS(null, ATTRIBUTE_CLASS), is("x"));
+	}
+
+	/** Verifies that tag soup is parsed and serialized as expected. */
+	@Test
+	public void testTagSoup() throws IOException {
+		final Document document = new HtmlParser().parse(new StringReader("<html><head><script>if(a<b&&c){}</script></head><body>"
+				+ "<ul><li>a<li>b</ul><table><td>1<td>2<tr><td>3</table><br/><img src=x alt='a &lt; b'></b><dl><dt>t<dd>d</dl>"));
+		//serialize without an explicit attribute order so that the attributes appear as parsed
+		final String serialized = new HtmlSerializer(false, new DefaultHtmlFormatProfile() {
+			@Override
+			protected List<NsName> getAttributeOrder(final NsName element) {
+				return List.of();
+			}
+		}).serialize(document);
+		assertThat(serialized, containsString("<script>if(a<b&&c){}</script>"));
+		assertThat(serialized, containsString("<ul><li>a</li><li>b</li></ul>"));
+		assertThat(serialized, containsString("<table><tbody><tr><td>1</td><td>2</td></tr><tr><td>3</td></tr></tbody></table>"));
+		assertThat(serialized, containsString("<br /><img alt=\"a &lt; b\" src=\"x\" />"));
+		assertThat(serialized, containsString("<dl><dt>t</dt><dd>d</dd></dl>"));
+	}
+
+	/** Verifies that the full set of XHTML named character references is recognized, along with the legacy references without semicolons. */
+	@Test
+	public void testNamedCharacterReferences() {
+		final Document document = new HtmlParser().parse("<p title='&Omega;&hearts;'>&hearts; &Omega; &notin; &apos; &amp; &not it &copy2 &bogus;</p>");
+		final Element paragraph = (Element)HtmlDom.findHtmlBodyElement(document).orElseThrow().getFirstChild();
+		assertThat(paragraph.getTextContent(), is("\u2665 \u03A9 \u2209 ' & \u00AC it \u00A92 &bogus;"));
+		assertThat(paragraph.getAttributeNS(null, ATTRIBUTE_TITLE), is("\u03A9\u2665"));
+	}
+
+	/** Verifies that carriage returns and carriage return/line feed pairs are normalized to line feeds. */
+	@Test
+	public void testNewlinesNormalized() {
+		final Document document = new HtmlParser().parse("<p title='a\r\nb\rc'>one\r\ntwo\rthree\r\n\r\n</p><script>x\r\ny</script>");
+		final Element body = HtmlDom.findHtmlBodyElement(document).orElseThrow();
+		final Element paragraph = (Element)body.getFirstChild();
+		assertThat(paragraph.getAttributeNS(null, ATTRIBUTE_TITLE), is("a\nb\nc"));
+		assertThat(paragraph.getTextContent(), is("one\ntwo\nthree\n\n"));
+		assertThat(body.getLastChild().getTextContent(), is("x\ny"));
+	}
+
+	/** Verifies that only HTML {@code <script>} and {@code <style>} elements have raw text content; in foreign content their content is markup. */
+	@Test
+	public void testForeignRawTextElements() {
+		final Document document = new HtmlParser()
+				.parse("<svg><style>a{}</style><script><g/>x&lt;y</script></svg><script>a<b/>&lt;</script><style>p<i></style>");
+		final Element body = HtmlDom.findHtmlBodyElement(document).orElseThrow();
+		final Element svg = (Element)body.getFirstChild();
+		final Element svgScript = (Element)svg.getLastChild();
+		assertThat(svgScript.getNamespaceURI(), is("http://www.w3.org/2000/svg"));
+		assertThat(svgScript.getFirstChild().getNodeType(), is(Node.ELEMENT_NODE));
+		assertThat(svgScript.getTextContent(), is("x<y"));
+		final Element htmlScript = (Element)svg.getNextSibling();
+		assertThat(htmlScript.getNamespaceURI(), is(XHTML_NAMESPACE_URI_STRING));
+		assertThat(htmlScript.getTextContent(), is("a<b/>&lt;"));
+		assertThat(body.getLastChild().getTextContent(), is("p<i>"));
+	}
+
+	/** Verifies that void metadata elements placed in the head are closed, so that following content is not placed inside them. */
+	@Test
+	public void testHeadVoidElementsClosed() throws IOException {
+		final Document document = new HtmlParser().parse("<meta charset=utf-8><link rel=x>hello<p>x");
+		final Element head = HtmlDom.findHtmlHeadElement(document).orElseThrow();
+		assertThat(head.getChildNodes().getLength(), is(2));
+		assertThat(head.getFirstChild().hasChildNodes(), is(false));
+		assertThat(head.getLastChild().hasChildNodes(), is(false));
+		final Element body = HtmlDom.findHtmlBodyElement(document).orElseThrow();
+		assertThat(body.getFirstChild().getTextContent(), is("hello"));
+		assertThat(new HtmlSerializer().serialize(document), containsString("<link rel=\"x\" /></head><body>hello<p>x</p></body>"));
+	}
+
+	/** Verifies that SVG content is placed in the SVG namespace with mixed-case names restored. */
+	@Test
+	public void testForeignContent() {
+		final Document document = new HtmlParser().parse("<svg viewBox='0 0 1 1'><circle r=1 /><foreignObject><p>hi</p></foreignObject></svg><p>after");
+		final Element body = HtmlDom.findHtmlBodyElement(document).orElseThrow();
+		final Element svg = (Element)body.getFirstChild();
+		assertThat(svg.getNamespaceURI(), is("http://www.w3.org/2000/svg"));
+		assertThat(svg.getAttributeNS(null, "viewBox"), is("0 0 1 1"));
+		assertThat(svg.getChildNodes().getLength(), is(2));
+		final Element foreignObject = (Element)svg.getLastChild();
+		assertThat(foreignObject.getLocalName(), is("foreignObject"));
+		assertThat(foreignObject.getFirstChild().getNamespaceURI(), is(XHTML_NAMESPACE_URI_STRING));
+		assertThat(body.getLastChild().getNamespaceURI(), is(XHTML_NAMESPACE_URI_STRING));
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package com.globalmentor.html;
 
+import static com.globalmentor.html.def.HTML.*;
 import static com.globalmentor.io.Readers.*;
 import static com.globalmentor.xml.XmlDom.*;
 import static java.nio.charset.StandardCharsets.*;
@@ -28,9 +29,9 @@
 import javax.annotation.*;
 
 import org.junit.jupiter.api.*;
-import org.w3c.dom.Document;
+import org.w3c.dom.*;
 
-import com.globalmentor.xml.XmlFormatProfile;
+import com.globalmentor.xml.*;
 
 /**
  * Tests of {@link HtmlSerializer} with {@link DefaultHtmlFormatProfile#INSTANCE}.
@@ -83,6 +84,141 @@ public void testNotSerializeXmlSpaceAttribute() throws IOException {
 				containsString("<body>"));
 	}
 
+	/** @see HtmlSerializer#setMinified(boolean) */
+	@Test
+	public void testMinified() throws IOException {
+		final Document document = parse(new ByteArrayInputStream(("<html xmlns=\"http://www.w3.org/1999/xhtml\"><head><title>Test</title></head><body>\n"
+				+ "<!-- note -->\n<p class=\"intro\">Hello,   <em>big</em>\n world!</p>\n<p title=\"a b\">Two</p>\n<ul>\n<li>One</li>\n<li>Two</li>\n</ul>\n"
+				+ "<pre>  keep\n  this  </pre>\n<input type=\"text\" value=\"\"/>\n</body></html>").getBytes(UTF_8)), true);
+		final HtmlSerializer serializer = new HtmlSerializer(true);
+		serializer.setLineSeparator("\n");
+		serializer.setMinified(true);
+		assertThat(serializer.serialize(document),
+				is("<html><head><title>Test</title><body><p class=intro>Hello, <em>big</em> world!<p title=\"a b\">Two<ul><li>One<li>Two</ul>"
+						+ "<pre>  keep\n  this  </pre><input type=text value />"));
+	}
+
+	/**
+	 * Serializes the body content of an XHTML document with minification.
+	 * @param bodyContent The XHTML content of the {@code <body>} element.
+	 * @return The minified serialization of the document.
+	 * @throws IOException if there is an error parsing or serializing the document.
+	 */
+	private static String minify(@Nonnull final String bodyContent) throws IOException {
+		final Document document = parse(
+				new ByteArrayInputStream(("<html xmlns=\"http://www.w3.org/1999/xhtml\"><head><title>Test</title></head><body>" + bodyContent + "</body></html>")
+						.getBytes(UTF_8)),
+				true);
+		final HtmlSerializer serializer = new HtmlSerializer(true);
+		serializer.setLineSeparator("\n");
+		serializer.setMinified(true);
+		return serializer.serialize(document);
+	}
+
+	/**
+	 * Verifies that minifying preserves space in {@code <textarea>} elements and in elements with <code>xml:space</code> set to <code>preserve</code>.
+	 * @see HtmlSerializer#setMinified(boolean)
+	 * @see BaseHtmlFormatProfile#isPreserved(org.w3c.dom.Element)
+	 */
+	@Test
+	public void testMinifiedPreservedElements() throws IOException {
+		assertThat(minify("<form><textarea name=\"t\">  one\n   two  </textarea></form>"),
+				containsString("<form><textarea name=t>  one\n   two  </textarea></form>"));
+		assertThat(minify("<div xml:space=\"preserve\">  one  <span>  two  </span></div><div>  three  </div>"),
+				containsString("<div>  one  <span>  two  </span></div><div>three</div>"));
+	}
+
+	/**
+	 * Verifies which end tags are omitted when minifying.
+	 * @see HtmlSerializer#setMinified(boolean)
+	 */
+	@Test
+	public void testMinifiedOptionalEndTags() throws IOException {
+		assertThat("`<p>` end tag omitted before a block, but not before phrasing content or inside `<a>`.",
+				minify("<div><p>a</p><div>b</div><p>c</p><span>d</span><a href=\"x\"><p>e</p></a><p>f</p></div>"),
+				containsString("<div><p>a<div>b</div><p>c</p><span>d</span><a href=x><p>e</p></a><p>f</div>"));
+		assertThat(minify("<dl><dt>a</dt><dd>b</dd><dt>c</dt><dd>d</dd></dl>"), containsString("<dl><dt>a<dd>b<dt>c<dd>d</dl>"));
+		assertThat(minify("<table><thead><tr><th>a</th></tr></thead><tbody><tr><td>b</td><td>c</td></tr></tbody></table>"),
+				containsString("<table><thead><tr><th>a<tbody><tr><td>b<td>c</table>"));
+		assertThat(minify("<select><optgroup><option>a</option><option>b</option></optgroup><optgroup><option>c</option></optgroup></select>"),
+				containsString("<select><optgroup><option>a<option>b<optgroup><option>c</select>"));
+		assertThat("`<dt>` end tag required at the end of its parent.", minify("<dl><dt>a</dt></dl>"), containsString("<dl><dt>a</dt></dl>"));
+		assertThat("`<li>` end tag required before other content.", minify("<ul><li>a</li><li>b</li></ul><ol><li>c</li></ol>"),
+				containsString("<ul><li>a<li>b</ul><ol><li>c</ol>"));
+	}
+
+	/**
+	 * Verifies that attribute values are only unquoted when minifying if HTML allows.
+	 * @see HtmlSerializer#setMinified(boolean)
+	 */
+	@Test
+	public void testMinifiedAttributeValues() throws IOException {
+		assertThat(minify("<p title=\"\" lang=\"en\" class=\"a=b\" id=\"x`y\" dir=\"ltr\">a</p>"),
+				containsString("<p id=\"x`y\" class=\"a=b\" lang=en dir=ltr title>a"));
+		assertThat(minify("<p title=\"a'b\" class=\"a&quot;b\" id=\"a&lt;b\">a</p>"), containsString("<p id=\"a&lt;b\" class='a\"b' title=\"a'b\">a"));
+		assertThat(minify("<p title=\"a&amp;b\" class=\"a b\">a</p>"), containsString("<p class=\"a b\" title=a&amp;b>a"));
+		assertThat("Attribute value the same as the name.", minify("<input type=\"checkbox\" checked=\"checked\"/>"),
+				containsString("<input type=checkbox checked />"));
+	}
+
+	/**
+	 * Verifies that comments are removed when minifying, including comments that would otherwise prevent end tags from being omitted.
+	 * @see HtmlSerializer#setMinified(boolean)
+	 */
+	@Test
+	public void testMinifiedComments() throws IOException {
+		assertThat(minify("<!-- start --><ul><li>a</li><!-- between --><li>b<!-- inside --></li></ul><!-- end -->"), containsString("<body><ul><li>a<li>b</ul>"));
+		assertThat(minify("<ul><li>a</li><!-- between --><li>b</li></ul>"), not(containsString("<!--")));
+	}
+
+	/** @see HtmlSerializer#setScriptContentEscaped(boolean) */
+	@Test
+	public void testScriptContentEscaped() throws IOException {
+		final Document document = parse(new ByteArrayInputStream(("<html xmlns=\"http://www.w3.org/1999/xhtml\"><head>"
+				+ "<script>var s = \"&lt;/SCRIPT&gt;&lt;!-- &lt;/scrip &lt;&lt;/script\";</script></head><body></body></html>").getBytes(UTF_8)), true);
+		final HtmlSerializer serializer = new HtmlSerializer();
+		assertThat("Script content not escaped by default.", serializer.serialize(document),
+				containsString("<script>var s = \"</SCRIPT><!-- </scrip <</script\";</script>"));
+		serializer.setScriptContentEscaped(true);
+		assertThat(serializer.serialize(document), containsString("<script>var s = \"\\u003C/SCRIPT>\\u003C!-- </scrip <\\u003C/script\";</script>"));
+	}
+
+	/** @see HtmlSerializer#setScriptContent(org.w3c.dom.Element, ScriptContent) */
+	@Test
+	public void testScriptContent() throws IOException {
+		final Document document = parse(new ByteArrayInputStream(
+				"<html xmlns=\"http://www.w3.org/1999/xhtml\"><head><script>ignored</script></head><body></body></html>".getBytes(UTF_8)), true);
+		final Element scriptElement = (Element)document.getElementsByTagNameNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_SCRIPT).item(0);
+		HtmlSerializer.setScriptContent(scriptElement, appendable -> appendable.append("var s = \"</scr").append("ipt>\";"));
+		assertThat("Script content is always escaped.", new HtmlSerializer().serialize(document),
+				containsString("<script>var s = \"\\u003C/script>\";</script>"));
+		HtmlSerializer.setScriptContent(scriptElement, null);
+		assertThat(new HtmlSerializer().serialize(document), containsString("<script>ignored</script>"));
+	}
+
+	/**
+	 * Verifies that content built directly for the serializer uses empty element tags only for HTML elements forbidden to have end tags.
+	 * @see XmlBuilder#forSerializer(com.globalmentor.xml.XMLSerializer, Appendable)
+	 */
+	@Test
+	public void testXmlBuilderEmptyElementTags() {
+		final StringBuilder stringBuilder = new StringBuilder();
+		XmlBuilder.forSerializer(new HtmlSerializer(), stringBuilder).startElementNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_DIV)
+				.startElementNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_SCRIPT).endElement().startElementNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_BR).endElement().endElement()
+				.finish();
+		assertThat(stringBuilder.toString(), is("<div xmlns=\"http://www.w3.org/1999/xhtml\"><script></script><br /></div>"));
+	}
+
+	/** @see ScriptContentWriter */
+	@Test
+	public void testScriptContentWriter() throws IOException {
+		final StringBuilder stringBuilder = new StringBuilder();
+		try (final ScriptContentWriter scriptContentWriter = new ScriptContentWriter(stringBuilder)) {
+			scriptContentWriter.append("a</scr").append("ipt>b<!").append("-").append("-c<");
+		}
+		assertThat(stringBuilder.toString(), is("a\\u003C/script>b\\u003C!--c<"));
+	}
+
 	/**
 	 * Parses and re-serializes an HTML document from a string using the default HTML profile.
 	 * @implSpec This implementation delegates to {@link #reformat(String, XmlFormatProfile)} using the {@link DefaultHtmlFormatProfile}.
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.html;
+
+import static com.globalmentor.html.def.HTML.*;
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.*;
+import org.w3c.dom.*;
+
+import com.globalmentor.xml.CompressingOutputStream;
+
+/**
+ * Tests of {@link HtmlTemplate}.
+ * @author Garret Wilson
+ */
+public class HtmlTemplateTest {
+
+	/**
+	 * Creates a test page document.
+	 * @param title The title content, or <code>null</code> if a title slot should be used.
+	 * @param body The body content, or <code>null</code> if a body slot should be used.
+	 * @return A new test document.
+	 */
+	private static Document createPage(final String title, final String body) {
+		final Document document = HtmlDom.createXHTMLDocument("");
+		final Element titleElement = HtmlDom.findHtmlHeadTitleElement(document).orElseThrow();
+		titleElement.appendChild(title != null ? document.createTextNode(title) : HtmlTemplate.createSlotElement(document, "title"));
+		final Element bodyElement = HtmlDom.findHtmlBodyElement(document).orElseThrow();
+		final Element paragraphElement = document.createElementNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_P);
+		paragraphElement.appendChild(body != null ? document.createTextNode(body) : HtmlTemplate.createSlotElement(document, "body"));
+		bodyElement.appendChild(paragraphElement);
+		return document;
+	}
+
+	/** @see HtmlTemplate#render(Map) */
+	@Test
+	public void testRenderMatchesSerializedDocument() throws IOException {
+		final HtmlTemplate template = HtmlTemplate.compile(createPage(null, null));
+		assertThat(template.getSlotNames(), contains("title", "body"));
+		final String expected = new HtmlSerializer().serialize(createPage("Foo & Bar", "<hello>"));
+		assertThat(new String(template.render(Map.of("title", "Foo & Bar", "body", "<hello>")), UTF_8), is(expected));
+		assertThat("Missing slot values produce no output.", new String(template.render(Map.of()), UTF_8),
+				is(new HtmlSerializer().serialize(createPage("", ""))));
+	}
+
+	/** @see HtmlTemplate#render(OutputStream, Map) */
+	@Test
+	public void testRenderCompressed() throws IOException {
+		final HtmlTemplate template = HtmlTemplate.compile(createPage(null, null));
+		final Map<String, String> slotValues = Map.of("title", "Foo & Bar", "body", "<hello>".repeat(100));
+		for(int i = 0; i < 2; i++) { //render twice to use the cached compressed chunks
+			final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+			final CompressingOutputStream compressingOutputStream = new CompressingOutputStream(byteArrayOutputStream);
+			template.render(compressingOutputStream, slotValues);
+			compressingOutputStream.finish();
+			try (final InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+				assertThat(inputStream.readAllBytes(), is(template.render(slotValues)));
+			}
+		}
+	}
+
+	/** @see HtmlTemplate#render(Map) */
+	@Test
+	public void testRenderNodeSlotValue() {
+		final HtmlTemplate template = HtmlTemplate.compile(createPage(null, null));
+		final Document document = HtmlDom.createXHTMLDocument("");
+		final Element strongElement = document.createElementNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_STRONG);
+		strongElement.appendChild(document.createTextNode("a<b"));
+		assertThat(new String(template.render(Map.of("body", strongElement)), UTF_8), containsString("<p><strong>a&lt;b</strong></p>"));
+		assertThat("Slot value is not modified.", strongElement.getAttributes().getLength(), is(0));
+		final DocumentFragment fragment = document.createDocumentFragment();
+		fragment.appendChild(document.createElementNS(XHTML_NAMESPACE_URI_STRING, ELEMENT_EM)).appendChild(document.createTextNode("foo"));
+		fragment.appendChild(document.createElementNS("http://example.com/ns/", "ex:bar"));
+		assertThat("Only namespaces not in scope at the slot are declared.", new String(template.render(Map.of("body", fragment)), UTF_8),
+				containsString("<p><em>foo</em><ex:bar xmlns:ex=\"http://example.com/ns/\"></ex:bar></p>"));
+		final Element barElement = document.createElementNS("http://example.com/ns/", "ex:bar");
+		barElement.appendChild(document.createElementNS("http://example.com/ns/", "ex:baz"))
+				.appendChild(document.createElementNS("http://example.com/other/", "ex:qux"));
+		assertThat("Declarations written for an ancestor are not repeated for its descendants.", new String(template.render(Map.of("body", barElement)), UTF_8),
+				containsString("<p><ex:bar xmlns:ex=\"http://example.com/ns/\"><ex:baz><ex:qux xmlns:ex=\"http://example.com/other/\"></ex:qux></ex:baz></ex:bar></p>"));
+		assertThat("Slot value is not modified.", barElement.getAttributes().getLength(), is(0));
+		assertThat("Slot value is not modified.", ((Element)barElement.getFirstChild().getFirstChild()).getAttributes().getLength(), is(0));
+		assertThat("Slot value is not modified.", ((Element)fragment.getLastChild()).getAttributes().getLength(), is(0));
+		assertThrows(IllegalArgumentException.class, () -> template.render(Map.of("body", 123)));
+	}
+
+}
@@ -18,7 +18,8 @@
 
 import static java.lang.reflect.Array.*;
 
-import java.io.IOException;
+import java.io.*;
+import java.math.*;
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -136,6 +137,17 @@ public class JSON {
 	//TODO fix (?<!\\\\)
 	public static final Pattern JSON_PATTERN = Pattern.compile("[{}\\[\\]:,]|(?:\"[^((?<!\\\\)\")]*\")|(?:null)|(?:true)(?:false)");
 
+	/**
+	 * How parsed numbers having a fraction or exponent are represented. Numbers without a fraction or exponent are always parsed as an {@link Integer}, a
+	 * {@link Long}, or a {@link BigInteger}, whichever is the narrowest to hold the value.
+	 */
+	public enum DecimalMode {
+		/** Numbers with a fraction or exponent are parsed as the nearest {@link Double}. */
+		DOUBLE,
+		/** Numbers with a fraction or exponent are parsed as an exact {@link BigDecimal}, for example to preserve monetary amounts. */
+		BIG_DECIMAL
+	}
+
 	/**
 	 * Appends an object value. Supported value types are:
 	 * <ul>
@@ -154,6 +166,7 @@ public class JSON {
 	 * @param value The object value to be appended, or <code>null</code>.
 	 * @throws IOException if there is an error appending the information.
 	 * @return The appendable object.
+	 * @see JsonWriter#writeValue(Object)
 	 */
 	public static <A extends Appendable> A appendValue(final A appendable, final Object value) throws IOException {
 		if(value != null) { //if the value is not null
@@ -476,25 +489,71 @@ protected static int skipWhitespace(final CharSequence charSequence, int index)
 	}
 
 	/**
-	 * Parses a value encoded in a JSON character sequence.
+	 * Parses a value encoded in a JSON character sequence. Numbers with a fraction or exponent are parsed as {@link Double}.
 	 * @param charSequence The character sequence to be parsed.
 	 * @return A new {@link String}, {@link Boolean}, {@link Number}, {@link List}, {@link Map}, or <code>null</code> representing the value represented by the
 	 *         character sequence.
 	 * @throws NullPointerException if the given character sequence is <code>null</code>.
 	 * @throws ArgumentSyntaxException if the given character sequence does not represent a valid JSON object.
+	 * @see DecimalMode#DOUBLE
 	 */
 	public static Object parseValue(final CharSequence charSequence) throws ArgumentSyntaxException {
-		final MutableReference<Object> objectHolder = new MutableReference<Object>(); //create a new object holder to hold the value
+		return parseValue(charSequence, DecimalMode.DOUBLE);
+	}
+
+	/**
+	 * Parses a value encoded in a JSON character sequence, representing numbers with a fraction or exponent as indicated.
+	 * @param charSequence The character sequence to be parsed.
+	 * @param decimalMode How to represent numbers with a fraction or exponent.
+	 * @return A new {@link String}, {@link Boolean}, {@link Number}, {@link List}, {@link Map}, or <code>null</code> representing the value represented by the
+	 *         character sequence.
+	 * @throws NullPointerException if the given character sequence and/or decimal mode is <code>null</code>.
+	 * @throws ArgumentSyntaxException if the given character sequence does not represent a valid JSON object.
+	 */
+	public static Object parseValue(final CharSequence charSequence, final DecimalMode decimalMode) throws ArgumentSyntaxException {
 		try {
-			parseValue(charSequence, 0, objectHolder); //parse the value
-			return objectHolder.get(); //return the object
+			return new ValueParser(charSequence, 0, decimalMode).parseValue(); //parse the value
 		} catch(final IndexOutOfBoundsException indexOutOfBoundsException) { //if we ran out of characters
 			throw new ArgumentSyntaxException(indexOutOfBoundsException, charSequence.toString());
-		} catch(final NumberFormatException numberFormatException) { //if a number wasn't formatted correctly
-			throw new ArgumentSyntaxException(numberFormatException, charSequence.toString());
 		}
 	}
 
+	/**
+	 * Parses a single value from a JSON reader, reading incrementally rather than requiring the entire input in memory.
+	 * @implSpec This implementation delegates to {@link JsonParser#readValue()}.
+	 * @param reader The reader from which to parse the value; it is not closed.
+	 * @return A new {@link String}, {@link Boolean}, {@link Number}, {@link List}, {@link Map}, or <code>null</code> representing the value read.
+	 * @throws NullPointerException if the given reader is <code>null</code>.
+	 * @throws IOException if there is an error reading the value, if the input does not represent a valid JSON value, or if content follows the value.
+	 * @see JsonParser
+	 */
+	public static Object parseValue(final Reader reader) throws IOException {
+		final JsonParser parser = new JsonParser(reader);
+		try {
+			final Object value = parser.readValue();
+			if(parser.hasNext()) {
+				throw new IOException("Unexpected content after JSON value.");
+			}
+			return value;
+		} catch(final NoSuchElementException noSuchElementException) { //if there was no value at all
+			throw new IOException("Missing JSON value.", noSuchElementException);
+		}
+	}
+
+	/**
+	 * Parses a value encoded as UTF-8 JSON bytes lazily, for reading a few values from a large document. Objects and arrays are returned as unmodifiable views
+	 * of the bytes, which must not be modified while the views are in use, and nested values are converted only when retrieved.
+	 * @implSpec This implementation delegates to {@link JsonByteValue#asValue()}.
+	 * @param bytes The UTF-8 bytes to be parsed.
+	 * @return A {@link String}, {@link Boolean}, {@link Number}, {@link List}, {@link Map}, or <code>null</code> representing the value represented by the bytes.
+	 * @throws NullPointerException if the given bytes are <code>null</code>.
+	 * @throws ArgumentSyntaxException if the given bytes do not contain a single JSON value, or errors are found in values as they are accessed.
+	 * @see JsonByteValue
+	 */
+	public static Object parseLazyValue(final byte[] bytes) throws ArgumentSyntaxException {
+		return JsonByteValue.parse(bytes).asValue();
+	}
+
 	/**
 	 * Parses a value encoded in a JSON character sequence.
 	 * @param charSequence The character sequence to be parsed.
@@ -507,64 +566,9 @@ public static Object parseValue(final CharSequence charSequence) throws Argument
 	 * @throws ArrayIndexOutOfBoundsException if the character sequence has insufficient characters at the given index.
 	 */
 	protected static int parseValue(final CharSequence charSequence, int index, final MutableReference<Object> objectHolder) throws ArgumentSyntaxException {
-		final Object object; //we'll set the object after parsing it
-		char c = charSequence.charAt(index); //get the current character
-		switch(c) { //check the current character
-			case BEGIN_ARRAY: //array
-				{
-					final List<Object> list = new ArrayList<Object>(); //create a new list to populate
-					index = parseArray(charSequence, index, list); //parse the array
-					object = list; //save the list we parsed
-				}
-				break;
-			case BEGIN_OBJECT: //object
-				{
-					final Map<String, Object> map = new HashMap<String, Object>(); //create a new map to populate
-					index = parseObject(charSequence, index, map); //parse the array
-					object = map; //save the map we parsed
-				}
-				break;
-			case QUOTATION_MARK: //string
-				{
-					final MutableReference<String> stringHolder = new MutableReference<String>(); //create a new string holder to populate
-					index = parseString(charSequence, index, stringHolder); //parse the string
-					object = stringHolder.get(); //save the string we parsed
-				}
-				break;
-			case MINUS: //minus
-			case '0':
-			case '1':
-			case '2':
-			case '3':
-			case '4':
-			case '5':
-			case '6':
-			case '7':
-			case '8':
-			case '9':
-				{
-					final MutableReference<Number> numberHolder = new MutableReference<Number>(); //create a new object holder to populate
-					index = parseNumber(charSequence, index, numberHolder); //parse the number
-					object = numberHolder.get(); //save the number we parsed
-				}
-				break;
-			case 'f':
-				index = check(charSequence, index, FALSE); //make sure this is "false"
-				object = Boolean.FALSE; //the value is false
-				break;
-			case 'n':
-				index = check(charSequence, index, NULL); //make sure this is "null"
-				object = null; //the value is null
-				break;
-			case 't':
-				index = check(charSequence, index, TRUE); //make sure this is "true"
-				object = Boolean.TRUE; //the value is true
-				break;
-			default:
-				throw new ArgumentSyntaxException("Illegal value character.", charSequence.toString(), index);
-		}
-		objectHolder.set(object); //set the object we parsed
-		return index; //return the new index
+		final ValueParser parser = new ValueParser(charSequence, index);
+		objectHolder.set(parser.parseValue());
+		return parser.index;
 	}
 
 	/**
@@ -578,9 +582,9 @@ protected static int parseValue(final CharSequence charSequence, int index, fina
 	 * @throws ArrayIndexOutOfBoundsException if the character sequence has insufficient characters at the given index.
 	 */
 	protected static int parseArray(final CharSequence charSequence, int index, final List<Object> list) throws ArgumentSyntaxException {
-		index = check(charSequence, index, BEGIN_ARRAY); //make sure this is the start of an array
-		index = parseArrayContents(charSequence, index, list); //parse the contents of the array
-		return check(charSequence, index, END_ARRAY); //make sure this is the end of a array
+		final ValueParser parser = new ValueParser(charSequence, index);
+		parser.parseArray(list);
+		return parser.index;
 	}
 
 	/**
@@ -594,24 +598,9 @@ protected static int parseArray(final CharSequence charSequence, int index, fina
 	 * @throws ArrayIndexOutOfBoundsException if the character sequence has insufficient characters at the given index.
 	 */
 	protected static int parseArrayContents(final CharSequence charSequence, int index, final List<Object> list) throws ArgumentSyntaxException {
-		index = skipWhitespace(charSequence, index); //skip whitespace
-		if(charSequence.charAt(index) == END_ARRAY) { //if we've reached the end of the array
-			return index; //return the new starting index
-		}
-		while(true) {
-			final MutableReference<Object> objectHolder = new MutableReference<Object>(); //create a new object holder
-			index = parseValue(charSequence, index, objectHolder); //parse this value
-			list.add(objectHolder.get()); //add the object to the list
-			index = skipWhitespace(charSequence, index); //skip whitespace
-			final char c = charSequence.charAt(index); //get the next character
-			if(c == VALUE_SEPARATOR) { //if there are more values
-				index = skipWhitespace(charSequence, index + 1); //skip whitespace after the separator value and keep processing the other values
-			} else if(c == END_ARRAY) { //if we've reached the end of the array
-				return index; //return the new starting index
-			} else { //if we don't have more values but we haven't reached the end of the array
-				throw new ArgumentSyntaxException("Expected " + VALUE_SEPARATOR + " or " + END_ARRAY + ".", charSequence.toString(), index);
-			}
-		}
+		final ValueParser parser = new ValueParser(charSequence, index);
+		parser.parseArrayContents(list);
+		return parser.index;
 	}
 
 	/**
@@ -625,9 +614,9 @@ protected static int parseArrayContents(final CharSequence charSequence, int ind
 	 * @throws ArrayIndexOutOfBoundsException if the character sequence has insufficient characters at the given index.
 	 */
 	protected static int parseObject(final CharSequence charSequence, int index, final Map<String, Object> map) throws ArgumentSyntaxException {
-		index = check(charSequence, index, BEGIN_OBJECT); //make sure this is the start of an object
-		index = parseObjectContents(charSequence, index, map); //parse the contents of the array
-		return check(charSequence, index, END_OBJECT); //make sure this is the end of a object
+		final ValueParser parser = new ValueParser(charSequence, index);
+		parser.parseObject(map);
+		return parser.index;
 	}
 
 	/**
@@ -641,29 +630,9 @@ protected static int parseObject(final CharSequence charSequence, int index, fin
 	 * @throws ArrayIndexOutOfBoundsException if the character sequence has insufficient characters at the given index.
 	 */
 	protected static int parseObjectContents(final CharSequence charSequence, int index, final Map<String, Object> map) throws ArgumentSyntaxException {
-		index = skipWhitespace(charSequence, index); //skip whitespace
-		if(charSequence.charAt(index) == END_OBJECT) { //if we've reached the end of the object
-			return index; //return the new starting index
-		}
-		while(true) {
-			final MutableReference<String> nameHolder = new MutableReference<String>(); //create a new object holder for the name
-			index = parseString(charSequence, index, nameHolder); //parse the name
-			index = skipWhitespace(charSequence, index); //skip whitespace
-			index = check(charSequence, index, NAME_SEPARATOR); //parse the name separator
-			index = skipWhitespace(charSequence, index); //skip whitespace
-			final MutableReference<Object> valueHolder = new MutableReference<Object>(); //create a new object holder for the value
-			index = parseValue(charSequence, index, valueHolder); //parse this value
-			map.put(nameHolder.get(), valueHolder.get()); //store the value
-			index = skipWhitespace(charSequence, index); //skip whitespace
-			final char c = charSequence.charAt(index); //get the next character
-			if(c == VALUE_SEPARATOR) { //if there are more values
-				index = skipWhitespace(charSequence, index + 1); //skip whitespace after the separator value and keep processing the other values
-			} else if(c == END_OBJECT) { //if we've reached the end of the object
-				return index; //return the new starting index
-			} else { //if we don't have more values but we haven't reached the end of the object
-				throw new ArgumentSyntaxException("Expected " + VALUE_SEPARATOR + " or " + END_ARRAY + ".", charSequence.toString(), index);
-			}
-		}
+		final ValueParser parser = new ValueParser(charSequence, index);
+		parser.parseObjectContents(map);
+		return parser.index;
 	}
 
 	/**
@@ -677,9 +646,9 @@ protected static int parseObjectContents(final CharSequence charSequence, int in
 	 * @throws ArrayIndexOutOfBoundsException if the character sequence has insufficient characters at the given index.
 	 */
 	protected static int parseString(final CharSequence charSequence, int index, final MutableReference<String> stringHolder) throws ArgumentSyntaxException {
-		index = check(charSequence, index, QUOTATION_MARK); //make sure this is the start of a string
-		index = parseStringContents(charSequence, index, stringHolder); //parse the contents of the string
-		return check(charSequence, index, QUOTATION_MARK); //make sure this is the end of a string
+		final ValueParser parser = new ValueParser(charSequence, index);
+		stringHolder.set(parser.parseString());
+		return parser.index;
 	}
 
 	/**
@@ -693,108 +662,461 @@ protected static int parseString(final CharSequence charSequence, int index, fin
 	 * @throws ArrayIndexOutOfBoundsException if the character sequence has insufficient characters at the given index.
 	 */
 	protected static int parseStringContents(final CharSequence charSequence, int index, final MutableReference<String> stringHolder) throws ArgumentSyntaxException {
-		final int endQuoteIndex = indexOf(charSequence, QUOTATION_MARK, index); //the most common case is a simple quoted string with no escaped characters; try to handle the common case by getting the ending quotation mark, which will be much faster than appending characters one at a time
-		final String commonCaseString = charSequence.subSequence(index, endQuoteIndex).toString(); //get the contents of the string (if there was no ending quotation mark, this will throw an exception, which we might as well throw now as any time)
-		if(commonCaseString.indexOf(ESCAPE) < 0) { //if the string has no escape characters, this is a simple string that we can simply return now
-			stringHolder.set(commonCaseString); //the string will be the string we just parsed
-			return endQuoteIndex; //return the ending quote, which will be our next parse index
-		} else { //if this string has escape characters, abandon the string (even the last quote could be escaped, after all) and construct the string from scratch
-			final StringBuilder stringBuilder = new StringBuilder(); //create a new string builder
-			while(true) {
-				char c = charSequence.charAt(index); //get the current character
-				if(c == QUOTATION_MARK) { //if we're reached the end of the string
-					stringHolder.set(stringBuilder.toString()); //set the string to be the contents of our string builder
-					return index; //return the index of the quotation mark
-				} else if(c == ESCAPE) { //if this is the escape character
-					++index; //we'll determine which character is being escaped
-					c = charSequence.charAt(index); //get the escaped version of the character
-					switch(c) { //check the escaped version of the character
-						case ESCAPED_QUOTATION_MARK: //" quotation mark  U+0022
-							c = QUOTATION_MARK;
-							break;
-						case ESCAPED_REVERSE_SOLIDUS: //\ reverse solidus U+005C
-							c = REVERSE_SOLIDUS;
-							break;
-						case ESCAPED_SOLIDUS: /// solidus U+002F
-							c = SOLIDUS;
-							break;
-						case ESCAPED_BACKSPACE: //b backspace U+0008
-							c = BACKSPACE;
-							break;
-						case ESCAPED_FORM_FEED: //f form feed U+000C
-							c = FORM_FEED;
-							break;
-						case ESCAPED_LINE_FEED: //n line feed U+000A
-							c = LINE_FEED;
-							break;
-						case ESCAPED_CARRIAGE_RETURN: //r carriage return U+000D
-							c = CARRIAGE_RETURN;
-							break;
-						case ESCAPED_TAB: //t tab U+0009	
-							c = HORIZONTAL_TAB;
-							break;
-						case ESCAPED_UNICODE: //if this is an escaped version of a Unicode code point
-							{
-								final int nextIndex = index + 4; //the hex characters should be four characters long
-								c = (char)Integer.parseInt(charSequence.subSequence(index + 1, nextIndex + 1).toString(), 16); //parse the hex characters
-								index = nextIndex; //skip the hex characters
-							}
-							break;
-						default: //if we didn't recognize the escaped character
-							throw new ArgumentSyntaxException("Unrecognized escaped character " + c + ".", charSequence.toString(), index);
-					}
-				}
-				stringBuilder.append(c); //append the character
-				++index; //look at the next index
-			}
-		}
+		final ValueParser parser = new ValueParser(charSequence, index);
+		stringHolder.set(parser.parseStringContents());
+		return parser.index;
 	}
 
 	/**
 	 * Parses a number encoded in a JSON character sequence.
 	 * @param charSequence The character sequence to be parsed.
 	 * @param index The current parse index in the character sequence.
-	 * @param numberHolder The number holder in which the parsed number will be placed.
+	 * @param numberHolder The number holder in which the parsed number will be placed: an {@link Integer}, {@link Long}, or {@link BigInteger} if the number has
+	 *          no fraction or exponent, or otherwise a {@link Double}.
 	 * @return The new index at which to continue parsing after the number.
 	 * @throws NullPointerException if the given character sequence is <code>null</code>.
 	 * @throws ArgumentSyntaxException if the given character sequence does not represent a valid JSON number.
-	 * @throws NumberFormatException if the given character sequence does not contain a parsable JSON number.
 	 * @throws ArrayIndexOutOfBoundsException if the character sequence has insufficient characters at the given index.
 	 */
 	protected static int parseNumber(final CharSequence charSequence, int index, final MutableReference<Number> numberHolder) throws ArgumentSyntaxException {
-		final int length = charSequence.length(); //get the length of the character sequence
-		final int start = index; //make note of where we start
-		if(charSequence.charAt(index) == MINUS) { //if the number starts with a minus sign
-			++index; //skip the minus sign
-		}
-		index = skip(charSequence, index, '0', '9'); //skip all characters '0'-'9'
-		if(index < length) { //if we're not at the end of the character sequence
-			boolean hasFraction = false; //we don't have a fraction yet
-			boolean hasExponent = false; //we don't have an exponent yet
-			if(charSequence.charAt(index) == DECIMAL_POINT) { //if this is a floating point number
-				hasFraction = true; //we found a fraction
-				index = check(charSequence, index + 1, DIGITS); //make sure at least one digit comes after the decimal point
-				index = skip(charSequence, index, '0', '9'); //skip all fraction characters '0'-'9'				
+		final ValueParser parser = new ValueParser(charSequence, index);
+		numberHolder.set(parser.parseNumber());
+		return parser.index;
+	}
+
+	/**
+	 * Determines the value of a hexadecimal digit as used in a JSON <code>&#92;u</code> escape sequence.
+	 * @implNote Unlike {@link Character#digit(char, int)}, this method only recognizes the ASCII digits allowed by JSON.
+	 * @param c The character to examine.
+	 * @return The value of the hexadecimal digit, or <code>-1</code> if the character is not a hexadecimal digit.
+	 */
+	static int hexDigitValue(final char c) {
+		if(c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		if(c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		}
+		if(c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
+		}
+		return -1;
+	}
+
+	/**
+	 * Converts the lexical form of a JSON number, already validated, to a {@link Number}.
+	 * <p>
+	 * Integers are accumulated inline and returned as an {@link Integer} if they fit, or otherwise as a {@link Long} or, only if needed, a {@link BigInteger}.
+	 * Numbers with a fraction or exponent are returned as indicated by the decimal mode. For {@link DecimalMode#DOUBLE}, if the significant digits fit exactly in
+	 * a <code>double</code> and the decimal exponent is small enough that its power of ten is also exact, the result is computed with a single correctly rounded
+	 * multiplication or division; other values, which are rare in practice, fall back to {@link Double#parseDouble(String)}.
+	 * </p>
+	 * @param charSequence The character sequence containing the number.
+	 * @param start The index of the first character of the number.
+	 * @param end The index after the last character of the number.
+	 * @param isInteger Whether the number has neither a fraction nor an exponent.
+	 * @param decimalMode How to represent a number with a fraction or exponent.
+	 * @return The number value.
+	 * @see <a href="https://doi.org/10.1145/93548.93557">William D. Clinger, How to Read Floating Point Numbers Accurately</a>
+	 */
+	static Number toNumber(final CharSequence charSequence, final int start, final int end, final boolean isInteger, final DecimalMode decimalMode) {
+		int index = start;
+		final boolean isNegative = charSequence.charAt(index) == MINUS;
+		if(isNegative) {
+			++index;
+		}
+		if(isInteger) {
+			long value = 0; //accumulated negatively, as Long.MIN_VALUE has no positive counterpart
+			final long limit = isNegative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+			for(; index < end; ++index) {
+				final int digit = charSequence.charAt(index) - '0';
+				if(value < (limit + digit) / 10) { //if another digit would overflow
+					return new BigInteger(charSequence.subSequence(start, end).toString());
+				}
+				value = value * 10 - digit;
+			}
+			if(!isNegative) {
+				value = -value;
+			}
+			return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (Number)Integer.valueOf((int)value) : (Number)Long.valueOf(value);
+		}
+		if(decimalMode == DecimalMode.BIG_DECIMAL) {
+			return new BigDecimal(charSequence.subSequence(start, end).toString());
+		}
+		long significand = 0;
+		int significantDigitCount = 0;
+		int exponent = 0;
+		boolean isFraction = false;
+		char c;
+		for(; index < end && (c = charSequence.charAt(index)) != 'e' && c != 'E'; ++index) {
+			if(c == DECIMAL_POINT) {
+				isFraction = true;
+				continue;
+			}
+			if(c != '0' || significand != 0) {
+				if(++significantDigitCount > 18) { //no more digits fit in a long
+					return Double.valueOf(Double.parseDouble(charSequence.subSequence(start, end).toString()));
+				}
+				significand = significand * 10 + (c - '0');
 			}
-			if(index < length) { //if we're not at the end of the character sequence
-				final char possibleExponentIndex = charSequence.charAt(index); //get the character that may be an exponent
-				if(possibleExponentIndex == 'e' || possibleExponentIndex == 'E') { //if this is an exponent
-					hasExponent = true; //we found an exponent
-					final char firstExponentCharacter = charSequence.charAt(index); //get the first exponent character
-					if(firstExponentCharacter == MINUS || firstExponentCharacter == PLUS) { //if the exponent starts with a sign
-						++index; //skip the sign
+			if(isFraction) {
+				--exponent;
+			}
+		}
+		if(index < end) { //exponent
+			++index; //skip the exponent marker
+			final boolean isExponentNegative = charSequence.charAt(index) == MINUS;
+			if(isExponentNegative || charSequence.charAt(index) == PLUS) {
+				++index;
+			}
+			int explicitExponent = 0;
+			for(; index < end; ++index) {
+				if(explicitExponent < 100_000) { //larger exponents all overflow or underflow anyway
+					explicitExponent = explicitExponent * 10 + (charSequence.charAt(index) - '0');
+				}
+			}
+			exponent += isExponentNegative ? -explicitExponent : explicitExponent;
+		}
+		if(significand == 0) {
+			return Double.valueOf(isNegative ? -0.0 : 0.0);
+		}
+		if(significand <= MAX_EXACT_DOUBLE_SIGNIFICAND && exponent >= -MAX_EXACT_POWER_OF_TEN && exponent <= MAX_EXACT_POWER_OF_TEN) {
+			double value = significand; //exact
+			value = exponent < 0 ? value / EXACT_POWERS_OF_TEN[-exponent] : value * EXACT_POWERS_OF_TEN[exponent]; //a single correctly rounded operation
+			return Double.valueOf(isNegative ? -value : value);
+		}
+		return Double.valueOf(Double.parseDouble(charSequence.subSequence(start, end).toString()));
+	}
+
+	/** The largest significand representable exactly as a <code>double</code>: 2<sup>53</sup>. */
+	private static final long MAX_EXACT_DOUBLE_SIGNIFICAND = 1L << 53;
+
+	/** The largest power of ten representable exactly as a <code>double</code>. */
+	private static final int MAX_EXACT_POWER_OF_TEN = 22;
+
+	/** The powers of ten representable exactly as a <code>double</code>, indexed by exponent. */
+	private static final double[] EXACT_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18,
+			1e19, 1e20, 1e21, 1e22};
+
+	/**
+	 * Parser of values encoded in a JSON character sequence, keeping track of the current parse index.
+	 * <p>
+	 * Each value is returned directly rather than through a holder. Strings without escapes are extracted directly from the character sequence; strings with
+	 * escapes are decoded in a single pass into a string builder reused for all strings parsed, copying each run of unescaped characters in bulk and decoding
+	 * hexadecimal digits inline.
+	 * </p>
+	 * <p>
+	 * As with the static parsing methods, running out of characters results in an {@link IndexOutOfBoundsException}.
+	 * </p>
+	 * @author Garret Wilson
+	 */
+	private static final class ValueParser {
+
+		private final CharSequence charSequence;
+
+		/** The current parse index in the character sequence. */
+		int index;
+
+		/** The string builder for decoding escaped strings, or <code>null</code> if not yet needed. */
+		private StringBuilder stringBuilder = null;
+
+		/**
+		 * The index of the first escape character at or after the start of the last string parsed, {@link Integer#MAX_VALUE} if there are no more escape
+		 * characters, or <code>-1</code> if not yet determined.
+		 */
+		private int escapeIndex = -1;
+
+		private final DecimalMode decimalMode;
+
+		/**
+		 * Constructor parsing numbers with a fraction or exponent as {@link Double}.
+		 * @param charSequence The character sequence to be parsed.
+		 * @param index The initial parse index in the character sequence.
+		 */
+		ValueParser(final CharSequence charSequence, final int index) {
+			this(charSequence, index, DecimalMode.DOUBLE);
+		}
+
+		/**
+		 * Constructor.
+		 * @param charSequence The character sequence to be parsed.
+		 * @param index The initial parse index in the character sequence.
+		 * @param decimalMode How to represent numbers with a fraction or exponent.
+		 */
+		ValueParser(final CharSequence charSequence, final int index, final DecimalMode decimalMode) {
+			this.charSequence = requireNonNull(charSequence);
+			this.index = index;
+			this.decimalMode = requireNonNull(decimalMode);
+		}
+
+		/**
+		 * Creates an exception indicating a syntax error at the current index.
+		 * @param message The error message.
+		 * @return An exception for reporting the error.
+		 */
+		private ArgumentSyntaxException syntaxException(final String message) {
+			return new ArgumentSyntaxException(message, charSequence.toString(), index);
+		}
+
+		/**
+		 * Parses a value.
+		 * @return A new {@link String}, {@link Boolean}, {@link Number}, {@link List}, {@link Map}, or <code>null</code> representing the value.
+		 * @see JSON#parseValue(CharSequence, int, MutableReference)
+		 */
+		Object parseValue() {
+			switch(charSequence.charAt(index)) {
+				case BEGIN_ARRAY:
+					{
+						final List<Object> list = new ArrayList<Object>();
+						parseArray(list);
+						return list;
+					}
+				case BEGIN_OBJECT:
+					{
+						final Map<String, Object> map = new HashMap<String, Object>();
+						parseObject(map);
+						return map;
 					}
-					index = check(charSequence, index + 1, DIGITS); //make sure at least one digit comes after the exponent
-					index = skip(charSequence, index, '0', '9'); //skip all exponent characters '0'-'9'				
+				case QUOTATION_MARK:
+					return parseString();
+				case MINUS:
+				case '0':
+				case '1':
+				case '2':
+				case '3':
+				case '4':
+				case '5':
+				case '6':
+				case '7':
+				case '8':
+				case '9':
+					return parseNumber();
+				case 'f':
+					index = check(charSequence, index, FALSE); //make sure this is "false"
+					return Boolean.FALSE;
+				case 'n':
+					index = check(charSequence, index, NULL); //make sure this is "null"
+					return null;
+				case 't':
+					index = check(charSequence, index, TRUE); //make sure this is "true"
+					return Boolean.TRUE;
+				default:
+					throw syntaxException("Illegal value character.");
+			}
+		}
+
+		/**
+		 * Parses an array.
+		 * @param list The list in which the parsed array contents will be placed.
+		 * @see JSON#parseArray(CharSequence, int, List)
+		 */
+		void parseArray(final List<Object> list) {
+			index = check(charSequence, index, BEGIN_ARRAY);
+			parseArrayContents(list);
+			index = check(charSequence, index, END_ARRAY);
+		}
+
+		/**
+		 * Parses the contents of an array, leaving the index at the character after the contents (usually the character {@value JSON#END_ARRAY}).
+		 * @param list The list in which the parsed array contents will be placed.
+		 * @see JSON#parseArrayContents(CharSequence, int, List)
+		 */
+		void parseArrayContents(final List<Object> list) {
+			index = skipWhitespace(charSequence, index);
+			if(charSequence.charAt(index) == END_ARRAY) { //empty array
+				return;
+			}
+			while(true) {
+				list.add(parseValue());
+				index = skipWhitespace(charSequence, index);
+				final char c = charSequence.charAt(index);
+				if(c == VALUE_SEPARATOR) { //if there are more values
+					index = skipWhitespace(charSequence, index + 1);
+				} else if(c == END_ARRAY) {
+					return;
+				} else {
+					throw syntaxException("Expected " + VALUE_SEPARATOR + " or " + END_ARRAY + ".");
 				}
 			}
-			if(hasFraction || hasExponent) { //if there was a fraction or exponent
-				numberHolder.set(Double.valueOf(Double.parseDouble(charSequence.subSequence(start, index).toString()))); //parse a double and store it
-				return index; //return the new index
+		}
+
+		/**
+		 * Parses an object.
+		 * @param map The map in which the parsed object contents will be placed.
+		 * @see JSON#parseObject(CharSequence, int, Map)
+		 */
+		void parseObject(final Map<String, Object> map) {
+			index = check(charSequence, index, BEGIN_OBJECT);
+			parseObjectContents(map);
+			index = check(charSequence, index, END_OBJECT);
+		}
+
+		/**
+		 * Parses the contents of an object, leaving the index at the character after the contents (usually the character {@value JSON#END_OBJECT}).
+		 * @param map The map in which the parsed object contents will be placed.
+		 * @see JSON#parseObjectContents(CharSequence, int, Map)
+		 */
+		void parseObjectContents(final Map<String, Object> map) {
+			index = skipWhitespace(charSequence, index);
+			if(charSequence.charAt(index) == END_OBJECT) { //empty object
+				return;
+			}
+			while(true) {
+				final String name = parseString();
+				index = skipWhitespace(charSequence, index);
+				index = check(charSequence, index, NAME_SEPARATOR);
+				index = skipWhitespace(charSequence, index);
+				map.put(name, parseValue());
+				index = skipWhitespace(charSequence, index);
+				final char c = charSequence.charAt(index);
+				if(c == VALUE_SEPARATOR) { //if there are more members
+					index = skipWhitespace(charSequence, index + 1);
+				} else if(c == END_OBJECT) {
+					return;
+				} else {
+					throw syntaxException("Expected " + VALUE_SEPARATOR + " or " + END_OBJECT + ".");
+				}
+			}
+		}
+
+		/**
+		 * Parses a string.
+		 * @return The parsed string.
+		 * @see JSON#parseString(CharSequence, int, MutableReference)
+		 */
+		String parseString() {
+			index = check(charSequence, index, QUOTATION_MARK);
+			final String string = parseStringContents();
+			index = check(charSequence, index, QUOTATION_MARK);
+			return string;
+		}
+
+		/**
+		 * Parses the contents of a string, leaving the index at the character after the contents (usually the character {@value JSON#QUOTATION_MARK}).
+		 * @return The parsed string contents, with escapes decoded.
+		 * @see JSON#parseStringContents(CharSequence, int, MutableReference)
+		 */
+		String parseStringContents() {
+			//the most common case is a string with no escape characters, which can be extracted directly after a bulk search for the ending quotation mark;
+			//the escape character search is remembered across strings, so that the character sequence is searched for escape characters only once overall
+			final int quoteIndex = indexOf(charSequence, QUOTATION_MARK, index);
+			if(escapeIndex < index) {
+				escapeIndex = indexOf(charSequence, ESCAPE, index);
+				if(escapeIndex < 0) {
+					escapeIndex = Integer.MAX_VALUE;
+				}
+			}
+			if(quoteIndex >= 0 && quoteIndex < escapeIndex) {
+				final String string = charSequence.subSequence(index, quoteIndex).toString();
+				index = quoteIndex;
+				return string;
+			}
+			boolean isEscaped = false; //whether the string builder is in use for this string
+			int runStart = index; //the start of the current run of unescaped characters
+			while(true) {
+				final char c = charSequence.charAt(index);
+				if(c == QUOTATION_MARK) {
+					return isEscaped ? stringBuilder.append(charSequence, runStart, index).toString() : charSequence.subSequence(runStart, index).toString();
+				}
+				if(c == ESCAPE) {
+					if(!isEscaped) {
+						if(stringBuilder == null) {
+							stringBuilder = new StringBuilder();
+						} else {
+							stringBuilder.setLength(0);
+						}
+						isEscaped = true;
+					}
+					stringBuilder.append(charSequence, runStart, index);
+					++index; //skip the escape character
+					stringBuilder.append(parseEscapedCharacter());
+					runStart = index;
+				} else {
+					++index;
+				}
+			}
+		}
+
+		/**
+		 * Parses the character after an escape character, leaving the index after the escape sequence.
+		 * @return The character represented by the escape sequence.
+		 */
+		private char parseEscapedCharacter() {
+			final char c = charSequence.charAt(index);
+			switch(c) {
+				case ESCAPED_QUOTATION_MARK:
+					++index;
+					return QUOTATION_MARK;
+				case ESCAPED_REVERSE_SOLIDUS:
+					++index;
+					return REVERSE_SOLIDUS;
+				case ESCAPED_SOLIDUS:
+					++index;
+					return SOLIDUS;
+				case ESCAPED_BACKSPACE:
+					++index;
+					return BACKSPACE;
+				case ESCAPED_FORM_FEED:
+					++index;
+					return FORM_FEED;
+				case ESCAPED_LINE_FEED:
+					++index;
+					return LINE_FEED;
+				case ESCAPED_CARRIAGE_RETURN:
+					++index;
+					return CARRIAGE_RETURN;
+				case ESCAPED_TAB:
+					++index;
+					return HORIZONTAL_TAB;
+				case ESCAPED_UNICODE:
+					{
+						int codeUnit = 0;
+						for(int i = 0; i < 4; ++i) {
+							final int digitValue = hexDigitValue(charSequence.charAt(++index));
+							if(digitValue < 0) {
+								throw syntaxException("Expected hexadecimal digit.");
+							}
+							codeUnit = (codeUnit << 4) | digitValue;
+						}
+						++index;
+						return (char)codeUnit;
+					}
+				default:
+					throw syntaxException("Unrecognized escaped character " + c + ".");
 			}
 		}
-		numberHolder.set(Integer.valueOf(Integer.parseInt(charSequence.subSequence(start, index).toString()))); //parse an integer and store it 
-		return index; //return the new index
+
+		/**
+		 * Parses a number.
+		 * @return The parsed number.
+		 * @see JSON#parseNumber(CharSequence, int, MutableReference)
+		 */
+		Number parseNumber() {
+			final int length = charSequence.length();
+			final int start = index;
+			if(charSequence.charAt(index) == MINUS) {
+				++index;
+			}
+			index = skip(charSequence, check(charSequence, index, '0', '9'), '0', '9'); //integer digits
+			boolean isInteger = true;
+			if(index < length && charSequence.charAt(index) == DECIMAL_POINT) {
+				isInteger = false;
+				index = skip(charSequence, check(charSequence, index + 1, '0', '9'), '0', '9'); //fraction digits
+			}
+			if(index < length) {
+				final char c = charSequence.charAt(index);
+				if(c == 'e' || c == 'E') {
+					isInteger = false;
+					++index;
+					if(index < length && (charSequence.charAt(index) == MINUS || charSequence.charAt(index) == PLUS)) {
+						++index;
+					}
+					index = skip(charSequence, check(charSequence, index, '0', '9'), '0', '9'); //exponent digits
+				}
+			}
+			return toNumber(charSequence, start, index, isInteger, decimalMode);
+		}
+
 	}
 
 }
@@ -16,14 +16,19 @@
 
 package com.globalmentor.javascript;
 
+import java.io.IOException;
 import java.net.URI;
 
 import com.globalmentor.net.MediaType;
 
-import static com.globalmentor.java.StringBuilders.*;
+import static com.globalmentor.java.Conditions.*;
 
 /**
- * Constants for working with JavaScript.
+ * Constants and utilities for working with JavaScript.
+ * <p>
+ * The methods returning code as strings are conveniences for composing small pieces of code; those placing text in string literals escape it using
+ * {@link JavaScriptBuilder}, which should be used directly to compose larger scripts or to write them to some other destination.
+ * </p>
  * @author Garret Wilson
  * @see <a href="http://www.ietf.org/rfc/rfc4329.txt">RFC 4329: Scripting Media Types</a>
  */
@@ -143,13 +148,35 @@ public class JavaScript {
 	 * @return A JavasScript-safe string.
 	 */
 	public static String escape(final String string) {
-		final StringBuilder stringBuilder = new StringBuilder(string); //create a new string builder based upon the string
-		replace(stringBuilder, '\\', "\\\\"); //TODO use constants
-		replace(stringBuilder, '\'', "\\\'"); //TODO use constants
-		replace(stringBuilder, '"', "\\\""); //TODO use constants
-		replace(stringBuilder, '\n', "\\n"); //TODO use constants
-		replace(stringBuilder, '\t', "\\t"); //TODO use constants
-		return stringBuilder.toString(); //return the escaped string
+		if(JavaScriptBuilder.findEscapeIndex(string, 0) == string.length()) { //if nothing needs escaping, there is no need to copy the string
+			return string;
+		}
+		return build(string.length() + 16, builder -> builder.appendEscaped(string));
+	}
+
+	/**
+	 * Builds JavaScript code in a string.
+	 * @param capacity The expected length of the code.
+	 * @param script The code appending the script using a builder.
+	 * @return The code appended.
+	 */
+	private static String build(final int capacity, final JavaScriptBuilder.Block script) {
+		final StringBuilder stringBuilder = new StringBuilder(capacity);
+		try {
+			script.append(new JavaScriptBuilder(stringBuilder));
+		} catch(final IOException ioException) {
+			throw impossible(ioException); //string builders never throw I/O exceptions
+		}
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Builds JavaScript code in a string.
+	 * @param script The code appending the script using a builder.
+	 * @return The code appended.
+	 */
+	private static String build(final JavaScriptBuilder.Block script) {
+		return build(64, script);
 	}
 
 	/**
@@ -242,7 +269,7 @@ public static String setValue(final String variable, final String value) {
 	 * @return The name of the variable assignment with the literal variable.
 	 */
 	public static String setLiteralValue(final String variable, final String value) {
-		return setValue(variable, value != null ? '\'' + escape(value) + '\'' : null); //TODO use a constant
+		return build(builder -> builder.appendLiteralAssignment(variable, value));
 	}
 
 	/**
@@ -268,7 +295,7 @@ public static String setFormComponentPropertyValue(final String formID, final St
 	 * @return The string representing the form component literal value assignment.
 	 */
 	public static String setFormComponentPropertyLiteralValue(final String formID, final String componentID, final String property, final String value) {
-		return setLiteralValue(getObjectProperty(getFormComponentVariable(formID, componentID), property), value); //set the form component property value
+		return build(builder -> builder.appendFormComponentProperty(formID, componentID, property).appendAssignedLiteral(value));
 	}
 
 	/**
@@ -286,7 +313,7 @@ public static String alert(final String text) {
 	 * @return The string representing the alert of literal text.
 	 */
 	public static String alertLiteral(final String text) {
-		return alert('\'' + escape(text) + '\''); //place the text in quotes
+		return build(builder -> builder.appendLiteralMethod(ALERT_METHOD, text));
 	}
 
 	/**
@@ -304,7 +331,7 @@ public static String confirm(final String text) {
 	 * @return The string representing the confirmation of literal text.
 	 */
 	public static String confirmLiteral(final String text) {
-		return confirm('\'' + escape(text) + '\''); //place the text in quotes
+		return build(builder -> builder.appendLiteralMethod(CONFIRM_METHOD, text));
 	}
 
 	/**
@@ -370,13 +397,14 @@ public static String createIf(final String testExpression, final String thenBloc
 
 	/**
 	 * Creates JavaScript code for popping up a window.
+	 * @apiNote The URI and name are escaped as by {@link #escape(String)} within their literal strings, so that an apostrophe (which a URI may contain) or a
+	 *          backslash does not produce invalid code. URIs and names containing none of the escaped characters appear unchanged.
 	 * @param uri The URI to show in the new window.
 	 * @param name The name of the window; must not have spaces to work on IE.
 	 * @return The JavaScript code.
 	 */
 	public static String popupWindow(final URI uri, final String name) {
-		return //TODO testing
-		"var win=window.open('" + uri + "','" + name + "','width=640,height=480,scrollbars=yes');" + "if(window.focus){win.focus()};";
+		return build(builder -> builder.appendPopupWindow(uri, name));
 	}
 
 	/**
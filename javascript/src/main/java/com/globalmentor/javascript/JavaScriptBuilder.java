@@ -0,0 +1,471 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static com.globalmentor.javascript.JavaScript.*;
+import static java.util.Objects.*;
+
+import java.io.IOException;
+import java.net.URI;
+
+import javax.annotation.*;
+
+/**
+ * Builds JavaScript code by appending it directly to an {@link Appendable}, such as a {@link StringBuilder} or a {@link java.io.Writer}.
+ * <p>
+ * Expressions and statements are composed by successive calls, each writing its parts directly to the destination without creating intermediate strings.
+ * Literal strings are escaped as they are written: runs of characters needing no escape are appended in bulk, and the characters that do are found using a
+ * lookup table.
+ * </p>
+ * <pre>
+ * {@code
+ * new JavaScriptBuilder(writer).appendIf(test, then -> then.appendLiteralMethod(ALERT_METHOD, message)).appendStatementEnd();
+ * }
+ * </pre>
+ * @author Garret Wilson
+ * @see JavaScript
+ */
+public class JavaScriptBuilder {
+
+	/** The quote used to delimit literal strings. */
+	private static final char LITERAL_QUOTE = '\'';
+
+	/** The number of characters covered by {@link #ESCAPES}. */
+	private static final int ESCAPES_LENGTH = 0x80;
+
+	/** The character following {@link JavaScript#ESCAPE_CHAR} for each ASCII character needing an escape in a literal string, or zero for other characters. */
+	private static final char[] ESCAPES = new char[ESCAPES_LENGTH];
+
+	static {
+		ESCAPES[ESCAPE_CHAR] = ESCAPE_CHAR;
+		ESCAPES['\''] = '\'';
+		ESCAPES['"'] = '"';
+		ESCAPES['\n'] = 'n';
+		ESCAPES['\t'] = 't';
+	}
+
+	private final Appendable appendable;
+
+	/** @return The destination to which code is appended. */
+	public Appendable getAppendable() {
+		return appendable;
+	}
+
+	/** Constructor appending to a new {@link StringBuilder}, the code of which is available using {@link #toString()}. */
+	public JavaScriptBuilder() {
+		this(new StringBuilder());
+	}
+
+	/**
+	 * Appendable constructor.
+	 * @param appendable The destination to which code should be appended.
+	 */
+	public JavaScriptBuilder(@Nonnull final Appendable appendable) {
+		this.appendable = requireNonNull(appendable);
+	}
+
+	/**
+	 * Determines the index of the first character in a sequence that must be escaped in a literal string.
+	 * @param text The characters to examine.
+	 * @param start The index at which to start examining.
+	 * @return The index of the first character needing an escape, or the length of the sequence if there is none.
+	 */
+	static int findEscapeIndex(@Nonnull final CharSequence text, int start) {
+		final int length = text.length();
+		while(start < length) {
+			final char c = text.charAt(start);
+			if(c < ESCAPES_LENGTH && ESCAPES[c] != 0) {
+				break;
+			}
+			start++;
+		}
+		return start;
+	}
+
+	/**
+	 * Appends code as is.
+	 * @param code The code to append.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the code.
+	 */
+	public JavaScriptBuilder append(@Nonnull final CharSequence code) throws IOException {
+		appendable.append(code);
+		return this;
+	}
+
+	/**
+	 * Appends a single character of code.
+	 * @param c The character to append.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the character.
+	 */
+	public JavaScriptBuilder append(final char c) throws IOException {
+		appendable.append(c);
+		return this;
+	}
+
+	/**
+	 * Appends text escaped for inclusion in a JavaScript literal string, without the delimiting quotes.
+	 * <ul>
+	 * <li><code>'\\'</code> is changed to <code>"\\\\"</code></li>
+	 * <li><code>'\''</code> is changed to <code>"\\\'"</code></li>
+	 * <li><code>'"'</code> is changed to <code>"\\\""</code></li>
+	 * <li><code>'\n'</code> is changed to <code>"\\n"</code></li>
+	 * <li><code>'\t'</code> is changed to <code>"\\t"</code></li>
+	 * </ul>
+	 * @param text The text to escape.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the text.
+	 */
+	public JavaScriptBuilder appendEscaped(@Nonnull final CharSequence text) throws IOException {
+		final int length = text.length();
+		int runStart = 0;
+		int index;
+		while((index = findEscapeIndex(text, runStart)) < length) {
+			if(index > runStart) {
+				appendable.append(text, runStart, index);
+			}
+			appendable.append(ESCAPE_CHAR).append(ESCAPES[text.charAt(index)]);
+			runStart = index + 1;
+		}
+		if(runStart < length) {
+			appendable.append(text, runStart, length);
+		}
+		return this;
+	}
+
+	/**
+	 * Appends a literal string: <code>'<var>text</var>'</code>. The text is escaped.
+	 * @param text The text of the literal, or <code>null</code> if <code>null</code> should be appended instead.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the literal.
+	 */
+	public JavaScriptBuilder appendLiteral(@Nullable final CharSequence text) throws IOException {
+		if(text == null) {
+			return append(NULL);
+		}
+		appendable.append(LITERAL_QUOTE);
+		appendEscaped(text);
+		appendable.append(LITERAL_QUOTE);
+		return this;
+	}
+
+	/**
+	 * Appends a method call: <code><var>method</var>(<var>parameters</var>)</code>
+	 * @param method The name of the method.
+	 * @param parameters The method parameters, as code.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the method call.
+	 */
+	public JavaScriptBuilder appendMethod(@Nonnull final CharSequence method, @Nonnull final CharSequence... parameters) throws IOException {
+		appendable.append(method).append(PARAMETER_BEGIN_CHAR);
+		for(int i = 0; i < parameters.length; i++) {
+			if(i > 0) {
+				appendable.append(PARAMETER_DELIMITER);
+			}
+			appendable.append(parameters[i]);
+		}
+		appendable.append(PARAMETER_END_CHAR);
+		return this;
+	}
+
+	/**
+	 * Appends a call to a method with a single literal parameter: <code><var>method</var>('<var>text</var>')</code>. The text is escaped.
+	 * @param method The name of the method.
+	 * @param text The text of the literal parameter.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the method call.
+	 */
+	public JavaScriptBuilder appendLiteralMethod(@Nonnull final CharSequence method, @Nonnull final CharSequence text) throws IOException {
+		appendable.append(method).append(PARAMETER_BEGIN_CHAR);
+		appendLiteral(requireNonNull(text));
+		appendable.append(PARAMETER_END_CHAR);
+		return this;
+	}
+
+	/**
+	 * Appends an object property: <code><var>object</var>.<var>property</var></code>
+	 * @param object The name of the object.
+	 * @param property The name of the property.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the property.
+	 */
+	public JavaScriptBuilder appendObjectProperty(@Nonnull final CharSequence object, @Nonnull final CharSequence property) throws IOException {
+		appendable.append(object).append(PROPERTY_DELIMITER).append(property);
+		return this;
+	}
+
+	/**
+	 * Appends an object method call: <code><var>object</var>.<var>method</var>(<var>parameters</var>)</code>
+	 * @param object The name of the object.
+	 * @param method The name of the method.
+	 * @param parameters The method parameters, as code.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the method call.
+	 */
+	public JavaScriptBuilder appendObjectMethod(@Nonnull final CharSequence object, @Nonnull final CharSequence method, @Nonnull final CharSequence... parameters)
+			throws IOException {
+		appendable.append(object).append(PROPERTY_DELIMITER);
+		return appendMethod(method, parameters);
+	}
+
+	/**
+	 * Appends an index into the object or array most recently appended: <code>['<var>property</var>']</code>
+	 * @param property The name of the property.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the index.
+	 */
+	public JavaScriptBuilder appendIndexedProperty(@Nonnull final CharSequence property) throws IOException {
+		appendable.append(ARRAY_INDEX_BEGIN_CHAR).append(LITERAL_QUOTE).append(property).append(LITERAL_QUOTE).append(ARRAY_INDEX_END_CHAR);
+		return this;
+	}
+
+	/**
+	 * Appends an object indexed property: <code><var>object</var>['<var>property</var>']</code>
+	 * @param object The name of the object.
+	 * @param property The name of the property.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the property.
+	 */
+	public JavaScriptBuilder appendObjectIndexedProperty(@Nonnull final CharSequence object, @Nonnull final CharSequence property) throws IOException {
+		appendable.append(object);
+		return appendIndexedProperty(property);
+	}
+
+	/**
+	 * Appends the form variable with the given ID: <code>document.forms['<var>formID</var>']</code>
+	 * @param formID The ID of the form.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the variable.
+	 */
+	public JavaScriptBuilder appendFormVariable(@Nonnull final CharSequence formID) throws IOException {
+		return appendObjectProperty(DOCUMENT, FORMS).appendIndexedProperty(formID);
+	}
+
+	/**
+	 * Appends a form component variable: <code>document.forms['<var>formID</var>']['<var>componentID</var>']</code>
+	 * @param formID The ID of the form containing the component.
+	 * @param componentID The ID of the component.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the variable.
+	 */
+	public JavaScriptBuilder appendFormComponentVariable(@Nonnull final CharSequence formID, @Nonnull final CharSequence componentID) throws IOException {
+		return appendFormVariable(formID).appendIndexedProperty(componentID);
+	}
+
+	/**
+	 * Appends a form component property: <code>document.forms['<var>formID</var>']['<var>componentID</var>'].<var>property</var></code>
+	 * @param formID The ID of the form containing the component.
+	 * @param componentID The ID of the component.
+	 * @param property The name of the component property.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the property.
+	 */
+	public JavaScriptBuilder appendFormComponentProperty(@Nonnull final CharSequence formID, @Nonnull final CharSequence componentID,
+			@Nonnull final CharSequence property) throws IOException {
+		appendFormComponentVariable(formID, componentID);
+		appendable.append(PROPERTY_DELIMITER).append(property);
+		return this;
+	}
+
+	/**
+	 * Appends the assignment of a value to the variable most recently appended: <code>=<var>value</var></code>
+	 * @param value The value to assign, as code, or <code>null</code> if <code>null</code> should be assigned.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the assignment.
+	 */
+	public JavaScriptBuilder appendAssignedValue(@Nullable final CharSequence value) throws IOException {
+		appendable.append(ASSIGNMENT_CHAR).append(value != null ? value : NULL);
+		return this;
+	}
+
+	/**
+	 * Appends the assignment of a literal string to the variable most recently appended: <code>='<var>value</var>'</code>. The value is escaped.
+	 * @param value The literal value to assign, or <code>null</code> if <code>null</code> should be assigned.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the assignment.
+	 */
+	public JavaScriptBuilder appendAssignedLiteral(@Nullable final CharSequence value) throws IOException {
+		appendable.append(ASSIGNMENT_CHAR);
+		return appendLiteral(value);
+	}
+
+	/**
+	 * Appends a variable assignment: <code><var>variable</var>=<var>value</var></code>
+	 * @param variable The variable to which the value should be assigned.
+	 * @param value The value to assign, as code, or <code>null</code> if <code>null</code> should be assigned.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the assignment.
+	 */
+	public JavaScriptBuilder appendAssignment(@Nonnull final CharSequence variable, @Nullable final CharSequence value) throws IOException {
+		appendable.append(variable);
+		return appendAssignedValue(value);
+	}
+
+	/**
+	 * Appends a variable assignment of a literal string: <code><var>variable</var>='<var>value</var>'</code>. The value is escaped.
+	 * @param variable The variable to which the value should be assigned.
+	 * @param value The literal value to assign, or <code>null</code> if <code>null</code> should be assigned.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the assignment.
+	 */
+	public JavaScriptBuilder appendLiteralAssignment(@Nonnull final CharSequence variable, @Nullable final CharSequence value) throws IOException {
+		appendable.append(variable);
+		return appendAssignedLiteral(value);
+	}
+
+	/**
+	 * Appends the end of a statement: <code>;</code>
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the statement end.
+	 */
+	public JavaScriptBuilder appendStatementEnd() throws IOException {
+		appendable.append(STATEMENT_END_CHAR);
+		return this;
+	}
+
+	/**
+	 * Appends a negation: <code>!<var>expression</var></code>
+	 * @param expression The expression to negate.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the negation.
+	 */
+	public JavaScriptBuilder appendNot(@Nonnull final CharSequence expression) throws IOException {
+		appendable.append(NOT_OPERATOR).append(expression);
+		return this;
+	}
+
+	/**
+	 * Appends an <code>if()</code> block: <code>if(<var>testExpression</var>){<var>thenBlock</var>}</code>
+	 * @param testExpression The expression to test.
+	 * @param thenBlock The block to execute if the test evaluates to <code>true</code>.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the block.
+	 */
+	public JavaScriptBuilder appendIf(@Nonnull final CharSequence testExpression, @Nonnull final CharSequence thenBlock) throws IOException {
+		return appendIf(testExpression, thenBlock, null);
+	}
+
+	/**
+	 * Appends an <code>if()</code> block: <code>if(<var>testExpression</var>){<var>thenBlock</var>}else{<var>elseBlock</var>}</code>
+	 * @param testExpression The expression to test.
+	 * @param thenBlock The block to execute if the test evaluates to <code>true</code>.
+	 * @param elseBlock The block to execute if the test evaluates to <code>false</code>, or <code>null</code> if there should be no else block.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the block.
+	 */
+	public JavaScriptBuilder appendIf(@Nonnull final CharSequence testExpression, @Nonnull final CharSequence thenBlock, @Nullable final CharSequence elseBlock)
+			throws IOException {
+		return appendIf(testExpression, then -> then.append(thenBlock), elseBlock != null ? otherwise -> otherwise.append(elseBlock) : null);
+	}
+
+	/**
+	 * Appends an <code>if()</code> block, the contents of which are themselves appended by this builder:
+	 * <code>if(<var>testExpression</var>){<var>thenBlock</var>}</code>
+	 * @param testExpression The expression to test.
+	 * @param thenBlock The code appending the block to execute if the test evaluates to <code>true</code>.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the block.
+	 */
+	public JavaScriptBuilder appendIf(@Nonnull final CharSequence testExpression, @Nonnull final Block thenBlock) throws IOException {
+		return appendIf(testExpression, thenBlock, null);
+	}
+
+	/**
+	 * Appends an <code>if()</code> block, the contents of which are themselves appended by this builder:
+	 * <code>if(<var>testExpression</var>){<var>thenBlock</var>}else{<var>elseBlock</var>}</code>
+	 * @param testExpression The expression to test.
+	 * @param thenBlock The code appending the block to execute if the test evaluates to <code>true</code>.
+	 * @param elseBlock The code appending the block to execute if the test evaluates to <code>false</code>, or <code>null</code> if there should be no else
+	 *          block.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the block.
+	 */
+	public JavaScriptBuilder appendIf(@Nonnull final CharSequence testExpression, @Nonnull final Block thenBlock, @Nullable final Block elseBlock)
+			throws IOException {
+		appendable.append(IF_KEYWORD).append(PARAMETER_BEGIN_CHAR).append(testExpression).append(PARAMETER_END_CHAR);
+		appendBlock(thenBlock);
+		if(elseBlock != null) {
+			appendable.append(ELSE_KEYWORD);
+			appendBlock(elseBlock);
+		}
+		return this;
+	}
+
+	/**
+	 * Appends a block: <code>{<var>block</var>}</code>
+	 * @param block The code appending the contents of the block.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the block.
+	 */
+	public JavaScriptBuilder appendBlock(@Nonnull final Block block) throws IOException {
+		appendable.append(BLOCK_BEGIN_CHAR);
+		block.append(this);
+		appendable.append(BLOCK_END_CHAR);
+		return this;
+	}
+
+	/**
+	 * Appends code for popping up a window. The URI and name are escaped.
+	 * @param uri The URI to show in the new window.
+	 * @param name The name of the window; must not have spaces to work on IE.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the code.
+	 */
+	public JavaScriptBuilder appendPopupWindow(@Nonnull final URI uri, @Nonnull final CharSequence name) throws IOException {
+		appendable.append("var win=window.open(");
+		appendLiteral(uri.toString()).append(PARAMETER_DELIMITER).appendLiteral(requireNonNull(name));
+		return append(",'width=640,height=480,scrollbars=yes');if(window.focus){win.focus()};");
+	}
+
+	/**
+	 * Appends a return statement: <code>return <var>value</var>;</code>
+	 * @param value The value to return, as code; its string form is appended.
+	 * @return This builder.
+	 * @throws IOException if there is an error appending the statement.
+	 */
+	public JavaScriptBuilder appendReturn(@Nullable final Object value) throws IOException {
+		appendable.append(RETURN_KEYWORD).append(' ').append(String.valueOf(value)).append(STATEMENT_END_CHAR);
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation returns the string form of the destination, which for the default {@link StringBuilder} is the code appended.
+	 */
+	@Override
+	public String toString() {
+		return appendable.toString();
+	}
+
+	/**
+	 * Code appending the contents of a block using a builder.
+	 * @author Garret Wilson
+	 */
+	@FunctionalInterface
+	public interface Block {
+
+		/**
+		 * Appends the contents of the block.
+		 * @param builder The builder to which the contents should be appended.
+		 * @throws IOException if there is an error appending the contents.
+		 */
+		void append(@Nonnull JavaScriptBuilder builder) throws IOException;
+
+	}
+
+}
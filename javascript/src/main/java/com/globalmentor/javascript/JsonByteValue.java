@@ -0,0 +1,975 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static com.globalmentor.java.Conditions.*;
+import static com.globalmentor.javascript.JSON.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Objects.*;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import javax.annotation.*;
+
+import com.globalmentor.javascript.JSON.DecimalMode;
+import com.globalmentor.text.ArgumentSyntaxException;
+
+/**
+ * A JSON value parsed lazily from UTF-8 encoded bytes.
+ * <p>
+ * {@link #parse(byte[])} makes a single pass over the bytes to build an index of their structural characters, without decoding them; see
+ * {@link JsonStructuralIndex}. A {@link JsonByteValue} is a lightweight view of one value within the bytes, located using the index. Members and elements are
+ * located by walking the index, skipping nested objects and arrays in constant time, and object member names are compared with the requested name as UTF-8
+ * bytes. Strings are decoded and numbers converted only when {@link #getString()} or {@link #getNumber()} is called. For compatibility with code consuming the
+ * results of {@link JSON#parseValue(CharSequence)}, {@link #asValue()} presents objects and arrays as {@link Map} and {@link List} views converted on demand.
+ * </p>
+ * <pre>
+ * {@code
+ * final JsonByteValue root = JsonByteValue.parse(bytes);
+ * final String name = root.findMember("user").flatMap(user -> user.findMember("name")).map(JsonByteValue::getString).orElse(null);
+ * }
+ * </pre>
+ * <p>
+ * The grammar of each value is verified when the value is accessed, so syntax errors in parts of the input never accessed may go unreported. The bytes must
+ * not be modified while values are in use.
+ * </p>
+ * @author Garret Wilson
+ */
+public final class JsonByteValue {
+
+	/** The type of a JSON value. */
+	public enum Type {
+		/** An object. */
+		OBJECT,
+		/** An array. */
+		ARRAY,
+		/** A string. */
+		STRING,
+		/** A number. */
+		NUMBER,
+		/** <code>true</code> or <code>false</code>. */
+		BOOLEAN,
+		/** <code>null</code>. */
+		NULL
+	}
+
+	private final JsonStructuralIndex index;
+
+	private final Type type;
+
+	/** @return The type of this value. */
+	public Type getType() {
+		return type;
+	}
+
+	/** The index of the structural character starting this value, or <code>-1</code> if this value is a number or literal name. */
+	private final int token;
+
+	/** The position of the first byte of this value. */
+	private final int start;
+
+	/** The position after the last byte of this value. */
+	private final int end;
+
+	/**
+	 * Constructor.
+	 * @param index The index of the bytes containing the value.
+	 * @param type The type of the value.
+	 * @param token The index of the structural character starting this value, or <code>-1</code> if this value is a number or literal name.
+	 * @param start The position of the first byte of the value.
+	 * @param end The position after the last byte of the value.
+	 */
+	private JsonByteValue(@Nonnull final JsonStructuralIndex index, @Nonnull final Type type, final int token, final int start, final int end) {
+		this.index = index;
+		this.type = type;
+		this.token = token;
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * Parses a single JSON value from UTF-8 bytes.
+	 * @param bytes The bytes containing the JSON.
+	 * @return The top-level value.
+	 * @throws ArgumentSyntaxException if the bytes do not contain a single JSON value, or a string is unterminated, or brackets are not balanced and properly
+	 *           nested.
+	 */
+	public static JsonByteValue parse(@Nonnull final byte[] bytes) {
+		return parse(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Parses a single JSON value from a range of UTF-8 bytes.
+	 * @param bytes The bytes containing the JSON.
+	 * @param offset The position of the first byte of the JSON.
+	 * @param length The number of bytes of JSON.
+	 * @return The top-level value.
+	 * @throws IndexOutOfBoundsException if the offset and/or length are not within the array.
+	 * @throws ArgumentSyntaxException if the bytes do not contain a single JSON value, or a string is unterminated, or brackets are not balanced and properly
+	 *           nested.
+	 */
+	public static JsonByteValue parse(@Nonnull final byte[] bytes, final int offset, final int length) {
+		final JsonStructuralIndex index = new JsonStructuralIndex(bytes, offset, length);
+		final JsonByteValue root = valueAt(index, 0, index.getStart());
+		final int nextToken = root.getNextToken();
+		if(nextToken < index.getCount()) {
+			throw index.syntaxException("Unexpected content after JSON value.", index.getPosition(nextToken));
+		}
+		index.checkWhitespace(root.end, index.getEnd(), "end of input");
+		return root;
+	}
+
+	/**
+	 * Parses a single JSON value from the remaining UTF-8 bytes of a byte buffer. The position of the buffer is not changed.
+	 * @implSpec The bytes are accessed directly if the buffer has an accessible backing array; otherwise they are first copied.
+	 * @param byteBuffer The byte buffer containing the JSON.
+	 * @return The top-level value.
+	 * @throws ArgumentSyntaxException if the bytes do not contain a single JSON value, or a string is unterminated, or brackets are not balanced and properly
+	 *           nested.
+	 */
+	public static JsonByteValue parse(@Nonnull final ByteBuffer byteBuffer) {
+		if(byteBuffer.hasArray()) {
+			return parse(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+		}
+		final byte[] bytes = new byte[byteBuffer.remaining()];
+		byteBuffer.duplicate().get(bytes);
+		return parse(bytes);
+	}
+
+	/**
+	 * Locates the value beginning after a structural character or at the start of the input.
+	 * @param index The index of the bytes.
+	 * @param token The index of the first structural character at or after the value.
+	 * @param from The position after the preceding structural character, or the start of the input.
+	 * @return The value.
+	 * @throws ArgumentSyntaxException if there is no valid value at the position.
+	 */
+	private static JsonByteValue valueAt(@Nonnull final JsonStructuralIndex index, final int token, final int from) {
+		final int tokenPosition = token < index.getCount() ? index.getPosition(token) : index.getEnd();
+		final int start = index.skipWhitespace(from, tokenPosition);
+		if(start == tokenPosition) { //the value starts with a structural character
+			if(token < index.getCount()) {
+				switch(index.getCharacter(token)) {
+					case BEGIN_OBJECT:
+						return new JsonByteValue(index, Type.OBJECT, token, start, index.getPosition(index.getMatch(token)) + 1);
+					case BEGIN_ARRAY:
+						return new JsonByteValue(index, Type.ARRAY, token, start, index.getPosition(index.getMatch(token)) + 1);
+					case QUOTATION_MARK:
+						return new JsonByteValue(index, Type.STRING, token, start, index.getPosition(token + 1) + 1);
+					default:
+						break;
+				}
+			}
+			throw index.syntaxException("Expected value.", start);
+		}
+		//a number or literal name extends to the next structural character, less any trailing whitespace
+		final byte[] bytes = index.getBytes();
+		int end = tokenPosition;
+		while(JsonStructuralIndex.isWhitespace(bytes[end - 1])) {
+			end--;
+		}
+		final Type type;
+		switch(bytes[start]) {
+			case 't':
+				checkLiteral(index, start, end, TRUE);
+				type = Type.BOOLEAN;
+				break;
+			case 'f':
+				checkLiteral(index, start, end, FALSE);
+				type = Type.BOOLEAN;
+				break;
+			case 'n':
+				checkLiteral(index, start, end, NULL);
+				type = Type.NULL;
+				break;
+			default:
+				checkNumber(index, start, end);
+				type = Type.NUMBER;
+				break;
+		}
+		return new JsonByteValue(index, type, -1, start, end);
+	}
+
+	/**
+	 * Checks that a range of bytes contains a literal name.
+	 * @param index The index of the bytes.
+	 * @param start The position of the first byte.
+	 * @param end The position after the last byte.
+	 * @param literal The expected literal name.
+	 * @throws ArgumentSyntaxException if the range does not contain the literal.
+	 */
+	private static void checkLiteral(@Nonnull final JsonStructuralIndex index, final int start, final int end, @Nonnull final String literal) {
+		final byte[] bytes = index.getBytes();
+		final int length = literal.length();
+		boolean matches = end - start == length;
+		for(int i = 0; matches && i < length; i++) {
+			matches = bytes[start + i] == literal.charAt(i);
+		}
+		if(!matches) {
+			throw index.syntaxException("Expected " + literal + ".", start);
+		}
+	}
+
+	/**
+	 * Checks that a range of bytes contains a number.
+	 * @param index The index of the bytes.
+	 * @param start The position of the first byte.
+	 * @param end The position after the last byte.
+	 * @throws ArgumentSyntaxException if the range does not contain a valid JSON number.
+	 */
+	private static void checkNumber(@Nonnull final JsonStructuralIndex index, final int start, final int end) {
+		final byte[] bytes = index.getBytes();
+		int position = start;
+		if(bytes[position] == MINUS) {
+			position++;
+		}
+		if(position < end && bytes[position] == '0') {
+			position++;
+		} else {
+			position = checkDigits(index, position, end);
+		}
+		if(position < end && bytes[position] == DECIMAL_POINT) {
+			position = checkDigits(index, position + 1, end);
+		}
+		if(position < end && (bytes[position] == 'e' || bytes[position] == 'E')) {
+			position++;
+			if(position < end && (bytes[position] == MINUS || bytes[position] == PLUS)) {
+				position++;
+			}
+			position = checkDigits(index, position, end);
+		}
+		if(position < end) {
+			throw index.syntaxException(position == start ? "Illegal value character." : "Illegal number character.", position);
+		}
+	}
+
+	/**
+	 * Checks for one or more decimal digits.
+	 * @param index The index of the bytes.
+	 * @param position The position of the first digit.
+	 * @param end The position after the last byte available.
+	 * @return The position after the digits.
+	 * @throws ArgumentSyntaxException if there is not at least one digit.
+	 */
+	private static int checkDigits(@Nonnull final JsonStructuralIndex index, int position, final int end) {
+		final byte[] bytes = index.getBytes();
+		if(position == end || bytes[position] < '0' || bytes[position] > '9') {
+			throw index.syntaxException("Expected digit in number.", position);
+		}
+		do {
+			position++;
+		} while(position < end && bytes[position] >= '0' && bytes[position] <= '9');
+		return position;
+	}
+
+	/** @return The index of the first structural character after this value. */
+	private int getNextToken() {
+		switch(type) {
+			case OBJECT:
+			case ARRAY:
+				return index.getMatch(token) + 1;
+			case STRING:
+				return token + 2;
+			default: //a number or literal name has no structural character of its own
+				return index.getCount() == 0 || start > index.getPosition(index.getCount() - 1) ? index.getCount() : findTokenAfter(end);
+		}
+	}
+
+	/**
+	 * Finds the first structural character at or after a position.
+	 * @param position The byte position.
+	 * @return The index of the first structural character at or after the position, or the number of structural characters if there is none.
+	 */
+	private int findTokenAfter(final int position) {
+		int low = 0;
+		int high = index.getCount();
+		while(low < high) {
+			final int middle = (low + high) >>> 1;
+			if(index.getPosition(middle) < position) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	//# containers
+
+	/**
+	 * Returns the index of the structural character after a member or element value within this container, checking that it is a value separator or the end of
+	 * this container.
+	 * @param value The member or element value.
+	 * @return The index of the value separator or closing bracket following the value.
+	 * @throws ArgumentSyntaxException if the value is not followed by a value separator or the end of this container.
+	 */
+	private int checkSeparatorAfter(@Nonnull final JsonByteValue value) {
+		final int separatorToken = value.getNextToken();
+		final char closing = type == Type.OBJECT ? END_OBJECT : END_ARRAY;
+		final char separator = index.getCharacter(separatorToken);
+		index.checkWhitespace(value.end, index.getPosition(separatorToken), VALUE_SEPARATOR + " or " + closing);
+		if(separator != VALUE_SEPARATOR && separatorToken != index.getMatch(token)) {
+			throw index.syntaxException("Expected " + VALUE_SEPARATOR + " or " + closing + ".", index.getPosition(separatorToken));
+		}
+		return separatorToken;
+	}
+
+	/**
+	 * Determines whether this container is empty.
+	 * @return <code>true</code> if the container contains only whitespace.
+	 */
+	private boolean isContainerEmpty() {
+		final int closeToken = index.getMatch(token);
+		if(closeToken != token + 1) {
+			return false;
+		}
+		final int closePosition = index.getPosition(closeToken);
+		return index.skipWhitespace(start + 1, closePosition) == closePosition; //otherwise the container holds a single number or literal name
+	}
+
+	/**
+	 * Visits the members or elements of this container in order.
+	 * @param visitor The visitor, receiving the index of the name of each member (or <code>-1</code> for array elements) and the value, and returning
+	 *          <code>false</code> to stop visiting.
+	 */
+	private void visit(@Nonnull final ContainerVisitor visitor) {
+		if(isContainerEmpty()) {
+			return;
+		}
+		final boolean isObject = type == Type.OBJECT;
+		int nextToken = token + 1;
+		int from = start + 1;
+		while(true) {
+			final int nameToken;
+			if(isObject) {
+				nameToken = nextToken;
+				index.checkWhitespace(from, index.getPosition(nameToken), "name");
+				if(index.getCharacter(nameToken) != QUOTATION_MARK) {
+					throw index.syntaxException("Expected name.", index.getPosition(nameToken));
+				}
+				final int nameSeparatorToken = nameToken + 2;
+				index.checkWhitespace(index.getPosition(nameToken + 1) + 1, index.getPosition(nameSeparatorToken), String.valueOf(NAME_SEPARATOR));
+				if(index.getCharacter(nameSeparatorToken) != NAME_SEPARATOR) {
+					throw index.syntaxException("Expected " + NAME_SEPARATOR + ".", index.getPosition(nameSeparatorToken));
+				}
+				nextToken = nameSeparatorToken + 1;
+				from = index.getPosition(nameSeparatorToken) + 1;
+			} else {
+				nameToken = -1;
+			}
+			final JsonByteValue value = valueAt(index, nextToken, from);
+			final int separatorToken = checkSeparatorAfter(value);
+			if(!visitor.visit(nameToken, value) || index.getCharacter(separatorToken) != VALUE_SEPARATOR) {
+				return;
+			}
+			nextToken = separatorToken + 1;
+			from = index.getPosition(separatorToken) + 1;
+		}
+	}
+
+	/** A visitor of container members or elements. */
+	@FunctionalInterface
+	private interface ContainerVisitor {
+
+		/**
+		 * Visits a member or element.
+		 * @param nameToken The index of the opening quotation mark of the member name, or <code>-1</code> for an array element.
+		 * @param value The member or element value.
+		 * @return <code>true</code> if visiting should continue.
+		 */
+		boolean visit(int nameToken, @Nonnull JsonByteValue value);
+
+	}
+
+	/**
+	 * Returns the number of members of this object or elements of this array.
+	 * @return The number of members or elements.
+	 * @throws IllegalStateException if this value is not an object or array.
+	 * @throws ArgumentSyntaxException if the container is not valid JSON.
+	 */
+	public int getSize() {
+		checkState(type == Type.OBJECT || type == Type.ARRAY, "JSON %s has no size.", type);
+		final int[] size = {0};
+		visit((nameToken, value) -> {
+			size[0]++;
+			return true;
+		});
+		return size[0];
+	}
+
+	/**
+	 * Returns an element of this array.
+	 * @param elementIndex The index of the element.
+	 * @return The element value.
+	 * @throws IllegalStateException if this value is not an array.
+	 * @throws IndexOutOfBoundsException if the index is out of range.
+	 * @throws ArgumentSyntaxException if the array is not valid JSON.
+	 */
+	public JsonByteValue get(final int elementIndex) {
+		checkState(type == Type.ARRAY, "JSON %s is not an array.", type);
+		if(elementIndex < 0) {
+			throw new IndexOutOfBoundsException("Index " + elementIndex + " is negative.");
+		}
+		final JsonByteValue[] element = {null};
+		final int[] remaining = {elementIndex};
+		visit((nameToken, value) -> {
+			if(remaining[0]-- == 0) {
+				element[0] = value;
+				return false;
+			}
+			return true;
+		});
+		if(element[0] == null) {
+			throw new IndexOutOfBoundsException("Index " + elementIndex + " is out of range.");
+		}
+		return element[0];
+	}
+
+	/**
+	 * Returns the elements of this array.
+	 * @return The element values, in order.
+	 * @throws IllegalStateException if this value is not an array.
+	 * @throws ArgumentSyntaxException if the array is not valid JSON.
+	 */
+	public List<JsonByteValue> getElements() {
+		checkState(type == Type.ARRAY, "JSON %s is not an array.", type);
+		final List<JsonByteValue> elements = new ArrayList<>();
+		visit((nameToken, value) -> elements.add(value));
+		return elements;
+	}
+
+	/**
+	 * Finds the value of the first member of this object with the given name. Names without escapes are compared as UTF-8 bytes, without being decoded.
+	 * @param name The member name.
+	 * @return The member value, if the object has a member with the name.
+	 * @throws IllegalStateException if this value is not an object.
+	 * @throws ArgumentSyntaxException if the object is not valid JSON.
+	 */
+	public Optional<JsonByteValue> findMember(@Nonnull final String name) {
+		checkState(type == Type.OBJECT, "JSON %s is not an object.", type);
+		final byte[] nameBytes = name.getBytes(UTF_8);
+		final JsonByteValue[] member = {null};
+		visit((nameToken, value) -> {
+			if(isNameEqual(nameToken, nameBytes, name)) {
+				member[0] = value;
+				return false;
+			}
+			return true;
+		});
+		return Optional.ofNullable(member[0]);
+	}
+
+	/**
+	 * Returns the members of this object, decoding their names.
+	 * @return The member names and values, in order. If the object has several members with the same name, the first is used.
+	 * @throws IllegalStateException if this value is not an object.
+	 * @throws ArgumentSyntaxException if the object is not valid JSON.
+	 */
+	public Map<String, JsonByteValue> getMembers() {
+		checkState(type == Type.OBJECT, "JSON %s is not an object.", type);
+		final Map<String, JsonByteValue> members = new LinkedHashMap<>();
+		visit((nameToken, value) -> {
+			members.putIfAbsent(decodeString(index, index.getPosition(nameToken) + 1, index.getPosition(nameToken + 1)), value);
+			return true;
+		});
+		return members;
+	}
+
+	/**
+	 * Determines whether an object member name is equal to a given name.
+	 * @param nameToken The index of the opening quotation mark of the member name.
+	 * @param nameBytes The UTF-8 encoding of the name to compare.
+	 * @param name The name to compare.
+	 * @return <code>true</code> if the member has the given name.
+	 */
+	private boolean isNameEqual(final int nameToken, @Nonnull final byte[] nameBytes, @Nonnull final String name) {
+		final int nameStart = index.getPosition(nameToken) + 1;
+		final int nameEnd = index.getPosition(nameToken + 1);
+		final byte[] bytes = index.getBytes();
+		for(int position = nameStart; position < nameEnd; position++) {
+			if(bytes[position] == ESCAPE) { //an escaped name must be decoded to be compared
+				return decodeString(index, nameStart, nameEnd).equals(name);
+			}
+		}
+		return Arrays.equals(bytes, nameStart, nameEnd, nameBytes, 0, nameBytes.length);
+	}
+
+	//# scalars
+
+	/**
+	 * Returns the value of this string, decoding it from UTF-8 and resolving any escapes.
+	 * @return The string value.
+	 * @throws IllegalStateException if this value is not a string.
+	 * @throws ArgumentSyntaxException if the string contains an invalid escape.
+	 */
+	public String getString() {
+		checkState(type == Type.STRING, "JSON %s is not a string.", type);
+		return decodeString(index, start + 1, end - 1);
+	}
+
+	/**
+	 * Decodes the contents of a JSON string.
+	 * @param index The index of the bytes.
+	 * @param start The position of the first byte after the opening quotation mark.
+	 * @param end The position of the closing quotation mark.
+	 * @return The decoded string.
+	 * @throws ArgumentSyntaxException if the string contains an invalid escape.
+	 */
+	static String decodeString(@Nonnull final JsonStructuralIndex index, final int start, final int end) {
+		final byte[] bytes = index.getBytes();
+		int position = start;
+		while(position < end && bytes[position] != ESCAPE) {
+			position++;
+		}
+		if(position == end) { //no escapes
+			return new String(bytes, start, end - start, UTF_8);
+		}
+		final StringBuilder stringBuilder = new StringBuilder(end - start);
+		int runStart = start;
+		while(position < end) {
+			if(bytes[position] != ESCAPE) {
+				position++;
+				continue;
+			}
+			stringBuilder.append(new String(bytes, runStart, position - runStart, UTF_8));
+			final byte escaped = bytes[++position]; //the index guarantees that an escape is followed by the escaped character
+			switch(escaped) {
+				case ESCAPED_QUOTATION_MARK:
+					stringBuilder.append(QUOTATION_MARK);
+					break;
+				case ESCAPED_REVERSE_SOLIDUS:
+					stringBuilder.append(REVERSE_SOLIDUS);
+					break;
+				case ESCAPED_SOLIDUS:
+					stringBuilder.append(SOLIDUS);
+					break;
+				case ESCAPED_BACKSPACE:
+					stringBuilder.append(BACKSPACE);
+					break;
+				case ESCAPED_FORM_FEED:
+					stringBuilder.append(FORM_FEED);
+					break;
+				case ESCAPED_LINE_FEED:
+					stringBuilder.append(LINE_FEED);
+					break;
+				case ESCAPED_CARRIAGE_RETURN:
+					stringBuilder.append(CARRIAGE_RETURN);
+					break;
+				case ESCAPED_TAB:
+					stringBuilder.append(HORIZONTAL_TAB);
+					break;
+				case ESCAPED_UNICODE:
+					{
+						int codeUnit = 0;
+						for(int i = 0; i < 4; i++) {
+							final int digitValue = ++position < end ? hexDigitValue((char)bytes[position]) : -1;
+							if(digitValue < 0) {
+								throw index.syntaxException("Expected hexadecimal digit.", position);
+							}
+							codeUnit = (codeUnit << 4) | digitValue;
+						}
+						stringBuilder.append((char)codeUnit);
+					}
+					break;
+				default:
+					throw index.syntaxException("Unrecognized escaped character.", position);
+			}
+			runStart = ++position;
+		}
+		return stringBuilder.append(new String(bytes, runStart, end - runStart, UTF_8)).toString();
+	}
+
+	/**
+	 * Returns the value of this number, representing numbers with a fraction or exponent as {@link Double}.
+	 * @return The number value.
+	 * @throws IllegalStateException if this value is not a number.
+	 * @see DecimalMode#DOUBLE
+	 */
+	public Number getNumber() {
+		return getNumber(DecimalMode.DOUBLE);
+	}
+
+	/**
+	 * Returns the value of this number, converted directly from the bytes as {@link JSON#parseValue(CharSequence, DecimalMode)} does.
+	 * @param decimalMode How to represent a number with a fraction or exponent.
+	 * @return The number value.
+	 * @throws IllegalStateException if this value is not a number.
+	 */
+	public Number getNumber(@Nonnull final DecimalMode decimalMode) {
+		checkState(type == Type.NUMBER, "JSON %s is not a number.", type);
+		final byte[] bytes = index.getBytes();
+		boolean isInteger = true;
+		for(int position = start; isInteger && position < end; position++) {
+			final byte b = bytes[position];
+			isInteger = b != DECIMAL_POINT && b != 'e' && b != 'E';
+		}
+		return toNumber(new AsciiCharSequence(bytes, start, end), 0, end - start, isInteger, requireNonNull(decimalMode));
+	}
+
+	/**
+	 * Returns the value of this boolean.
+	 * @return The boolean value.
+	 * @throws IllegalStateException if this value is not a boolean.
+	 */
+	public boolean getBoolean() {
+		checkState(type == Type.BOOLEAN, "JSON %s is not a boolean.", type);
+		return index.getBytes()[start] == 't';
+	}
+
+	/** @return <code>true</code> if this value is <code>null</code>. */
+	public boolean isNull() {
+		return type == Type.NULL;
+	}
+
+	/**
+	 * Converts this value in its entirety to the object form produced by {@link JSON#parseValue(CharSequence)}.
+	 * @return A new {@link String}, {@link Boolean}, {@link Number}, {@link List}, {@link Map}, or <code>null</code> representing this value.
+	 * @throws ArgumentSyntaxException if this value is not valid JSON.
+	 */
+	public Object toValue() {
+		switch(type) {
+			case OBJECT:
+				{
+					final Map<String, Object> map = new LinkedHashMap<>();
+					visit((nameToken, value) -> {
+						map.put(decodeString(index, index.getPosition(nameToken) + 1, index.getPosition(nameToken + 1)), value.toValue());
+						return true;
+					});
+					return map;
+				}
+			case ARRAY:
+				{
+					final List<Object> list = new ArrayList<>();
+					visit((nameToken, value) -> list.add(value.toValue()));
+					return list;
+				}
+			case STRING:
+				return getString();
+			case NUMBER:
+				return getNumber();
+			case BOOLEAN:
+				return Boolean.valueOf(getBoolean());
+			case NULL:
+				return null;
+			default:
+				throw impossible("Unrecognized JSON type " + type + ".");
+		}
+	}
+
+	//# lazy views
+
+	/**
+	 * Returns this value in the object form produced by {@link JSON#parseValue(CharSequence)}, converting it on demand rather than in its entirety.
+	 * <p>
+	 * Objects and arrays are returned as unmodifiable {@link Map} and {@link List} views of the bytes. A view locates its members or elements only when first
+	 * accessed, and converts each member or element value only when it is retrieved, so that unvisited objects and arrays are never materialized and unread
+	 * strings are never decoded. As with {@link JSON#parseValue(CharSequence)}, if an object has several members with the same name, the last one is used.
+	 * </p>
+	 * @return A {@link String}, {@link Boolean}, {@link Number}, {@link List}, {@link Map}, or <code>null</code> representing this value.
+	 * @throws ArgumentSyntaxException if this value is a scalar that is not valid JSON; errors within an object or array are reported when the view is
+	 *           accessed.
+	 * @see #asMap()
+	 * @see #asList()
+	 */
+	public Object asValue() {
+		switch(type) {
+			case OBJECT:
+				return new ObjectView(this);
+			case ARRAY:
+				return new ArrayView(this);
+			default:
+				return toValue();
+		}
+	}
+
+	/**
+	 * Returns a lazy, unmodifiable map view of this object.
+	 * @return A map of the members of this object, converted on demand.
+	 * @throws IllegalStateException if this value is not an object.
+	 * @see #asValue()
+	 */
+	public Map<String, Object> asMap() {
+		checkState(type == Type.OBJECT, "JSON %s is not an object.", type);
+		return new ObjectView(this);
+	}
+
+	/**
+	 * Returns a lazy, unmodifiable list view of this array.
+	 * @return A list of the elements of this array, converted on demand.
+	 * @throws IllegalStateException if this value is not an array.
+	 * @see #asValue()
+	 */
+	public List<Object> asList() {
+		checkState(type == Type.ARRAY, "JSON %s is not an array.", type);
+		return new ArrayView(this);
+	}
+
+	/** The placeholder for a member or element value not yet converted, as <code>null</code> is a valid value. */
+	private static final Object UNCONVERTED = new Object();
+
+	/**
+	 * A lazy map view of a JSON object.
+	 * @implNote Member values are located by comparing their names as UTF-8 bytes; member names are only decoded if the entries are iterated or the size is
+	 *           requested, as the size depends on how many distinct names there are.
+	 * @author Garret Wilson
+	 */
+	private static final class ObjectView extends AbstractMap<String, Object> {
+
+		private final JsonByteValue object;
+
+		/** The indexes of the opening quotation marks of the member names, or <code>null</code> if the members have not yet been located. */
+		@Nullable
+		private int[] nameTokens = null;
+
+		/** The member values as located, in order. */
+		private JsonByteValue[] memberValues;
+
+		/** The converted member values, or {@link JsonByteValue#UNCONVERTED} for those not yet converted. */
+		private Object[] values;
+
+		/** The index of the member in effect for each decoded name, in order of first appearance, or <code>null</code> if the names have not yet been decoded. */
+		@Nullable
+		private Map<String, Integer> nameMemberIndexes = null;
+
+		/**
+		 * Constructor.
+		 * @param object The JSON object value.
+		 */
+		ObjectView(@Nonnull final JsonByteValue object) {
+			this.object = object;
+		}
+
+		/**
+		 * Locates the members if they have not yet been located.
+		 * @return The number of members, including those with duplicate names.
+		 */
+		private int locateMembers() {
+			if(nameTokens == null) {
+				final List<Integer> foundNameTokens = new ArrayList<>();
+				final List<JsonByteValue> foundValues = new ArrayList<>();
+				object.visit((nameToken, value) -> {
+					foundNameTokens.add(nameToken);
+					return foundValues.add(value);
+				});
+				memberValues = foundValues.toArray(new JsonByteValue[foundValues.size()]);
+				values = new Object[memberValues.length];
+				Arrays.fill(values, UNCONVERTED);
+				nameTokens = foundNameTokens.stream().mapToInt(Integer::intValue).toArray();
+			}
+			return nameTokens.length;
+		}
+
+		/**
+		 * Finds the member in effect with the given name.
+		 * @param key The member name.
+		 * @return The index of the last member with the name, or <code>-1</code> if there is no such member.
+		 */
+		private int findMemberIndex(@Nullable final Object key) {
+			if(!(key instanceof String)) {
+				return -1;
+			}
+			final String name = (String)key;
+			final byte[] nameBytes = name.getBytes(UTF_8);
+			for(int memberIndex = locateMembers() - 1; memberIndex >= 0; memberIndex--) {
+				if(object.isNameEqual(nameTokens[memberIndex], nameBytes, name)) {
+					return memberIndex;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Returns a member value, converting it if needed.
+		 * @param memberIndex The index of the member.
+		 * @return The converted member value.
+		 */
+		private Object getMemberValue(final int memberIndex) {
+			Object value = values[memberIndex];
+			if(value == UNCONVERTED) {
+				value = memberValues[memberIndex].asValue();
+				values[memberIndex] = value;
+			}
+			return value;
+		}
+
+		@Override
+		public boolean containsKey(final Object key) {
+			return findMemberIndex(key) >= 0;
+		}
+
+		@Override
+		public Object get(final Object key) {
+			final int memberIndex = findMemberIndex(key);
+			return memberIndex >= 0 ? getMemberValue(memberIndex) : null;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return locateMembers() == 0;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			if(nameMemberIndexes == null) {
+				final int memberCount = locateMembers();
+				final Map<String, Integer> decodedNameMemberIndexes = new LinkedHashMap<>(memberCount * 4 / 3 + 1);
+				for(int memberIndex = 0; memberIndex < memberCount; memberIndex++) {
+					final int nameToken = nameTokens[memberIndex];
+					final JsonStructuralIndex index = object.index;
+					decodedNameMemberIndexes.put(decodeString(index, index.getPosition(nameToken) + 1, index.getPosition(nameToken + 1)), memberIndex);
+				}
+				nameMemberIndexes = decodedNameMemberIndexes;
+			}
+			return new AbstractSet<Entry<String, Object>>() {
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					final Iterator<Entry<String, Integer>> nameMemberIndexIterator = nameMemberIndexes.entrySet().iterator();
+					return new Iterator<Entry<String, Object>>() {
+						@Override
+						public boolean hasNext() {
+							return nameMemberIndexIterator.hasNext();
+						}
+
+						@Override
+						public Entry<String, Object> next() {
+							final Entry<String, Integer> nameMemberIndex = nameMemberIndexIterator.next();
+							return new SimpleImmutableEntry<>(nameMemberIndex.getKey(), getMemberValue(nameMemberIndex.getValue().intValue()));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return nameMemberIndexes.size();
+				}
+			};
+		}
+
+	}
+
+	/**
+	 * A lazy list view of a JSON array.
+	 * @author Garret Wilson
+	 */
+	private static final class ArrayView extends AbstractList<Object> implements RandomAccess {
+
+		private final JsonByteValue array;
+
+		/** The element values as located, or <code>null</code> if the elements have not yet been located. */
+		@Nullable
+		private JsonByteValue[] elementValues = null;
+
+		/** The converted element values, or {@link JsonByteValue#UNCONVERTED} for those not yet converted. */
+		private Object[] values;
+
+		/**
+		 * Constructor.
+		 * @param array The JSON array value.
+		 */
+		ArrayView(@Nonnull final JsonByteValue array) {
+			this.array = array;
+		}
+
+		/**
+		 * Locates the elements if they have not yet been located.
+		 * @return The number of elements.
+		 */
+		private int locateElements() {
+			if(elementValues == null) {
+				final List<JsonByteValue> elements = array.getElements();
+				elementValues = elements.toArray(new JsonByteValue[elements.size()]);
+				values = new Object[elementValues.length];
+				Arrays.fill(values, UNCONVERTED);
+			}
+			return elementValues.length;
+		}
+
+		@Override
+		public Object get(final int index) {
+			Objects.checkIndex(index, locateElements());
+			Object value = values[index];
+			if(value == UNCONVERTED) {
+				value = elementValues[index].asValue();
+				values[index] = value;
+			}
+			return value;
+		}
+
+		@Override
+		public int size() {
+			return locateElements();
+		}
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation returns the JSON text of this value, decoded from the bytes.
+	 */
+	@Override
+	public String toString() {
+		return new String(index.getBytes(), start, end - start, UTF_8);
+	}
+
+	/**
+	 * A view of ASCII bytes as a character sequence, for converting numbers without first decoding them to a string.
+	 * @author Garret Wilson
+	 */
+	private static final class AsciiCharSequence implements CharSequence {
+
+		private final byte[] bytes;
+
+		private final int start;
+
+		private final int end;
+
+		/**
+		 * Constructor.
+		 * @param bytes The bytes containing the ASCII characters.
+		 * @param start The position of the first byte.
+		 * @param end The position after the last byte.
+		 */
+		AsciiCharSequence(@Nonnull final byte[] bytes, final int start, final int end) {
+			this.bytes = bytes;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(final int index) {
+			return (char)bytes[start + index];
+		}
+
+		@Override
+		public CharSequence subSequence(final int subStart, final int subEnd) {
+			return new AsciiCharSequence(bytes, start + subStart, start + subEnd);
+		}
+
+		@Override
+		public String toString() {
+			return new String(bytes, start, end - start, US_ASCII);
+		}
+
+	}
+
+}
@@ -0,0 +1,768 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static com.globalmentor.java.Conditions.*;
+import static com.globalmentor.javascript.JSON.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import javax.annotation.*;
+
+import com.globalmentor.javascript.JSON.DecimalMode;
+
+/**
+ * A streaming pull parser for JSON, reporting the structure of the input as a series of events without building an object tree.
+ * <p>
+ * Input is read incrementally into a buffer of fixed size, so that the memory used by the parser is independent of the size of the input, except for the
+ * nesting depth of the current position and for the length of the current name, string, or number token, which is made available by {@link #getString()}. A
+ * consumer that does not retain the values it reads can thus process arbitrarily large inputs in constant memory.
+ * </p>
+ * <p>
+ * A typical pull loop looks like this:
+ * </p>
+ * <pre>
+ * {@code
+ * try(final JsonParser parser = new JsonParser(inputStream)) {
+ *   while(parser.hasNext()) {
+ *     switch(parser.next()) {
+ *       case NAME:
+ *         …parser.getString()…
+ *         break;
+ *       …
+ *     }
+ *   }
+ * }
+ * }
+ * </pre>
+ * <p>
+ * Applications migrating from {@link JSON#parseValue(CharSequence)} may use {@link #readValue()} to build a {@link Map}/{@link List} tree of the next value, or
+ * {@link #getValue()} to build a tree of a value already started, for example to materialize individual records of a large array one at a time.
+ * </p>
+ * <p>
+ * A sequence of top-level values, such as JSON Lines, is accepted; {@link #hasNext()} indicates whether another value follows.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ * @author Garret Wilson
+ * @see <a href="https://www.rfc-editor.org/rfc/rfc8259">RFC 8259: The JavaScript Object Notation (JSON) Data Interchange Format</a>
+ */
+public class JsonParser implements Closeable {
+
+	/** An event reported by the parser. */
+	public enum Event {
+		/** The start of an object. */
+		START_OBJECT,
+		/** The end of an object. */
+		END_OBJECT,
+		/** The start of an array. */
+		START_ARRAY,
+		/** The end of an array. */
+		END_ARRAY,
+		/** The name of an object member, available from {@link JsonParser#getString()}. */
+		NAME,
+		/** A string value, available from {@link JsonParser#getString()}. */
+		STRING,
+		/** A number value, available from {@link JsonParser#getNumber()} and in lexical form from {@link JsonParser#getString()}. */
+		NUMBER,
+		/** A <code>true</code> or <code>false</code> value, available from {@link JsonParser#getBoolean()}. */
+		BOOLEAN,
+		/** A <code>null</code> value. */
+		NULL
+	}
+
+	/** The default size of the character buffer. */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/** Expecting a value at the top level. */
+	private static final int STATE_TOP = 0;
+
+	/** Expecting a value, after a name separator or after a value separator in an array. */
+	private static final int STATE_VALUE = 1;
+
+	/** Expecting a value or the end of an array, after the start of an array. */
+	private static final int STATE_VALUE_OR_END = 2;
+
+	/** Expecting a name, after a value separator in an object. */
+	private static final int STATE_NAME = 3;
+
+	/** Expecting a name or the end of an object, after the start of an object. */
+	private static final int STATE_NAME_OR_END = 4;
+
+	/** Expecting a value separator or the end of the container, after a value in a container. */
+	private static final int STATE_SEPARATOR_OR_END = 5;
+
+	private final Reader reader;
+
+	private final char[] buffer;
+
+	/** The position of the next character to read in the buffer. */
+	private int position = 0;
+
+	/** The number of valid characters in the buffer. */
+	private int limit = 0;
+
+	/** The number of characters read into the buffer before the current buffer contents. */
+	private long bufferOffset = 0;
+
+	private int state = STATE_TOP;
+
+	/** Whether each open container is an object, indexed by depth. */
+	private boolean[] containerObjectFlags = new boolean[32];
+
+	private int depth = 0;
+
+	private Event event = null;
+
+	/** The text of the current name, string, or number token. */
+	private final StringBuilder stringBuilder = new StringBuilder();
+
+	/** The string form of the current token, created lazily; or <code>null</code> if not yet created. */
+	private String string = null;
+
+	private boolean isIntegerNumber;
+
+	private boolean booleanValue;
+
+	private DecimalMode decimalMode = DecimalMode.DOUBLE;
+
+	/** @return How numbers with a fraction or exponent are represented by {@link #getNumber()} and {@link #getValue()}. */
+	public DecimalMode getDecimalMode() {
+		return decimalMode;
+	}
+
+	/**
+	 * Sets how numbers with a fraction or exponent are represented. The default is {@link DecimalMode#DOUBLE}.
+	 * @param decimalMode How numbers with a fraction or exponent are represented by {@link #getNumber()} and {@link #getValue()}.
+	 */
+	public void setDecimalMode(@Nonnull final DecimalMode decimalMode) {
+		this.decimalMode = requireNonNull(decimalMode);
+	}
+
+	/**
+	 * Reader constructor with default buffer size.
+	 * @apiNote The reader does not need to be buffered, as this parser performs its own buffering.
+	 * @param reader The source of JSON characters.
+	 */
+	public JsonParser(@Nonnull final Reader reader) {
+		this(reader, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Reader constructor.
+	 * @apiNote The reader does not need to be buffered, as this parser performs its own buffering.
+	 * @param reader The source of JSON characters.
+	 * @param bufferSize The size of the character buffer.
+	 * @throws IllegalArgumentException if the buffer size is not positive.
+	 */
+	public JsonParser(@Nonnull final Reader reader, final int bufferSize) {
+		this.reader = requireNonNull(reader);
+		checkArgument(bufferSize > 0, "Buffer size %d is not positive.", bufferSize);
+		this.buffer = new char[bufferSize];
+	}
+
+	/**
+	 * Input stream constructor. The input is decoded as UTF-8, as required by RFC 8259 for JSON exchanged between systems.
+	 * @param inputStream The source of JSON bytes.
+	 * @see <a href="https://www.rfc-editor.org/rfc/rfc8259#section-8.1">RFC 8259 § 8.1. Character Encoding</a>
+	 */
+	public JsonParser(@Nonnull final InputStream inputStream) {
+		this(new InputStreamReader(inputStream, UTF_8));
+	}
+
+	/**
+	 * Byte buffer constructor. The remaining bytes of the buffer are decoded as UTF-8, as required by RFC 8259 for JSON exchanged between systems, in chunks as
+	 * parsing proceeds. The position of the byte buffer is advanced as bytes are decoded.
+	 * @param byteBuffer The source of JSON bytes.
+	 * @see <a href="https://www.rfc-editor.org/rfc/rfc8259#section-8.1">RFC 8259 § 8.1. Character Encoding</a>
+	 */
+	public JsonParser(@Nonnull final ByteBuffer byteBuffer) {
+		this(new ByteBufferReader(byteBuffer));
+	}
+
+	//# input
+
+	/**
+	 * Ensures that at least one character is available in the buffer, reading more input if needed.
+	 * @return <code>true</code> if a character is available, or <code>false</code> if the end of the input has been reached.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private boolean fill() throws IOException {
+		if(position < limit) {
+			return true;
+		}
+		bufferOffset += limit;
+		position = 0;
+		limit = 0;
+		int count;
+		do {
+			count = reader.read(buffer, 0, buffer.length);
+		} while(count == 0);
+		if(count < 0) {
+			return false;
+		}
+		limit = count;
+		return true;
+	}
+
+	/**
+	 * Skips whitespace and returns the next character without consuming it.
+	 * @return The next non-whitespace character, or <code>-1</code> if the end of the input has been reached.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private int peekNonWhitespace() throws IOException {
+		while(fill()) {
+			final char c = buffer[position];
+			if(c != SPACE && c != HORIZONTAL_TAB && c != LINE_FEED && c != CARRIAGE_RETURN) {
+				return c;
+			}
+			position++;
+		}
+		return -1;
+	}
+
+	/**
+	 * Reads the next character.
+	 * @param expected A description of what is expected, for error reporting.
+	 * @return The next character.
+	 * @throws IOException if an I/O error occurs or if the end of the input has been reached.
+	 */
+	private char read(@Nonnull final String expected) throws IOException {
+		if(!fill()) {
+			throw syntaxError("Unexpected end of input; expected " + expected + ".");
+		}
+		return buffer[position++];
+	}
+
+	/**
+	 * Creates an exception indicating invalid JSON at the current position.
+	 * @param message The error message.
+	 * @return An exception for reporting the error.
+	 */
+	private IOException syntaxError(@Nonnull final String message) {
+		return new IOException(message + " (character offset " + (bufferOffset + position) + ")");
+	}
+
+	//# events
+
+	/**
+	 * Determines whether there is another event. Within a top-level value this always returns <code>true</code>, as either another event or an error is
+	 * forthcoming. After a top-level value this skips any whitespace and determines whether another top-level value follows.
+	 * @return <code>true</code> if {@link #next()} may be called.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public boolean hasNext() throws IOException {
+		return state != STATE_TOP || peekNonWhitespace() >= 0;
+	}
+
+	/**
+	 * Parses and returns the next event.
+	 * @return The next event.
+	 * @throws NoSuchElementException if there are no more events.
+	 * @throws IOException if an I/O error occurs or if the input is not valid JSON.
+	 */
+	public Event next() throws IOException {
+		string = null;
+		int c = peekNonWhitespace();
+		switch(state) {
+			case STATE_TOP:
+				if(c < 0) {
+					throw new NoSuchElementException("No more JSON values.");
+				}
+				return event = startValue(c);
+			case STATE_VALUE:
+				return event = startValue(c);
+			case STATE_VALUE_OR_END:
+				if(c == END_ARRAY) {
+					return event = endContainer();
+				}
+				return event = startValue(c);
+			case STATE_NAME_OR_END:
+				if(c == END_OBJECT) {
+					return event = endContainer();
+				}
+				return event = readName(c);
+			case STATE_NAME:
+				return event = readName(c);
+			case STATE_SEPARATOR_OR_END:
+				{
+					final boolean isObject = containerObjectFlags[depth - 1];
+					if(c == VALUE_SEPARATOR) {
+						position++;
+						c = peekNonWhitespace();
+						return event = isObject ? readName(c) : startValue(c);
+					}
+					if(c == (isObject ? END_OBJECT : END_ARRAY)) {
+						return event = endContainer();
+					}
+					throw syntaxError("Expected " + VALUE_SEPARATOR + " or " + (isObject ? END_OBJECT : END_ARRAY) + ".");
+				}
+			default:
+				throw impossible("Unrecognized parser state " + state + ".");
+		}
+	}
+
+	/** @return The current event, or <code>null</code> if {@link #next()} has not yet been called. */
+	public Event getEvent() {
+		return event;
+	}
+
+	/** @return The number of containers enclosing the current position; after {@link Event#START_OBJECT} or {@link Event#START_ARRAY} this includes the new one. */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the text of the current name, string, or number.
+	 * @return The name or string value, or the lexical form of the number.
+	 * @throws IllegalStateException if the current event is not {@link Event#NAME}, {@link Event#STRING}, or {@link Event#NUMBER}.
+	 */
+	public String getString() {
+		checkState(event == Event.NAME || event == Event.STRING || event == Event.NUMBER, "Current event %s has no string.", event);
+		if(string == null) {
+			string = stringBuilder.toString();
+		}
+		return string;
+	}
+
+	/**
+	 * Returns the current number value, converted as {@link JSON#parseValue(CharSequence, DecimalMode)} does. The number is converted directly from the token
+	 * without creating an intermediate string.
+	 * @return The number value: an {@link Integer}, {@link Long}, or {@link BigInteger} if the number has no fraction or exponent, or otherwise a number as
+	 *         indicated by the {@link #getDecimalMode() decimal mode}.
+	 * @throws IllegalStateException if the current event is not {@link Event#NUMBER}.
+	 */
+	public Number getNumber() {
+		checkState(event == Event.NUMBER, "Current event %s is not a number.", event);
+		return toNumber(stringBuilder, 0, stringBuilder.length(), isIntegerNumber, decimalMode);
+	}
+
+	/**
+	 * Returns the current boolean value.
+	 * @return The boolean value.
+	 * @throws IllegalStateException if the current event is not {@link Event#BOOLEAN}.
+	 */
+	public boolean getBoolean() {
+		checkState(event == Event.BOOLEAN, "Current event %s is not a boolean.", event);
+		return booleanValue;
+	}
+
+	/**
+	 * Skips the rest of the current value. If the current event is {@link Event#START_OBJECT} or {@link Event#START_ARRAY}, events are consumed through the
+	 * matching end event. If the current event is {@link Event#NAME}, the value of the member is skipped. Otherwise this method does nothing.
+	 * @throws IOException if an I/O error occurs or if the input is not valid JSON.
+	 */
+	public void skipValue() throws IOException {
+		if(event == Event.NAME) {
+			next();
+		}
+		if(event == Event.START_OBJECT || event == Event.START_ARRAY) {
+			final int targetDepth = depth - 1;
+			do {
+				next();
+			} while(depth > targetDepth);
+		}
+	}
+
+	/**
+	 * Reads the next value in its entirety and builds an object tree for it.
+	 * @implSpec This implementation calls {@link #next()} and delegates to {@link #getValue()}.
+	 * @return A new {@link String}, {@link Boolean}, {@link Number}, {@link List}, {@link Map}, or <code>null</code> representing the next value.
+	 * @throws NoSuchElementException if there are no more events.
+	 * @throws IOException if an I/O error occurs, if the input is not valid JSON, or if the next event does not start a value.
+	 */
+	public Object readValue() throws IOException {
+		next();
+		return getValue();
+	}
+
+	/**
+	 * Builds an object tree for the value starting with the current event, consuming events through the end of the value. If the current event is
+	 * {@link Event#NAME}, the value of the member is read.
+	 * @apiNote Objects are returned as maps preserving member order.
+	 * @return A new {@link String}, {@link Boolean}, {@link Number}, {@link List}, {@link Map}, or <code>null</code> representing the current value.
+	 * @throws IOException if an I/O error occurs, if the input is not valid JSON, or if the current event does not start a value.
+	 */
+	public Object getValue() throws IOException {
+		if(event == Event.NAME) {
+			next();
+		}
+		if(event == null) {
+			throw new IllegalStateException("No current event.");
+		}
+		switch(event) {
+			case START_OBJECT:
+				{
+					final Map<String, Object> map = new LinkedHashMap<>();
+					while(next() != Event.END_OBJECT) {
+						final String name = getString();
+						next();
+						map.put(name, getValue());
+					}
+					return map;
+				}
+			case START_ARRAY:
+				{
+					final List<Object> list = new ArrayList<>();
+					while(next() != Event.END_ARRAY) {
+						list.add(getValue());
+					}
+					return list;
+				}
+			case STRING:
+				return getString();
+			case NUMBER:
+				return getNumber();
+			case BOOLEAN:
+				return Boolean.valueOf(booleanValue);
+			case NULL:
+				return null;
+			default:
+				throw new IllegalStateException("Current event " + event + " does not start a value.");
+		}
+	}
+
+	//# tokens
+
+	/**
+	 * Starts parsing a value, consuming a scalar value entirely.
+	 * @param c The first character of the value, which has not been consumed; or <code>-1</code> if the end of the input has been reached.
+	 * @return The event for the value.
+	 * @throws IOException if an I/O error occurs or if the input is not valid JSON.
+	 */
+	private Event startValue(final int c) throws IOException {
+		switch(c) {
+			case BEGIN_OBJECT:
+				position++;
+				pushContainer(true);
+				state = STATE_NAME_OR_END;
+				return Event.START_OBJECT;
+			case BEGIN_ARRAY:
+				position++;
+				pushContainer(false);
+				state = STATE_VALUE_OR_END;
+				return Event.START_ARRAY;
+			case QUOTATION_MARK:
+				position++;
+				readStringContents();
+				endValue();
+				return Event.STRING;
+			case MINUS:
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				readNumber();
+				endValue();
+				return Event.NUMBER;
+			case 't':
+				readLiteral(TRUE);
+				booleanValue = true;
+				endValue();
+				return Event.BOOLEAN;
+			case 'f':
+				readLiteral(FALSE);
+				booleanValue = false;
+				endValue();
+				return Event.BOOLEAN;
+			case 'n':
+				readLiteral(NULL);
+				endValue();
+				return Event.NULL;
+			case -1:
+				throw syntaxError("Unexpected end of input; expected value.");
+			default:
+				throw syntaxError("Illegal value character '" + (char)c + "'.");
+		}
+	}
+
+	/**
+	 * Reads an object member name and the following name separator.
+	 * @param c The first character of the name, which has not been consumed; or <code>-1</code> if the end of the input has been reached.
+	 * @return The {@link Event#NAME} event.
+	 * @throws IOException if an I/O error occurs or if the input is not valid JSON.
+	 */
+	private Event readName(final int c) throws IOException {
+		if(c != QUOTATION_MARK) {
+			throw syntaxError(c < 0 ? "Unexpected end of input; expected name." : "Expected name.");
+		}
+		position++;
+		readStringContents();
+		if(peekNonWhitespace() != NAME_SEPARATOR) {
+			throw syntaxError("Expected " + NAME_SEPARATOR + ".");
+		}
+		position++;
+		state = STATE_VALUE;
+		return Event.NAME;
+	}
+
+	/**
+	 * Records the start of a container.
+	 * @param isObject Whether the container is an object rather than an array.
+	 */
+	private void pushContainer(final boolean isObject) {
+		if(depth == containerObjectFlags.length) {
+			containerObjectFlags = Arrays.copyOf(containerObjectFlags, depth * 2);
+		}
+		containerObjectFlags[depth++] = isObject;
+	}
+
+	/**
+	 * Consumes the end of the current container.
+	 * @return The end event for the container.
+	 */
+	private Event endContainer() {
+		position++;
+		final boolean isObject = containerObjectFlags[--depth];
+		endValue();
+		return isObject ? Event.END_OBJECT : Event.END_ARRAY;
+	}
+
+	/** Updates the state after a complete value. */
+	private void endValue() {
+		state = depth == 0 ? STATE_TOP : STATE_SEPARATOR_OR_END;
+	}
+
+	/**
+	 * Reads a literal name such as <code>true</code>.
+	 * @param literal The expected literal.
+	 * @throws IOException if an I/O error occurs or if the input does not match the literal.
+	 */
+	private void readLiteral(@Nonnull final String literal) throws IOException {
+		final int length = literal.length();
+		for(int i = 0; i < length; i++) {
+			if(read(literal) != literal.charAt(i)) {
+				position--;
+				throw syntaxError("Expected " + literal + ".");
+			}
+		}
+	}
+
+	/**
+	 * Reads the contents of a string after the opening quotation mark, through the closing quotation mark, into the string builder.
+	 * @throws IOException if an I/O error occurs or if the input is not a valid JSON string.
+	 */
+	private void readStringContents() throws IOException {
+		stringBuilder.setLength(0);
+		while(true) {
+			if(!fill()) {
+				throw syntaxError("Unexpected end of input in string.");
+			}
+			//copy runs of unescaped characters directly from the buffer
+			final int start = position;
+			char c = 0;
+			while(position < limit && (c = buffer[position]) != QUOTATION_MARK && c != ESCAPE && c >= SPACE) {
+				position++;
+			}
+			stringBuilder.append(buffer, start, position - start);
+			if(position == limit) {
+				continue;
+			}
+			position++;
+			if(c == QUOTATION_MARK) {
+				return;
+			}
+			if(c != ESCAPE) {
+				position--;
+				throw syntaxError("Unescaped control character in string.");
+			}
+			final char escaped = read("escaped character");
+			switch(escaped) {
+				case ESCAPED_QUOTATION_MARK:
+					stringBuilder.append(QUOTATION_MARK);
+					break;
+				case ESCAPED_REVERSE_SOLIDUS:
+					stringBuilder.append(REVERSE_SOLIDUS);
+					break;
+				case ESCAPED_SOLIDUS:
+					stringBuilder.append(SOLIDUS);
+					break;
+				case ESCAPED_BACKSPACE:
+					stringBuilder.append(BACKSPACE);
+					break;
+				case ESCAPED_FORM_FEED:
+					stringBuilder.append(FORM_FEED);
+					break;
+				case ESCAPED_LINE_FEED:
+					stringBuilder.append(LINE_FEED);
+					break;
+				case ESCAPED_CARRIAGE_RETURN:
+					stringBuilder.append(CARRIAGE_RETURN);
+					break;
+				case ESCAPED_TAB:
+					stringBuilder.append(HORIZONTAL_TAB);
+					break;
+				case ESCAPED_UNICODE:
+					{
+						int codeUnit = 0;
+						for(int i = 0; i < 4; i++) {
+							final int digit = hexDigitValue(read("hexadecimal digit"));
+							if(digit < 0) {
+								position--;
+								throw syntaxError("Expected hexadecimal digit.");
+							}
+							codeUnit = (codeUnit << 4) | digit;
+						}
+						stringBuilder.append((char)codeUnit);
+					}
+					break;
+				default:
+					position--;
+					throw syntaxError("Unrecognized escaped character " + escaped + ".");
+			}
+		}
+	}
+
+	/**
+	 * Reads a number into the string builder, validating its syntax.
+	 * @throws IOException if an I/O error occurs or if the input is not a valid JSON number.
+	 */
+	private void readNumber() throws IOException {
+		stringBuilder.setLength(0);
+		isIntegerNumber = true;
+		int c = peek();
+		if(c == MINUS) {
+			c = appendAndPeek();
+		}
+		if(c == '0') {
+			c = appendAndPeek();
+			if(c >= '0' && c <= '9') {
+				throw syntaxError("Leading zero in number.");
+			}
+		} else {
+			c = appendDigits(c);
+		}
+		if(c == DECIMAL_POINT) {
+			isIntegerNumber = false;
+			c = appendDigits(appendAndPeek());
+		}
+		if(c == 'e' || c == 'E') {
+			isIntegerNumber = false;
+			c = appendAndPeek();
+			if(c == MINUS || c == PLUS) {
+				c = appendAndPeek();
+			}
+			appendDigits(c);
+		}
+	}
+
+	/**
+	 * Returns the next character without consuming it.
+	 * @return The next character, or <code>-1</code> if the end of the input has been reached.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private int peek() throws IOException {
+		return fill() ? buffer[position] : -1;
+	}
+
+	/**
+	 * Consumes the current character, appending it to the string builder, and returns the next character without consuming it.
+	 * @return The next character, or <code>-1</code> if the end of the input has been reached.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private int appendAndPeek() throws IOException {
+		stringBuilder.append(buffer[position++]);
+		return peek();
+	}
+
+	/**
+	 * Consumes one or more decimal digits, appending them to the string builder.
+	 * @param c The current character, which has not been consumed; or <code>-1</code> if the end of the input has been reached.
+	 * @return The character after the digits, which has not been consumed; or <code>-1</code> if the end of the input has been reached.
+	 * @throws IOException if an I/O error occurs or if there is not at least one digit.
+	 */
+	private int appendDigits(int c) throws IOException {
+		if(c < '0' || c > '9') {
+			throw syntaxError("Expected digit in number.");
+		}
+		do {
+			c = appendAndPeek();
+		} while(c >= '0' && c <= '9');
+		return c;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation closes the underlying reader.
+	 */
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * A reader that decodes UTF-8 bytes from a byte buffer on demand.
+	 * @author Garret Wilson
+	 */
+	private static final class ByteBufferReader extends Reader {
+
+		private final ByteBuffer byteBuffer;
+
+		private final CharsetDecoder decoder = UTF_8.newDecoder().onMalformedInput(CodingErrorAction.REPORT).onUnmappableCharacter(CodingErrorAction.REPORT);
+
+		private boolean isFlushed = false;
+
+		/**
+		 * Constructor.
+		 * @param byteBuffer The buffer containing the bytes to decode.
+		 */
+		ByteBufferReader(@Nonnull final ByteBuffer byteBuffer) {
+			this.byteBuffer = requireNonNull(byteBuffer);
+		}
+
+		@Override
+		public int read(final char[] chars, final int offset, final int length) throws IOException {
+			if(length == 0) {
+				return 0;
+			}
+			final CharBuffer charBuffer = CharBuffer.wrap(chars, offset, length);
+			if(!isFlushed) {
+				final CoderResult coderResult = decoder.decode(byteBuffer, charBuffer, true);
+				if(coderResult.isError()) {
+					coderResult.throwException();
+				}
+				if(!byteBuffer.hasRemaining() && !coderResult.isOverflow()) {
+					if(decoder.flush(charBuffer).isOverflow()) {
+						return charBuffer.position() - offset;
+					}
+					isFlushed = true;
+				}
+			}
+			final int count = charBuffer.position() - offset;
+			return count > 0 ? count : isFlushed ? -1 : 0;
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static java.lang.invoke.MethodType.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import java.util.*;
+
+import javax.annotation.*;
+
+/**
+ * Type-directed JSON serializer, writing values of registered types using their registered {@link JsonValueWriter}s.
+ * <p>
+ * Strings, numbers, booleans, dates, and <code>null</code> are written as by {@link JsonWriter#writeValue(Object)}. Maps, collections, and arrays are written as
+ * JSON objects and arrays, with each nested value in turn written by this serializer, so that registered types may appear at any depth. A writer registered for
+ * a class or interface is also used for its subtypes, preferring a writer registered for the class itself, then for its nearest superclass, and then for the
+ * first registered interface it implements.
+ * </p>
+ * <p>
+ * Values of other types are written either as strings using {@link Object#toString()}, as {@link JSON#appendValue(Appendable, Object)} does, or, if
+ * {@link Builder#reflective(boolean) reflection is enabled}, as JSON objects containing their JavaBeans properties or, for records, their components.
+ * Reflective writers access the public <code>get<var>Name</var>()</code> and <code>is<var>Name</var>()</code> methods of each class, or the component
+ * accessors of each record class, through method handles created once for the class.
+ * </p>
+ * <p>
+ * The writer for each class is resolved the first time a value of that class is written and is cached in a {@link ClassValue}, so that subsequent values of
+ * the same class incur no lookup or reflection.
+ * </p>
+ * <pre>
+ * {@code
+ * final JsonSerializer serializer = JsonSerializer.builder()
+ *     .register(Money.class, (s, writer, money) -> writer.writeNumber(money.getAmount()))
+ *     .reflective(true).build();
+ * serializer.serialize(outputStream, order);
+ * }
+ * </pre>
+ * @implNote Cycles among values are not detected.
+ * @author Garret Wilson
+ */
+public class JsonSerializer {
+
+	/** The writer of values written as by {@link JsonWriter#writeValue(Object)}. */
+	private static final JsonValueWriter<Object> DEFAULT_WRITER = (serializer, writer, value) -> writer.writeValue(value);
+
+	/** The writer of maps as JSON objects. */
+	private static final JsonValueWriter<Object> MAP_WRITER = (serializer, writer, value) -> {
+		writer.writeStartObject();
+		for(final Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+			writer.writeName(requireNonNull(entry.getKey(), "JSON object member name cannot be null.").toString());
+			serializer.serialize(writer, entry.getValue());
+		}
+		writer.writeEndObject();
+	};
+
+	/** The writer of collections as JSON arrays. */
+	private static final JsonValueWriter<Object> COLLECTION_WRITER = (serializer, writer, value) -> {
+		writer.writeStartArray();
+		for(final Object element : (Collection<?>)value) {
+			serializer.serialize(writer, element);
+		}
+		writer.writeEndArray();
+	};
+
+	/** The writer of object arrays as JSON arrays. */
+	private static final JsonValueWriter<Object> OBJECT_ARRAY_WRITER = (serializer, writer, value) -> {
+		writer.writeStartArray();
+		for(final Object element : (Object[])value) {
+			serializer.serialize(writer, element);
+		}
+		writer.writeEndArray();
+	};
+
+	/** The registered writers, in order of registration. */
+	private final Map<Class<?>, JsonValueWriter<?>> registeredWriters;
+
+	private final boolean reflective;
+
+	/** The writer resolved for each class. */
+	private final ClassValue<JsonValueWriter<Object>> writers = new ClassValue<JsonValueWriter<Object>>() {
+		@Override
+		protected JsonValueWriter<Object> computeValue(final Class<?> type) {
+			return resolveWriter(type);
+		}
+	};
+
+	/**
+	 * Builder constructor.
+	 * @param builder The builder providing the configuration.
+	 */
+	protected JsonSerializer(@Nonnull final Builder builder) {
+		this.registeredWriters = new LinkedHashMap<>(builder.registeredWriters);
+		this.reflective = builder.reflective;
+	}
+
+	/** @return A new builder for a serializer. */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Writes a value to a JSON writer using the writer resolved for its class.
+	 * @param writer The JSON writer to which the value should be written.
+	 * @param value The value to write, or <code>null</code>.
+	 * @throws IOException if there is an error writing the value.
+	 */
+	public void serialize(@Nonnull final JsonWriter writer, @Nullable final Object value) throws IOException {
+		if(value == null) {
+			writer.writeNull();
+		} else {
+			writers.get(value.getClass()).write(this, writer, value);
+		}
+	}
+
+	/**
+	 * Serializes a value as UTF-8 encoded JSON to an output stream.
+	 * @param outputStream The output stream to which the value should be written; it is flushed but not closed.
+	 * @param value The value to write, or <code>null</code>.
+	 * @throws IOException if there is an error writing the value.
+	 */
+	public void serialize(@Nonnull final OutputStream outputStream, @Nullable final Object value) throws IOException {
+		final JsonWriter writer = new JsonWriter(outputStream);
+		serialize(writer, value);
+		writer.flush();
+	}
+
+	/**
+	 * Determines the writer to use for values of the given class.
+	 * @param type The class of values to write.
+	 * @return The writer to use for values of the class.
+	 */
+	@SuppressWarnings("unchecked")
+	protected JsonValueWriter<Object> resolveWriter(@Nonnull final Class<?> type) {
+		for(Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+			final JsonValueWriter<?> registeredWriter = registeredWriters.get(superclass);
+			if(registeredWriter != null) {
+				return (JsonValueWriter<Object>)registeredWriter;
+			}
+		}
+		for(final Map.Entry<Class<?>, JsonValueWriter<?>> registeredWriterEntry : registeredWriters.entrySet()) {
+			if(registeredWriterEntry.getKey().isAssignableFrom(type)) {
+				return (JsonValueWriter<Object>)registeredWriterEntry.getValue();
+			}
+		}
+		if(Map.class.isAssignableFrom(type)) {
+			return MAP_WRITER;
+		}
+		if(Collection.class.isAssignableFrom(type)) {
+			return COLLECTION_WRITER;
+		}
+		if(Object[].class.isAssignableFrom(type)) {
+			return OBJECT_ARRAY_WRITER;
+		}
+		if(reflective && type.isRecord()) {
+			return PropertiesWriter.forRecordComponents(type);
+		}
+		if(reflective && !type.isArray() && !type.isEnum() && !CharSequence.class.isAssignableFrom(type) && !Number.class.isAssignableFrom(type)
+				&& type != Boolean.class && !Date.class.isAssignableFrom(type) && !type.getName().startsWith("java.")) {
+			return PropertiesWriter.forBeanProperties(type);
+		}
+		return DEFAULT_WRITER;
+	}
+
+	/**
+	 * Writes the properties of a class as a JSON object, using method handles to the property getters determined once for the class.
+	 * @author Garret Wilson
+	 */
+	private static final class PropertiesWriter implements JsonValueWriter<Object> {
+
+		private final String[] propertyNames;
+
+		/** The getter method handles, each of type <code>(Object)Object</code>. */
+		private final MethodHandle[] getters;
+
+		/**
+		 * Constructor.
+		 * @param getterMethods The getter methods, keyed to the property names, in the order the properties are to be written.
+		 * @throws IllegalArgumentException if a property getter cannot be accessed.
+		 */
+		private PropertiesWriter(@Nonnull final Map<String, Method> getterMethods) {
+			propertyNames = getterMethods.keySet().toArray(new String[getterMethods.size()]);
+			getters = new MethodHandle[propertyNames.length];
+			final MethodHandles.Lookup lookup = MethodHandles.lookup();
+			int index = 0;
+			for(final Method method : getterMethods.values()) {
+				try {
+					method.trySetAccessible(); //public methods of non-public classes otherwise cannot be accessed
+					getters[index++] = lookup.unreflect(method).asType(methodType(Object.class, Object.class));
+				} catch(final IllegalAccessException illegalAccessException) {
+					throw new IllegalArgumentException("Unable to access property getter " + method + ".", illegalAccessException);
+				}
+			}
+		}
+
+		/**
+		 * Creates a writer of the JavaBeans properties of a class, written in order of their names.
+		 * @param type The class the properties of which to write.
+		 * @return A writer of the properties of the class.
+		 * @throws IllegalArgumentException if a property getter cannot be accessed.
+		 */
+		static PropertiesWriter forBeanProperties(@Nonnull final Class<?> type) {
+			final SortedMap<String, Method> getterMethods = new TreeMap<>();
+			for(final Method method : type.getMethods()) {
+				if(Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0 || method.getDeclaringClass() == Object.class) {
+					continue;
+				}
+				final String methodName = method.getName();
+				final String propertyName;
+				if(methodName.startsWith("get") && method.getReturnType() != void.class) {
+					propertyName = getPropertyName(methodName, 3);
+				} else if(methodName.startsWith("is") && method.getReturnType() == boolean.class) {
+					propertyName = getPropertyName(methodName, 2);
+				} else {
+					continue;
+				}
+				if(propertyName != null) {
+					getterMethods.putIfAbsent(propertyName, method);
+				}
+			}
+			return new PropertiesWriter(getterMethods);
+		}
+
+		/**
+		 * Creates a writer of the components of a record class, written in order of their declaration.
+		 * @param type The record class the components of which to write.
+		 * @return A writer of the components of the record class.
+		 * @throws IllegalArgumentException if the class is not a record class, or if a component accessor cannot be accessed.
+		 * @see Class#isRecord()
+		 */
+		static PropertiesWriter forRecordComponents(@Nonnull final Class<?> type) {
+			final RecordComponent[] recordComponents = type.getRecordComponents();
+			if(recordComponents == null) {
+				throw new IllegalArgumentException("Class " + type.getName() + " is not a record class.");
+			}
+			final Map<String, Method> accessorMethods = new LinkedHashMap<>();
+			for(final RecordComponent recordComponent : recordComponents) {
+				accessorMethods.put(recordComponent.getName(), recordComponent.getAccessor());
+			}
+			return new PropertiesWriter(accessorMethods);
+		}
+
+		/**
+		 * Determines the property name from a getter method name.
+		 * @param methodName The name of the getter method.
+		 * @param prefixLength The length of the getter prefix.
+		 * @return The decapitalized property name, or <code>null</code> if the method name has nothing after the prefix or does not continue with an uppercase
+		 *         letter.
+		 */
+		@Nullable
+		private static String getPropertyName(@Nonnull final String methodName, final int prefixLength) {
+			if(methodName.length() == prefixLength || !Character.isUpperCase(methodName.charAt(prefixLength))) {
+				return null;
+			}
+			//as with java.beans.Introspector.decapitalize(), names beginning with several uppercase letters are left as is
+			if(methodName.length() > prefixLength + 1 && Character.isUpperCase(methodName.charAt(prefixLength + 1))) {
+				return methodName.substring(prefixLength);
+			}
+			return Character.toLowerCase(methodName.charAt(prefixLength)) + methodName.substring(prefixLength + 1);
+		}
+
+		@Override
+		public void write(final JsonSerializer serializer, final JsonWriter writer, final Object value) throws IOException {
+			writer.writeStartObject();
+			for(int i = 0; i < propertyNames.length; i++) {
+				final Object propertyValue;
+				try {
+					propertyValue = getters[i].invokeExact(value);
+				} catch(final RuntimeException | Error | IOException exception) {
+					throw exception;
+				} catch(final Throwable throwable) {
+					throw new UndeclaredThrowableException(throwable);
+				}
+				writer.writeName(propertyNames[i]);
+				serializer.serialize(writer, propertyValue);
+			}
+			writer.writeEndObject();
+		}
+
+	}
+
+	/**
+	 * Builder for a serializer.
+	 * @author Garret Wilson
+	 */
+	public static class Builder {
+
+		private final Map<Class<?>, JsonValueWriter<?>> registeredWriters = new LinkedHashMap<>();
+
+		private boolean reflective = false;
+
+		/**
+		 * Registers a writer for values of a type and its subtypes, replacing any writer previously registered for the same type.
+		 * @param <T> The type of value written.
+		 * @param type The class or interface of values the writer writes.
+		 * @param writer The writer for values of the type.
+		 * @return This builder.
+		 */
+		public <T> Builder register(@Nonnull final Class<T> type, @Nonnull final JsonValueWriter<? super T> writer) {
+			registeredWriters.put(requireNonNull(type), requireNonNull(writer));
+			return this;
+		}
+
+		/**
+		 * Sets whether values of types with no registered writer and no built-in JSON representation are written as objects containing their JavaBeans
+		 * properties, or for records their components, rather than as strings. Types in <code>java.*</code> packages and enums are always written as strings. The default is <code>false</code>.
+		 * @param reflective Whether to write the properties of other types reflectively.
+		 * @return This builder.
+		 */
+		public Builder reflective(final boolean reflective) {
+			this.reflective = reflective;
+			return this;
+		}
+
+		/** @return A new serializer with the configuration of this builder. */
+		public JsonSerializer build() {
+			return new JsonSerializer(this);
+		}
+
+	}
+
+}
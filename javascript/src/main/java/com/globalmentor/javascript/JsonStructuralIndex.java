@@ -0,0 +1,310 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static com.globalmentor.javascript.JSON.*;
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.Objects.*;
+
+import java.lang.invoke.*;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import javax.annotation.*;
+
+import com.globalmentor.text.ArgumentSyntaxException;
+
+/**
+ * An index of the structural characters of UTF-8 encoded JSON, allowing values to be located and parsed lazily directly from the bytes.
+ * <p>
+ * The index records, in order, the position of every <code>{</code>, <code>}</code>, <code>[</code>, <code>]</code>, <code>:</code>, and <code>,</code>
+ * outside of strings, along with the positions of the opening and closing quotation marks of each string. For each opening bracket the index of the matching
+ * closing bracket is also recorded, so that a nested object or array can be skipped in constant time. Numbers and literal names have no entries of their own;
+ * they lie between consecutive structural characters.
+ * </p>
+ * <p>
+ * The index is built in a single pass, examining eight bytes at a time: each word is tested for all the characters of interest at once using SWAR (SIMD within
+ * a register) arithmetic, so that runs of bytes containing none of them, such as most string contents and numbers, are skipped a word at a time. UTF-8 needs no
+ * special handling, as no byte of a multibyte sequence is ASCII.
+ * </p>
+ * <p>
+ * Building the index verifies that strings are terminated and that brackets are balanced and properly nested; other syntax is verified as values are accessed.
+ * </p>
+ * @author Garret Wilson
+ * @see JsonByteValue
+ */
+final class JsonStructuralIndex {
+
+	/** Access to the bytes of an array eight at a time. */
+	private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	/** The value with every byte set to <code>0x01</code>. */
+	private static final long ONES = 0x0101010101010101L;
+
+	/** The value with every byte set to <code>0x7F</code>. */
+	private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+	/** The bits distinguishing <code>[</code>/<code>]</code> from <code>{</code>/<code>}</code>, set in every byte. */
+	private static final long BRACKET_CASE_BITS = 0x20 * ONES;
+
+	private static final long OPEN_BRACKETS = BEGIN_OBJECT * ONES; //matches '[' as well after setting the bracket case bit
+
+	private static final long CLOSE_BRACKETS = END_OBJECT * ONES; //matches ']' as well after setting the bracket case bit
+
+	private static final long NAME_SEPARATORS = NAME_SEPARATOR * ONES;
+
+	private static final long VALUE_SEPARATORS = VALUE_SEPARATOR * ONES;
+
+	private static final long QUOTATION_MARKS = QUOTATION_MARK * ONES;
+
+	private static final long ESCAPES = ESCAPE * ONES;
+
+	private final byte[] bytes;
+
+	/** @return The bytes being indexed. */
+	byte[] getBytes() {
+		return bytes;
+	}
+
+	private final int start;
+
+	/** @return The position of the first byte of the JSON. */
+	int getStart() {
+		return start;
+	}
+
+	private final int end;
+
+	/** @return The position after the last byte of the JSON. */
+	int getEnd() {
+		return end;
+	}
+
+	/** The positions of the structural characters, in order. */
+	private int[] positions;
+
+	/** For each opening bracket in {@link #positions}, the index of the matching closing bracket; otherwise unused. */
+	private int[] matches;
+
+	private int count = 0;
+
+	/** @return The number of structural characters. */
+	int getCount() {
+		return count;
+	}
+
+	/**
+	 * Builds an index of UTF-8 encoded JSON.
+	 * @param bytes The bytes containing the JSON.
+	 * @param offset The position of the first byte of the JSON.
+	 * @param length The number of bytes of JSON.
+	 * @throws IndexOutOfBoundsException if the offset and/or length are not within the array.
+	 * @throws ArgumentSyntaxException if a string is unterminated, or brackets are not balanced and properly nested.
+	 */
+	JsonStructuralIndex(@Nonnull final byte[] bytes, final int offset, final int length) {
+		this.bytes = requireNonNull(bytes);
+		if(offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new IndexOutOfBoundsException("Range " + offset + " length " + length + " not within array of length " + bytes.length + ".");
+		}
+		this.start = offset;
+		this.end = offset + length;
+		final int initialCapacity = Math.max(16, length >> 3);
+		positions = new int[initialCapacity];
+		matches = new int[initialCapacity];
+		index();
+	}
+
+	/**
+	 * Returns the byte position of a structural character.
+	 * @param token The index of the structural character.
+	 * @return The position of the structural character in the bytes.
+	 */
+	int getPosition(final int token) {
+		return positions[token];
+	}
+
+	/**
+	 * Returns the structural character at an index.
+	 * @param token The index of the structural character.
+	 * @return The structural character.
+	 */
+	char getCharacter(final int token) {
+		return (char)bytes[positions[token]];
+	}
+
+	/**
+	 * Returns the index of the bracket closing the object or array opened at an index.
+	 * @param token The index of the opening bracket.
+	 * @return The index of the matching closing bracket.
+	 */
+	int getMatch(final int token) {
+		return matches[token];
+	}
+
+	/**
+	 * Determines the bytes equal to zero in a word.
+	 * @param word The word to examine.
+	 * @return A word with the high bit set in each byte that is zero in the given word, and all other bits clear.
+	 */
+	private static long zeroBytes(final long word) {
+		return ~(((word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | word | LOW_SEVEN_BITS);
+	}
+
+	/** Indexes the bytes. */
+	private void index() {
+		int[] openTokens = new int[16]; //the stack of unclosed brackets
+		int depth = 0;
+		boolean isInString = false;
+		int escapedPosition = -1; //the position of a character escaped in a string
+		int position = start;
+		final int wordEnd = end - Long.BYTES;
+		while(position < end) {
+			long candidates; //high bits of bytes that might be of interest, relative to position
+			final int span;
+			if(position <= wordEnd) {
+				final long word = (long)LONG_VIEW.get(bytes, position);
+				final long bracketWord = word | BRACKET_CASE_BITS;
+				candidates = zeroBytes(word ^ QUOTATION_MARKS) | zeroBytes(word ^ ESCAPES) | zeroBytes(bracketWord ^ OPEN_BRACKETS)
+						| zeroBytes(bracketWord ^ CLOSE_BRACKETS) | zeroBytes(word ^ NAME_SEPARATORS) | zeroBytes(word ^ VALUE_SEPARATORS);
+				span = Long.BYTES;
+			} else { //examine the remaining bytes individually
+				candidates = 0x80;
+				span = 1;
+			}
+			while(candidates != 0) {
+				final int candidatePosition = position + (Long.numberOfTrailingZeros(candidates) >>> 3);
+				candidates &= candidates - 1;
+				final byte b = bytes[candidatePosition];
+				if(candidatePosition == escapedPosition) {
+					continue;
+				}
+				if(isInString) {
+					if(b == QUOTATION_MARK) {
+						add(candidatePosition);
+						isInString = false;
+					} else if(b == ESCAPE) {
+						escapedPosition = candidatePosition + 1;
+					}
+					continue;
+				}
+				switch(b) {
+					case QUOTATION_MARK:
+						add(candidatePosition);
+						isInString = true;
+						break;
+					case BEGIN_OBJECT:
+					case BEGIN_ARRAY:
+						if(depth == openTokens.length) {
+							openTokens = Arrays.copyOf(openTokens, depth * 2);
+						}
+						openTokens[depth++] = count;
+						add(candidatePosition);
+						break;
+					case END_OBJECT:
+					case END_ARRAY:
+						{
+							if(depth == 0) {
+								throw syntaxException("Unexpected " + (char)b + ".", candidatePosition);
+							}
+							final int openToken = openTokens[--depth];
+							if(bytes[positions[openToken]] != (b == END_OBJECT ? BEGIN_OBJECT : BEGIN_ARRAY)) {
+								throw syntaxException("Mismatched " + (char)b + ".", candidatePosition);
+							}
+							matches[openToken] = count;
+							add(candidatePosition);
+						}
+						break;
+					case NAME_SEPARATOR:
+					case VALUE_SEPARATOR:
+						add(candidatePosition);
+						break;
+					case ESCAPE:
+						throw syntaxException("Escape character outside of string.", candidatePosition);
+					default: //a byte falsely matched after setting the bracket case bit
+						break;
+				}
+			}
+			position += span;
+		}
+		if(isInString) {
+			throw syntaxException("Unterminated string.", end);
+		}
+		if(depth > 0) {
+			throw syntaxException("Unclosed " + (char)bytes[positions[openTokens[depth - 1]]] + ".", end);
+		}
+	}
+
+	/**
+	 * Adds a structural character position to the index.
+	 * @param position The position of the structural character.
+	 */
+	private void add(final int position) {
+		if(count == positions.length) {
+			positions = Arrays.copyOf(positions, count * 2);
+			matches = Arrays.copyOf(matches, count * 2);
+		}
+		positions[count++] = position;
+	}
+
+	/**
+	 * Determines whether a byte is JSON whitespace.
+	 * @param b The byte to examine.
+	 * @return <code>true</code> if the byte is a space, horizontal tab, line feed, or carriage return.
+	 */
+	static boolean isWhitespace(final byte b) {
+		return b == SPACE || b == HORIZONTAL_TAB || b == LINE_FEED || b == CARRIAGE_RETURN;
+	}
+
+	/**
+	 * Skips whitespace.
+	 * @param position The position at which to start.
+	 * @param limit The position at which to stop.
+	 * @return The position of the first non-whitespace byte, or the limit if there is none.
+	 */
+	int skipWhitespace(int position, final int limit) {
+		while(position < limit && isWhitespace(bytes[position])) {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * Checks that a range contains only whitespace.
+	 * @param position The position at which to start.
+	 * @param limit The position at which to stop.
+	 * @param expected A description of what was expected in place of any non-whitespace, for error reporting.
+	 * @throws ArgumentSyntaxException if there is a non-whitespace byte in the range.
+	 */
+	void checkWhitespace(final int position, final int limit, @Nonnull final String expected) {
+		final int nonWhitespacePosition = skipWhitespace(position, limit);
+		if(nonWhitespacePosition < limit) {
+			throw syntaxException("Expected " + expected + ".", nonWhitespacePosition);
+		}
+	}
+
+	/**
+	 * Creates an exception indicating a syntax error.
+	 * @implNote The input is decoded only when an error is reported, so that the index of the error refers to the decoded characters.
+	 * @param message The error message.
+	 * @param position The position in the bytes at which the error occurs.
+	 * @return An exception for reporting the error.
+	 */
+	ArgumentSyntaxException syntaxException(@Nonnull final String message, final int position) {
+		return new ArgumentSyntaxException(message, new String(bytes, start, end - start, UTF_8), new String(bytes, start, position - start, UTF_8).length());
+	}
+
+}
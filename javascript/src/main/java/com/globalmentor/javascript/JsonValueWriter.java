@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import java.io.IOException;
+
+import javax.annotation.*;
+
+/**
+ * Writes values of some type as JSON.
+ * @param <T> The type of value written.
+ * @author Garret Wilson
+ * @see JsonSerializer.Builder#register(Class, JsonValueWriter)
+ */
+@FunctionalInterface
+public interface JsonValueWriter<T> {
+
+	/**
+	 * Writes a value as a single JSON value, which may be an object or array.
+	 * @apiNote Nested values of arbitrary type may be written using {@link JsonSerializer#serialize(JsonWriter, Object)} so that they are written as
+	 *          registered.
+	 * @param serializer The serializer writing the value, for writing nested values.
+	 * @param writer The JSON writer to which the value should be written.
+	 * @param value The value to write.
+	 * @throws IOException if there is an error writing the value.
+	 */
+	void write(@Nonnull JsonSerializer serializer, @Nonnull JsonWriter writer, @Nonnull T value) throws IOException;
+
+}
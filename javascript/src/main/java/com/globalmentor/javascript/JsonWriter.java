@@ -0,0 +1,702 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static com.globalmentor.java.Conditions.*;
+import static com.globalmentor.javascript.JSON.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.lang.reflect.Array;
+import java.nio.*;
+import java.util.*;
+
+import javax.annotation.*;
+
+import com.globalmentor.text.W3CDateFormat;
+
+/**
+ * Streaming writer of JSON, encoding directly to UTF-8 bytes.
+ * <p>
+ * Values are written using typed methods such as {@link #writeLong(long)}, {@link #writeDouble(double)}, and {@link #writeString(CharSequence)}, or with
+ * {@link #writeValue(Object)} for the same types supported by {@link JSON#appendValue(Appendable, Object)}. Objects and arrays are written using
+ * {@link #writeStartObject()}/{@link #writeEndObject()} and {@link #writeStartArray()}/{@link #writeEndArray()}; value and name separators are inserted
+ * automatically. Primitive arrays are written with overloads of {@link #writeArray(int[])} without boxing their elements.
+ * </p>
+ * <pre>
+ * {@code
+ * try(final JsonWriter writer = new JsonWriter(outputStream)) {
+ *   writer.writeStartObject().writeName("id").writeLong(id).writeName("scores").writeArray(scores).writeEndObject();
+ * }
+ * }
+ * </pre>
+ * <p>
+ * Output is encoded into an internal buffer of fixed size, which is transferred to the destination {@link OutputStream} or {@link ByteBuffer} as it fills and
+ * when the writer is flushed or closed. Strings are scanned for characters requiring escaping using a lookup table, copying runs of other ASCII characters
+ * directly to the buffer. Characters are escaped as by {@link JSON#encodeStringValue(CharSequence)}, except that other control characters and unpaired
+ * surrogates, which cannot otherwise appear in JSON text, are written as <code>&#92;u<var>XXXX</var></code> escapes.
+ * </p>
+ * <p>
+ * Consecutive top-level values are separated by a line feed, producing JSON Lines that can be read back using {@link JsonParser}.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ * @author Garret Wilson
+ * @see JsonParser
+ */
+public class JsonWriter implements Closeable, Flushable {
+
+	/** The default size of the byte buffer. */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/** The minimum size of the byte buffer, large enough to hold any single escape sequence or primitive number. */
+	public static final int MIN_BUFFER_SIZE = 32;
+
+	/** For each ASCII character, the character identifying its escape sequence, <code>'u'</code> for a Unicode escape, or <code>0</code> if not escaped. */
+	private static final byte[] ASCII_ESCAPES = new byte[128];
+
+	static {
+		for(char c = 0; c < SPACE; c++) {
+			ASCII_ESCAPES[c] = ESCAPED_UNICODE;
+		}
+		final char[] encodeChars = JavaScript.STRING_ENCODE_CHARS;
+		final String[] encodeReplacements = JavaScript.STRING_ENCODE_REPLACEMENT_STRINGS;
+		for(int i = 0; i < encodeChars.length; i++) {
+			ASCII_ESCAPES[encodeChars[i]] = (byte)encodeReplacements[i].charAt(1); //each replacement is the escape character followed by the identifying character
+		}
+	}
+
+	/** Uppercase hexadecimal digits as ASCII bytes. */
+	private static final byte[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+
+	/** The destination output stream, or <code>null</code> if writing to a byte buffer. */
+	@Nullable
+	private final OutputStream outputStream;
+
+	/** The destination byte buffer, or <code>null</code> if writing to an output stream. */
+	@Nullable
+	private final ByteBuffer byteBuffer;
+
+	private final byte[] buffer;
+
+	/** The number of bytes in the buffer not yet transferred to the destination. */
+	private int position = 0;
+
+	/** Whether each open container is an object, indexed by depth. */
+	private boolean[] containerObjectFlags = new boolean[32];
+
+	private int depth = 0;
+
+	/** Whether a value has already been written in the current container, or at the top level if not in a container. */
+	private boolean hasValue = false;
+
+	/** Whether a name has been written in the current object, to be followed by its value. */
+	private boolean hasName = false;
+
+	/**
+	 * Output stream constructor with default buffer size.
+	 * @apiNote The output stream does not need to be buffered, as this writer performs its own buffering.
+	 * @param outputStream The destination of the UTF-8 encoded JSON.
+	 */
+	public JsonWriter(@Nonnull final OutputStream outputStream) {
+		this(outputStream, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Output stream constructor.
+	 * @apiNote The output stream does not need to be buffered, as this writer performs its own buffering.
+	 * @param outputStream The destination of the UTF-8 encoded JSON.
+	 * @param bufferSize The size of the byte buffer.
+	 * @throws IllegalArgumentException if the buffer size is less than {@link #MIN_BUFFER_SIZE}.
+	 */
+	public JsonWriter(@Nonnull final OutputStream outputStream, final int bufferSize) {
+		this(requireNonNull(outputStream), null, bufferSize);
+	}
+
+	/**
+	 * Byte buffer constructor with default internal buffer size. Bytes are put into the byte buffer as the internal buffer fills and when the writer is flushed
+	 * or closed.
+	 * @param byteBuffer The destination of the UTF-8 encoded JSON.
+	 */
+	public JsonWriter(@Nonnull final ByteBuffer byteBuffer) {
+		this(null, requireNonNull(byteBuffer), DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Destination constructor.
+	 * @param outputStream The destination output stream, or <code>null</code> if writing to a byte buffer.
+	 * @param byteBuffer The destination byte buffer, or <code>null</code> if writing to an output stream.
+	 * @param bufferSize The size of the byte buffer.
+	 * @throws IllegalArgumentException if the buffer size is less than {@link #MIN_BUFFER_SIZE}.
+	 */
+	private JsonWriter(@Nullable final OutputStream outputStream, @Nullable final ByteBuffer byteBuffer, final int bufferSize) {
+		checkArgument(bufferSize >= MIN_BUFFER_SIZE, "Buffer size %d is less than the minimum of %d.", bufferSize, MIN_BUFFER_SIZE);
+		this.outputStream = outputStream;
+		this.byteBuffer = byteBuffer;
+		this.buffer = new byte[bufferSize];
+	}
+
+	//# output
+
+	/**
+	 * Ensures that the buffer has room for the given number of bytes, transferring buffered bytes to the destination if needed.
+	 * @param count The number of bytes needed, no more than the buffer size.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void ensureCapacity(final int count) throws IOException {
+		if(buffer.length - position < count) {
+			flushBuffer();
+		}
+	}
+
+	/**
+	 * Transfers all buffered bytes to the destination.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws BufferOverflowException if the destination byte buffer has insufficient space remaining.
+	 */
+	private void flushBuffer() throws IOException {
+		if(position > 0) {
+			if(outputStream != null) {
+				outputStream.write(buffer, 0, position);
+			} else {
+				byteBuffer.put(buffer, 0, position);
+			}
+			position = 0;
+		}
+	}
+
+	/**
+	 * Writes a single ASCII character.
+	 * @param c The character to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeAscii(final char c) throws IOException {
+		ensureCapacity(1);
+		buffer[position++] = (byte)c;
+	}
+
+	/**
+	 * Writes a sequence of ASCII characters.
+	 * @param ascii The characters to write, all of which must be ASCII.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeAscii(@Nonnull final String ascii) throws IOException {
+		final int length = ascii.length();
+		for(int i = 0; i < length; i++) {
+			ensureCapacity(1);
+			buffer[position++] = (byte)ascii.charAt(i);
+		}
+	}
+
+	//# structure
+
+	/**
+	 * Prepares to write a value, writing any separator needed and checking that a value is allowed.
+	 * @throws IllegalStateException if a name is required rather than a value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void beforeValue() throws IOException {
+		if(depth > 0 && containerObjectFlags[depth - 1]) {
+			checkState(hasName, "Object member name required before value.");
+			hasName = false;
+		} else {
+			if(hasValue) {
+				writeAscii(depth > 0 ? VALUE_SEPARATOR : LINE_FEED);
+			}
+			hasValue = true;
+		}
+	}
+
+	/**
+	 * Starts a container.
+	 * @param isObject Whether the container is an object rather than an array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void startContainer(final boolean isObject) throws IOException {
+		beforeValue();
+		writeAscii(isObject ? BEGIN_OBJECT : BEGIN_ARRAY);
+		if(depth == containerObjectFlags.length) {
+			containerObjectFlags = Arrays.copyOf(containerObjectFlags, depth * 2);
+		}
+		containerObjectFlags[depth++] = isObject;
+		hasValue = false;
+	}
+
+	/**
+	 * Ends the current container.
+	 * @param isObject Whether the container is expected to be an object rather than an array.
+	 * @throws IllegalStateException if the current container is not of the expected type, or an object member value is missing.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void endContainer(final boolean isObject) throws IOException {
+		checkState(depth > 0 && containerObjectFlags[depth - 1] == isObject, "No %s to end.", isObject ? "object" : "array");
+		checkState(!hasName, "Object member value required before end of object.");
+		writeAscii(isObject ? END_OBJECT : END_ARRAY);
+		depth--;
+		hasValue = true;
+	}
+
+	/**
+	 * Writes the start of an object.
+	 * @return This writer.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeStartObject() throws IOException {
+		startContainer(true);
+		return this;
+	}
+
+	/**
+	 * Writes the end of the current object.
+	 * @return This writer.
+	 * @throws IllegalStateException if the current container is not an object, or if a name has been written without a value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeEndObject() throws IOException {
+		endContainer(true);
+		return this;
+	}
+
+	/**
+	 * Writes the start of an array.
+	 * @return This writer.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeStartArray() throws IOException {
+		startContainer(false);
+		return this;
+	}
+
+	/**
+	 * Writes the end of the current array.
+	 * @return This writer.
+	 * @throws IllegalStateException if the current container is not an array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeEndArray() throws IOException {
+		endContainer(false);
+		return this;
+	}
+
+	/**
+	 * Writes the name of an object member, which must be followed by its value.
+	 * @param name The member name.
+	 * @return This writer.
+	 * @throws IllegalStateException if the current container is not an object, or if a name has already been written without a value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeName(@Nonnull final CharSequence name) throws IOException {
+		checkState(depth > 0 && containerObjectFlags[depth - 1], "Object member name only allowed in an object.");
+		checkState(!hasName, "Object member value required before another name.");
+		if(hasValue) {
+			writeAscii(VALUE_SEPARATOR);
+		}
+		hasValue = true;
+		writeQuoted(name);
+		writeAscii(NAME_SEPARATOR);
+		hasName = true;
+		return this;
+	}
+
+	//# scalar values
+
+	/**
+	 * Writes a <code>null</code> value.
+	 * @return This writer.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeNull() throws IOException {
+		beforeValue();
+		writeAscii(NULL);
+		return this;
+	}
+
+	/**
+	 * Writes a boolean value.
+	 * @param value The value to write.
+	 * @return This writer.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeBoolean(final boolean value) throws IOException {
+		beforeValue();
+		writeAscii(value ? TRUE : FALSE);
+		return this;
+	}
+
+	/**
+	 * Writes an integer value, encoding its digits directly without creating a string.
+	 * @param value The value to write.
+	 * @return This writer.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeLong(final long value) throws IOException {
+		beforeValue();
+		writeLongDigits(value);
+		return this;
+	}
+
+	/**
+	 * Writes the digits of an integer.
+	 * @param value The value to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeLongDigits(long value) throws IOException {
+		ensureCapacity(20); //"-9223372036854775808"
+		if(value < 0) {
+			buffer[position++] = MINUS;
+			if(value == Long.MIN_VALUE) { //not representable as a positive value
+				writeAscii("9223372036854775808");
+				return;
+			}
+			value = -value;
+		}
+		int digitCount = 1;
+		for(long remaining = value / 10; remaining != 0; remaining /= 10) {
+			digitCount++;
+		}
+		position += digitCount;
+		int index = position;
+		do {
+			buffer[--index] = (byte)('0' + (value % 10));
+			value /= 10;
+		} while(value != 0);
+	}
+
+	/**
+	 * Writes a floating point value.
+	 * @param value The value to write.
+	 * @return This writer.
+	 * @throws IllegalArgumentException if the value is infinite or NaN, which cannot be represented in JSON.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeDouble(final double value) throws IOException {
+		checkArgument(Double.isFinite(value), "JSON cannot represent the number %s.", value);
+		beforeValue();
+		writeAscii(Double.toString(value)); //always includes a fraction or exponent, so that the value is read back as a floating point number
+		return this;
+	}
+
+	/**
+	 * Writes a number value. Integral primitive wrapper types are written as by {@link #writeLong(long)}, and {@link Double} and {@link Float} are written as
+	 * by {@link #writeDouble(double)}; other number types are written using their string form.
+	 * @param number The number to write.
+	 * @return This writer.
+	 * @throws IllegalArgumentException if the value is infinite or NaN, which cannot be represented in JSON.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeNumber(@Nonnull final Number number) throws IOException {
+		if(number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+			return writeLong(number.longValue());
+		}
+		if(number instanceof Double) {
+			return writeDouble(number.doubleValue());
+		}
+		if(number instanceof Float) {
+			final float floatValue = number.floatValue();
+			checkArgument(Float.isFinite(floatValue), "JSON cannot represent the number %s.", floatValue);
+			beforeValue();
+			writeAscii(Float.toString(floatValue)); //use the shortest float representation rather than that of the widened double
+			return this;
+		}
+		beforeValue();
+		writeAscii(number.toString());
+		return this;
+	}
+
+	/**
+	 * Writes a string value.
+	 * @param value The string to write.
+	 * @return This writer.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeString(@Nonnull final CharSequence value) throws IOException {
+		beforeValue();
+		writeQuoted(value);
+		return this;
+	}
+
+	/**
+	 * Writes a quoted string, escaping characters as needed and encoding the rest in UTF-8.
+	 * @param charSequence The characters to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeQuoted(@Nonnull final CharSequence charSequence) throws IOException {
+		writeAscii(QUOTATION_MARK);
+		final int length = charSequence.length();
+		int index = 0;
+		while(index < length) {
+			//copy a run of ASCII characters not needing escaping, up to the space remaining in the buffer
+			if(position == buffer.length) {
+				flushBuffer();
+			}
+			final int runEnd = Math.min(length, index + (buffer.length - position));
+			char c = 0;
+			while(index < runEnd && (c = charSequence.charAt(index)) < 0x80 && ASCII_ESCAPES[c] == 0) {
+				buffer[position++] = (byte)c;
+				index++;
+			}
+			if(index == runEnd) {
+				continue;
+			}
+			if(c < 0x80) {
+				writeEscape(c);
+			} else if(c < 0x800) {
+				ensureCapacity(2);
+				buffer[position++] = (byte)(0xC0 | (c >> 6));
+				buffer[position++] = (byte)(0x80 | (c & 0x3F));
+			} else if(Character.isSurrogate(c)) {
+				final char low;
+				if(Character.isHighSurrogate(c) && index + 1 < length && Character.isLowSurrogate(low = charSequence.charAt(index + 1))) {
+					final int codePoint = Character.toCodePoint(c, low);
+					ensureCapacity(4);
+					buffer[position++] = (byte)(0xF0 | (codePoint >> 18));
+					buffer[position++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+					buffer[position++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+					buffer[position++] = (byte)(0x80 | (codePoint & 0x3F));
+					index++;
+				} else { //an unpaired surrogate cannot be encoded in UTF-8
+					writeUnicodeEscape(c);
+				}
+			} else {
+				ensureCapacity(3);
+				buffer[position++] = (byte)(0xE0 | (c >> 12));
+				buffer[position++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+				buffer[position++] = (byte)(0x80 | (c & 0x3F));
+			}
+			index++;
+		}
+		writeAscii(QUOTATION_MARK);
+	}
+
+	/**
+	 * Writes the escape sequence for an ASCII character requiring escaping.
+	 * @param c The character to escape.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeEscape(final char c) throws IOException {
+		final byte escape = ASCII_ESCAPES[c];
+		if(escape == ESCAPED_UNICODE) {
+			writeUnicodeEscape(c);
+		} else {
+			ensureCapacity(2);
+			buffer[position++] = ESCAPE;
+			buffer[position++] = escape;
+		}
+	}
+
+	/**
+	 * Writes a character as a <code>&#92;u<var>XXXX</var></code> escape sequence.
+	 * @param c The character to escape.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeUnicodeEscape(final char c) throws IOException {
+		ensureCapacity(6);
+		buffer[position++] = ESCAPE;
+		buffer[position++] = ESCAPED_UNICODE;
+		buffer[position++] = HEX_DIGITS[(c >> 12) & 0xF];
+		buffer[position++] = HEX_DIGITS[(c >> 8) & 0xF];
+		buffer[position++] = HEX_DIGITS[(c >> 4) & 0xF];
+		buffer[position++] = HEX_DIGITS[c & 0xF];
+	}
+
+	//# arrays
+
+	/**
+	 * Writes an array of integers.
+	 * @param values The values to write.
+	 * @return This writer.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeArray(@Nonnull final int[] values) throws IOException {
+		writeStartArray();
+		for(final int value : values) {
+			writeLong(value);
+		}
+		return writeEndArray();
+	}
+
+	/**
+	 * Writes an array of integers.
+	 * @param values The values to write.
+	 * @return This writer.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeArray(@Nonnull final long[] values) throws IOException {
+		writeStartArray();
+		for(final long value : values) {
+			writeLong(value);
+		}
+		return writeEndArray();
+	}
+
+	/**
+	 * Writes an array of floating point values.
+	 * @param values The values to write.
+	 * @return This writer.
+	 * @throws IllegalArgumentException if a value is infinite or NaN, which cannot be represented in JSON.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeArray(@Nonnull final double[] values) throws IOException {
+		writeStartArray();
+		for(final double value : values) {
+			writeDouble(value);
+		}
+		return writeEndArray();
+	}
+
+	/**
+	 * Writes an array of boolean values.
+	 * @param values The values to write.
+	 * @return This writer.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeArray(@Nonnull final boolean[] values) throws IOException {
+		writeStartArray();
+		for(final boolean value : values) {
+			writeBoolean(value);
+		}
+		return writeEndArray();
+	}
+
+	//# general values
+
+	/**
+	 * Writes an object value, supporting the same types as {@link JSON#appendValue(Appendable, Object)}:
+	 * <ul>
+	 * <li>{@link CharSequence} (string)</li>
+	 * <li>{@link Boolean} (boolean)</li>
+	 * <li>{@link Number} (number)</li>
+	 * <li>{@link Collection} (array)</li>
+	 * <li>{@link Map} (object)</li>
+	 * <li>[] (array)</li>
+	 * <li>{@link Date} (W3C date/time)</li>
+	 * <li>{@link Object} (string)</li>
+	 * <li><code>null</code></li>
+	 * </ul>
+	 * @implNote Collections are iterated directly rather than copied to an array, and primitive arrays of type <code>int</code>, <code>long</code>,
+	 *           <code>double</code>, and <code>boolean</code> are written without boxing their elements.
+	 * @param value The value to write, or <code>null</code>.
+	 * @return This writer.
+	 * @throws NullPointerException if a map has a <code>null</code> key.
+	 * @throws IllegalArgumentException if a number is infinite or NaN, which cannot be represented in JSON.
+	 * @throws IllegalStateException if an object member name is required.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public JsonWriter writeValue(@Nullable final Object value) throws IOException {
+		if(value == null) {
+			return writeNull();
+		}
+		if(value instanceof CharSequence) {
+			return writeString((CharSequence)value);
+		}
+		if(value instanceof Number) {
+			return writeNumber((Number)value);
+		}
+		if(value instanceof Boolean) {
+			return writeBoolean(((Boolean)value).booleanValue());
+		}
+		if(value instanceof Map) {
+			writeStartObject();
+			for(final Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+				writeName(requireNonNull(entry.getKey(), "JSON object member name cannot be null.").toString());
+				writeValue(entry.getValue());
+			}
+			return writeEndObject();
+		}
+		if(value instanceof Collection) {
+			writeStartArray();
+			for(final Object element : (Collection<?>)value) {
+				writeValue(element);
+			}
+			return writeEndArray();
+		}
+		if(value instanceof Object[]) {
+			writeStartArray();
+			for(final Object element : (Object[])value) {
+				writeValue(element);
+			}
+			return writeEndArray();
+		}
+		if(value instanceof int[]) {
+			return writeArray((int[])value);
+		}
+		if(value instanceof long[]) {
+			return writeArray((long[])value);
+		}
+		if(value instanceof double[]) {
+			return writeArray((double[])value);
+		}
+		if(value instanceof boolean[]) {
+			return writeArray((boolean[])value);
+		}
+		if(value.getClass().isArray()) { //remaining primitive array types
+			writeStartArray();
+			final int length = Array.getLength(value);
+			for(int i = 0; i < length; i++) {
+				writeValue(Array.get(value, i));
+			}
+			return writeEndArray();
+		}
+		if(value instanceof Date) {
+			return writeString(W3CDateFormat.format((Date)value, W3CDateFormat.Style.DATE_HOURS_MINUTES_SECONDS));
+		}
+		return writeString(value.toString());
+	}
+
+	//# lifecycle
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation transfers all buffered bytes to the destination, and flushes the destination output stream if any.
+	 * @throws BufferOverflowException if the destination byte buffer has insufficient space remaining.
+	 */
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		if(outputStream != null) {
+			outputStream.flush();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation transfers all buffered bytes to the destination and closes the destination output stream if any. A destination byte buffer
+	 *           is left positioned after the written bytes.
+	 * @throws BufferOverflowException if the destination byte buffer has insufficient space remaining.
+	 */
+	@Override
+	public void close() throws IOException {
+		flushBuffer();
+		if(outputStream != null) {
+			outputStream.close();
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static java.util.concurrent.TimeUnit.*;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+import javax.annotation.*;
+
+/**
+ * Microbenchmark of {@link JSON#parseValue(CharSequence)}, for comparing parser implementations by running it against each revision.
+ * <p>
+ * This is not a unit test and is not run as part of the build. After compiling the test sources, run it with the test classpath, for example:
+ * </p>
+ * <pre>{@code java -cp target/classes:target/test-classes:<dependencies> com.globalmentor.javascript.JSONParseBenchmark}</pre>
+ * <p>
+ * Each document is parsed repeatedly for a number of warmup rounds so that the JIT compiler has settled, and then for a number of measured rounds; the
+ * fastest measured round is reported, as it is the least disturbed by garbage collection and other activity. The documents only use JSON that every
+ * implementation of the parser has supported, so that results from different revisions are comparable.
+ * </p>
+ * @author Garret Wilson
+ */
+public class JSONParseBenchmark {
+
+	/** The number of rounds to run before measuring. */
+	private static final int WARMUP_ROUND_COUNT = 10;
+
+	/** The number of measured rounds. */
+	private static final int MEASURED_ROUND_COUNT = 10;
+
+	/** The approximate number of characters to parse in each round. */
+	private static final int ROUND_CHARACTER_COUNT = 50_000_000;
+
+	/**
+	 * Benchmark entry point.
+	 * @param args The command-line arguments, which are ignored.
+	 */
+	public static void main(final String[] args) {
+		final Map<String, String> documents = new LinkedHashMap<>();
+		documents.put("plain strings", createArray(1000, index -> "\"The quick brown fox " + index + " jumps over the lazy dog.\""));
+		documents.put("escaped strings", createArray(1000, index -> "\"Line \\\"" + index + "\\\"\\n\\tindented \\\\ path\\/to \\u00E9t\\u00E9 \\uD83D\\uDE00\""));
+		documents.put("numbers", createArray(1000, index -> index % 2 == 0 ? Integer.toString(index * 7919 - 1_000_000) : (index * 31) + "." + index));
+		documents.put("objects", createArray(200, index -> "{\"id\":" + index + ",\"name\":\"Item \\\"" + index
+				+ "\\\"\",\"price\":" + index + ".25,\"tags\":[\"a\",\"b\\tc\"],\"active\":true,\"parent\":null}"));
+		documents.forEach((name, json) -> {
+			final int iterationCount = Math.max(1, ROUND_CHARACTER_COUNT / json.length());
+			for(int round = 0; round < WARMUP_ROUND_COUNT; round++) {
+				run(json, iterationCount);
+			}
+			long bestNanos = Long.MAX_VALUE;
+			for(int round = 0; round < MEASURED_ROUND_COUNT; round++) {
+				final long startNanos = System.nanoTime();
+				run(json, iterationCount);
+				bestNanos = Math.min(bestNanos, System.nanoTime() - startNanos);
+			}
+			final double megabytesPerSecond = ((double)json.length() * iterationCount / (1 << 20)) / ((double)bestNanos / SECONDS.toNanos(1));
+			System.out.printf("%-16s %8.1f us/parse %8.1f MiB/s%n", name, bestNanos / 1000.0 / iterationCount, megabytesPerSecond);
+		});
+	}
+
+	/**
+	 * Creates the JSON text of an array.
+	 * @param count The number of elements.
+	 * @param elementFactory The strategy for creating the JSON text of the element at an index.
+	 * @return The JSON text of the array.
+	 */
+	private static String createArray(final int count, @Nonnull final IntFunction<String> elementFactory) {
+		final StringJoiner stringJoiner = new StringJoiner(",", "[", "]");
+		for(int index = 0; index < count; index++) {
+			stringJoiner.add(elementFactory.apply(index));
+		}
+		return stringJoiner.toString();
+	}
+
+	/**
+	 * Parses the given JSON the given number of times.
+	 * @implNote The sizes of the parsed arrays are accumulated and checked so that the parsing cannot be optimized away.
+	 * @param json The JSON text.
+	 * @param iterationCount The number of times to parse the JSON.
+	 */
+	private static void run(@Nonnull final String json, final int iterationCount) {
+		int result = 0;
+		for(int iteration = 0; iteration < iterationCount; iteration++) {
+			result += ((List<?>)JSON.parseValue(json)).size();
+		}
+		if(result == 0) {
+			throw new IllegalStateException("No values parsed.");
+		}
+	}
+
+}
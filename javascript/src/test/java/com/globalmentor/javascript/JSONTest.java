@@ -0,0 +1,227 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.*;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+import com.globalmentor.javascript.JSON.DecimalMode;
+import com.globalmentor.text.ArgumentSyntaxException;
+
+/**
+ * Tests of {@link JSON}.
+ * @author Garret Wilson
+ */
+public class JSONTest {
+
+	//# parseValue()
+
+	/** @see JSON#parseValue(CharSequence) */
+	@Test
+	public void testParseStrings() {
+		assertThat(JSON.parseValue("\"\""), is(""));
+		assertThat(JSON.parseValue("\"abc\""), is("abc"));
+		assertThat(JSON.parseValue("\"é😀\""), is("é😀"));
+		assertThat("Unescaped control characters are accepted.", JSON.parseValue("\"a\nb\""), is("a\nb"));
+		assertThat(JSON.parseValue("[\"a\",\"\",\"b c\"]"), is(List.of("a", "", "b c")));
+	}
+
+	/** @see JSON#parseValue(CharSequence) */
+	@Test
+	public void testParseEscapes() {
+		assertThat(JSON.parseValue("\"a\\\"b\""), is("a\"b"));
+		assertThat(JSON.parseValue("\"a\\\\b\""), is("a\\b"));
+		assertThat(JSON.parseValue("\"\\/\""), is("/"));
+		assertThat(JSON.parseValue("\"\\b\\f\\n\\r\\t\""), is("\b\f\n\r\t"));
+		assertThat(JSON.parseValue("\"\\u0041\\u00e9\\u20AC\""), is("Aé€"));
+		assertThat(JSON.parseValue("\"\\ud83d\\ude00\""), is("😀"));
+		assertThat(JSON.parseValue("\"x\\\\\\\"y\\u0041z\""), is("x\\\"yAz"));
+		assertThat(JSON.parseValue("{\"a\\\"b\":\"c\\\\\"}"), is(Map.of("a\"b", "c\\")));
+	}
+
+	/** @see JSON#parseValue(CharSequence) */
+	@Test
+	public void testParseNumbers() {
+		assertThat(JSON.parseValue("0"), is(0));
+		assertThat(JSON.parseValue("-0"), is(0));
+		assertThat(JSON.parseValue("1"), is(1));
+		assertThat(JSON.parseValue("-1"), is(-1));
+		assertThat(JSON.parseValue("2147483647"), is(Integer.MAX_VALUE));
+		assertThat(JSON.parseValue("-2147483648"), is(Integer.MIN_VALUE));
+		assertThat(JSON.parseValue("1.5"), is(1.5));
+		assertThat(JSON.parseValue("-1.5"), is(-1.5));
+		assertThat(JSON.parseValue("0.1"), is(0.1));
+		assertThat(JSON.parseValue("1e3"), is(1000.0));
+		assertThat(JSON.parseValue("1E3"), is(1000.0));
+		assertThat(JSON.parseValue("-0.0"), is(-0.0));
+		assertThat(JSON.parseValue("9007199254740993.0"), is(9007199254740992.0));
+		assertThat(JSON.parseValue("1e400"), is(Double.POSITIVE_INFINITY));
+		assertThat(JSON.parseValue("[1,2.5,-3]"), is(List.of(1, 2.5, -3)));
+	}
+
+	/** @see JSON#parseValue(CharSequence) */
+	@Test
+	public void testParseLiteralsAndContainers() {
+		assertThat(JSON.parseValue("true"), is(true));
+		assertThat(JSON.parseValue("false"), is(false));
+		assertThat(JSON.parseValue("null"), is(nullValue()));
+		assertThat(JSON.parseValue("[]"), is(List.of()));
+		assertThat(JSON.parseValue("{}"), is(Map.of()));
+		assertThat(JSON.parseValue("[ 1 , 2 ]"), is(List.of(1, 2)));
+		assertThat(JSON.parseValue("{ \"a\" : 1 }"), is(Map.of("a", 1)));
+		assertThat(JSON.parseValue("{\"a\":1,\"b\":[true,null]}"), is(Map.of("a", 1, "b", Arrays.asList(true, null))));
+		assertThat(JSON.parseValue("[\"a\",{\"b\":{\"c\":[]}}]"), is(List.of("a", Map.of("b", Map.of("c", List.of())))));
+		assertThat("The last duplicate member wins.", JSON.parseValue("{\"a\":1,\"a\":2}"), is(Map.of("a", 2)));
+		assertThat("Trailing whitespace is allowed.", JSON.parseValue("1 "), is(1));
+	}
+
+	/** @see JSON#parseValue(CharSequence) */
+	@Test
+	public void testParseErrors() {
+		for(final String json : List.of("", " 1", "\"abc", "\"\\x\"", "\"\\u12g4\"", "\"\\u00\"", "-", "+1", ".5", "1.", "1e", "tru", "nul", "True", "[", "[1,]",
+				"[,1]", "[1 2]", "[1}", "{\"a\"}", "{\"a\":}", "{a:1}", "{\"a\":1,}", "{\"a\":1")) {
+			assertThrows(ArgumentSyntaxException.class, () -> JSON.parseValue(json), json);
+		}
+	}
+
+	/**
+	 * Verifies that integers are parsed as the narrowest of {@link Integer}, {@link Long}, and {@link BigInteger}.
+	 * @see JSON#parseValue(CharSequence)
+	 */
+	@Test
+	public void testParseIntegerWidening() {
+		assertThat(JSON.parseValue("-0"), is(Integer.valueOf(0)));
+		assertThat(JSON.parseValue("2147483647"), is(Integer.valueOf(Integer.MAX_VALUE)));
+		assertThat(JSON.parseValue("2147483648"), is(Long.valueOf(Integer.MAX_VALUE + 1L)));
+		assertThat(JSON.parseValue("-2147483648"), is(Integer.valueOf(Integer.MIN_VALUE)));
+		assertThat(JSON.parseValue("-2147483649"), is(Long.valueOf(Integer.MIN_VALUE - 1L)));
+		assertThat(JSON.parseValue("9007199254740992"), is(Long.valueOf(1L << 53)));
+		assertThat(JSON.parseValue("9007199254740993"), is(Long.valueOf((1L << 53) + 1)));
+		assertThat(JSON.parseValue("9223372036854775807"), is(Long.valueOf(Long.MAX_VALUE)));
+		assertThat(JSON.parseValue("9223372036854775808"), is(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE)));
+		assertThat(JSON.parseValue("-9223372036854775808"), is(Long.valueOf(Long.MIN_VALUE)));
+		assertThat(JSON.parseValue("-9223372036854775809"), is(BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE)));
+		assertThat(JSON.parseValue("123456789012345678901234567890"), is(new BigInteger("123456789012345678901234567890")));
+		assertThat(JSON.parseValue("[2147483648,-9223372036854775809]"),
+				is(List.of(2147483648L, BigInteger.valueOf(Long.MIN_VALUE).subtract(BigInteger.ONE))));
+	}
+
+	/** @see JSON#parseValue(CharSequence, DecimalMode) */
+	@Test
+	public void testParseDecimalMode() {
+		assertThat(JSON.parseValue("1.10", DecimalMode.DOUBLE), is(1.1));
+		assertThat(JSON.parseValue("1.10", DecimalMode.BIG_DECIMAL), is(new BigDecimal("1.10")));
+		assertThat(JSON.parseValue("-2.5e-3", DecimalMode.BIG_DECIMAL), is(new BigDecimal("-2.5e-3")));
+		assertThat(JSON.parseValue("0.1", DecimalMode.BIG_DECIMAL), is(new BigDecimal("0.1")));
+		assertThat(JSON.parseValue("1E400", DecimalMode.BIG_DECIMAL), is(new BigDecimal("1E400")));
+		assertThat("Integers are unaffected by the decimal mode.", JSON.parseValue("[1,2147483648]", DecimalMode.BIG_DECIMAL), is(List.of(1, 2147483648L)));
+		assertThat(JSON.parseValue("{\"price\":19.99}", DecimalMode.BIG_DECIMAL), is(Map.of("price", new BigDecimal("19.99"))));
+	}
+
+	/**
+	 * Verifies numbers at the boundaries of the fast path for converting decimal numbers to <code>double</code>.
+	 * @see JSON#parseValue(CharSequence)
+	 */
+	@Test
+	public void testParseDoubleBoundaries() {
+		assertThat(JSON.parseValue("-0.0"), is(-0.0));
+		assertThat(JSON.parseValue("0.0"), is(0.0));
+		assertThat(JSON.parseValue("-0e5"), is(-0.0));
+		assertThat(JSON.parseValue("9007199254740992.0"), is(0x1p53));
+		assertThat(JSON.parseValue("9007199254740993.0"), is(0x1p53)); //rounds to even
+		assertThat(JSON.parseValue("9007199254740995.0"), is(0x1p53 + 4));
+		assertThat(JSON.parseValue("9007199254740992e22"), is(Double.parseDouble("9007199254740992e22")));
+		assertThat(JSON.parseValue("9007199254740993e-22"), is(Double.parseDouble("9007199254740993e-22")));
+		assertThat(JSON.parseValue("1e22"), is(1e22));
+		assertThat(JSON.parseValue("1e23"), is(1e23));
+		assertThat(JSON.parseValue("1e-22"), is(1e-22));
+		assertThat(JSON.parseValue("1e-23"), is(1e-23));
+		assertThat(JSON.parseValue("123456789012345678.5"), is(123456789012345678.5));
+		assertThat(JSON.parseValue("4.9e-324"), is(Double.MIN_VALUE));
+		assertThat(JSON.parseValue("1e-400"), is(0.0));
+		assertThat(JSON.parseValue("1.7976931348623157e308"), is(Double.MAX_VALUE));
+		assertThat(JSON.parseValue("2e308"), is(Double.POSITIVE_INFINITY));
+		assertThat(JSON.parseValue("-2e308"), is(Double.NEGATIVE_INFINITY));
+		assertThat(JSON.parseValue("1e-3"), is(0.001));
+		assertThat(JSON.parseValue("1.5e+2"), is(150.0));
+		assertThat(JSON.parseValue("2.2250738585072014E-308"), is(Double.MIN_NORMAL));
+	}
+
+	/**
+	 * Verifies that decimal numbers are converted to exactly the same <code>double</code> values as by {@link Double#parseDouble(String)}, whether or not the
+	 * fast path is used.
+	 * @see JSON#parseValue(CharSequence)
+	 */
+	@Test
+	public void testParseDoubleMatchesParseDouble() {
+		final Random random = new Random(53);
+		for(int i = 0; i < 100_000; i++) {
+			final StringBuilder stringBuilder = new StringBuilder();
+			if(random.nextBoolean()) {
+				stringBuilder.append('-');
+			}
+			final int integerDigitCount = 1 + random.nextInt(random.nextBoolean() ? 4 : 20);
+			stringBuilder.append(integerDigitCount == 1 ? random.nextInt(10) : 1 + random.nextInt(9));
+			for(int j = 1; j < integerDigitCount; j++) {
+				stringBuilder.append(random.nextInt(10));
+			}
+			final boolean hasFraction = random.nextBoolean();
+			if(hasFraction) {
+				stringBuilder.append('.');
+				for(int j = 1 + random.nextInt(random.nextBoolean() ? 4 : 20); j > 0; j--) {
+					stringBuilder.append(random.nextInt(10));
+				}
+			}
+			if(!hasFraction || random.nextBoolean()) {
+				stringBuilder.append(random.nextBoolean() ? 'e' : 'E');
+				final int exponentSign = random.nextInt(3);
+				if(exponentSign > 0) {
+					stringBuilder.append(exponentSign == 1 ? '-' : '+');
+				}
+				stringBuilder.append(random.nextInt(random.nextBoolean() ? 30 : 330));
+			}
+			final String number = stringBuilder.toString();
+			final Object value = JSON.parseValue(number);
+			assertThat(number, value, is(instanceOf(Double.class)));
+			assertThat(number, Double.doubleToRawLongBits((Double)value), is(Double.doubleToRawLongBits(Double.parseDouble(number))));
+		}
+	}
+
+	//# parseLazyValue()
+
+	/** @see JSON#parseLazyValue(byte[]) */
+	@Test
+	public void testParseLazyValue() {
+		final String json = "{\"a\":[1,\"é😀\",{\"b\":null}],\"c\":true,\"c\":2.5}";
+		final Object value = JSON.parseLazyValue(json.getBytes(UTF_8));
+		assertThat(value, is(instanceOf(Map.class)));
+		assertThat(value, is(JSON.parseValue(json)));
+		assertThat(((Map<?, ?>)value).get("c"), is(2.5));
+		assertThat(JSON.parseLazyValue("\"x\"".getBytes(UTF_8)), is("x"));
+		assertThat(JSON.parseLazyValue(" 1 ".getBytes(UTF_8)), is(1));
+		assertThrows(ArgumentSyntaxException.class, () -> JSON.parseLazyValue("[1] 2".getBytes(UTF_8)));
+		assertThrows(ArgumentSyntaxException.class, () -> JSON.parseLazyValue("[1".getBytes(UTF_8)));
+	}
+
+}
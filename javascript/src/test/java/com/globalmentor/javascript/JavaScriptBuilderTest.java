@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.net.URI;
+
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests of {@link JavaScriptBuilder}.
+ * @author Garret Wilson
+ */
+public class JavaScriptBuilderTest {
+
+	/** @see JavaScriptBuilder#appendEscaped(CharSequence) */
+	@Test
+	public void testAppendEscaped() throws IOException {
+		assertThat(new JavaScriptBuilder().appendEscaped("").toString(), is(""));
+		assertThat(new JavaScriptBuilder().appendEscaped("abc").toString(), is("abc"));
+		assertThat(new JavaScriptBuilder().appendEscaped("\\'\"\n\t").toString(), is("\\\\\\'\\\"\\n\\t"));
+		assertThat("Other characters are not escaped.", new JavaScriptBuilder().appendEscaped("\r/<é😀\u0080").toString(), is("\r/<é😀\u0080"));
+		assertThat(new JavaScriptBuilder().appendEscaped("a'b''c'").toString(), is("a\\'b\\'\\'c\\'"));
+		assertThat(new JavaScriptBuilder().appendEscaped(new StringBuilder("it's")).toString(), is("it\\'s"));
+	}
+
+	/** @see JavaScriptBuilder#appendLiteral(CharSequence) */
+	@Test
+	public void testAppendLiteral() throws IOException {
+		assertThat(new JavaScriptBuilder().appendLiteral("it's").toString(), is("'it\\'s'"));
+		assertThat(new JavaScriptBuilder().appendLiteral("").toString(), is("''"));
+		assertThat(new JavaScriptBuilder().appendLiteral(null).toString(), is("null"));
+	}
+
+	/** Verifies that successive calls compose expressions and statements. */
+	@Test
+	public void testComposition() throws IOException {
+		final JavaScriptBuilder builder = new JavaScriptBuilder();
+		builder.appendFormComponentProperty("f", "c", "value").appendAssignedLiteral("it's").appendStatementEnd();
+		builder.appendFormComponentProperty("f", "c", "disabled").appendAssignedValue("true").appendStatementEnd();
+		builder.appendObjectMethod("console", "log", "1", "'x'").appendStatementEnd();
+		builder.appendObjectProperty("a", "b").appendIndexedProperty("c").appendAssignedValue(null).appendStatementEnd();
+		builder.appendAssignment("x", "1").appendStatementEnd().appendLiteralAssignment("y", "a\"b").appendStatementEnd();
+		builder.appendLiteralMethod("alert", "hi").append(';').appendNot("done").append(';');
+		assertThat(builder.toString(), is("document.forms['f']['c'].value='it\\'s';document.forms['f']['c'].disabled=true;console.log(1,'x');a.b['c']=null;x=1;"
+				+ "y='a\\\"b';alert('hi');!done;"));
+	}
+
+	/**
+	 * @see JavaScriptBuilder#appendIf(CharSequence, JavaScriptBuilder.Block, JavaScriptBuilder.Block)
+	 * @see JavaScriptBuilder#appendBlock(JavaScriptBuilder.Block)
+	 */
+	@Test
+	public void testBlocks() throws IOException {
+		assertThat(new JavaScriptBuilder().appendIf("a", "b").toString(), is("if(a){b}"));
+		assertThat(new JavaScriptBuilder().appendIf("a", "b", "c").toString(), is("if(a){b}else{c}"));
+		assertThat(new JavaScriptBuilder().appendIf("a", "b", (CharSequence)null).toString(), is("if(a){b}"));
+		assertThat(new JavaScriptBuilder().appendIf("ok", then -> then.appendLiteralMethod("alert", "it's").appendStatementEnd(), otherwise -> otherwise.appendReturn(false))
+				.toString(), is("if(ok){alert('it\\'s');}else{return false;}"));
+		assertThat(new JavaScriptBuilder().appendIf("a", block -> block.appendIf("b", inner -> inner.appendReturn(1))).toString(), is("if(a){if(b){return 1;}}"));
+		assertThat(new JavaScriptBuilder().appendBlock(block -> {}).toString(), is("{}"));
+	}
+
+	/** @see JavaScriptBuilder#appendPopupWindow(URI, CharSequence) */
+	@Test
+	public void testAppendPopupWindow() throws IOException {
+		assertThat(new JavaScriptBuilder().appendPopupWindow(URI.create("http://example.com/"), "it's").toString(),
+				is("var win=window.open('http://example.com/','it\\'s','width=640,height=480,scrollbars=yes');if(window.focus){win.focus()};"));
+	}
+
+	/** Verifies that code is appended directly to the given destination. */
+	@Test
+	public void testAppendable() throws IOException {
+		final StringWriter writer = new StringWriter();
+		final JavaScriptBuilder builder = new JavaScriptBuilder(writer);
+		assertThat(builder.getAppendable(), is(sameInstance(writer)));
+		builder.appendMethod("f", "1").appendStatementEnd();
+		assertThat(writer.toString(), is("f(1);"));
+		final JavaScriptBuilder failingBuilder = new JavaScriptBuilder(new Writer() {
+			@Override
+			public void write(final char[] buffer, final int offset, final int length) throws IOException {
+				throw new IOException("failed");
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		});
+		assertThrows(IOException.class, () -> failingBuilder.appendLiteral("x"));
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static com.globalmentor.javascript.JavaScript.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.net.URI;
+import java.util.Random;
+
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests of {@link JavaScript}.
+ * <p>
+ * The expected code is that produced by the original string concatenation implementations of these methods.
+ * </p>
+ * @author Garret Wilson
+ */
+public class JavaScriptTest {
+
+	/**
+	 * Escapes a string as did the original implementation of {@link JavaScript#escape(String)}, for comparison.
+	 * @param string The string to escape.
+	 * @return The escaped string.
+	 */
+	private static String escapeReference(final String string) {
+		return string.replace("\\", "\\\\").replace("'", "\\'").replace("\"", "\\\"").replace("\n", "\\n").replace("\t", "\\t");
+	}
+
+	/** @see JavaScript#escape(String) */
+	@Test
+	public void testEscape() {
+		assertThat(escape(""), is(""));
+		assertThat(escape("it's \"x\"\n\ta\\b\r/é😀<"), is("it\\'s \\\"x\\\"\\n\\ta\\\\b\r/é😀<"));
+		final String unescaped = "abc/é😀<";
+		assertThat("A string needing no escapes is returned as is.", escape(unescaped), is(sameInstance(unescaped)));
+		final Random random = new Random(49);
+		final String characters = "ab\\'\"\n\t\r/é😀<";
+		for(int i = 0; i < 10_000; i++) {
+			final StringBuilder stringBuilder = new StringBuilder();
+			for(int j = random.nextInt(20); j > 0; j--) {
+				stringBuilder.append(characters.charAt(random.nextInt(characters.length())));
+			}
+			final String string = stringBuilder.toString();
+			assertThat(string, escape(string), is(escapeReference(string)));
+			assertThat(string, alertLiteral(string), is("alert('" + escapeReference(string) + "')"));
+			assertThat(string, setFormComponentPropertyLiteralValue("f", "c", "value", string), is("document.forms['f']['c'].value='" + escapeReference(string) + "'"));
+		}
+	}
+
+	/** Verifies that the methods creating expressions produce the same code as the original implementations. */
+	@Test
+	public void testExpressions() {
+		assertThat(getMethod("m"), is("m()"));
+		assertThat(getMethod("m", "a", "b", null), is("m(a,b,null)"));
+		assertThat(getObjectMethod("o", "m", "1"), is("o.m(1)"));
+		assertThat(getObjectProperty("o", "p"), is("o.p"));
+		assertThat(getObjectIndexedProperty("o", "p"), is("o['p']"));
+		assertThat(getFormVariable("f"), is("document.forms['f']"));
+		assertThat(getFormComponentVariable("f", "c"), is("document.forms['f']['c']"));
+		assertThat(alert("x"), is("alert(x)"));
+		assertThat(alertLiteral("it's"), is("alert('it\\'s')"));
+		assertThat(confirm("x"), is("confirm(x)"));
+		assertThat(confirmLiteral("it's"), is("confirm('it\\'s')"));
+		assertThat(submitForm("f"), is("document.forms['f'].submit()"));
+		assertThat(createNot("a"), is("!a"));
+	}
+
+	/** Verifies that the methods creating assignments produce the same code as the original implementations. */
+	@Test
+	public void testAssignments() {
+		assertThat(setValue("v", "1"), is("v=1"));
+		assertThat(setValue("v", null), is("v=null"));
+		assertThat(setLiteralValue("v", "it's"), is("v='it\\'s'"));
+		assertThat(setLiteralValue("v", null), is("v=null"));
+		assertThat(setFormComponentPropertyValue("f", "c", "p", "x"), is("document.forms['f']['c'].p=x"));
+		assertThat(setFormComponentPropertyValue("f", "c", "p", null), is("document.forms['f']['c'].p=null"));
+		assertThat(setFormComponentPropertyLiteralValue("f", "c", "value", "a\"b\\c\n\td\r"), is("document.forms['f']['c'].value='a\\\"b\\\\c\\n\\td\r'"));
+	}
+
+	/** Verifies that the methods creating statements produce the same code as the original implementations. */
+	@Test
+	public void testStatements() {
+		assertThat(createStatement("x"), is("x;"));
+		assertThat(createIf("a", "b"), is("if(a){b}"));
+		assertThat(createIf("a", "b", "c"), is("if(a){b}else{c}"));
+		assertThat(createIf("a", "b", null), is("if(a){b}"));
+		assertThat(returnValue(null), is("return null;"));
+		assertThat(returnValue(true), is("return true;"));
+	}
+
+	/** @see JavaScript#popupWindow(URI, String) */
+	@Test
+	public void testPopupWindow() {
+		assertThat("A URI and name with no characters to escape produce the same code as the original implementation.",
+				popupWindow(URI.create("http://example.com/a?b=c&d=%27"), "w"),
+				is("var win=window.open('http://example.com/a?b=c&d=%27','w','width=640,height=480,scrollbars=yes');if(window.focus){win.focus()};"));
+		assertThat("Characters in the URI and name are escaped.", popupWindow(URI.create("http://example.com/it's"), "a'b\\c"),
+				is("var win=window.open('http://example.com/it\\'s','a\\'b\\\\c','width=640,height=480,scrollbars=yes');if(window.focus){win.focus()};"));
+	}
+
+}
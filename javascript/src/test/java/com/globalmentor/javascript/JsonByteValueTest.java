@@ -0,0 +1,281 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+import com.globalmentor.javascript.JSON.DecimalMode;
+import com.globalmentor.text.ArgumentSyntaxException;
+
+/**
+ * Tests of {@link JsonByteValue}.
+ * @author Garret Wilson
+ */
+public class JsonByteValueTest {
+
+	/** The number of bytes examined at a time when indexing. */
+	private static final int WORD_SIZE = Long.BYTES;
+
+	/**
+	 * Parses JSON text encoded in UTF-8.
+	 * @param json The JSON text.
+	 * @return The parsed value.
+	 */
+	private static JsonByteValue parse(final String json) {
+		return JsonByteValue.parse(json.getBytes(UTF_8));
+	}
+
+	/**
+	 * Parses JSON text encoded in UTF-8 at some offset within a larger array, so that the JSON is not aligned with the array.
+	 * @param json The JSON text.
+	 * @param offset The number of bytes to place before the JSON.
+	 * @return The parsed value.
+	 */
+	private static JsonByteValue parse(final String json, final int offset) {
+		final byte[] jsonBytes = json.getBytes(UTF_8);
+		final byte[] bytes = new byte[offset + jsonBytes.length + offset];
+		Arrays.fill(bytes, (byte)'"'); //surrounding bytes that would be significant if read
+		System.arraycopy(jsonBytes, 0, bytes, offset, jsonBytes.length);
+		return JsonByteValue.parse(bytes, offset, jsonBytes.length);
+	}
+
+	/**
+	 * @see JsonByteValue#findMember(String)
+	 * @see JsonByteValue#get(int)
+	 */
+	@Test
+	public void testNavigation() {
+		final JsonByteValue root = parse(
+				" {\"user\":{\"name\":\"Jos\\u00e9\",\"age\":42},\"tags\":[\"a\",\"b\",{\"n\":[1,2]}],\"na\\u006de\":7,\"flag\":false,\"nothing\":null} ");
+		assertThat(root.getType(), is(JsonByteValue.Type.OBJECT));
+		assertThat(root.getSize(), is(5));
+		assertThat(root.findMember("user").flatMap(user -> user.findMember("name")).map(JsonByteValue::getString), is(Optional.of("José")));
+		assertThat(root.findMember("user").get().findMember("age").get().getNumber(), is(42));
+		assertThat("Escaped member names are matched.", root.findMember("name").get().getNumber(), is(7));
+		assertThat(root.findMember("zz"), is(Optional.empty()));
+		assertThat(root.findMember("flag").get().getType(), is(JsonByteValue.Type.BOOLEAN));
+		assertThat(root.findMember("flag").get().getBoolean(), is(false));
+		assertThat(root.findMember("nothing").get().isNull(), is(true));
+		assertThat(root.findMember("flag").get().isNull(), is(false));
+		assertThat(root.getMembers().keySet(), contains("user", "tags", "name", "flag", "nothing"));
+		final JsonByteValue tags = root.findMember("tags").get();
+		assertThat(tags.getType(), is(JsonByteValue.Type.ARRAY));
+		assertThat(tags.getSize(), is(3));
+		assertThat(tags.get(1).getString(), is("b"));
+		assertThat(tags.get(2).getType(), is(JsonByteValue.Type.OBJECT));
+		assertThat(tags.get(2).findMember("n").get().get(1).getNumber(), is(2));
+		assertThat(tags.getElements().size(), is(3));
+		assertThat(tags.getElements().get(0).getString(), is("a"));
+		assertThrows(IndexOutOfBoundsException.class, () -> tags.get(3));
+		assertThrows(IndexOutOfBoundsException.class, () -> tags.get(-1));
+		assertThat(parse("[]").getSize(), is(0));
+		assertThat(parse("{}").getMembers(), is(Map.of()));
+		assertThat("The first of duplicate members is used.", parse("{\"a\":1,\"a\":2}").getMembers().get("a").getNumber(), is(1));
+	}
+
+	/** Verifies that accessing a value as the wrong type is rejected. */
+	@Test
+	public void testWrongTypeAccessRejected() {
+		final JsonByteValue value = parse("[1,\"s\",true]");
+		assertThrows(IllegalStateException.class, () -> value.findMember("a"));
+		assertThrows(IllegalStateException.class, value::getMembers);
+		assertThrows(IllegalStateException.class, value::getString);
+		assertThrows(IllegalStateException.class, value::getNumber);
+		assertThrows(IllegalStateException.class, value::getBoolean);
+		assertThrows(IllegalStateException.class, value.get(0)::getSize);
+		assertThrows(IllegalStateException.class, value.get(0)::getString);
+		assertThrows(IllegalStateException.class, value.get(1)::getNumber);
+		assertThrows(IllegalStateException.class, () -> value.get(2).get(0));
+		assertThrows(IllegalStateException.class, () -> parse("{}").getElements());
+	}
+
+	/**
+	 * @see JsonByteValue#getNumber()
+	 * @see JsonByteValue#getNumber(DecimalMode)
+	 */
+	@Test
+	public void testNumbers() {
+		final JsonByteValue value = parse("[0,-0,2147483648,-9223372036854775808,9223372036854775808,1.5,-2e-3,0.1]");
+		assertThat(value.toValue(), is(List.of(0, 0, 2147483648L, Long.MIN_VALUE, new BigInteger("9223372036854775808"), 1.5, -2e-3, 0.1)));
+		assertThat(value.get(5).getNumber(DecimalMode.BIG_DECIMAL), is(new BigDecimal("1.5")));
+		assertThat(value.get(6).getNumber(DecimalMode.BIG_DECIMAL), is(new BigDecimal("-2e-3")));
+		assertThat(value.get(2).getNumber(DecimalMode.BIG_DECIMAL), is(2147483648L));
+	}
+
+	/** Verifies that invalid JSON is rejected, whether when parsing or when the invalid value is accessed. */
+	@Test
+	public void testErrors() {
+		for(final String json : List.of("", "  ", "[1,]", "[,1]", "{\"a\"}", "{\"a\":}", "{a:1}", "[1 2]", "01", "1.", "tru", "nulll", "[1]]", "[1}", "{\"a\":1",
+				"\"abc", "\\", "[1] x", "1 2", "\"\\x\"", "\"\\u12g4\"", "{\"a\":1,}", "[\"a\" \"b\"]", "{\"a\" 1}", "{,}", "[-]")) {
+			assertThrows(ArgumentSyntaxException.class, () -> parse(json).toValue(), json);
+		}
+		assertThrows(IndexOutOfBoundsException.class, () -> JsonByteValue.parse(new byte[4], 2, 3));
+	}
+
+	/** Verifies that values are the same as those from {@link JSON#parseValue(CharSequence)} for a variety of JSON. */
+	@Test
+	public void testToValueMatchesParseValue() {
+		for(final String json : List.of("1", "-0", "0.5e10", "  true ", "false", "null", "\"\"", "\"a\"", "\"h\\u00e9llo\\n\\\"q\\\\\"", "[]", "{}", " [ 1 , 2 ,3] ",
+				"{\"a\":1,\"b\":[true,false,null,{\"c\":\"ü€😀\"}]}", "[[[[[[[[1]]]]]]]]", "{\"x\\\"y\":\"z\\\\\"}", "[\"\\\\\",\"\\\\\\\"\"]",
+				"12345678901234567890", "[1.5,-2e-3]", "{\"k\" : { } , \"l\" : [ ] }")) {
+			assertThat(json, parse(json).toValue(), is(JSON.parseValue(json.trim())));
+		}
+	}
+
+	/**
+	 * Verifies that escapes, quotation marks, backslashes, and multi-byte characters are handled correctly at every position relative to the words examined
+	 * during indexing.
+	 */
+	@Test
+	public void testStringsStraddleWords() {
+		final String[] parts = {"\\\"", "\\\\", "\\\\\\\"", "\\\"\\\\", "\\\\\\\\\\\\\\\\\\\\", "\\u0041", "\\uD83D\\uDE00", "é", "€", "😀", "[", "}", ":", ",",
+				"\\/\\b\\f\\n\\r\\t"};
+		for(int alignment = 0; alignment < WORD_SIZE; alignment++) {
+			for(int offset = 0; offset < WORD_SIZE * 2 + 1; offset++) {
+				for(final String part : parts) {
+					final String string = "\"" + "x".repeat(offset) + part + "\"";
+					final String json = "{" + string + ":[" + string + "," + "\"" + part.repeat(WORD_SIZE) + "\"],\"z\":{" + string + ":" + string + "}}";
+					final String message = "Alignment " + alignment + ": " + json;
+					final JsonByteValue value = parse(json, alignment);
+					final Object expected = JSON.parseValue(json);
+					assertThat(message, value.toValue(), is(expected));
+					final String name = (String)JSON.parseValue(string);
+					assertThat(message, value.findMember(name).get().get(0).getString(), is(name));
+					assertThat(message, value.getSize(), is(2));
+					assertThat(message, value.findMember(name).get().getSize(), is(2));
+				}
+			}
+		}
+	}
+
+	/** Verifies that strings ending with runs of backslashes of every length are terminated correctly at every position relative to word boundaries. */
+	@Test
+	public void testBackslashRunsStraddleWords() {
+		for(int alignment = 0; alignment < WORD_SIZE; alignment++) {
+			for(int offset = 0; offset < WORD_SIZE * 2 + 1; offset++) {
+				for(int backslashPairCount = 0; backslashPairCount < WORD_SIZE * 2; backslashPairCount++) {
+					final String backslashes = "\\\\".repeat(backslashPairCount);
+					final String json = "[\"" + "x".repeat(offset) + backslashes + "\",\"" + backslashes + "\\\"" + "\",1]";
+					final JsonByteValue value = parse(json, alignment);
+					assertThat("Alignment " + alignment + ": " + json, value.toValue(), is(JSON.parseValue(json)));
+					assertThat(json, value.getSize(), is(3));
+					assertThat(json, value.get(1).getString(), is("\\".repeat(backslashPairCount) + "\""));
+				}
+			}
+		}
+	}
+
+	/** Verifies that multi-byte UTF-8 characters are decoded correctly, including in member names. */
+	@Test
+	public void testMultiByteUtf8() {
+		final JsonByteValue value = parse("{\"ü€😀\":\"é\u0080\u07ff\u0800\uffff😀\",\"\\u00fc\\u20ac\\ud83d\\ude00\":1}");
+		assertThat("Escaped and unescaped names are the same.", value.getMembers().keySet(), contains("ü€😀"));
+		assertThat(value.findMember("ü€😀").get().getString(), is("é\u0080\u07ff\u0800\uffff😀"));
+		assertThat(value.findMember("ü€").isPresent(), is(false));
+		assertThat(value.findMember("ü€😀x").isPresent(), is(false));
+	}
+
+	/** @see JsonByteValue#parse(ByteBuffer) */
+	@Test
+	public void testByteBuffer() {
+		final byte[] bytes = "xx{\"name\":\"José €😀\"}".getBytes(UTF_8);
+		final ByteBuffer heapByteBuffer = ByteBuffer.wrap(bytes);
+		heapByteBuffer.position(2);
+		assertThat(JsonByteValue.parse(heapByteBuffer).toValue(), is(Map.of("name", "José €😀")));
+		assertThat("The buffer position is not changed.", heapByteBuffer.position(), is(2));
+		final ByteBuffer directByteBuffer = ByteBuffer.allocateDirect(bytes.length);
+		directByteBuffer.put(bytes).flip().position(2);
+		assertThat(JsonByteValue.parse(directByteBuffer).toValue(), is(Map.of("name", "José €😀")));
+		assertThat(directByteBuffer.position(), is(2));
+	}
+
+	//# lazy views
+
+	/**
+	 * @see JsonByteValue#asValue()
+	 * @see JsonByteValue#asMap()
+	 */
+	@Test
+	public void testMapView() {
+		final String json = "{\"user\":{\"name\":\"Jos\\u00e9\",\"age\":42},\"tags\":[\"a\",\"b\",{\"n\":[1,2,null]}],\"na\\u006de\":7,\"name\":8,\"z\":null}";
+		final Map<String, Object> map = parse(json).asMap();
+		assertThat("The last of duplicate members is used.", map.get("name"), is(8));
+		assertThat(map.containsKey("z"), is(true));
+		assertThat(map.get("z"), is(nullValue()));
+		assertThat(map.containsKey("zz"), is(false));
+		assertThat(map.get("zz"), is(nullValue()));
+		assertThat(map.get(1), is(nullValue()));
+		assertThat(map.isEmpty(), is(false));
+		assertThat(((Map<?, ?>)map.get("user")).get("name"), is("José"));
+		assertThat("Converted values are retained.", map.get("user"), is(sameInstance(map.get("user"))));
+		assertThat(map.size(), is(4));
+		assertThat(map.keySet(), contains("user", "tags", "name", "z"));
+		final Object value = JSON.parseValue(json);
+		assertThat(map, is(value));
+		assertThat(value, is(map));
+		assertThat(map.hashCode(), is(value.hashCode()));
+		assertThrows(UnsupportedOperationException.class, () -> map.put("a", 1));
+		assertThrows(UnsupportedOperationException.class, () -> map.remove("user"));
+		assertThat(parse("{}").asMap().isEmpty(), is(true));
+		assertThrows(IllegalStateException.class, () -> parse("[]").asMap());
+	}
+
+	/**
+	 * @see JsonByteValue#asValue()
+	 * @see JsonByteValue#asList()
+	 */
+	@Test
+	public void testListView() {
+		final List<Object> list = parse("[\"a\",\"b\",{\"n\":[1,2,null]},[],1.5]").asList();
+		assertThat(list.size(), is(5));
+		assertThat(list, is(instanceOf(RandomAccess.class)));
+		assertThat(list.get(2), is(Map.of("n", Arrays.asList(1, 2, null))));
+		assertThat("Converted values are retained.", list.get(2), is(sameInstance(list.get(2))));
+		assertThat(list.get(3), is(List.of()));
+		assertThat(list, is(JSON.parseValue("[\"a\",\"b\",{\"n\":[1,2,null]},[],1.5]")));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(5));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+		assertThrows(UnsupportedOperationException.class, () -> list.add("c"));
+		assertThrows(UnsupportedOperationException.class, () -> list.set(0, "c"));
+		assertThrows(IllegalStateException.class, () -> parse("{}").asList());
+		assertThat("Scalars are converted immediately.", parse("\"s\"").asValue(), is("s"));
+		assertThat(parse("null").asValue(), is(nullValue()));
+	}
+
+	/** Verifies that errors within objects and arrays are reported only when the views containing them are accessed. */
+	@Test
+	public void testViewErrorsDeferred() {
+		final Map<String, Object> map = parse("{\"a\":1,\"b\":[1,],\"c\":{\"d\" 2},\"e\":\"\\x\"}").asMap();
+		assertThat(map.get("a"), is(1));
+		final List<?> list = (List<?>)map.get("b");
+		assertThrows(ArgumentSyntaxException.class, list::size);
+		final Map<?, ?> object = (Map<?, ?>)map.get("c");
+		assertThrows(ArgumentSyntaxException.class, () -> object.get("d"));
+		assertThrows(ArgumentSyntaxException.class, () -> map.get("e"));
+		assertThrows(ArgumentSyntaxException.class, () -> JsonByteValue.parse("{\"a\":1,\"b\":[1,]}".getBytes(UTF_8)).toValue());
+	}
+
+}
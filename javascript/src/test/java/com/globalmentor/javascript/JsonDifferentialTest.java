@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.*;
+import java.util.*;
+
+import javax.annotation.*;
+
+import org.junit.jupiter.api.*;
+
+/**
+ * Differential tests comparing the JSON implementations with {@link JSON#parseValue(CharSequence)} for random JSON generated by {@link JsonTestData}.
+ * @author Garret Wilson
+ */
+public class JsonDifferentialTest {
+
+	/** The number of random JSON values to compare for each implementation. */
+	private static final int ITERATION_COUNT = 5000;
+
+	/**
+	 * An implementation under test, producing a value from JSON text.
+	 * @author Garret Wilson
+	 */
+	@FunctionalInterface
+	private interface JsonImplementation {
+
+		/**
+		 * Produces the value represented by the given JSON text.
+		 * @param json The JSON text.
+		 * @param iteration The index of the comparison, which implementations may use to vary configuration such as buffer sizes.
+		 * @return The value produced by the implementation.
+		 * @throws IOException if the implementation reports an I/O error.
+		 */
+		public Object apply(@Nonnull String json, int iteration) throws IOException;
+
+	}
+
+	/**
+	 * Asserts that an implementation produces the same values as {@link JSON#parseValue(CharSequence)} for a sequence of random JSON values.
+	 * @param seed The seed for generating the random JSON.
+	 * @param implementation The implementation under test.
+	 * @throws IOException if the implementation reports an I/O error.
+	 */
+	private static void assertMatchesParseValue(final long seed, @Nonnull final JsonImplementation implementation) throws IOException {
+		final Random random = new Random(seed);
+		for(int i = 0; i < ITERATION_COUNT; i++) {
+			final String json = JsonTestData.generateValue(random);
+			assertThat(json, implementation.apply(json, i), is(JSON.parseValue(json)));
+		}
+	}
+
+	/** @see JsonParser#readValue() */
+	@Test
+	public void testJsonParser() throws IOException {
+		assertMatchesParseValue(42, (json, iteration) -> {
+			final int bufferSize = iteration % 2 == 0 ? 1 + iteration % 7 : JsonParser.DEFAULT_BUFFER_SIZE;
+			try (final JsonParser parser = new JsonParser(new StringReader(json), bufferSize)) {
+				final Object value = parser.readValue();
+				assertThat(json, parser.hasNext(), is(false));
+				return value;
+			}
+		});
+	}
+
+	/** Verifies that values written by {@link JsonWriter#writeValue(Object)} and parsed back are unchanged. */
+	@Test
+	public void testJsonWriterRoundTrip() throws IOException {
+		assertMatchesParseValue(45, (json, iteration) -> {
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			try (final JsonWriter writer = new JsonWriter(outputStream, JsonWriter.MIN_BUFFER_SIZE + iteration % 8)) {
+				writer.writeValue(JSON.parseValue(json));
+			}
+			return JSON.parseValue(new String(outputStream.toByteArray(), UTF_8));
+		});
+	}
+
+	/** Verifies that values serialized by {@link JsonSerializer} and parsed back are unchanged. */
+	@Test
+	public void testJsonSerializerRoundTrip() throws IOException {
+		final JsonSerializer serializer = JsonSerializer.builder().reflective(true).build();
+		assertMatchesParseValue(46, (json, iteration) -> {
+			final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			serializer.serialize(outputStream, JSON.parseValue(json));
+			return JSON.parseValue(new String(outputStream.toByteArray(), UTF_8));
+		});
+	}
+
+	/**
+	 * Parses JSON text encoded in UTF-8 at some offset within a larger array, so that the JSON is not aligned with the words examined when indexing.
+	 * @param json The JSON text.
+	 * @param iteration The index of the comparison, determining the offset.
+	 * @return The parsed value.
+	 */
+	private static JsonByteValue parseUnaligned(@Nonnull final String json, final int iteration) {
+		final byte[] jsonBytes = json.getBytes(UTF_8);
+		final int offset = iteration % Long.BYTES;
+		final byte[] bytes = new byte[offset + jsonBytes.length + offset];
+		Arrays.fill(bytes, (byte)'"'); //surrounding bytes that would be significant if read
+		System.arraycopy(jsonBytes, 0, bytes, offset, jsonBytes.length);
+		return JsonByteValue.parse(bytes, offset, jsonBytes.length);
+	}
+
+	/** @see JsonByteValue#toValue() */
+	@Test
+	public void testJsonByteValue() throws IOException {
+		assertMatchesParseValue(47, (json, iteration) -> parseUnaligned(json, iteration).toValue());
+	}
+
+	/** Verifies that the lazy views are equal to the parsed values in both directions. */
+	@Test
+	public void testJsonByteValueViews() throws IOException {
+		assertMatchesParseValue(48, (json, iteration) -> {
+			final Object value = parseUnaligned(json, iteration).asValue();
+			assertThat(json, JSON.parseValue(json), is(value));
+			return value;
+		});
+	}
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static com.globalmentor.javascript.JsonParser.Event.*;
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.math.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+import com.globalmentor.javascript.JSON.DecimalMode;
+
+/**
+ * Tests of {@link JsonParser}.
+ * @author Garret Wilson
+ */
+public class JsonParserTest {
+
+	/** The buffer sizes with which to test, including sizes small enough that tokens straddle buffer refills. */
+	private static final int[] BUFFER_SIZES = {1, 2, 3, 7, JsonParser.DEFAULT_BUFFER_SIZE};
+
+	/**
+	 * Parses all the events of the given JSON text.
+	 * @param json The JSON text.
+	 * @param bufferSize The size of the parser buffer.
+	 * @return The events, with the text of names, strings, and numbers following the respective event.
+	 * @throws IOException if the JSON is not valid.
+	 */
+	private static List<Object> parseEvents(final String json, final int bufferSize) throws IOException {
+		final List<Object> events = new ArrayList<>();
+		try (final JsonParser parser = new JsonParser(new StringReader(json), bufferSize)) {
+			while(parser.hasNext()) {
+				final JsonParser.Event event = parser.next();
+				events.add(event);
+				switch(event) {
+					case NAME:
+					case STRING:
+					case NUMBER:
+						events.add(parser.getString());
+						break;
+					case BOOLEAN:
+						events.add(parser.getBoolean());
+						break;
+					default:
+						break;
+				}
+			}
+		}
+		return events;
+	}
+
+	/** @see JsonParser#next() */
+	@Test
+	public void testEvents() throws IOException {
+		final String json = " {\"a\" : [1, true, null, \"s\\\"t\", {}], \"b\":-1.5e2, \"c\":false} ";
+		for(final int bufferSize : BUFFER_SIZES) {
+			assertThat("Buffer size " + bufferSize, parseEvents(json, bufferSize),
+					is(List.of(START_OBJECT, NAME, "a", START_ARRAY, NUMBER, "1", BOOLEAN, true, NULL, STRING, "s\"t", START_OBJECT, END_OBJECT, END_ARRAY, NAME, "b",
+							NUMBER, "-1.5e2", NAME, "c", BOOLEAN, false, END_OBJECT)));
+		}
+	}
+
+	/**
+	 * @see JsonParser#getDepth()
+	 * @see JsonParser#getEvent()
+	 */
+	@Test
+	public void testDepth() throws IOException {
+		try (final JsonParser parser = new JsonParser(new StringReader("[{\"a\":[]}]"))) {
+			assertThat(parser.getEvent(), is(nullValue()));
+			assertThat(parser.getDepth(), is(0));
+			assertThat(parser.next(), is(START_ARRAY));
+			assertThat(parser.getDepth(), is(1));
+			assertThat(parser.next(), is(START_OBJECT));
+			assertThat(parser.getDepth(), is(2));
+			assertThat(parser.next(), is(NAME));
+			assertThat(parser.getDepth(), is(2));
+			assertThat(parser.next(), is(START_ARRAY));
+			assertThat(parser.getDepth(), is(3));
+			assertThat(parser.next(), is(END_ARRAY));
+			assertThat(parser.getEvent(), is(END_ARRAY));
+			assertThat(parser.getDepth(), is(2));
+			assertThat(parser.next(), is(END_OBJECT));
+			assertThat(parser.next(), is(END_ARRAY));
+			assertThat(parser.getDepth(), is(0));
+			assertThat(parser.hasNext(), is(false));
+			assertThrows(NoSuchElementException.class, parser::next);
+		}
+	}
+
+	/** Verifies that nesting deeper than the initial container stack is supported. */
+	@Test
+	public void testDeepNesting() throws IOException {
+		final int depth = 1000;
+		final String json = "[".repeat(depth) + "{\"a\":1}" + "]".repeat(depth);
+		try (final JsonParser parser = new JsonParser(new StringReader(json), 16)) {
+			Object value = parser.readValue();
+			assertThat(parser.getDepth(), is(0));
+			for(int i = 0; i < depth; i++) {
+				assertThat(value, is(instanceOf(List.class)));
+				value = ((List<?>)value).get(0);
+			}
+			assertThat(value, is(Map.of("a", 1)));
+		}
+		final String unbalancedJson = "[".repeat(depth) + "]".repeat(depth - 1) + "}";
+		assertThrows(IOException.class, () -> parseEvents(unbalancedJson, 16));
+	}
+
+	/** @see JsonParser#hasNext() */
+	@Test
+	public void testTopLevelValueSequence() throws IOException {
+		try (final JsonParser parser = new JsonParser(new StringReader("1 [2]\n{\"a\":3}\r\n\"four\"\n"))) {
+			final List<Object> values = new ArrayList<>();
+			while(parser.hasNext()) {
+				values.add(parser.readValue());
+			}
+			assertThat(values, is(List.of(1, List.of(2), Map.of("a", 3), "four")));
+		}
+	}
+
+	/** @see JsonParser#skipValue() */
+	@Test
+	public void testSkipValue() throws IOException {
+		try (final JsonParser parser = new JsonParser(new StringReader("{\"skip\":{\"x\":[1,{\"y\":2}]},\"keep\":[3],\"also\":4}"))) {
+			assertThat(parser.next(), is(START_OBJECT));
+			assertThat(parser.next(), is(NAME));
+			parser.skipValue();
+			assertThat(parser.getEvent(), is(END_OBJECT));
+			assertThat(parser.getDepth(), is(1));
+			assertThat(parser.next(), is(NAME));
+			assertThat(parser.getString(), is("keep"));
+			assertThat(parser.getValue(), is(List.of(3)));
+			assertThat(parser.next(), is(NAME));
+			parser.skipValue();
+			assertThat(parser.getEvent(), is(NUMBER));
+			assertThat(parser.next(), is(END_OBJECT));
+		}
+	}
+
+	/** Verifies that strings are decoded correctly, including escapes and surrogate pairs straddling buffer refills. */
+	@Test
+	public void testStrings() throws IOException {
+		final String json = "[\"\", \"a\\\"b\\\\c\\/d\", \"\\b\\f\\n\\r\\t\", \"\\u0041\\u00E9\\u20ac\", \"\\uD83D\\uDE00\", \"é€😀\"]";
+		for(final int bufferSize : BUFFER_SIZES) {
+			try (final JsonParser parser = new JsonParser(new StringReader(json), bufferSize)) {
+				assertThat("Buffer size " + bufferSize, parser.readValue(), is(List.of("", "a\"b\\c/d", "\b\f\n\r\t", "Aé€", "😀", "é€😀")));
+			}
+		}
+	}
+
+	/**
+	 * @see JsonParser#getNumber()
+	 * @see JsonParser#setDecimalMode(DecimalMode)
+	 */
+	@Test
+	public void testNumbers() throws IOException {
+		final String json = "[0, -0, 2147483647, 2147483648, -9223372036854775808, 9223372036854775808, 1.5, -2e-3, 0.1]";
+		try (final JsonParser parser = new JsonParser(new StringReader(json), 5)) {
+			assertThat(parser.readValue(), is(List.of(0, 0, Integer.MAX_VALUE, 2147483648L, Long.MIN_VALUE, new BigInteger("9223372036854775808"), 1.5, -2e-3, 0.1)));
+		}
+		try (final JsonParser parser = new JsonParser(new StringReader(json), 5)) {
+			parser.setDecimalMode(DecimalMode.BIG_DECIMAL);
+			assertThat(parser.readValue(), is(List.of(0, 0, Integer.MAX_VALUE, 2147483648L, Long.MIN_VALUE, new BigInteger("9223372036854775808"),
+					new BigDecimal("1.5"), new BigDecimal("-2e-3"), new BigDecimal("0.1"))));
+		}
+	}
+
+	/** Verifies that syntax errors are reported at the correct character offset, regardless of buffering. */
+	@Test
+	public void testErrorOffsets() {
+		final Map<String, Integer> errorOffsets = new LinkedHashMap<>();
+		errorOffsets.put("]", 0);
+		errorOffsets.put("{1:2}", 1);
+		errorOffsets.put("[1}", 2);
+		errorOffsets.put("[01]", 2);
+		errorOffsets.put("[-]", 2);
+		errorOffsets.put("[1,]", 3);
+		errorOffsets.put("[1 2]", 3);
+		errorOffsets.put("[1.]", 3);
+		errorOffsets.put("[\"a\nb\"]", 3);
+		errorOffsets.put("\"abc", 4);
+		errorOffsets.put("{\"a\" 1}", 5);
+		errorOffsets.put("{\"a\":1,}", 7);
+		errorOffsets.put("{\"a\":\"\\x\"}", 7);
+		errorOffsets.forEach((json, offset) -> {
+			for(final int bufferSize : BUFFER_SIZES) {
+				final IOException ioException = assertThrows(IOException.class, () -> parseEvents(json, bufferSize), json);
+				assertThat(json, ioException.getMessage(), endsWith("(character offset " + offset + ")"));
+			}
+		});
+	}
+
+	/** @see JsonParser#getString() */
+	@Test
+	public void testWrongEventAccessRejected() throws IOException {
+		try (final JsonParser parser = new JsonParser(new StringReader("[true]"))) {
+			assertThrows(IllegalStateException.class, parser::getValue);
+			parser.next();
+			assertThrows(IllegalStateException.class, parser::getString);
+			assertThrows(IllegalStateException.class, parser::getNumber);
+			assertThrows(IllegalStateException.class, parser::getBoolean);
+			parser.next();
+			assertThat(parser.getBoolean(), is(true));
+			parser.next();
+			assertThrows(IllegalStateException.class, parser::getValue);
+		}
+	}
+
+	/**
+	 * @see JsonParser#JsonParser(InputStream)
+	 * @see JsonParser#JsonParser(ByteBuffer)
+	 */
+	@Test
+	public void testUtf8Input() throws IOException {
+		final byte[] bytes = "{\"name\":\"José €😀\"}".getBytes(UTF_8);
+		try (final JsonParser parser = new JsonParser(new ByteArrayInputStream(bytes))) {
+			assertThat(parser.readValue(), is(Map.of("name", "José €😀")));
+		}
+		final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+		try (final JsonParser parser = new JsonParser(byteBuffer)) {
+			assertThat(parser.readValue(), is(Map.of("name", "José €😀")));
+		}
+		assertThat(byteBuffer.hasRemaining(), is(false));
+	}
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.net.URI;
+import java.time.DayOfWeek;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests of {@link JsonSerializer}.
+ * @author Garret Wilson
+ */
+public class JsonSerializerTest {
+
+	/**
+	 * Serializes a value and decodes the result.
+	 * @param serializer The serializer to use.
+	 * @param value The value to serialize.
+	 * @return The JSON serialization, decoded from UTF-8.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static String serialize(final JsonSerializer serializer, final Object value) throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		serializer.serialize(outputStream, value);
+		return new String(outputStream.toByteArray(), UTF_8);
+	}
+
+	/** A value with JavaBeans-style properties. */
+	public static class Person {
+
+		public String getName() {
+			return "Jane \"JJ\" Doe";
+		}
+
+		public int getAge() {
+			return 42;
+		}
+
+		public boolean isActive() {
+			return true;
+		}
+
+		public URI getURL() {
+			return URI.create("https://example.com/");
+		}
+
+		public List<Object> getTags() {
+			return Arrays.asList("a", null, DayOfWeek.MONDAY);
+		}
+
+		public Person getFriend() {
+			return null;
+		}
+
+		public Boolean isIgnored() { //only primitive boolean "is" getters are properties
+			return Boolean.TRUE;
+		}
+
+		public String get() {
+			return "not a property";
+		}
+
+		public String getter(final String parameter) {
+			return "not a property";
+		}
+
+		public static String getStatic() {
+			return "not a property";
+		}
+
+	}
+
+	/** A value of a non-public class. */
+	private static class Point {
+
+		@SuppressWarnings("unused")
+		public int getX() {
+			return 1;
+		}
+
+		@SuppressWarnings("unused")
+		public int getY() {
+			return 2;
+		}
+
+	}
+
+	/** A value having a property that throws an exception. */
+	public static class Broken {
+
+		public String getValue() {
+			throw new IllegalStateException("broken");
+		}
+
+	}
+
+	/** Verifies that without registered writers values are serialized as by {@link JsonWriter#writeValue(Object)}. */
+	@Test
+	public void testDefaultSerialization() throws IOException {
+		final JsonSerializer serializer = JsonSerializer.builder().build();
+		final Person person = new Person();
+		final Map<String, Object> map = new LinkedHashMap<>();
+		map.put("string", "a\"b\\c/d\n");
+		map.put("null", null);
+		map.put("list", List.of(1, 2.5, true, List.of()));
+		map.put("objects", new Object[] {"x", null});
+		map.put("ints", new int[] {1, 2});
+		map.put("person", person);
+		assertThat(serialize(serializer, map), is("{\"string\":\"a\\\"b\\\\c\\/d\\n\",\"null\":null,\"list\":[1,2.5,true,[]],\"objects\":[\"x\",null],\"ints\":[1,2],"
+				+ "\"person\":" + JSON.serialize(person.toString()) + "}"));
+		assertThat(serialize(serializer, null), is("null"));
+	}
+
+	/** @see JsonSerializer.Builder#reflective(boolean) */
+	@Test
+	public void testReflectiveSerialization() throws IOException {
+		final JsonSerializer serializer = JsonSerializer.builder().reflective(true).build();
+		assertThat(serialize(serializer, new Person()),
+				is("{\"URL\":\"https:\\/\\/example.com\\/\",\"active\":true,\"age\":42,\"friend\":null,\"name\":\"Jane \\\"JJ\\\" Doe\",\"tags\":[\"a\",null,\"MONDAY\"]}"));
+		assertThat("Public getters of non-public classes are accessible.", serialize(serializer, List.of(new Point())), is("[{\"x\":1,\"y\":2}]"));
+		assertThat("Library types are not serialized reflectively.", serialize(serializer, URI.create("https://example.com/")), is("\"https:\\/\\/example.com\\/\""));
+		final IllegalStateException exception = assertThrows(IllegalStateException.class, () -> serialize(serializer, new Broken()));
+		assertThat(exception.getMessage(), is("broken"));
+	}
+
+	/** @see JsonSerializer.Builder#register(Class, JsonValueWriter) */
+	@Test
+	public void testRegisteredWriters() throws IOException {
+		final JsonSerializer serializer = JsonSerializer.builder().reflective(true)
+				.register(Person.class, (s, writer, person) -> writer.writeStartObject().writeName("name").writeString(person.getName()).writeEndObject())
+				.register(CharSequence.class, (s, writer, charSequence) -> writer.writeString(charSequence.toString().toUpperCase()))
+				.register(Point.class, (s, writer, point) -> s.serialize(writer, List.of(point.getX(), "y")))
+				.register(Number.class, (s, writer, number) -> writer.writeLong(number.longValue() * 10)).build();
+		assertThat(serialize(serializer, new Person()), is("{\"name\":\"Jane \\\"JJ\\\" Doe\"}"));
+		assertThat("Registered writers apply to subclasses.", serialize(serializer, new Person() {}), is("{\"name\":\"Jane \\\"JJ\\\" Doe\"}"));
+		assertThat("Registered writers apply to implementations of interfaces.", serialize(serializer, new StringBuilder("sb")), is("\"SB\""));
+		assertThat("Nested values are written using registered writers.", serialize(serializer, Map.of("point", new Point())), is("{\"point\":[10,\"Y\"]}"));
+		assertThat(serialize(serializer, new Object[] {"a", 1, null}), is("[\"A\",10,null]"));
+	}
+
+	/** Verifies that the writer for each class is resolved only once. */
+	@Test
+	public void testWriterCachedPerClass() throws IOException {
+		final List<Class<?>> resolvedTypes = new ArrayList<>();
+		final JsonSerializer serializer = new JsonSerializer(JsonSerializer.builder().reflective(true)) {
+			@Override
+			protected JsonValueWriter<Object> resolveWriter(final Class<?> type) {
+				resolvedTypes.add(type);
+				return super.resolveWriter(type);
+			}
+		};
+		final List<Object> values = List.of(new Point(), new Point(), "s", 1, 2);
+		for(int i = 0; i < 3; i++) {
+			assertThat(serialize(serializer, values), is("[{\"x\":1,\"y\":2},{\"x\":1,\"y\":2},\"s\",1,2]"));
+		}
+		assertThat(resolvedTypes, containsInAnyOrder(values.getClass(), Point.class, String.class, Integer.class));
+		final Point point = new Point();
+		assertThat("Each serializer has its own writers.", serialize(JsonSerializer.builder().build(), point), is(JSON.serialize(point.toString())));
+	}
+
+	/** Verifies that unpaired surrogates survive serialization and parsing. */
+	@Test
+	public void testUnpairedSurrogatesRoundTrip() throws IOException {
+		final String unpairedSurrogates = "😀\ud83d|\ude00";
+		assertThat(JSON.parseValue(serialize(JsonSerializer.builder().build(), List.of(unpairedSurrogates))), is(List.of(unpairedSurrogates)));
+	}
+
+	/** A record with components to be written in order of declaration. */
+	private record Range(int low, int high, String label) {
+
+		/** @return A value that is not a component. */
+		@SuppressWarnings("unused")
+		public int getWidth() {
+			return high - low;
+		}
+
+	}
+
+	/** A record with nested records. */
+	public record Segment(Range range, List<Range> gaps, boolean closed) {
+	}
+
+	/**
+	 * @see JsonSerializer.Builder#reflective(boolean)
+	 * @see Class#isRecord()
+	 */
+	@Test
+	public void testRecordSerialization() throws IOException {
+		final JsonSerializer serializer = JsonSerializer.builder().reflective(true).build();
+		assertThat("Components are written in order of declaration, and only components are written.", serialize(serializer, new Range(3, 1, "z\"a")),
+				is("{\"low\":3,\"high\":1,\"label\":\"z\\\"a\"}"));
+		final Segment segment = new Segment(new Range(0, 10, "whole"), List.of(new Range(2, 3, null), new Range(5, 7, "b")), true);
+		assertThat(serialize(serializer, segment), is("{\"range\":{\"low\":0,\"high\":10,\"label\":\"whole\"},"
+				+ "\"gaps\":[{\"low\":2,\"high\":3,\"label\":null},{\"low\":5,\"high\":7,\"label\":\"b\"}],\"closed\":true}"));
+		final Range range = new Range(1, 2, "a");
+		assertThat("Records are written as strings unless reflection is enabled.", serialize(JsonSerializer.builder().build(), range),
+				is(JSON.serialize(range.toString())));
+		assertThat("Registered writers take precedence for records.",
+				serialize(JsonSerializer.builder().reflective(true).register(Range.class, (s, writer, r) -> s.serialize(writer, r.label())).build(), segment),
+				is("{\"range\":\"whole\",\"gaps\":[null,\"b\"],\"closed\":true}"));
+	}
+
+	/**
+	 * Creates the map expected from parsing a serialized {@link Range}.
+	 * @param low The low component.
+	 * @param high The high component.
+	 * @param label The label component, or <code>null</code>.
+	 * @return A map of the components.
+	 */
+	private static Map<String, Object> rangeMap(final int low, final int high, final String label) {
+		final Map<String, Object> map = new HashMap<>();
+		map.put("low", low);
+		map.put("high", high);
+		map.put("label", label);
+		return map;
+	}
+
+	/** Verifies that records serialized and parsed back produce maps of their components. */
+	@Test
+	public void testRecordRoundTrip() throws IOException {
+		final JsonSerializer serializer = JsonSerializer.builder().reflective(true).build();
+		final Segment segment = new Segment(new Range(-5, Integer.MAX_VALUE, "é€😀\n"), List.of(new Range(0, 0, ""), new Range(1, 2, null)), false);
+		assertThat(JSON.parseValue(serialize(serializer, segment)),
+				is(Map.of("range", rangeMap(-5, Integer.MAX_VALUE, "é€😀\n"), "gaps", List.of(rangeMap(0, 0, ""), rangeMap(1, 2, null)), "closed", false)));
+	}
+
+}
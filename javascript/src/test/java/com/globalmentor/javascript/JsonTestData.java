@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import javax.annotation.*;
+
+/**
+ * Generator of random JSON text for comparing JSON implementations with each other.
+ * @author Garret Wilson
+ */
+class JsonTestData {
+
+	/** The string contents from which random strings are assembled, including escapes, quotes, and multi-byte characters. */
+	private static final String[] STRING_PARTS = {"x", "abc", "\\\"", "\\\\", "\\/", "\\b\\f\\n\\r\\t", "\\u0041", "\\u00e9", "\\uD83D\\uDE00", "é", "€", "😀",
+			"[", "{", ":", ",", " "};
+
+	/** The maximum nesting depth of generated containers. */
+	private static final int MAX_DEPTH = 5;
+
+	/**
+	 * Generates the text of a random JSON value, with no leading whitespace.
+	 * @param random The source of randomness.
+	 * @return The JSON text.
+	 */
+	public static String generateValue(@Nonnull final Random random) {
+		final StringBuilder stringBuilder = new StringBuilder();
+		appendValue(random, stringBuilder, 0);
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Appends the text of a random JSON value.
+	 * @param random The source of randomness.
+	 * @param stringBuilder The string builder to which the value will be appended.
+	 * @param depth The depth of the value being generated.
+	 */
+	private static void appendValue(@Nonnull final Random random, @Nonnull final StringBuilder stringBuilder, final int depth) {
+		switch(random.nextInt(depth < MAX_DEPTH ? 8 : 5)) {
+			case 0:
+				stringBuilder.append(random.nextInt(2000) - 1000);
+				break;
+			case 1:
+				switch(random.nextInt(3)) {
+					case 0:
+						stringBuilder.append(random.nextInt());
+						break;
+					case 1:
+						stringBuilder.append(random.nextLong());
+						break;
+					default:
+						{
+							final BigInteger bigInteger = BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE).add(new BigInteger(random.nextInt(64), random)); //beyond the long range
+							stringBuilder.append(random.nextBoolean() ? bigInteger : bigInteger.negate().subtract(BigInteger.ONE));
+						}
+						break;
+				}
+				break;
+			case 2:
+				stringBuilder.append(random.nextBoolean() ? random.nextDouble() : -random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+				break;
+			case 3:
+				stringBuilder.append(random.nextBoolean() ? (random.nextBoolean() ? "true" : "false") : "null");
+				break;
+			case 4:
+				appendString(random, stringBuilder);
+				break;
+			case 5:
+			case 6:
+				{
+					stringBuilder.append('[');
+					for(int i = random.nextInt(5); i > 0; i--) {
+						appendWhitespace(random, stringBuilder);
+						appendValue(random, stringBuilder, depth + 1);
+						appendWhitespace(random, stringBuilder);
+						if(i > 1) {
+							stringBuilder.append(',');
+						}
+					}
+					stringBuilder.append(']');
+				}
+				break;
+			default:
+				{
+					stringBuilder.append('{');
+					for(int i = random.nextInt(5); i > 0; i--) {
+						appendWhitespace(random, stringBuilder);
+						stringBuilder.append("\"k").append(i).append('"');
+						appendWhitespace(random, stringBuilder);
+						stringBuilder.append(':');
+						appendWhitespace(random, stringBuilder);
+						appendValue(random, stringBuilder, depth + 1);
+						if(i > 1) {
+							stringBuilder.append(',');
+						}
+					}
+					stringBuilder.append('}');
+				}
+				break;
+		}
+	}
+
+	/**
+	 * Appends a random JSON string.
+	 * @param random The source of randomness.
+	 * @param stringBuilder The string builder to which the string will be appended.
+	 */
+	private static void appendString(@Nonnull final Random random, @Nonnull final StringBuilder stringBuilder) {
+		stringBuilder.append('"');
+		for(int i = random.nextInt(16); i > 0; i--) {
+			stringBuilder.append(STRING_PARTS[random.nextInt(STRING_PARTS.length)]);
+		}
+		stringBuilder.append('"');
+	}
+
+	/**
+	 * Appends random JSON whitespace, which may be empty.
+	 * @param random The source of randomness.
+	 * @param stringBuilder The string builder to which the whitespace will be appended.
+	 */
+	private static void appendWhitespace(@Nonnull final Random random, @Nonnull final StringBuilder stringBuilder) {
+		switch(random.nextInt(6)) {
+			case 0:
+				stringBuilder.append(' ');
+				break;
+			case 1:
+				stringBuilder.append("\r\n\t ");
+				break;
+			default:
+				break;
+		}
+	}
+
+}
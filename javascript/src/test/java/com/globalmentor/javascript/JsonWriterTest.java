@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.javascript;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.math.*;
+import java.nio.*;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+
+/**
+ * Tests of {@link JsonWriter}.
+ * @author Garret Wilson
+ */
+public class JsonWriterTest {
+
+	/** The buffer sizes with which to test, including the minimum so that strings straddle buffer transfers. */
+	private static final int[] BUFFER_SIZES = {JsonWriter.MIN_BUFFER_SIZE, JsonWriter.MIN_BUFFER_SIZE + 1, JsonWriter.DEFAULT_BUFFER_SIZE};
+
+	/** A source of JSON to be written using a writer. */
+	@FunctionalInterface
+	private interface JsonSource {
+
+		/**
+		 * Writes JSON.
+		 * @param writer The writer to use.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		void write(JsonWriter writer) throws IOException;
+	}
+
+	/**
+	 * Writes JSON to bytes and decodes the result.
+	 * @param bufferSize The size of the writer buffer.
+	 * @param source The source of the JSON.
+	 * @return The JSON written, decoded from UTF-8.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static String write(final int bufferSize, final JsonSource source) throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (final JsonWriter writer = new JsonWriter(outputStream, bufferSize)) {
+			source.write(writer);
+		}
+		return new String(outputStream.toByteArray(), UTF_8);
+	}
+
+	/**
+	 * Writes JSON to bytes and decodes the result using the default buffer size.
+	 * @param source The source of the JSON.
+	 * @return The JSON written, decoded from UTF-8.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static String write(final JsonSource source) throws IOException {
+		return write(JsonWriter.DEFAULT_BUFFER_SIZE, source);
+	}
+
+	/**
+	 * @see JsonWriter#writeStartObject()
+	 * @see JsonWriter#writeStartArray()
+	 * @see JsonWriter#writeName(CharSequence)
+	 */
+	@Test
+	public void testStructure() throws IOException {
+		assertThat(write(writer -> writer.writeStartObject().writeEndObject()), is("{}"));
+		assertThat(write(writer -> writer.writeStartArray().writeEndArray()), is("[]"));
+		assertThat(write(writer -> writer.writeStartObject().writeName("a").writeLong(1).writeName("b").writeStartArray().writeBoolean(true).writeNull()
+				.writeStartObject().writeEndObject().writeEndArray().writeName("c").writeString("x").writeEndObject()), is("{\"a\":1,\"b\":[true,null,{}],\"c\":\"x\"}"));
+		assertThat(write(writer -> writer.writeArray(new int[] {1, -2, 3}).writeArray(new long[] {}).writeArray(new double[] {0.5, -1.0})
+				.writeArray(new boolean[] {true, false})), is("[1,-2,3]\n[]\n[0.5,-1.0]\n[true,false]"));
+		final int depth = 100;
+		assertThat("Nesting deeper than the initial container stack is supported.",
+				write(writer -> {
+					for(int i = 0; i < depth; i++) {
+						writer.writeStartArray();
+					}
+					for(int i = 0; i < depth; i++) {
+						writer.writeEndArray();
+					}
+				}), is("[".repeat(depth) + "]".repeat(depth)));
+	}
+
+	/** Verifies that consecutive top-level values are written as JSON Lines that can be read back using {@link JsonParser}. */
+	@Test
+	public void testTopLevelValueSequence() throws IOException {
+		final String json = write(writer -> writer.writeLong(1).writeStartArray().writeLong(2).writeEndArray().writeValue(Map.of("a", 3)).writeString("four"));
+		assertThat(json, is("1\n[2]\n{\"a\":3}\n\"four\""));
+		try (final JsonParser parser = new JsonParser(new StringReader(json))) {
+			final List<Object> values = new ArrayList<>();
+			while(parser.hasNext()) {
+				values.add(parser.readValue());
+			}
+			assertThat(values, is(List.of(1, List.of(2), Map.of("a", 3), "four")));
+		}
+	}
+
+	/** Verifies that an invalid sequence of calls is rejected. */
+	@Test
+	public void testInvalidStructureRejected() throws IOException {
+		try (final JsonWriter writer = new JsonWriter(new ByteArrayOutputStream())) {
+			assertThrows(IllegalStateException.class, () -> writer.writeName("a"));
+			assertThrows(IllegalStateException.class, writer::writeEndArray);
+			writer.writeStartObject();
+			assertThrows(IllegalStateException.class, () -> writer.writeLong(1));
+			assertThrows(IllegalStateException.class, writer::writeEndArray);
+			writer.writeName("a");
+			assertThrows(IllegalStateException.class, () -> writer.writeName("b"));
+			assertThrows(IllegalStateException.class, writer::writeEndObject);
+			writer.writeStartArray();
+			assertThrows(IllegalStateException.class, () -> writer.writeName("c"));
+			assertThrows(IllegalStateException.class, writer::writeEndObject);
+		}
+		assertThrows(IllegalArgumentException.class, () -> new JsonWriter(new ByteArrayOutputStream(), JsonWriter.MIN_BUFFER_SIZE - 1));
+	}
+
+	/**
+	 * @see JsonWriter#writeLong(long)
+	 * @see JsonWriter#writeDouble(double)
+	 * @see JsonWriter#writeNumber(Number)
+	 */
+	@Test
+	public void testNumbers() throws IOException {
+		assertThat(write(writer -> writer.writeArray(new long[] {0, 7, -7, 10, -10, 1234567890123L, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE})),
+				is("[0,7,-7,10,-10,1234567890123,2147483647,-2147483648,9223372036854775807,-9223372036854775808]"));
+		assertThat(write(writer -> writer.writeArray(new double[] {0.0, -0.0, 1.0, 0.1, 1e22, 1e-7, Double.MAX_VALUE, Double.MIN_VALUE})),
+				is("[0.0,-0.0,1.0,0.1,1.0E22,1.0E-7,1.7976931348623157E308,4.9E-324]"));
+		assertThat(write(writer -> writer.writeStartArray().writeNumber((byte)-1).writeNumber((short)2).writeNumber(3).writeNumber(4L).writeNumber(0.1f)
+				.writeNumber(0.5).writeNumber(new BigInteger("123456789012345678901234567890")).writeNumber(new BigDecimal("1.10")).writeEndArray()),
+				is("[-1,2,3,4,0.1,0.5,123456789012345678901234567890,1.10]"));
+		try (final JsonWriter writer = new JsonWriter(new ByteArrayOutputStream())) {
+			assertThrows(IllegalArgumentException.class, () -> writer.writeDouble(Double.NaN));
+			assertThrows(IllegalArgumentException.class, () -> writer.writeDouble(Double.POSITIVE_INFINITY));
+			assertThrows(IllegalArgumentException.class, () -> writer.writeNumber(Float.NEGATIVE_INFINITY));
+			assertThrows(IllegalArgumentException.class, () -> writer.writeArray(new double[] {Double.NaN}));
+		}
+	}
+
+	/** @see JsonWriter#writeString(CharSequence) */
+	@Test
+	public void testStringEscapes() throws IOException {
+		assertThat(write(writer -> writer.writeString("")), is("\"\""));
+		assertThat(write(writer -> writer.writeString("a\"b\\c/d\b\f\n\r\t")), is("\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\""));
+		assertThat("Other control characters are written as Unicode escapes.", write(writer -> writer.writeString("\u0000\u0001\u001f\u007f")),
+				is("\"\\u0000\\u0001\\u001F\u007f\""));
+		assertThat(write(writer -> writer.writeStartObject().writeName("\"\n").writeString("\\").writeEndObject()), is("{\"\\\"\\n\":\"\\\\\"}"));
+		assertThat("Escaping matches that of the existing JSON serialization.", write(writer -> writer.writeValue(List.of("a\"b\\c/d\b\f\n\r\t", Map.of("k\"", "v/")))),
+				is(JSON.serialize(List.of("a\"b\\c/d\b\f\n\r\t", Map.of("k\"", "v/")))));
+	}
+
+	/** Verifies that non-ASCII characters are encoded in UTF-8, and that unpaired surrogates are escaped. */
+	@Test
+	public void testStringUtf8() throws IOException {
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (final JsonWriter writer = new JsonWriter(outputStream)) {
+			writer.writeString("é€😀");
+		}
+		assertThat(outputStream.toByteArray(), is("\"é€😀\"".getBytes(UTF_8)));
+		assertThat(write(writer -> writer.writeString("\u0080\u07ff\u0800\uffff\ud800\udc00\udbff\udfff")), is("\"\u0080\u07ff\u0800\uffff\ud800\udc00\udbff\udfff\""));
+		assertThat(write(writer -> writer.writeString("a\ud83db")), is("\"a\\uD83Db\""));
+		assertThat(write(writer -> writer.writeString("a\ude00b")), is("\"a\\uDE00b\""));
+		assertThat(write(writer -> writer.writeString("\ude00\ud83d")), is("\"\\uDE00\\uD83D\""));
+		assertThat(write(writer -> writer.writeString("\ud83d")), is("\"\\uD83D\""));
+		assertThat(JSON.parseValue(write(writer -> writer.writeString("x\ud83d"))), is("x\ud83d"));
+	}
+
+	/** Verifies that escapes and multi-byte characters are written correctly at every position relative to buffer transfers. */
+	@Test
+	public void testStringsStraddleBuffer() throws IOException {
+		final String[] parts = {"\"", "\\", "\n", "\u0001", "é", "€", "😀", "\ud83d"};
+		for(final int bufferSize : BUFFER_SIZES) {
+			for(int offset = 0; offset < JsonWriter.MIN_BUFFER_SIZE * 2; offset++) {
+				for(final String part : parts) {
+					final String string = "x".repeat(offset) + part + "y" + part.repeat(JsonWriter.MIN_BUFFER_SIZE);
+					final String json = write(bufferSize, writer -> writer.writeString(string));
+					assertThat("Buffer size " + bufferSize + ", offset " + offset, JSON.parseValue(json), is(string));
+				}
+			}
+		}
+	}
+
+	/** @see JsonWriter#writeValue(Object) */
+	@Test
+	public void testWriteValue() throws IOException {
+		final Map<String, Object> map = new LinkedHashMap<>();
+		map.put("string", "s");
+		map.put("null", null);
+		map.put("list", List.of(1, 2.5, true));
+		map.put("set", new TreeSet<>(Set.of("b", "a")));
+		map.put("objects", new Object[] {"x", null});
+		map.put("ints", new int[] {1, 2});
+		map.put("chars", new char[] {'c'});
+		map.put("other", new StringBuilder("sb"));
+		map.put("uri", java.net.URI.create("https://example.com/"));
+		assertThat(write(writer -> writer.writeValue(map)),
+				is("{\"string\":\"s\",\"null\":null,\"list\":[1,2.5,true],\"set\":[\"a\",\"b\"],\"objects\":[\"x\",null],\"ints\":[1,2],\"chars\":[\"c\"],"
+						+ "\"other\":\"sb\",\"uri\":\"https:\\/\\/example.com\\/\"}"));
+		final Map<String, Object> nullKeyMap = new HashMap<>();
+		nullKeyMap.put(null, 1);
+		assertThrows(NullPointerException.class, () -> write(writer -> writer.writeValue(nullKeyMap)));
+	}
+
+	/** @see JsonWriter#JsonWriter(ByteBuffer) */
+	@Test
+	public void testByteBuffer() throws IOException {
+		final ByteBuffer byteBuffer = ByteBuffer.allocate(64);
+		try (final JsonWriter writer = new JsonWriter(byteBuffer)) {
+			writer.writeValue(Map.of("name", "José €😀"));
+			assertThat("Bytes are buffered until flushed.", byteBuffer.position(), is(0));
+			writer.flush();
+		}
+		byteBuffer.flip();
+		assertThat(JSON.parseValue(UTF_8.decode(byteBuffer)), is(Map.of("name", "José €😀")));
+		final ByteBuffer smallByteBuffer = ByteBuffer.allocate(4);
+		final JsonWriter writer = new JsonWriter(smallByteBuffer);
+		writer.writeString("too long");
+		assertThrows(BufferOverflowException.class, writer::flush);
+	}
+
+}
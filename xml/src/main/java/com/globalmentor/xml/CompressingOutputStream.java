@@ -0,0 +1,458 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static com.globalmentor.java.Conditions.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.util.zip.*;
+
+import javax.annotation.*;
+
+/**
+ * An output stream that compresses the bytes written to it using a {@link Deflater} with a configurable compression level, writing the compressed bytes
+ * directly to the underlying output stream. This allows serializers writing to an {@link OutputStream} to produce compressed output with no intermediate
+ * buffers of the entire uncompressed content.
+ * <p>
+ * In addition to normal writes, previously compressed {@link Segment}s of static content may be written using {@link #write(Segment)}, so that content
+ * repeated across many outputs, such as the static parts of a template, need only be compressed once.
+ * </p>
+ * <p>
+ * The stream keeps count of the uncompressed bytes written to it and of the compressed bytes written to the underlying stream, including any headers and
+ * trailers, from which the compression ratio may be determined.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ * @apiNote Other serializers may produce compressed output by writing to this stream as well, for example by passing this stream to
+ *          <code>CSSSerializer.serialize(CSSStyleSheet, OutputStream, Charset)</code>, or by wrapping this stream in an {@link OutputStreamWriter} for
+ *          appending JSON.
+ * @implNote The {@link Deflater} is always used without its own wrapper; any header and trailer for the {@link Format} are written by this class, so that
+ *           the checksum can include the content of precompressed segments.
+ * @author Garret Wilson
+ * @see XMLSerializer#serializeCompressed(org.w3c.dom.Document, OutputStream, java.nio.charset.Charset, Format, int)
+ */
+public class CompressingOutputStream extends FilterOutputStream {
+
+	/** The compressed data format. */
+	public enum Format {
+		/**
+		 * Raw DEFLATE compressed data with no header or trailer, as used by the HTTP <code>deflate</code> content coding in some implementations.
+		 * @see <a href="https://tools.ietf.org/html/rfc1951">RFC 1951: DEFLATE Compressed Data Format Specification version 1.3</a>
+		 */
+		DEFLATE,
+		/**
+		 * The ZLIB format, as used by the HTTP <code>deflate</code> content coding.
+		 * @see <a href="https://tools.ietf.org/html/rfc1950">RFC 1950: ZLIB Compressed Data Format Specification version 3.3</a>
+		 */
+		ZLIB,
+		/**
+		 * The GZIP format, as used by the HTTP <code>gzip</code> content coding.
+		 * @see <a href="https://tools.ietf.org/html/rfc1952">RFC 1952: GZIP file format specification version 4.3</a>
+		 */
+		GZIP
+	}
+
+	/** The default size of the buffer for receiving compressed data from the deflater. */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	/**
+	 * The minimum uncompressed length of a segment for its precompressed data to be used. Inserting precompressed data requires flushing the deflater with a
+	 * byte-aligned marker and resetting its dictionary, which for short segments costs more than compressing them normally.
+	 */
+	public static final int MIN_PRECOMPRESSED_SEGMENT_LENGTH = 64;
+
+	/** The GZIP magic number followed by the compression method and no flags, modification time, extra flags, or operating system. */
+	private static final byte[] GZIP_HEADER = {0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte)0xff};
+
+	private final Format format;
+
+	/** @return The compressed data format. */
+	public Format getFormat() {
+		return format;
+	}
+
+	private final int level;
+
+	/** @return The compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}. */
+	public int getLevel() {
+		return level;
+	}
+
+	private final Deflater deflater;
+
+	/** The buffer for receiving compressed data from the deflater. */
+	private final byte[] buffer;
+
+	/** The checksum of the uncompressed data for the format trailer, or <code>null</code> if the format has no trailer. */
+	@Nullable
+	private final Checksum checksum;
+
+	private boolean headerWritten = false;
+
+	private boolean finished = false;
+
+	private long uncompressedByteCount = 0;
+
+	/** @return The number of uncompressed bytes written to this stream, including the uncompressed content of any segments. */
+	public long getUncompressedByteCount() {
+		return uncompressedByteCount;
+	}
+
+	private long compressedByteCount = 0;
+
+	/** @return The number of compressed bytes written to the underlying stream so far, including any header and trailer. */
+	public long getCompressedByteCount() {
+		return compressedByteCount;
+	}
+
+	/**
+	 * Returns the compression ratio achieved so far.
+	 * @apiNote The compressed byte count is only complete after the stream has been finished.
+	 * @return The ratio of the number of uncompressed bytes to the number of compressed bytes; or <code>0.0</code> if no compressed bytes have been written.
+	 * @see #getUncompressedByteCount()
+	 * @see #getCompressedByteCount()
+	 */
+	public double getCompressionRatio() {
+		return compressedByteCount != 0 ? (double)uncompressedByteCount / compressedByteCount : 0.0;
+	}
+
+	/**
+	 * Output stream constructor using the {@link Format#GZIP} format and the {@link Deflater#DEFAULT_COMPRESSION} level.
+	 * @param outputStream The underlying output stream to which compressed data will be written.
+	 */
+	public CompressingOutputStream(@Nonnull final OutputStream outputStream) {
+		this(outputStream, Format.GZIP, Deflater.DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 * Format and level constructor.
+	 * @param outputStream The underlying output stream to which compressed data will be written.
+	 * @param format The compressed data format.
+	 * @param level The compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @throws IllegalArgumentException if the compression level is invalid.
+	 */
+	public CompressingOutputStream(@Nonnull final OutputStream outputStream, @Nonnull final Format format, final int level) {
+		this(outputStream, format, level, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Full constructor.
+	 * @param outputStream The underlying output stream to which compressed data will be written.
+	 * @param format The compressed data format.
+	 * @param level The compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @param bufferSize The size of the buffer for receiving compressed data from the deflater.
+	 * @throws IllegalArgumentException if the compression level is invalid or the buffer size is not positive.
+	 */
+	public CompressingOutputStream(@Nonnull final OutputStream outputStream, @Nonnull final Format format, final int level, final int bufferSize) {
+		super(requireNonNull(outputStream));
+		this.format = requireNonNull(format);
+		checkArgument(level == Deflater.DEFAULT_COMPRESSION || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION),
+				"Invalid compression level %d.", level);
+		checkArgument(bufferSize > 0, "Buffer size %d is not positive.", bufferSize);
+		this.level = level;
+		this.deflater = new Deflater(level, true);
+		this.buffer = new byte[bufferSize];
+		switch(format) {
+			case DEFLATE:
+				checksum = null;
+				break;
+			case ZLIB:
+				checksum = new Adler32();
+				break;
+			case GZIP:
+				checksum = new CRC32();
+				break;
+			default:
+				throw impossible("Unrecognized compression format " + format + ".");
+		}
+	}
+
+	/**
+	 * Writes the header of the format if it has not yet been written.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void ensureHeader() throws IOException {
+		if(headerWritten) {
+			return;
+		}
+		headerWritten = true;
+		switch(format) {
+			case ZLIB:
+				final int levelFlags; //FLEVEL in RFC 1950; informational only
+				if(level == Deflater.DEFAULT_COMPRESSION || level == 6) {
+					levelFlags = 2;
+				} else if(level < 2) {
+					levelFlags = 0;
+				} else if(level < 6) {
+					levelFlags = 1;
+				} else {
+					levelFlags = 3;
+				}
+				int header = (0x78 << 8) | (levelFlags << 6); //32K window DEFLATE, no preset dictionary
+				header |= (31 - header % 31) % 31; //the header check bits make the header a multiple of 31
+				writeCompressed(header >>> 8);
+				writeCompressed(header & 0xff);
+				break;
+			case GZIP:
+				out.write(GZIP_HEADER);
+				compressedByteCount += GZIP_HEADER.length;
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Writes a single byte of compressed data to the underlying stream, updating the count.
+	 * @param b The byte to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeCompressed(final int b) throws IOException {
+		out.write(b);
+		compressedByteCount++;
+	}
+
+	/**
+	 * Writes compressed data to the underlying stream, updating the count.
+	 * @param bytes The compressed data.
+	 * @param offset The start offset in the data.
+	 * @param length The number of bytes to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeCompressed(@Nonnull final byte[] bytes, final int offset, final int length) throws IOException {
+		out.write(bytes, offset, length);
+		compressedByteCount += length;
+	}
+
+	/**
+	 * Compresses all input given to the deflater so far, writing the compressed data to the underlying stream.
+	 * @param flush The deflater flush mode.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void deflate(final int flush) throws IOException {
+		int length;
+		do {
+			length = deflater.deflate(buffer, 0, buffer.length, flush);
+			if(length > 0) {
+				writeCompressed(buffer, 0, length);
+			}
+		} while(length == buffer.length || !deflater.needsInput()); //a full buffer may mean there is more output pending
+	}
+
+	/**
+	 * Ensures that the stream has not been finished.
+	 * @throws IOException if the stream has already been finished.
+	 */
+	private void ensureNotFinished() throws IOException {
+		if(finished) {
+			throw new IOException("Compressed output stream already finished.");
+		}
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		write(new byte[] {(byte)b}, 0, 1);
+	}
+
+	@Override
+	public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+		ensureNotFinished();
+		checkFromIndexSize(offset, length, bytes.length);
+		if(length == 0) {
+			return;
+		}
+		ensureHeader();
+		if(checksum != null) {
+			checksum.update(bytes, offset, length);
+		}
+		uncompressedByteCount += length;
+		deflater.setInput(bytes, offset, length);
+		deflate(Deflater.NO_FLUSH);
+	}
+
+	/**
+	 * Writes a segment of content that has already been compressed.
+	 * @implSpec If the uncompressed length of the segment is less than {@link #MIN_PRECOMPRESSED_SEGMENT_LENGTH}, the uncompressed content of the segment is
+	 *           written normally. Otherwise the deflater is flushed using {@link Deflater#FULL_FLUSH} so that following data will not refer to data before the
+	 *           segment, and the precompressed data of the segment is written directly to the underlying stream.
+	 * @param segment The precompressed segment to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void write(@Nonnull final Segment segment) throws IOException {
+		ensureNotFinished();
+		final byte[] uncompressedBytes = segment.uncompressedBytes;
+		if(uncompressedBytes.length < MIN_PRECOMPRESSED_SEGMENT_LENGTH) {
+			write(uncompressedBytes, 0, uncompressedBytes.length);
+			return;
+		}
+		ensureHeader();
+		deflate(Deflater.FULL_FLUSH);
+		if(checksum != null) {
+			checksum.update(uncompressedBytes, 0, uncompressedBytes.length);
+		}
+		uncompressedByteCount += uncompressedBytes.length;
+		writeCompressed(segment.compressedBytes, 0, segment.compressedBytes.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation flushes the underlying stream without flushing the deflater, as forcing compressed output would reduce the compression
+	 *           ratio; data not yet compressed will only be written when more data is written, or when the stream is finished.
+	 * @see #finish()
+	 */
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Finishes writing compressed data to the underlying stream, including any trailer for the format, without closing the underlying stream. No more data
+	 * may be written after the stream is finished. If the stream is already finished, this method does nothing.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void finish() throws IOException {
+		if(finished) {
+			return;
+		}
+		ensureHeader();
+		deflater.finish();
+		while(!deflater.finished()) {
+			final int length = deflater.deflate(buffer);
+			if(length > 0) {
+				writeCompressed(buffer, 0, length);
+			}
+		}
+		finished = true;
+		switch(format) {
+			case ZLIB: //Adler-32 checksum in network byte order
+				writeIntBigEndian((int)checksum.getValue());
+				break;
+			case GZIP: //CRC-32 and uncompressed size modulo 2^32, in little-endian order
+				writeIntLittleEndian((int)checksum.getValue());
+				writeIntLittleEndian((int)uncompressedByteCount);
+				break;
+			default:
+				break;
+		}
+		deflater.end();
+	}
+
+	/**
+	 * Writes an integer in big-endian byte order.
+	 * @param value The value to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeIntBigEndian(final int value) throws IOException {
+		writeCompressed(value >>> 24);
+		writeCompressed((value >>> 16) & 0xff);
+		writeCompressed((value >>> 8) & 0xff);
+		writeCompressed(value & 0xff);
+	}
+
+	/**
+	 * Writes an integer in little-endian byte order.
+	 * @param value The value to write.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeIntLittleEndian(final int value) throws IOException {
+		writeCompressed(value & 0xff);
+		writeCompressed((value >>> 8) & 0xff);
+		writeCompressed((value >>> 16) & 0xff);
+		writeCompressed(value >>> 24);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation finishes the compressed data before closing the underlying stream.
+	 * @see #finish()
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Content compressed independently of any stream, for writing to one or more compressing output streams using {@link CompressingOutputStream#write(Segment)}.
+	 * <p>
+	 * This class is immutable and thread-safe.
+	 * </p>
+	 * @author Garret Wilson
+	 */
+	public static final class Segment {
+
+		private final byte[] uncompressedBytes;
+
+		private final byte[] compressedBytes;
+
+		/** @return The length of the uncompressed content. */
+		public int getUncompressedLength() {
+			return uncompressedBytes.length;
+		}
+
+		/** @return The length of the precompressed content. */
+		public int getCompressedLength() {
+			return compressedBytes.length;
+		}
+
+		/**
+		 * Constructor.
+		 * @param uncompressedBytes The uncompressed content.
+		 * @param compressedBytes The content compressed as raw DEFLATE data ending in a full flush.
+		 */
+		private Segment(@Nonnull final byte[] uncompressedBytes, @Nonnull final byte[] compressedBytes) {
+			this.uncompressedBytes = requireNonNull(uncompressedBytes);
+			this.compressedBytes = requireNonNull(compressedBytes);
+		}
+
+		/**
+		 * Compresses content into a segment.
+		 * @implNote The uncompressed content is retained as well, both to update the checksum of the streams to which it is written and to allow short segments
+		 *           to be compressed normally.
+		 * @param bytes The uncompressed content; the array is copied.
+		 * @param level The compression level, from {@link Deflater#NO_COMPRESSION} to {@link Deflater#BEST_COMPRESSION}, or {@link Deflater#DEFAULT_COMPRESSION}.
+		 * @return A new segment containing the compressed content.
+		 * @throws IllegalArgumentException if the compression level is invalid.
+		 */
+		public static Segment compress(@Nonnull final byte[] bytes, final int level) {
+			checkArgument(level == Deflater.DEFAULT_COMPRESSION || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION),
+					"Invalid compression level %d.", level);
+			final byte[] uncompressedBytes = bytes.clone();
+			final Deflater deflater = new Deflater(level, true);
+			try {
+				deflater.setInput(uncompressedBytes);
+				final ByteArrayOutputStream compressedOutputStream = new ByteArrayOutputStream(uncompressedBytes.length / 2 + 16);
+				final byte[] buffer = new byte[Math.min(DEFAULT_BUFFER_SIZE, uncompressedBytes.length + 64)];
+				int length;
+				do {
+					length = deflater.deflate(buffer, 0, buffer.length, Deflater.FULL_FLUSH);
+					compressedOutputStream.write(buffer, 0, length);
+				} while(length == buffer.length || !deflater.needsInput());
+				return new Segment(uncompressedBytes, compressedOutputStream.toByteArray());
+			} finally {
+				deflater.end();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static java.util.Objects.*;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import javax.annotation.*;
+
+import org.w3c.dom.*;
+
+/**
+ * Lazily traverses the descendants of a node in document order, that is, in the order in which they would be encountered in a depth-first pre-order traversal
+ * of the node tree. The tree must not be modified during traversal.
+ * <p>
+ * Internally the spliterator covers a range of sibling subtrees, optionally preceded by a single <dfn>head</dfn> node which is reported without traversing its
+ * children. Splitting hands off a prefix of the remaining sibling subtrees; if only a single unvisited subtree remains, splitting descends into it so that deep,
+ * narrow trees such as <code>html/body/div</code> can still be divided.
+ * </p>
+ * @apiNote Splitting allows parallel streams to scale across subtrees, but DOM implementations are not guaranteed to be thread-safe even for reading; only use
+ *          parallel traversal with a DOM implementation known to support concurrent reads, or with a document that has been fully materialized.
+ * @implNote The reported size is only an estimate, based upon the number of sibling subtrees; the actual number of descendants is unknown without a full
+ *           traversal.
+ * @author Garret Wilson
+ * @see XmlDom#descendantsOf(Node)
+ */
+public class DescendantNodeSpliterator implements Spliterator<Node> {
+
+	/** The node to report before the range of subtrees, without traversing its children; or <code>null</code> if there is no head node. */
+	@Nullable
+	private Node head;
+
+	/** The next node in the subtrees to report, or <code>null</code> if the subtrees have been exhausted. */
+	@Nullable
+	private Node next;
+
+	/** The root of the subtree currently being traversed, or <code>null</code> if the subtrees have been exhausted. */
+	@Nullable
+	private Node top;
+
+	/** The sibling of the last subtree root at which to stop, or <code>null</code> if all following siblings are included. */
+	@Nullable
+	private Node end;
+
+	/** The current size estimate. */
+	private long estimatedSize;
+
+	/**
+	 * Constructor for traversing all the descendants of the given node.
+	 * @param node The node the descendants of which should be traversed; the node itself will not be included.
+	 */
+	public DescendantNodeSpliterator(@Nonnull final Node node) {
+		this(null, node.getFirstChild(), null, node.getChildNodes().getLength());
+	}
+
+	/**
+	 * Range constructor.
+	 * @param head The node to report before the subtrees, or <code>null</code> if there is no head node.
+	 * @param first The root of the first subtree to traverse, or <code>null</code> if there are no subtrees to traverse.
+	 * @param end The sibling of the last subtree root at which to stop, or <code>null</code> if all following siblings are included.
+	 * @param estimatedSize The initial size estimate.
+	 */
+	protected DescendantNodeSpliterator(@Nullable final Node head, @Nullable final Node first, @Nullable final Node end, final long estimatedSize) {
+		this(head, first != end ? first : null, first != end ? first : null, end, estimatedSize);
+	}
+
+	/**
+	 * Traversal state constructor.
+	 * @param head The node to report before the subtrees, or <code>null</code> if there is no head node.
+	 * @param next The next node in the subtrees to report, or <code>null</code> if the subtrees have been exhausted.
+	 * @param top The root of the subtree currently being traversed, or <code>null</code> if the subtrees have been exhausted.
+	 * @param end The sibling of the last subtree root at which to stop, or <code>null</code> if all following siblings are included.
+	 * @param estimatedSize The initial size estimate.
+	 */
+	private DescendantNodeSpliterator(@Nullable final Node head, @Nullable final Node next, @Nullable final Node top, @Nullable final Node end,
+			final long estimatedSize) {
+		this.head = head;
+		this.next = next;
+		this.top = top;
+		this.end = end;
+		this.estimatedSize = estimatedSize;
+	}
+
+	/**
+	 * Determines the node following the given node in a pre-order traversal of the current subtrees, updating the current subtree root as needed.
+	 * @param node The node last reported.
+	 * @return The next node to report, or <code>null</code> if the subtrees have been exhausted.
+	 */
+	private Node following(@Nonnull Node node) {
+		final Node firstChild = node.getFirstChild();
+		if(firstChild != null) {
+			return firstChild;
+		}
+		while(node != top) { //climb until we find a following sibling or reach the subtree root
+			final Node nextSibling = node.getNextSibling();
+			if(nextSibling != null) {
+				return nextSibling;
+			}
+			node = requireNonNull(node.getParentNode(), "Node tree was modified during traversal.");
+		}
+		final Node nextTop = top.getNextSibling();
+		top = nextTop != end ? nextTop : null;
+		return top;
+	}
+
+	@Override
+	public boolean tryAdvance(@Nonnull final Consumer<? super Node> action) {
+		requireNonNull(action);
+		if(head != null) {
+			final Node node = head;
+			head = null;
+			action.accept(node);
+			return true;
+		}
+		final Node node = next;
+		if(node == null) {
+			return false;
+		}
+		next = following(node);
+		action.accept(node);
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(@Nonnull final Consumer<? super Node> action) {
+		while(tryAdvance(action)) {} //no need for bookkeeping beyond that already done for each advancement
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * @implSpec This implementation hands off a prefix of the remaining sibling subtrees, including any subtree currently being traversed. If only a single
+	 *           subtree remains and traversal has not started, the subtree root is handed off and this spliterator continues with the subtree's children.
+	 */
+	@Override
+	public Spliterator<Node> trySplit() {
+		if(next == null) {
+			return null;
+		}
+		final boolean started = next != top; //whether we are in the middle of the current subtree
+		int rootCount = 0; //count the remaining subtree roots that have not been started
+		for(Node root = started ? top.getNextSibling() : top; root != end; root = root.getNextSibling()) {
+			rootCount++;
+		}
+		if(rootCount >= (started ? 1 : 2)) { //split at a sibling subtree boundary
+			Node mid = started ? top.getNextSibling() : top; //the prefix always retains at least the current subtree
+			for(int i = 0; i < rootCount / 2; i++) {
+				mid = mid.getNextSibling();
+			}
+			final long prefixEstimate = estimatedSize >>> 1;
+			final DescendantNodeSpliterator prefix = new DescendantNodeSpliterator(head, next, top, mid, prefixEstimate);
+			head = null;
+			next = mid;
+			top = mid;
+			estimatedSize -= prefixEstimate;
+			return prefix;
+		}
+		if(!started && head == null && top.hasChildNodes()) { //descend into the single remaining subtree
+			final Node root = top;
+			final DescendantNodeSpliterator prefix = new DescendantNodeSpliterator(root, null, null, null, 1);
+			next = root.getFirstChild();
+			top = next;
+			end = null; //the children of the root have no end bound
+			estimatedSize = Math.max(root.getChildNodes().getLength(), estimatedSize - 1);
+			return prefix;
+		}
+		return null;
+	}
+
+	@Override
+	public long estimateSize() {
+		return head == null && next == null ? 0 : estimatedSize;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | DISTINCT | NONNULL;
+	}
+
+}
@@ -23,6 +23,8 @@
 import javax.annotation.*;
 
 import java.nio.charset.Charset;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 
 import com.globalmentor.io.ByteOrderMark;
 
@@ -54,6 +56,7 @@
  * other strings.
  * @author Garret Wilson
  * @see DefaultXmlFormatProfile
+ * @see XmlCanonicalizer
  */
 public class XMLSerializer {
 
@@ -645,6 +648,52 @@ public void serialize(@Nonnull final Document document, @Nonnull final OutputStr
 		serialize(document, document.getDoctype(), outputStream, charset);
 	}
 
+	/**
+	 * Serializes the specified document to the given output stream, computing a digest of the serialized bytes as they are written. This allows a content hash,
+	 * such as for an HTTP entity tag, to be determined with no additional pass over or copy of the serialized bytes.
+	 * @apiNote The digest is of the bytes written to the given output stream. If the output stream compresses or otherwise transforms the content, the digest
+	 *          will be of the content before transformation.
+	 * @implSpec The given message digest is reset before serialization.
+	 * @param document The XML document to serialize.
+	 * @param outputStream The stream into which the document should be serialized.
+	 * @param charset The character set to use when serializing.
+	 * @param messageDigest The implementation of the digest algorithm to use, such as SHA-256.
+	 * @return The digest of the serialized bytes, including any byte order mark.
+	 * @throws IllegalArgumentException if the document type has a public ID with no system ID.
+	 * @throws IOException Thrown if an I/O error occurred.
+	 * @see #serialize(Document, OutputStream, Charset)
+	 */
+	public byte[] serializeDigested(@Nonnull final Document document, @Nonnull final OutputStream outputStream, @Nonnull final Charset charset,
+			@Nonnull final MessageDigest messageDigest) throws IOException {
+		messageDigest.reset();
+		serialize(document, new DigestOutputStream(outputStream, messageDigest), charset);
+		return messageDigest.digest();
+	}
+
+	/**
+	 * Serializes the specified document to the given output stream in compressed form, compressing the encoded bytes as they are serialized with no
+	 * intermediate buffer of the entire uncompressed serialization.
+	 * @apiNote The returned stream, which has been finished but not closed, provides compression metrics such as
+	 *          {@link CompressingOutputStream#getCompressionRatio()}.
+	 * @param document The XML document to serialize.
+	 * @param outputStream The stream into which the compressed document should be written.
+	 * @param charset The character set to use when serializing.
+	 * @param format The compressed data format.
+	 * @param level The compression level, from {@link java.util.zip.Deflater#NO_COMPRESSION} to {@link java.util.zip.Deflater#BEST_COMPRESSION}, or
+	 *          {@link java.util.zip.Deflater#DEFAULT_COMPRESSION}.
+	 * @return The finished compressing output stream that was used to write to the given output stream.
+	 * @throws IllegalArgumentException if the document type has a public ID with no system ID, or if the compression level is invalid.
+	 * @throws IOException Thrown if an I/O error occurred.
+	 * @see #serialize(Document, OutputStream, Charset)
+	 */
+	public CompressingOutputStream serializeCompressed(@Nonnull final Document document, @Nonnull final OutputStream outputStream,
+			@Nonnull final Charset charset, @Nonnull final CompressingOutputStream.Format format, final int level) throws IOException {
+		final CompressingOutputStream compressingOutputStream = new CompressingOutputStream(outputStream, format, level);
+		serialize(document, compressingOutputStream, charset);
+		compressingOutputStream.finish();
+		return compressingOutputStream;
+	}
+
 	/**
 	 * Serializes the specified document to the given output stream using the specified encoding. Any byte order mark specified in the character encoding will be
 	 * written to the stream based upon {@link #isBomWritten()}. A newline will be appended at the end if {@link #isFormatted()} is turned on and
@@ -960,7 +1009,7 @@ protected Appendable serialize(@Nonnull final Appendable appendable, @Nonnull fi
 	protected Appendable serialize(@Nonnull final Appendable appendable, @Nonnull final Element element, @Nonnull boolean isContentFormatted) throws IOException {
 		appendable.append(TAG_START).append(element.getNodeName()); //write the beginning of the start tag
 		if(isNamespacesDeclarationsEnsured()) { //if we should ensure namespaces
-			ensureNamespaceDeclarations(element, null, false); //make sure all namespaces are declared that just this element needs; if any are missing, we can't declare up the tree, as those nodes have already been serialized
+			ensureElementNamespaceDeclarations(element); //make sure all namespaces are declared that just this element needs; if any are missing, we can't declare up the tree, as those nodes have already been serialized
 		}
 		/*TODO fix; this correctly doesn't add namespaces, to the tree itself, but not doing so means that the namespaces will just get added again lower down in the hierarchy
 					//get the undeclared namespaces for this element and write them before the normal attributes are written
@@ -975,14 +1024,22 @@ protected Appendable serialize(@Nonnull final Appendable appendable, @Nonnull fi
 					writeAttribute(attributeName, namespaceURI, writer);	//write this namespace attribute attribute
 				}
 		*/
-		serializeAttributes(appendable, element, attributesOf(element));
+		attributeBuffer = toAttributeArray(element, attributeBuffer); //take a snapshot of the attributes, reusing the buffer across elements
+		final int attributeCount = element.getAttributes().getLength();
+		try {
+			serializeAttributes(appendable, element, attributeBuffer, attributeCount);
+		} finally {
+			Arrays.fill(attributeBuffer, 0, attributeCount, null); //don't keep the attributes, and thereby their document, from being garbage-collected
+		}
 		if(isEmptyElementTag(element)) { //if we should serialize the element as an empty element tag, e.g. <foo />
 			appendable.append(SPACE_CHAR).append(END_TAG_IDENTIFIER_CHAR).append(TAG_END); //write the end of the empty element tag, with an extra space for HTML browser compatibility
 		} else {
 			appendable.append(TAG_END); //write the end of the start tag
 			final boolean isChildContentFormatted = isContentFormatted && !getFormatProfile().isPreserved(element); //override formatting for preserved elements
 			serializeContent(appendable, element, isChildContentFormatted);
-			appendable.append(TAG_START).append(END_TAG_IDENTIFIER_CHAR).append(element.getNodeName()).append(TAG_END); //write the ending tag
+			if(!isEndTagOmitted(element)) {
+				appendable.append(TAG_START).append(END_TAG_IDENTIFIER_CHAR).append(element.getNodeName()).append(TAG_END); //write the ending tag
+			}
 		}
 		return appendable;
 	}
@@ -1048,6 +1105,20 @@ public int compare(final Attr attr1, final Attr attr2) {
 	private final static Comparator<Attr> ATTR_NAME_COMPARATOR = comparing(Attr::getPrefix, nullsFirst(CASE_INSENSITIVE_ORDER))
 			.thenComparing(attr -> attr.getLocalName(), CASE_INSENSITIVE_ORDER);
 
+	/**
+	 * The comparator for ordering the attributes of an element for which the format profile specifies no explicit attribute order.
+	 * @see #XMLNS_ATTR_NAME_COMPARATOR
+	 * @see #ATTR_NAME_COMPARATOR
+	 */
+	private final static Comparator<Attr> DEFAULT_ATTR_COMPARATOR = XMLNS_ATTR_NAME_COMPARATOR.thenComparing(ATTR_NAME_COMPARATOR);
+
+	/**
+	 * A reusable buffer for taking snapshots of element attributes during serialization, to avoid allocating a new array or stream for each element.
+	 * @implNote The buffer is only used while serializing the start tag of an element, so it does not need to be saved across nested element serialization. It is
+	 *           cleared after each start tag so that the serializer does not retain references to the attributes.
+	 */
+	private Attr[] attributeBuffer = new Attr[8];
+
 	/**
 	 * Serializes the attributes of the specified element to the given appendable.
 	 * @apiNote The given attributes may not necessarily be exactly the attributes that would be retrieved directly from the element.
@@ -1072,21 +1143,52 @@ public int compare(final Attr attr1, final Attr attr2) {
 	 */
 	protected Appendable serializeAttributes(@Nonnull final Appendable appendable, @Nonnull final Element element, @Nonnull Stream<Attr> attributes)
 			throws IOException {
-		//1. `xmlns` related attributes come first.
-		Comparator<Attr> comparator = XMLNS_ATTR_NAME_COMPARATOR;
-		//2. Explicitly ordered attributes come next.
-		final List<NsName> order = getFormatProfile().getAttributeOrder(element);
-		if(!order.isEmpty()) { //if we have a preferred order, use that order, placing explicitly ordered attributes first
-			comparator = comparator.thenComparing(NsName::ofNode, explicitOrderFirst(order));
+		final Attr[] attributeArray = attributes.toArray(Attr[]::new);
+		return serializeAttributes(appendable, element, attributeArray, attributeArray.length);
+	}
+
+	/**
+	 * Serializes the attributes of the specified element to the given appendable, using the first attributes in the given array. The attributes are ordered as
+	 * described in {@link #serializeAttributes(Appendable, Element, Stream)}.
+	 * @apiNote This method is used in the main serialization path with an attribute snapshot in a reused array, avoiding the overhead of a stream pipeline for
+	 *          every element serialized.
+	 * @implSpec This implementation sorts the given array in place; only the first <code>attributeCount</code> elements are used or modified.
+	 * @param appendable The destination into which the attributes should be written.
+	 * @param element The XML element the attributes of which to serialize.
+	 * @param attributes The array containing the actual attributes to serialize.
+	 * @param attributeCount The number of attributes at the start of the array to serialize.
+	 * @return The given appendable.
+	 * @throws IOException Thrown if an I/O error occurred.
+	 * @see XmlDom#toAttributeArray(Element, Attr[])
+	 */
+	protected Appendable serializeAttributes(@Nonnull final Appendable appendable, @Nonnull final Element element, @Nonnull final Attr[] attributes,
+			final int attributeCount) throws IOException {
+		if(attributeCount > 1) { //there is nothing to sort with a single attribute
+			final Comparator<Attr> comparator;
+			final List<NsName> order = getFormatProfile().getAttributeOrder(element);
+			if(!order.isEmpty()) { //if we have a preferred order, place explicitly ordered attributes after `xmlns` related attributes but before the rest
+				comparator = XMLNS_ATTR_NAME_COMPARATOR.thenComparing(NsName::ofNode, explicitOrderFirst(order)).thenComparing(ATTR_NAME_COMPARATOR);
+			} else { //otherwise just put `xmlns` related attributes first and order the rest alphabetically
+				comparator = DEFAULT_ATTR_COMPARATOR;
+			}
+			Arrays.sort(attributes, 0, attributeCount, comparator);
 		}
-		//3. Finally order the rest of the attributes in alphabetical order.
-		comparator = comparator.thenComparing(ATTR_NAME_COMPARATOR);
-		for(final Attr attribute : (Iterable<Attr>)attributes.sorted(comparator)::iterator) {
-			serializeAttribute(appendable, element, attribute); //write this attribute
+		for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+			serializeAttribute(appendable, element, attributes[attributeIndex]); //write this attribute
 		}
 		return appendable;
 	}
 
+	/**
+	 * Ensures that all namespaces for the given element and its attributes are declared, adding any missing declarations to the element itself, before the
+	 * element is serialized. This is only called if {@link #isNamespacesDeclarationsEnsured()} is <code>true</code>.
+	 * @implSpec The default implementation delegates to {@link XmlDom#ensureNamespaceDeclarations(Element)}.
+	 * @param element The element being serialized.
+	 */
+	protected void ensureElementNamespaceDeclarations(@Nonnull final Element element) {
+		ensureNamespaceDeclarations(element);
+	}
+
 	/**
 	 * Indicates whether the given element should be serialized as an empty element tag.
 	 * @implSpec The default implementation returns <code>false</code> if the given element has any children.
@@ -1099,6 +1201,31 @@ protected boolean isEmptyElementTag(@Nonnull final Element element) {
 		return element.getChildNodes().getLength() == 0;
 	}
 
+	/**
+	 * Indicates whether an element with the given name, known to have no children, should be serialized as an empty element tag. This is used when serializing
+	 * content for which no DOM element exists, such as by {@link XmlBuilder#forSerializer(XMLSerializer, Appendable)}.
+	 * @implSpec The default implementation returns <code>true</code>, consistent with {@link #isEmptyElementTag(Element)} for an element with no children.
+	 * @param namespaceURI The namespace URI of the element, or <code>null</code> if the element is in no namespace.
+	 * @param localName The local name of the element.
+	 * @return <code>true</code> if the XML empty-element tag form should be used to serialize the tag.
+	 * @see #isEmptyElementTag(Element)
+	 */
+	protected boolean isEmptyElementTag(@Nullable final String namespaceURI, @Nonnull final String localName) {
+		return true;
+	}
+
+	/**
+	 * Indicates whether the end tag of the given element, which is not being serialized as an empty element tag, should be omitted.
+	 * @apiNote This is not allowed in XML, but some vocabularies serialized in other syntaxes, such as HTML, allow certain end tags to be omitted.
+	 * @implSpec The default implementation returns <code>false</code>.
+	 * @param element The element being serialized.
+	 * @return <code>true</code> if the end tag of the element should not be serialized.
+	 * @see #isEmptyElementTag(Element)
+	 */
+	protected boolean isEndTagOmitted(@Nonnull final Element element) {
+		return false;
+	}
+
 	/**
 	 * Serializes the specified element attribute to the given appendable.
 	 * @implSpec This implementation delegates to {@link #serializeAttribute(Appendable, String, String)}.
@@ -1156,7 +1283,7 @@ protected Appendable serializeContent(@Nonnull final Appendable appendable, @Non
 	/**
 	 * Serializes the content of the specified node to the given appendable.
 	 * <p>
-	 * If formatting is enabled, child text content is normalized in the following manner:
+	 * If formatting is enabled, or if {@link #isSpaceNormalized(Node, boolean)} otherwise indicates, child text content is normalized in the following manner:
 	 * </p>
 	 * <ul>
 	 * <li>Subsequent text nodes are combined.</li>
@@ -1236,19 +1363,16 @@ protected Appendable serializeContent(@Nonnull final Appendable appendable, @Non
 		}
 
 		//1b. if formatting, normalize spaces; otherwise normalize line endings; //child text items should henceforth be considered to be of type `CharSequence`
+		final boolean isSpaceNormalized = isSpaceNormalized(node, isContentFormatted);
 		for(int childIndex = children.size() - 1; childIndex >= 0; --childIndex) { //order of traversal doesn't matter on this pass, so go backwards to make index tracking easier with removal
 			final Object child = children.get(childIndex);
 			if(child instanceof String) {
 				final String text = (String)child;
 				final CharSequence normalizedText;
-				if(isContentFormatted) {
+				if(isSpaceNormalized) {
 					final int childCount = children.size();
-					final boolean trimStart = isBlockElement && childIndex == 0 //text is first child of block,
-							|| childIndex > 0 && asInstance(children.get(childIndex - 1), Element.class).map(formatProfile::isBlock).orElse(false) //or text comes after a block child element,
-							|| childIndex > 0 && asInstance(children.get(childIndex - 1), Element.class).map(formatProfile::isBreak).orElse(false); //or text comes after a break child element
-					final boolean trimEnd = isBlockElement && childIndex == childCount - 1 //text is last child of block,
-							|| childIndex < childCount - 1 && asInstance(children.get(childIndex + 1), Element.class).map(formatProfile::isBlock).orElse(false); //or text comes before a block child element
-					normalizedText = collapseRuns(text, formatProfile.getSpaceNormalizationCharacters(), SPACE_CHAR, trimStart, trimEnd);
+					normalizedText = normalizeContentSpaces(formatProfile, text, isBlockElement, childIndex > 0 ? children.get(childIndex - 1) : null,
+							childIndex < childCount - 1 ? children.get(childIndex + 1) : null);
 				} else {
 					//TODO first normalize newlines in the text in case the text was placed in the tree manually (that is, it didn't originate from an XML processor)
 					final CharSequence lineSeparator = getLineSeparator();
@@ -1321,10 +1445,7 @@ protected Appendable serializeContent(@Nonnull final Appendable appendable, @Non
 						serialize(appendable, (Element)childNode, isContentFormatted); //content formatting may get overridden inside the element
 						break;
 					case Node.COMMENT_NODE: //if this is a comment node
-						appendable.append(COMMENT_START); //write the start of the comment
-						//TODO check content for disallowed sequence
-						appendable.append(childNode.getNodeValue()); //write the text value of the node, but don't encode the string for XML since it's inside a comment
-						appendable.append(COMMENT_END); //write the end of the comment
+						serialize(appendable, (Comment)childNode);
 						break;
 					case Node.CDATA_SECTION_NODE: //if this is a CDATA section node
 						appendable.append(CDATA_START); //write the start of the CDATA section
@@ -1357,6 +1478,33 @@ protected Appendable serializeContent(@Nonnull final Appendable appendable, @Non
 		return appendable;
 	}
 
+	/**
+	 * Determines whether the child text content of a given node should have its spaces normalized, as described in
+	 * {@link #serializeContent(Appendable, Node, boolean)}.
+	 * @implSpec The default implementation returns <code><var>isContentFormatted</var></code>; that is, spaces are normalized only when formatting.
+	 * @param node The node the content of which is being serialized.
+	 * @param isContentFormatted Whether the contents of the node are being formatted.
+	 * @return <code>true</code> if runs of space characters in child text should be normalized and trimmed where appropriate.
+	 */
+	protected boolean isSpaceNormalized(@Nonnull final Node node, final boolean isContentFormatted) {
+		return isContentFormatted;
+	}
+
+	/**
+	 * Serializes the specified comment to the given appendable.
+	 * @param appendable The destination into which the comment should be written.
+	 * @param comment The comment to serialize.
+	 * @return The given appendable.
+	 * @throws IOException Thrown if an I/O error occurred.
+	 */
+	protected Appendable serialize(@Nonnull final Appendable appendable, @Nonnull final Comment comment) throws IOException {
+		appendable.append(COMMENT_START); //write the start of the comment
+		//TODO check content for disallowed sequence
+		appendable.append(comment.getData()); //write the text value of the node, but don't encode the string for XML since it's inside a comment
+		appendable.append(COMMENT_END); //write the end of the comment
+		return appendable;
+	}
+
 	/**
 	 * Determines whether content of child text nodes of a given parent node should be encoded.
 	 * @implSpec The default implementation returns <code>true</code> for all parent nodes.
@@ -1451,6 +1599,27 @@ protected Appendable encodeContent(@Nonnull final Appendable appendable, @Nonnul
 		return appendable;
 	}
 
+	/**
+	 * Normalizes the spaces of text in the content of a node as is done when formatting: runs of {@link XmlFormatProfile#getSpaceNormalizationCharacters()} are
+	 * collapsed to a single space, and are trimmed at the boundaries of block content and next to block and break elements.
+	 * @apiNote This method is shared with {@link XmlTreeDiff} so that text is compared using the same normalization with which it is serialized.
+	 * @param formatProfile The format profile indicating the space normalization characters and the block and break elements.
+	 * @param text The text to normalize.
+	 * @param isBlockParent Whether the parent of the text is a block element.
+	 * @param previousItem The content item preceding the text, or <code>null</code> if the text is the first item in the content.
+	 * @param nextItem The content item following the text, or <code>null</code> if the text is the last item in the content.
+	 * @return The normalized text, which may be empty.
+	 * @see #collapseRuns(CharSequence, Characters, char, boolean, boolean)
+	 */
+	static CharSequence normalizeContentSpaces(@Nonnull final XmlFormatProfile formatProfile, @Nonnull final CharSequence text, final boolean isBlockParent,
+			@Nullable final Object previousItem, @Nullable final Object nextItem) {
+		final boolean trimStart = isBlockParent && previousItem == null //text is first child of block,
+				|| previousItem instanceof Element && (formatProfile.isBlock((Element)previousItem) || formatProfile.isBreak((Element)previousItem)); //or text comes after a block or break child element
+		final boolean trimEnd = isBlockParent && nextItem == null //text is last child of block,
+				|| nextItem instanceof Element && formatProfile.isBlock((Element)nextItem); //or text comes before a block child element
+		return collapseRuns(text, formatProfile.getSpaceNormalizationCharacters(), SPACE_CHAR, trimStart, trimEnd);
+	}
+
 	/**
 	 * Collapses all runs of given characters (including single characters that are not already the normalized character itself) to a single normalized character.
 	 * Optionally removes all run characters from the beginning and ending of the text.
@@ -0,0 +1,579 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static com.globalmentor.java.Characters.SPACE_CHAR;
+import static com.globalmentor.java.Conditions.*;
+import static com.globalmentor.xml.def.XML.*;
+import static java.util.Objects.*;
+
+import java.io.IOException;
+import java.util.*;
+
+import javax.annotation.*;
+
+import org.w3c.dom.*;
+
+import com.globalmentor.xml.def.*;
+
+/**
+ * Fluent builder for generating XML content at a high rate, either into a DOM tree or directly into serialized form without creating a DOM at all.
+ * <p>
+ * Elements are started with one of the <code>startElement()</code> methods, given attributes and content, and then ended with {@link #endElement()}. Element
+ * and attribute names given as {@link NsName} are used directly with no prefix, without creating any qualified name instances. When all content has been
+ * generated, {@link #finish()} must be called.
+ * </p>
+ * <pre>
+ * {@code
+ * XmlBuilder.forParent(bodyElement).startElement(DIV).attribute(CLASS, "note").text("Hello").endElement().finish();
+ * }
+ * </pre>
+ * @apiNote A builder is not thread-safe, and is intended to be used for generating a single batch of content.
+ * @author Garret Wilson
+ * @see #forParent(Node)
+ * @see #forSerializer(XMLSerializer, Appendable)
+ */
+public abstract class XmlBuilder {
+
+	/** The number of elements started but not yet ended. */
+	private int depth = 0;
+
+	/** @return The number of elements started but not yet ended. */
+	protected int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Starts an element with no prefix, which becomes the current element.
+	 * @implSpec This implementation delegates to {@link #startElementNS(String, String)} using the local name as the qualified name.
+	 * @param elementName The namespace URI and local name of the element to start.
+	 * @return This builder.
+	 */
+	public XmlBuilder startElement(@Nonnull final NsName elementName) {
+		return startElementNS(elementName.getNamespaceString(), elementName.getLocalName());
+	}
+
+	/**
+	 * Starts an element, which becomes the current element.
+	 * @implSpec This implementation delegates to {@link #startElementNS(String, String)}.
+	 * @param elementName The namespace URI and qualified name of the element to start.
+	 * @return This builder.
+	 */
+	public XmlBuilder startElement(@Nonnull final NsQualifiedName elementName) {
+		return startElementNS(elementName.getNamespaceString(), elementName.getQualifiedName());
+	}
+
+	/**
+	 * Starts an element, which becomes the current element.
+	 * @param namespaceURI The namespace URI of the element, or <code>null</code> if the element is in no namespace.
+	 * @param qualifiedName The qualified name of the element.
+	 * @return This builder.
+	 * @throws IllegalStateException if this builder has already been finished.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	public XmlBuilder startElementNS(@Nullable final String namespaceURI, @Nonnull final String qualifiedName) {
+		checkState(depth >= 0, "Builder has already been finished.");
+		startElementImpl(namespaceURI, requireNonNull(qualifiedName));
+		depth++;
+		return this;
+	}
+
+	/**
+	 * Implementation for starting an element.
+	 * @param namespaceURI The namespace URI of the element, or <code>null</code> if the element is in no namespace.
+	 * @param qualifiedName The qualified name of the element.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	protected abstract void startElementImpl(@Nullable String namespaceURI, @Nonnull String qualifiedName);
+
+	/**
+	 * Sets an attribute with no prefix on the current element. If the attribute is in a namespace, a prefix will be assigned to it as needed when it is
+	 * serialized.
+	 * @implSpec This implementation delegates to {@link #attributeNS(String, String, String)} using the local name as the qualified name.
+	 * @param attributeName The namespace URI and local name of the attribute.
+	 * @param value The attribute value.
+	 * @return This builder.
+	 */
+	public XmlBuilder attribute(@Nonnull final NsName attributeName, @Nonnull final String value) {
+		return attributeNS(attributeName.getNamespaceString(), attributeName.getLocalName(), value);
+	}
+
+	/**
+	 * Sets an attribute on the current element.
+	 * @implSpec This implementation delegates to {@link #attributeNS(String, String, String)}.
+	 * @param attributeName The namespace URI and qualified name of the attribute.
+	 * @param value The attribute value.
+	 * @return This builder.
+	 */
+	public XmlBuilder attribute(@Nonnull final NsQualifiedName attributeName, @Nonnull final String value) {
+		return attributeNS(attributeName.getNamespaceString(), attributeName.getQualifiedName(), value);
+	}
+
+	/**
+	 * Sets an attribute on the current element. Attributes must be set before any content is added to the current element.
+	 * @param namespaceURI The namespace URI of the attribute, or <code>null</code> if the attribute is in no namespace.
+	 * @param qualifiedName The qualified name of the attribute.
+	 * @param value The attribute value.
+	 * @return This builder.
+	 * @throws IllegalStateException if there is no current element, or content has already been added to the current element.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	public XmlBuilder attributeNS(@Nullable final String namespaceURI, @Nonnull final String qualifiedName, @Nonnull final String value) {
+		checkState(depth > 0, "No current element for attribute `%s`.", qualifiedName);
+		attributeImpl(namespaceURI, requireNonNull(qualifiedName), requireNonNull(value));
+		return this;
+	}
+
+	/**
+	 * Implementation for setting an attribute on the current element.
+	 * @param namespaceURI The namespace URI of the attribute, or <code>null</code> if the attribute is in no namespace.
+	 * @param qualifiedName The qualified name of the attribute.
+	 * @param value The attribute value.
+	 * @throws IllegalStateException if content has already been added to the current element.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	protected abstract void attributeImpl(@Nullable String namespaceURI, @Nonnull String qualifiedName, @Nonnull String value);
+
+	/**
+	 * Adds text content to the current element, or at the top level if there is no current element.
+	 * @param text The text to add.
+	 * @return This builder.
+	 * @throws IllegalStateException if this builder has already been finished.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	public XmlBuilder text(@Nonnull final String text) {
+		checkState(depth >= 0, "Builder has already been finished.");
+		if(!text.isEmpty()) {
+			textImpl(text);
+		}
+		return this;
+	}
+
+	/**
+	 * Implementation for adding text content.
+	 * @param text The text to add, which will not be empty.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	protected abstract void textImpl(@Nonnull String text);
+
+	/**
+	 * Convenience method to add an element with no prefix containing only the given text.
+	 * @implSpec This implementation delegates to {@link #startElement(NsName)}, {@link #text(String)}, and {@link #endElement()}.
+	 * @param elementName The namespace URI and local name of the element to add.
+	 * @param text The text content of the element.
+	 * @return This builder.
+	 */
+	public XmlBuilder element(@Nonnull final NsName elementName, @Nonnull final String text) {
+		return startElement(elementName).text(text).endElement();
+	}
+
+	/**
+	 * Ends the current element; its parent element, if any, becomes the current element.
+	 * @return This builder.
+	 * @throws IllegalStateException if there is no current element.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	public XmlBuilder endElement() {
+		checkState(depth > 0, "No current element to end.");
+		endElementImpl();
+		depth--;
+		return this;
+	}
+
+	/**
+	 * Implementation for ending the current element.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	protected abstract void endElementImpl();
+
+	/**
+	 * Finishes building, delivering any batched content to its destination. No further content may be added afterwards.
+	 * @throws IllegalStateException if the builder has already been finished, or some elements have not been ended.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	public void finish() {
+		checkState(depth >= 0, "Builder has already been finished.");
+		checkState(depth == 0, "%d element(s) not ended.", depth);
+		finishImpl();
+		depth = -1;
+	}
+
+	/**
+	 * Implementation for finishing building.
+	 * @throws XmlBuilderException if there was an error generating the content.
+	 */
+	protected abstract void finishImpl();
+
+	/**
+	 * Creates a builder that builds DOM nodes to be appended to the given parent node. Nodes are built in a separate document fragment and appended to the
+	 * parent in a single batch when the builder is finished.
+	 * @param parentNode The node to which built nodes will be appended; must have an owner document, or be a document itself.
+	 * @return A new builder for the given parent node.
+	 */
+	public static XmlBuilder forParent(@Nonnull final Node parentNode) {
+		return new Dom(parentNode);
+	}
+
+	/**
+	 * Creates a builder that writes serialized XML directly to the given appendable, without creating any DOM nodes. Text and attribute values are encoded
+	 * using the given serializer, so that they are encoded exactly as they would be if a DOM tree were serialized by it. Namespace declarations are generated as
+	 * needed.
+	 * @apiNote The generated content is not formatted.
+	 * @param serializer The serializer to use for encoding text and attributes.
+	 * @param appendable The destination for the serialized content.
+	 * @return A new builder for writing to the given appendable.
+	 */
+	public static XmlBuilder forSerializer(@Nonnull final XMLSerializer serializer, @Nonnull final Appendable appendable) {
+		return new Serialized(serializer, appendable);
+	}
+
+	/**
+	 * Unchecked exception indicating that there was an error generating content, wrapping the underlying {@link DOMException} or {@link IOException}.
+	 * @author Garret Wilson
+	 */
+	public static class XmlBuilderException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Cause constructor.
+		 * @param cause The cause of the error.
+		 */
+		public XmlBuilderException(@Nonnull final Exception cause) {
+			super(cause);
+		}
+
+	}
+
+	/**
+	 * Builder implementation that creates DOM nodes.
+	 * @author Garret Wilson
+	 */
+	protected static class Dom extends XmlBuilder {
+
+		private final Node parentNode;
+
+		private final Document document;
+
+		/** The fragment into which top-level nodes are collected before being appended to the parent node in one batch. */
+		private final DocumentFragment fragment;
+
+		/** The node to which new content is being added. */
+		private Node currentNode;
+
+		/**
+		 * Constructor.
+		 * @param parentNode The node to which built nodes will be appended; must have an owner document, or be a document itself.
+		 */
+		protected Dom(@Nonnull final Node parentNode) {
+			this.parentNode = requireNonNull(parentNode);
+			this.document = parentNode.getNodeType() == Node.DOCUMENT_NODE ? (Document)parentNode : requireNonNull(parentNode.getOwnerDocument());
+			this.fragment = document.createDocumentFragment();
+			this.currentNode = fragment;
+		}
+
+		@Override
+		protected void startElementImpl(final String namespaceURI, final String qualifiedName) {
+			try {
+				currentNode = currentNode.appendChild(document.createElementNS(namespaceURI, qualifiedName));
+			} catch(final DOMException domException) {
+				throw new XmlBuilderException(domException);
+			}
+		}
+
+		@Override
+		protected void attributeImpl(final String namespaceURI, final String qualifiedName, final String value) {
+			checkState(!currentNode.hasChildNodes(), "Attribute `%s` must be set before element content.", qualifiedName);
+			try {
+				((Element)currentNode).setAttributeNS(namespaceURI, qualifiedName, value);
+			} catch(final DOMException domException) {
+				throw new XmlBuilderException(domException);
+			}
+		}
+
+		@Override
+		protected void textImpl(final String text) {
+			currentNode.appendChild(document.createTextNode(text));
+		}
+
+		@Override
+		protected void endElementImpl() {
+			currentNode = currentNode.getParentNode();
+		}
+
+		@Override
+		protected void finishImpl() {
+			try {
+				parentNode.appendChild(fragment); //append all the top-level nodes at once
+			} catch(final DOMException domException) {
+				throw new XmlBuilderException(domException);
+			}
+		}
+
+	}
+
+	/**
+	 * Builder implementation that writes serialized XML directly.
+	 * @implNote In-scope namespace declarations are tracked in parallel lists rather than a stack of maps, as there are typically very few declarations.
+	 * @author Garret Wilson
+	 */
+	protected static class Serialized extends XmlBuilder {
+
+		/** The base of prefixes generated for namespaced attributes given no prefix, to which a number is appended. */
+		private static final String GENERATED_PREFIX_BASE = "ns";
+
+		private final XMLSerializer serializer;
+
+		private final Appendable appendable;
+
+		/** The qualified names of the open elements, for writing end tags. */
+		private final List<String> openElementNames = new ArrayList<>();
+
+		/** The prefixes of in-scope namespace declarations, with <code>null</code> representing the default namespace. */
+		private final List<String> declaredPrefixes = new ArrayList<>();
+
+		/** The namespaces of in-scope namespace declarations, with <code>null</code> representing no namespace. */
+		private final List<String> declaredNamespaces = new ArrayList<>();
+
+		/** The number of namespace declarations in scope before each open element was started. */
+		private final List<Integer> declarationCounts = new ArrayList<>();
+
+		/** Whether the start tag of the current element has not yet been closed. */
+		private boolean startTagOpen = false;
+
+		/** The namespaces of the attributes of the open start tag, with <code>null</code> representing no namespace. */
+		private final List<String> startTagAttributeNamespaces = new ArrayList<>();
+
+		/** The local names of the attributes of the open start tag. */
+		private final List<String> startTagAttributeLocalNames = new ArrayList<>();
+
+		/** The qualified names of the attributes of the open start tag, as they will be written. */
+		private final List<String> startTagAttributeNames = new ArrayList<>();
+
+		/** The values of the attributes of the open start tag. */
+		private final List<String> startTagAttributeValues = new ArrayList<>();
+
+		/**
+		 * Constructor.
+		 * @param serializer The serializer to use for encoding text and attributes.
+		 * @param appendable The destination for the serialized content.
+		 */
+		protected Serialized(@Nonnull final XMLSerializer serializer, @Nonnull final Appendable appendable) {
+			this.serializer = requireNonNull(serializer);
+			this.appendable = requireNonNull(appendable);
+		}
+
+		/**
+		 * Ensures that the given namespace is declared for the given prefix, writing a namespace declaration attribute if needed.
+		 * @param prefix The namespace prefix, or <code>null</code> for the default namespace.
+		 * @param namespaceURI The namespace URI, or <code>null</code> for no namespace.
+		 */
+		private void ensureNamespaceDeclaration(@Nullable final String prefix, @Nullable final String namespaceURI) {
+			for(int i = declaredPrefixes.size() - 1; i >= 0; i--) {
+				if(Objects.equals(declaredPrefixes.get(i), prefix)) {
+					if(Objects.equals(declaredNamespaces.get(i), namespaceURI)) {
+						return; //already declared
+					}
+					break; //declared to some other namespace; redeclare below
+				}
+			}
+			if(prefix == null && namespaceURI == null && declaredPrefixes.indexOf(null) < 0) {
+				return; //no namespace is the default when the default namespace has never been declared
+			}
+			declaredPrefixes.add(prefix);
+			declaredNamespaces.add(namespaceURI);
+			final String localName = prefix != null ? prefix : ATTRIBUTE_XMLNS.getLocalName();
+			setStartTagAttribute(XMLNS_NAMESPACE_URI_STRING, localName, createQualifiedName(prefix != null ? XMLNS_NAMESPACE_PREFIX : null, localName),
+					namespaceURI != null ? namespaceURI : "");
+		}
+
+		/**
+		 * Sets an attribute of the open start tag, to be written when the start tag is closed. If an attribute with the same namespace and local name has already
+		 * been set, its qualified name and value are replaced, keeping its position.
+		 * @param namespaceURI The namespace of the attribute, or <code>null</code> for no namespace.
+		 * @param localName The local name of the attribute.
+		 * @param qualifiedName The qualified name of the attribute, as it will be written.
+		 * @param value The attribute value.
+		 */
+		private void setStartTagAttribute(@Nullable final String namespaceURI, @Nonnull final String localName, @Nonnull final String qualifiedName,
+				@Nonnull final String value) {
+			final int attributeCount = startTagAttributeNames.size();
+			for(int i = 0; i < attributeCount; i++) {
+				if(Objects.equals(startTagAttributeNamespaces.get(i), namespaceURI) && startTagAttributeLocalNames.get(i).equals(localName)) {
+					startTagAttributeNames.set(i, qualifiedName);
+					startTagAttributeValues.set(i, value);
+					return;
+				}
+			}
+			startTagAttributeNamespaces.add(namespaceURI);
+			startTagAttributeLocalNames.add(localName);
+			startTagAttributeNames.add(qualifiedName);
+			startTagAttributeValues.add(value);
+		}
+
+		/**
+		 * Writes the attributes of the open start tag, including namespace declarations, which are held until the start tag is closed so that a repeated attribute
+		 * replaces the earlier value.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		private void writeStartTagAttributes() throws IOException {
+			final int attributeCount = startTagAttributeNames.size();
+			for(int i = 0; i < attributeCount; i++) {
+				serializer.serializeAttribute(appendable, startTagAttributeNames.get(i), startTagAttributeValues.get(i));
+			}
+			startTagAttributeNamespaces.clear();
+			startTagAttributeLocalNames.clear();
+			startTagAttributeNames.clear();
+			startTagAttributeValues.clear();
+		}
+
+		/**
+		 * Closes the start tag of the current element, if it is open, first writing its attributes.
+		 * @throws IOException if an I/O error occurs.
+		 */
+		private void closeStartTag() throws IOException {
+			if(startTagOpen) {
+				writeStartTagAttributes();
+				appendable.append(TAG_END);
+				startTagOpen = false;
+			}
+		}
+
+		@Override
+		protected void startElementImpl(final String namespaceURI, final String qualifiedName) {
+			try {
+				closeStartTag();
+				appendable.append(TAG_START).append(qualifiedName);
+				declarationCounts.add(declaredPrefixes.size());
+				openElementNames.add(qualifiedName);
+				startTagOpen = true;
+				final int prefixDividerIndex = qualifiedName.indexOf(NAMESPACE_DIVIDER);
+				ensureNamespaceDeclaration(prefixDividerIndex >= 0 ? qualifiedName.substring(0, prefixDividerIndex) : null, namespaceURI);
+			} catch(final IOException ioException) {
+				throw new XmlBuilderException(ioException);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @implSpec As when building a DOM tree, setting an attribute with the same namespace and local name as one already set on the element replaces the earlier
+		 *           value and qualified name.
+		 */
+		@Override
+		protected void attributeImpl(final String namespaceURI, final String qualifiedName, final String value) {
+			checkState(startTagOpen, "Attribute `%s` must be set before element content.", qualifiedName);
+			final int prefixDividerIndex = qualifiedName.indexOf(NAMESPACE_DIVIDER);
+			final String localName = namespaceURI != null && prefixDividerIndex >= 0 ? qualifiedName.substring(prefixDividerIndex + 1) : qualifiedName;
+			String attributeQualifiedName = qualifiedName;
+			if(namespaceURI != null) { //an unprefixed attribute would be in no namespace, so a namespaced attribute always needs a prefix
+				final String prefix = prefixDividerIndex >= 0 ? qualifiedName.substring(0, prefixDividerIndex) : attributePrefixFor(namespaceURI);
+				if(!XMLNS_NAMESPACE_PREFIX.equals(prefix) && !XML_NAMESPACE_PREFIX.equals(prefix)) { //the `xmlns` and `xml` prefixes are implicitly declared
+					ensureNamespaceDeclaration(prefix, namespaceURI);
+				}
+				if(prefixDividerIndex < 0) {
+					attributeQualifiedName = createQualifiedName(prefix, qualifiedName);
+				}
+			}
+			setStartTagAttribute(namespaceURI, localName, attributeQualifiedName, value);
+		}
+
+		@Override
+		protected void textImpl(final String text) {
+			try {
+				closeStartTag();
+				serializer.encodeContent(appendable, text);
+			} catch(final IOException ioException) {
+				throw new XmlBuilderException(ioException);
+			}
+		}
+
+		@Override
+		protected void endElementImpl() {
+			final int lastIndex = openElementNames.size() - 1;
+			final String qualifiedName = openElementNames.remove(lastIndex);
+			try {
+				final int prefixDividerIndex = qualifiedName.indexOf(NAMESPACE_DIVIDER);
+				if(startTagOpen && serializer.isEmptyElementTag(declaredNamespaceOf(qualifiedName),
+						prefixDividerIndex >= 0 ? qualifiedName.substring(prefixDividerIndex + 1) : qualifiedName)) {
+					writeStartTagAttributes();
+					appendable.append(SPACE_CHAR).append(END_TAG_IDENTIFIER_CHAR).append(TAG_END); //include a space for HTML browser compatibility, as the serializer does
+					startTagOpen = false;
+				} else {
+					closeStartTag();
+					appendable.append(TAG_START).append(END_TAG_IDENTIFIER_CHAR).append(qualifiedName).append(TAG_END);
+				}
+			} catch(final IOException ioException) {
+				throw new XmlBuilderException(ioException);
+			}
+			final int declarationCount = declarationCounts.remove(lastIndex);
+			while(declaredPrefixes.size() > declarationCount) { //remove the declarations that go out of scope
+				declaredPrefixes.remove(declaredPrefixes.size() - 1);
+				declaredNamespaces.remove(declaredNamespaces.size() - 1);
+			}
+		}
+
+		/**
+		 * Determines a prefix to use for an attribute in the given namespace that was given no prefix. The <code>xml</code> and <code>xmlns</code> prefixes are
+		 * used for their respective namespaces; otherwise a non-default prefix already in scope for the namespace is reused, or a new prefix is generated that is
+		 * not yet in scope.
+		 * @param namespaceURI The namespace URI of the attribute.
+		 * @return The prefix to use for the attribute.
+		 */
+		private String attributePrefixFor(@Nonnull final String namespaceURI) {
+			if(XML_NAMESPACE_URI_STRING.equals(namespaceURI)) {
+				return XML_NAMESPACE_PREFIX;
+			}
+			if(XMLNS_NAMESPACE_URI_STRING.equals(namespaceURI)) {
+				return XMLNS_NAMESPACE_PREFIX;
+			}
+			for(int i = declaredNamespaces.size() - 1; i >= 0; i--) {
+				final String prefix = declaredPrefixes.get(i);
+				if(prefix != null && namespaceURI.equals(declaredNamespaces.get(i)) && declaredPrefixes.lastIndexOf(prefix) == i) { //skip prefixes since redeclared
+					return prefix;
+				}
+			}
+			int prefixNumber = 1;
+			String prefix;
+			do {
+				prefix = GENERATED_PREFIX_BASE + prefixNumber++;
+			} while(declaredPrefixes.contains(prefix));
+			return prefix;
+		}
+
+		/**
+		 * Determines the namespace currently declared for the prefix of the given qualified name.
+		 * @param qualifiedName The qualified name.
+		 * @return The namespace URI in scope for the name's prefix, or <code>null</code> if there is none.
+		 */
+		private String declaredNamespaceOf(@Nonnull final String qualifiedName) {
+			final int prefixDividerIndex = qualifiedName.indexOf(NAMESPACE_DIVIDER);
+			final String prefix = prefixDividerIndex >= 0 ? qualifiedName.substring(0, prefixDividerIndex) : null;
+			final int index = declaredPrefixes.lastIndexOf(prefix);
+			return index >= 0 ? declaredNamespaces.get(index) : null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 * @implSpec This implementation performs no action, as all content has already been written.
+		 */
+		@Override
+		protected void finishImpl() {
+		}
+
+	}
+
+}
@@ -0,0 +1,708 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static com.globalmentor.java.Conditions.*;
+import static com.globalmentor.xml.XmlDom.*;
+import static com.globalmentor.xml.def.XML.*;
+import static java.util.Collections.*;
+import static java.util.Objects.*;
+
+import java.io.*;
+import java.util.*;
+
+import javax.annotation.*;
+
+import org.w3c.dom.*;
+
+/**
+ * Serializes a namespace-aware DOM document or element in canonical form, writing UTF-8 bytes directly to an output stream in a single traversal of the tree.
+ * Canonical output is stable across logically equivalent documents, making it suitable for signing and for content hashing.
+ * <p>
+ * The following canonicalization rules are applied:
+ * </p>
+ * <ul>
+ * <li>There is no XML declaration or document type declaration.</li>
+ * <li>Empty elements are serialized as start and end tag pairs.</li>
+ * <li>CDATA sections are replaced with their character content, and entity references are expanded.</li>
+ * <li>Special characters in text and attribute values are replaced with character references as canonicalization requires.</li>
+ * <li>Superfluous namespace declarations are removed; namespace declarations are placed before other attributes and sorted by prefix, with the default
+ * namespace first. Other attributes are sorted by namespace URI and then by local name.</li>
+ * <li>Comments are removed unless requested, and processing instructions and comments outside the document element are separated by line feeds.</li>
+ * </ul>
+ * <p>
+ * The namespaces declared on each element depend on the {@link Algorithm}: with {@link Algorithm#INCLUSIVE} canonicalization all namespaces in scope are
+ * rendered where they differ from those rendered on output ancestors, while with {@link Algorithm#EXCLUSIVE} canonicalization only namespaces visibly used by
+ * the element or its attributes, or listed as inclusive namespace prefixes, are rendered.
+ * </p>
+ * <p>
+ * This class is immutable and thread-safe.
+ * </p>
+ * @apiNote Canonicalization uses attribute ordering, escaping, and namespace rules different from those of {@link XMLSerializer}, so it is provided separately
+ *          rather than as an option of the general serializer. Namespace prefixes used by elements and attributes but not explicitly declared in the DOM tree
+ *          are treated as if declared.
+ * @implNote When canonicalizing an element as a document subset using {@link Algorithm#INCLUSIVE}, the <code>xml:lang</code> and <code>xml:space</code>
+ *           attributes are inherited from ancestors, but <code>xml:base</code> fixup is not performed. Names are compared by Unicode code point.
+ * @author Garret Wilson
+ * @see <a href="https://www.w3.org/TR/xml-c14n11/">Canonical XML Version 1.1</a>
+ * @see <a href="https://www.w3.org/TR/xml-exc-c14n/">Exclusive XML Canonicalization Version 1.0</a>
+ */
+public class XmlCanonicalizer {
+
+	/** The canonicalization algorithm, determining which namespace declarations are rendered. */
+	public enum Algorithm {
+		/**
+		 * Canonical XML, in which all namespaces in scope are rendered.
+		 * @see <a href="https://www.w3.org/TR/xml-c14n11/">Canonical XML Version 1.1</a>
+		 */
+		INCLUSIVE,
+		/**
+		 * Exclusive XML canonicalization, in which only visibly utilized namespaces are rendered.
+		 * @see <a href="https://www.w3.org/TR/xml-exc-c14n/">Exclusive XML Canonicalization Version 1.0</a>
+		 */
+		EXCLUSIVE
+	}
+
+	/** The token used in an inclusive namespace prefix list to indicate the default namespace. */
+	public static final String DEFAULT_NAMESPACE_PREFIX_TOKEN = "#default";
+
+	/** The key used in namespace maps to represent the default namespace. */
+	private static final String DEFAULT_PREFIX = "";
+
+	/** The size of the buffer for encoding output. */
+	private static final int BUFFER_SIZE = 8192;
+
+	/** An empty attribute array for requesting attribute snapshots. */
+	private static final Attr[] NO_ATTRIBUTES = new Attr[0];
+
+	/** The namespace declarations in scope before any element; only the default namespace, with no value. */
+	private static final Map<String, String> EMPTY_SCOPE = singletonMap(DEFAULT_PREFIX, "");
+
+	private final Algorithm algorithm;
+
+	/** @return The canonicalization algorithm. */
+	public Algorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	private final boolean withComments;
+
+	/** @return Whether comments are included in the canonical form. */
+	public boolean isWithComments() {
+		return withComments;
+	}
+
+	private final Set<String> inclusiveNamespacePrefixes;
+
+	/**
+	 * Returns the prefixes of namespaces to be treated as with inclusive canonicalization when using {@link Algorithm#EXCLUSIVE}, with the default namespace
+	 * indicated by {@value #DEFAULT_NAMESPACE_PREFIX_TOKEN}.
+	 * @return The inclusive namespace prefix list.
+	 */
+	public Set<String> getInclusiveNamespacePrefixes() {
+		return inclusiveNamespacePrefixes;
+	}
+
+	/**
+	 * Algorithm constructor with no comments and no inclusive namespace prefixes.
+	 * @param algorithm The canonicalization algorithm.
+	 */
+	public XmlCanonicalizer(@Nonnull final Algorithm algorithm) {
+		this(algorithm, false, emptySet());
+	}
+
+	/**
+	 * Full constructor.
+	 * @param algorithm The canonicalization algorithm.
+	 * @param withComments Whether comments should be included in the canonical form.
+	 * @param inclusiveNamespacePrefixes The prefixes of namespaces to be treated as with inclusive canonicalization when using {@link Algorithm#EXCLUSIVE}, with
+	 *          the default namespace indicated by {@value #DEFAULT_NAMESPACE_PREFIX_TOKEN}.
+	 * @throws IllegalArgumentException if inclusive namespace prefixes are given for an algorithm other than {@link Algorithm#EXCLUSIVE}.
+	 */
+	public XmlCanonicalizer(@Nonnull final Algorithm algorithm, final boolean withComments, @Nonnull final Set<String> inclusiveNamespacePrefixes) {
+		this.algorithm = requireNonNull(algorithm);
+		this.withComments = withComments;
+		checkArgument(inclusiveNamespacePrefixes.isEmpty() || algorithm == Algorithm.EXCLUSIVE,
+				"Inclusive namespace prefixes are only supported for exclusive canonicalization.");
+		this.inclusiveNamespacePrefixes = Set.copyOf(inclusiveNamespacePrefixes);
+	}
+
+	/**
+	 * Canonicalizes a document or element to a byte array.
+	 * @param node The document, or the element to canonicalize as a document subset along with all its descendants.
+	 * @return The canonical form in UTF-8.
+	 * @throws IllegalArgumentException if the node is neither a document nor an element.
+	 */
+	public byte[] canonicalize(@Nonnull final Node node) {
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try {
+			canonicalize(node, byteArrayOutputStream);
+		} catch(final IOException ioException) { //there should never by an I/O exception writing to a byte array output stream
+			throw new AssertionError(ioException);
+		}
+		return byteArrayOutputStream.toByteArray();
+	}
+
+	/**
+	 * Canonicalizes a document or element to an output stream.
+	 * @apiNote The output stream is neither flushed nor closed.
+	 * @param node The document, or the element to canonicalize as a document subset along with all its descendants.
+	 * @param outputStream The output stream to which the canonical form should be written in UTF-8.
+	 * @throws IllegalArgumentException if the node is neither a document nor an element.
+	 * @throws IOException if an I/O error occurred.
+	 */
+	public void canonicalize(@Nonnull final Node node, @Nonnull final OutputStream outputStream) throws IOException {
+		final Canonicalization canonicalization = new Canonicalization(outputStream);
+		switch(node.getNodeType()) {
+			case Node.DOCUMENT_NODE:
+				canonicalization.writeDocument((Document)node);
+				break;
+			case Node.ELEMENT_NODE:
+				canonicalization.writeApexElement((Element)node);
+				break;
+			default:
+				throw new IllegalArgumentException(String.format("Only documents and elements can be canonicalized; found node type %d.", node.getNodeType()));
+		}
+		canonicalization.flush();
+	}
+
+	/**
+	 * Compares two strings by Unicode code point.
+	 * @param string1 The first string.
+	 * @param string2 The second string.
+	 * @return A negative number, zero, or a positive number if the first string is less than, equal to, or greater than the second, respectively.
+	 */
+	static int compareCodePoints(@Nonnull final String string1, @Nonnull final String string2) {
+		final int length1 = string1.length();
+		final int length2 = string2.length();
+		final int minLength = Math.min(length1, length2);
+		for(int i = 0; i < minLength; i++) {
+			final char c1 = string1.charAt(i);
+			final char c2 = string2.charAt(i);
+			if(c1 != c2) {
+				//surrogates encode code points above all other BMP characters, so they must sort after the rest of the BMP
+				final boolean isSurrogate1 = Character.isSurrogate(c1);
+				if(isSurrogate1 != Character.isSurrogate(c2)) {
+					return isSurrogate1 ? 1 : -1;
+				}
+				return c1 - c2;
+			}
+		}
+		return length1 - length2;
+	}
+
+	/**
+	 * The order of non-namespace attributes in canonical form: first by namespace URI, with no namespace first; then by local name.
+	 * @see <a href="https://www.w3.org/TR/xml-c14n11/#DocumentOrder">Canonical XML Version 1.1 § 2.2 Document Order</a>
+	 */
+	private static final Comparator<Attr> ATTRIBUTE_ORDER = (attr1, attr2) -> {
+		final int namespaceResult = compareCodePoints(Objects.toString(attr1.getNamespaceURI(), ""), Objects.toString(attr2.getNamespaceURI(), ""));
+		if(namespaceResult != 0) {
+			return namespaceResult;
+		}
+		return compareCodePoints(localNameOf(attr1), localNameOf(attr2));
+	};
+
+	/**
+	 * Returns the local name of a node, falling back to the node name for nodes created using DOM Level 1 methods.
+	 * @param node The node.
+	 * @return The local name of the node.
+	 */
+	private static String localNameOf(@Nonnull final Node node) {
+		final String localName = node.getLocalName();
+		return localName != null ? localName : node.getNodeName();
+	}
+
+	/**
+	 * Returns the namespace prefix key of a node.
+	 * @param node The node.
+	 * @return The prefix of the node, or {@link #DEFAULT_PREFIX} if the node has no prefix.
+	 */
+	private static String prefixOf(@Nonnull final Node node) {
+		final String prefix = node.getPrefix();
+		return prefix != null ? prefix : DEFAULT_PREFIX;
+	}
+
+	/**
+	 * Determines whether an attribute is a namespace declaration.
+	 * @param attribute The attribute to check.
+	 * @return <code>true</code> if the attribute is in the {@value XML#XMLNS_NAMESPACE_URI_STRING} namespace.
+	 */
+	private static boolean isNamespaceDeclaration(@Nonnull final Attr attribute) {
+		return XMLNS_NAMESPACE_URI_STRING.equals(attribute.getNamespaceURI());
+	}
+
+	/**
+	 * Returns the prefix declared by a namespace declaration attribute.
+	 * @param attribute The namespace declaration attribute.
+	 * @return The declared prefix, or {@link #DEFAULT_PREFIX} if the attribute declares the default namespace.
+	 */
+	private static String declaredPrefixOf(@Nonnull final Attr attribute) {
+		return attribute.getPrefix() != null ? attribute.getLocalName() : DEFAULT_PREFIX; //`xmlns:foo` declares `foo`; `xmlns` declares the default namespace
+	}
+
+	/**
+	 * The state of a single canonicalization, including the UTF-8 output buffer.
+	 * @author Garret Wilson
+	 */
+	private final class Canonicalization {
+
+		private final OutputStream outputStream;
+
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+
+		private int bufferPosition = 0;
+
+		/**
+		 * Constructor.
+		 * @param outputStream The output stream to which the canonical form should be written.
+		 */
+		Canonicalization(@Nonnull final OutputStream outputStream) {
+			this.outputStream = requireNonNull(outputStream);
+		}
+
+		//# output
+
+		/**
+		 * Writes a single byte.
+		 * @param b The byte to write.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		private void writeByte(final int b) throws IOException {
+			if(bufferPosition == buffer.length) {
+				flushBuffer();
+			}
+			buffer[bufferPosition++] = (byte)b;
+		}
+
+		/**
+		 * Writes characters without escaping, encoded in UTF-8.
+		 * @param text The text to write.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		private void write(@Nonnull final CharSequence text) throws IOException {
+			final int length = text.length();
+			for(int i = 0; i < length; i++) {
+				final char c = text.charAt(i);
+				if(c < 0x80) {
+					writeByte(c);
+				} else if(c < 0x800) {
+					writeByte(0xc0 | (c >> 6));
+					writeByte(0x80 | (c & 0x3f));
+				} else if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+					final int codePoint = Character.toCodePoint(c, text.charAt(++i));
+					writeByte(0xf0 | (codePoint >> 18));
+					writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+					writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+					writeByte(0x80 | (codePoint & 0x3f));
+				} else if(Character.isSurrogate(c)) { //an unpaired surrogate cannot be represented in UTF-8
+					writeByte('?');
+				} else {
+					writeByte(0xe0 | (c >> 12));
+					writeByte(0x80 | ((c >> 6) & 0x3f));
+					writeByte(0x80 | (c & 0x3f));
+				}
+			}
+		}
+
+		/**
+		 * Writes text content, escaping characters as required for text nodes.
+		 * @param text The text to write.
+		 * @throws IOException if an I/O error occurred.
+		 * @see <a href="https://www.w3.org/TR/xml-c14n11/#ProcessingModel">Canonical XML Version 1.1 § 2.3 Processing Model: Text Nodes</a>
+		 */
+		private void writeEscapedText(@Nonnull final String text) throws IOException {
+			final int length = text.length();
+			int start = 0;
+			for(int i = 0; i < length; i++) {
+				final String replacement;
+				switch(text.charAt(i)) {
+					case '&':
+						replacement = "&amp;";
+						break;
+					case '<':
+						replacement = "&lt;";
+						break;
+					case '>':
+						replacement = "&gt;";
+						break;
+					case '\r':
+						replacement = "&#xD;";
+						break;
+					default:
+						continue;
+				}
+				write(text.subSequence(start, i));
+				write(replacement);
+				start = i + 1;
+			}
+			write(start == 0 ? text : text.subSequence(start, length));
+		}
+
+		/**
+		 * Writes an attribute value, escaping characters as required for attribute nodes.
+		 * @param value The attribute value to write.
+		 * @throws IOException if an I/O error occurred.
+		 * @see <a href="https://www.w3.org/TR/xml-c14n11/#ProcessingModel">Canonical XML Version 1.1 § 2.3 Processing Model: Attribute Nodes</a>
+		 */
+		private void writeEscapedAttributeValue(@Nonnull final String value) throws IOException {
+			final int length = value.length();
+			int start = 0;
+			for(int i = 0; i < length; i++) {
+				final String replacement;
+				switch(value.charAt(i)) {
+					case '&':
+						replacement = "&amp;";
+						break;
+					case '<':
+						replacement = "&lt;";
+						break;
+					case '"':
+						replacement = "&quot;";
+						break;
+					case '\t':
+						replacement = "&#x9;";
+						break;
+					case '\n':
+						replacement = "&#xA;";
+						break;
+					case '\r':
+						replacement = "&#xD;";
+						break;
+					default:
+						continue;
+				}
+				write(value.subSequence(start, i));
+				write(replacement);
+				start = i + 1;
+			}
+			write(start == 0 ? value : value.subSequence(start, length));
+		}
+
+		/**
+		 * Writes an attribute.
+		 * @param name The qualified name of the attribute.
+		 * @param value The value of the attribute.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		private void writeAttribute(@Nonnull final String name, @Nonnull final String value) throws IOException {
+			writeByte(' ');
+			write(name);
+			writeByte('=');
+			writeByte('"');
+			writeEscapedAttributeValue(value);
+			writeByte('"');
+		}
+
+		/**
+		 * Writes any buffered bytes to the output stream.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		private void flushBuffer() throws IOException {
+			outputStream.write(buffer, 0, bufferPosition);
+			bufferPosition = 0;
+		}
+
+		/**
+		 * Writes any buffered bytes to the output stream, without flushing the output stream itself.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		void flush() throws IOException {
+			if(bufferPosition > 0) {
+				flushBuffer();
+			}
+		}
+
+		//# nodes
+
+		/**
+		 * Writes a document.
+		 * @param document The document to write.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		void writeDocument(@Nonnull final Document document) throws IOException {
+			boolean afterDocumentElement = false;
+			for(Node childNode = document.getFirstChild(); childNode != null; childNode = childNode.getNextSibling()) {
+				switch(childNode.getNodeType()) {
+					case Node.ELEMENT_NODE:
+						writeElement((Element)childNode, EMPTY_SCOPE, EMPTY_SCOPE, null);
+						afterDocumentElement = true;
+						break;
+					case Node.COMMENT_NODE:
+					case Node.PROCESSING_INSTRUCTION_NODE:
+						if(childNode.getNodeType() == Node.COMMENT_NODE && !isWithComments()) {
+							break;
+						}
+						if(afterDocumentElement) {
+							writeByte('\n');
+						}
+						writeNode(childNode, EMPTY_SCOPE, EMPTY_SCOPE);
+						if(!afterDocumentElement) {
+							writeByte('\n');
+						}
+						break;
+					default: //the document type declaration is not included
+						break;
+				}
+			}
+		}
+
+		/**
+		 * Writes an element as the apex of a document subset.
+		 * @param element The element to write.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		void writeApexElement(@Nonnull final Element element) throws IOException {
+			final Map<String, String> inScope = new HashMap<>(EMPTY_SCOPE);
+			final Set<String> declaredPrefixes = new HashSet<>();
+			Map<String, String> inheritedXmlAttributes = null;
+			for(Node ancestor = element.getParentNode(); ancestor instanceof Element; ancestor = ancestor.getParentNode()) {
+				final NamedNodeMap attributes = ancestor.getAttributes();
+				final int attributeCount = attributes.getLength();
+				for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+					final Attr attribute = (Attr)attributes.item(attributeIndex);
+					if(isNamespaceDeclaration(attribute)) {
+						final String prefix = declaredPrefixOf(attribute);
+						if(declaredPrefixes.add(prefix)) { //the nearest declaration wins
+							inScope.put(prefix, attribute.getValue());
+						}
+					} else if(getAlgorithm() == Algorithm.INCLUSIVE && XML_NAMESPACE_URI_STRING.equals(attribute.getNamespaceURI())) {
+						final String localName = attribute.getLocalName();
+						if(ATTRIBUTE_LANG.getLocalName().equals(localName) || ATTRIBUTE_SPACE.getLocalName().equals(localName)) {
+							if(inheritedXmlAttributes == null) {
+								inheritedXmlAttributes = new TreeMap<>();
+							}
+							inheritedXmlAttributes.putIfAbsent(localName, attribute.getValue());
+						}
+					}
+				}
+				final String ancestorNamespaceURI = ancestor.getNamespaceURI();
+				if(ancestorNamespaceURI != null) { //the prefix of the ancestor implies a namespace declaration even if not explicitly declared
+					final String prefix = prefixOf(ancestor);
+					if(declaredPrefixes.add(prefix)) {
+						inScope.put(prefix, ancestorNamespaceURI);
+					}
+				}
+			}
+			if(inheritedXmlAttributes != null) { //attributes on the apex element itself take precedence
+				inheritedXmlAttributes.keySet().removeIf(localName -> element.hasAttributeNS(XML_NAMESPACE_URI_STRING, localName));
+			}
+			writeElement(element, inScope, EMPTY_SCOPE, inheritedXmlAttributes);
+		}
+
+		/**
+		 * Writes an element and its descendants.
+		 * @param element The element to write.
+		 * @param parentInScope The namespaces in scope for the parent, mapped to prefixes, with the default namespace mapped to {@link #DEFAULT_PREFIX}.
+		 * @param parentRendered The namespaces rendered on output ancestors, mapped to prefixes, with the default namespace mapped to {@link #DEFAULT_PREFIX}.
+		 * @param inheritedXmlAttributes The local names and values of attributes in the {@value XML#XML_NAMESPACE_URI_STRING} namespace inherited from
+		 *          ancestors, sorted by local name; or <code>null</code> if there are none.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		private void writeElement(@Nonnull final Element element, @Nonnull final Map<String, String> parentInScope,
+				@Nonnull final Map<String, String> parentRendered, @Nullable final Map<String, String> inheritedXmlAttributes) throws IOException {
+			final Attr[] attributes = toAttributeArray(element, NO_ATTRIBUTES); //a separate snapshot is needed for each element, as it is used after descendants are written
+			final int attributeCount = element.getAttributes().getLength();
+			int otherAttributeCount = 0; //non-namespace attributes are moved to the beginning of the array
+
+			//determine the namespaces in scope, including those implied by the names in use
+			Map<String, String> inScope = parentInScope;
+			for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+				final Attr attribute = attributes[attributeIndex];
+				if(isNamespaceDeclaration(attribute)) {
+					inScope = withNamespace(inScope, parentInScope, declaredPrefixOf(attribute), attribute.getValue());
+				} else {
+					attributes[otherAttributeCount++] = attribute;
+				}
+			}
+			final String elementPrefix = prefixOf(element);
+			inScope = withNamespace(inScope, parentInScope, elementPrefix, Objects.toString(element.getNamespaceURI(), ""));
+			for(int attributeIndex = 0; attributeIndex < otherAttributeCount; attributeIndex++) {
+				final Attr attribute = attributes[attributeIndex];
+				final String attributePrefix = attribute.getPrefix();
+				if(attributePrefix != null && !XML_NAMESPACE_PREFIX.equals(attributePrefix)) {
+					inScope = withNamespace(inScope, parentInScope, attributePrefix, Objects.toString(attribute.getNamespaceURI(), ""));
+				}
+			}
+
+			//determine the namespace declarations to render
+			final SortedMap<String, String> namespaceDeclarations = new TreeMap<>(XmlCanonicalizer::compareCodePoints);
+			if(getAlgorithm() == Algorithm.INCLUSIVE) {
+				for(final Map.Entry<String, String> namespace : inScope.entrySet()) {
+					final String prefix = namespace.getKey();
+					if(!XML_NAMESPACE_PREFIX.equals(prefix)) {
+						addNamespaceDeclaration(namespaceDeclarations, parentRendered, prefix, namespace.getValue());
+					}
+				}
+			} else {
+				addNamespaceDeclaration(namespaceDeclarations, parentRendered, elementPrefix, inScope.get(elementPrefix));
+				for(int attributeIndex = 0; attributeIndex < otherAttributeCount; attributeIndex++) {
+					final String attributePrefix = attributes[attributeIndex].getPrefix();
+					if(attributePrefix != null && !XML_NAMESPACE_PREFIX.equals(attributePrefix)) {
+						addNamespaceDeclaration(namespaceDeclarations, parentRendered, attributePrefix, inScope.get(attributePrefix));
+					}
+				}
+				for(final String inclusivePrefixToken : getInclusiveNamespacePrefixes()) {
+					final String prefix = DEFAULT_NAMESPACE_PREFIX_TOKEN.equals(inclusivePrefixToken) ? DEFAULT_PREFIX : inclusivePrefixToken;
+					final String namespaceURI = inScope.get(prefix);
+					if(namespaceURI != null) {
+						addNamespaceDeclaration(namespaceDeclarations, parentRendered, prefix, namespaceURI);
+					}
+				}
+			}
+			final Map<String, String> rendered;
+			if(namespaceDeclarations.isEmpty()) {
+				rendered = parentRendered;
+			} else {
+				rendered = new HashMap<>(parentRendered);
+				rendered.putAll(namespaceDeclarations);
+			}
+
+			//write the start tag
+			final String elementName = element.getNodeName();
+			writeByte('<');
+			write(elementName);
+			for(final Map.Entry<String, String> namespaceDeclaration : namespaceDeclarations.entrySet()) {
+				final String prefix = namespaceDeclaration.getKey();
+				writeAttribute(prefix.equals(DEFAULT_PREFIX) ? XMLNS_NAMESPACE_PREFIX : XMLNS_NAMESPACE_PREFIX + NAMESPACE_DIVIDER + prefix,
+						namespaceDeclaration.getValue());
+			}
+			if(inheritedXmlAttributes != null && !inheritedXmlAttributes.isEmpty()) { //add inherited attributes to be sorted with the others
+				final Attr[] allAttributes = Arrays.copyOf(attributes, otherAttributeCount + inheritedXmlAttributes.size());
+				for(final Map.Entry<String, String> inheritedXmlAttribute : inheritedXmlAttributes.entrySet()) {
+					final Attr attribute = element.getOwnerDocument().createAttributeNS(XML_NAMESPACE_URI_STRING,
+							XML_NAMESPACE_PREFIX + NAMESPACE_DIVIDER + inheritedXmlAttribute.getKey());
+					attribute.setValue(inheritedXmlAttribute.getValue());
+					allAttributes[otherAttributeCount++] = attribute;
+				}
+				writeAttributes(allAttributes, otherAttributeCount);
+			} else {
+				writeAttributes(attributes, otherAttributeCount);
+			}
+			writeByte('>');
+
+			//write the content and end tag
+			for(Node childNode = element.getFirstChild(); childNode != null; childNode = childNode.getNextSibling()) {
+				writeNode(childNode, inScope, rendered);
+			}
+			writeByte('<');
+			writeByte('/');
+			write(elementName);
+			writeByte('>');
+		}
+
+		/**
+		 * Sorts and writes non-namespace attributes.
+		 * @param attributes The array containing the attributes.
+		 * @param attributeCount The number of attributes at the start of the array to write.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		private void writeAttributes(@Nonnull final Attr[] attributes, final int attributeCount) throws IOException {
+			if(attributeCount > 1) {
+				Arrays.sort(attributes, 0, attributeCount, ATTRIBUTE_ORDER);
+			}
+			for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+				final Attr attribute = attributes[attributeIndex];
+				writeAttribute(attribute.getName(), attribute.getValue());
+			}
+		}
+
+		/**
+		 * Writes a child node of an element or document.
+		 * @param node The node to write.
+		 * @param inScope The namespaces in scope for the parent.
+		 * @param rendered The namespaces rendered on output ancestors.
+		 * @throws IOException if an I/O error occurred.
+		 */
+		private void writeNode(@Nonnull final Node node, @Nonnull final Map<String, String> inScope, @Nonnull final Map<String, String> rendered)
+				throws IOException {
+			switch(node.getNodeType()) {
+				case Node.ELEMENT_NODE:
+					writeElement((Element)node, inScope, rendered, null);
+					break;
+				case Node.TEXT_NODE:
+				case Node.CDATA_SECTION_NODE:
+					writeEscapedText(node.getNodeValue());
+					break;
+				case Node.COMMENT_NODE:
+					if(isWithComments()) {
+						write(COMMENT_START);
+						write(node.getNodeValue());
+						write(COMMENT_END);
+					}
+					break;
+				case Node.PROCESSING_INSTRUCTION_NODE:
+					write(PROCESSING_INSTRUCTION_START);
+					write(((ProcessingInstruction)node).getTarget());
+					final String data = ((ProcessingInstruction)node).getData();
+					if(data != null && !data.isEmpty()) {
+						writeByte(' ');
+						write(data);
+					}
+					write(PROCESSING_INSTRUCTION_END);
+					break;
+				case Node.ENTITY_REFERENCE_NODE: //expand entity references
+					for(Node childNode = node.getFirstChild(); childNode != null; childNode = childNode.getNextSibling()) {
+						writeNode(childNode, inScope, rendered);
+					}
+					break;
+				default:
+					break;
+			}
+		}
+
+	}
+
+	/**
+	 * Returns a namespace scope with the given namespace, copying the scope if needed so that the parent scope is never modified.
+	 * @param scope The current scope, which may be the same as the parent scope.
+	 * @param parentScope The parent scope, which must not be modified.
+	 * @param prefix The namespace prefix, or {@link #DEFAULT_PREFIX} for the default namespace.
+	 * @param namespaceURI The namespace URI, or the empty string for no namespace.
+	 * @return The scope including the given namespace.
+	 */
+	private static Map<String, String> withNamespace(@Nonnull final Map<String, String> scope, @Nonnull final Map<String, String> parentScope,
+			@Nonnull final String prefix, @Nonnull final String namespaceURI) {
+		if(namespaceURI.equals(scope.get(prefix))) {
+			return scope;
+		}
+		final Map<String, String> newScope = scope == parentScope ? new HashMap<>(parentScope) : scope;
+		newScope.put(prefix, namespaceURI);
+		return newScope;
+	}
+
+	/**
+	 * Adds a namespace declaration to be rendered if it has not already been rendered on an output ancestor.
+	 * @param namespaceDeclarations The namespace declarations to render.
+	 * @param rendered The namespaces rendered on output ancestors.
+	 * @param prefix The namespace prefix, or {@link #DEFAULT_PREFIX} for the default namespace.
+	 * @param namespaceURI The namespace URI, or the empty string for no namespace; if <code>null</code>, no declaration is added.
+	 */
+	private static void addNamespaceDeclaration(@Nonnull final Map<String, String> namespaceDeclarations, @Nonnull final Map<String, String> rendered,
+			@Nonnull final String prefix, @Nullable final String namespaceURI) {
+		if(namespaceURI == null) {
+			return;
+		}
+		if(namespaceURI.isEmpty() && !prefix.equals(DEFAULT_PREFIX)) { //prefixes cannot be undeclared in XML 1.0
+			return;
+		}
+		if(!namespaceURI.equals(rendered.get(prefix))) {
+			namespaceDeclarations.put(prefix, namespaceURI);
+		}
+	}
+
+}
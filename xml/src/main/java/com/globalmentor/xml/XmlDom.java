@@ -22,6 +22,7 @@
 import java.nio.charset.*;
 import java.util.*;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.*;
 
@@ -860,6 +861,161 @@ public static void appendImportedChildNodes(final Node destinationNode, final No
 		}
 	}
 
+	/**
+	 * Performs a deep import of the children of the source node, adding them to the destination node, and ensures that all namespaces used by the imported
+	 * elements and attributes are declared.
+	 * @implSpec This implementation delegates to {@link #appendImportedChildNodesNS(Node, Iterable)}.
+	 * @param <N> The type of destination node.
+	 * @param destinationNode The node that will receive the imported child nodes.
+	 * @param sourceNode The node from whence the nodes will be imported, such as a {@link DocumentFragment}.
+	 * @return The destination node.
+	 * @throws DOMException if there was an error importing or appending the nodes.
+	 */
+	public static <N extends Node> N appendImportedChildNodesNS(@Nonnull final N destinationNode, @Nonnull final Node sourceNode) throws DOMException {
+		return appendImportedChildNodesNS(destinationNode, List.of(sourceNode));
+	}
+
+	/**
+	 * Performs a deep import of the children of each of the source nodes, adding them in order to the destination node, and ensures that all namespaces used by
+	 * the imported elements and attributes are declared. Any missing namespace declaration is added to the imported element that needs it.
+	 * <p>
+	 * This method is equivalent to calling {@link #appendImportedChildNodes(Node, Node)} for each source node and then
+	 * {@link #ensureNamespaceDeclarations(Element, Element, boolean)} deeply on each imported element, but is much more efficient: the namespace declarations
+	 * in scope at the destination node are determined only once, and are then tracked in a scope map while the source trees are copied in a single traversal,
+	 * so that no searches up the tree are needed for each imported element. The imported nodes are assembled in a separate document fragment and appended to the
+	 * destination node in a single batch.
+	 * </p>
+	 * @apiNote This method is useful for efficiently composing a document from many fragments, such as those produced by
+	 *          {@link #parseFragment(String, DocumentBuilder, String)}.
+	 * @param <N> The type of destination node.
+	 * @param destinationNode The node that will receive the imported child nodes.
+	 * @param sourceNodes The nodes from whence the child nodes will be imported, such as {@link DocumentFragment} instances.
+	 * @return The destination node.
+	 * @throws DOMException if there was an error importing or appending the nodes.
+	 */
+	public static <N extends Node> N appendImportedChildNodesNS(@Nonnull final N destinationNode, @Nonnull final Iterable<? extends Node> sourceNodes)
+			throws DOMException {
+		final Document destinationDocument = destinationNode.getNodeType() == Node.DOCUMENT_NODE ? (Document)destinationNode : destinationNode.getOwnerDocument();
+		//determine the namespaces in scope at the destination, with the innermost declarations taking precedence
+		final Map<String, String> scope = new HashMap<>(); //keys may be `null` for the default namespace
+		for(Node node = destinationNode; node != null && node.getNodeType() == Node.ELEMENT_NODE; node = node.getParentNode()) {
+			final NamedNodeMap attributes = node.getAttributes();
+			final int attributeCount = attributes.getLength();
+			for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+				final Attr attribute = (Attr)attributes.item(attributeIndex);
+				if(XMLNS_NAMESPACE_URI_STRING.equals(attribute.getNamespaceURI())) {
+					scope.putIfAbsent(XMLNS_NAMESPACE_PREFIX.equals(attribute.getPrefix()) ? attribute.getLocalName() : null, attribute.getValue());
+				}
+			}
+		}
+		final DocumentFragment fragment = destinationDocument.createDocumentFragment();
+		for(final Node sourceNode : sourceNodes) {
+			for(Node sourceChildNode = sourceNode.getFirstChild(); sourceChildNode != null; sourceChildNode = sourceChildNode.getNextSibling()) {
+				fragment.appendChild(importNodeNS(destinationDocument, sourceChildNode, scope));
+			}
+		}
+		destinationNode.appendChild(fragment); //append all the imported nodes at once
+		return destinationNode;
+	}
+
+	/**
+	 * Deeply imports a node, declaring any namespaces needed by imported elements and their attributes that are not present in the given scope.
+	 * @implNote The scope map is modified during import, but restored to its original state before returning.
+	 * @param document The document into which the node is being imported.
+	 * @param sourceNode The node to import.
+	 * @param scope The map of namespace URIs declared in scope, keyed to prefixes, with the <code>null</code> key representing the default namespace and the empty
+	 *          string representing no namespace.
+	 * @return The imported node.
+	 * @throws DOMException if there was an error importing the node.
+	 */
+	private static Node importNodeNS(@Nonnull final Document document, @Nonnull final Node sourceNode, @Nonnull final Map<String, String> scope)
+			throws DOMException {
+		if(sourceNode.getNodeType() != Node.ELEMENT_NODE) {
+			return document.importNode(sourceNode, true); //text, comments, and the like have no namespace concerns
+		}
+		final Element sourceElement = (Element)sourceNode;
+		final Element element = document.createElementNS(sourceElement.getNamespaceURI(), sourceElement.getNodeName());
+		Map<String, String> previousScope = null; //the previous values of prefixes changed at this level, created lazily
+		//copy the attributes, noting any namespace declarations
+		final NamedNodeMap sourceAttributes = sourceElement.getAttributes();
+		final int sourceAttributeCount = sourceAttributes.getLength();
+		for(int attributeIndex = 0; attributeIndex < sourceAttributeCount; attributeIndex++) {
+			final Attr sourceAttribute = (Attr)sourceAttributes.item(attributeIndex);
+			final String attributeNamespaceURI = sourceAttribute.getNamespaceURI();
+			element.setAttributeNS(attributeNamespaceURI, sourceAttribute.getName(), sourceAttribute.getValue());
+			if(XMLNS_NAMESPACE_URI_STRING.equals(attributeNamespaceURI)) {
+				final String prefix = XMLNS_NAMESPACE_PREFIX.equals(sourceAttribute.getPrefix()) ? sourceAttribute.getLocalName() : null;
+				previousScope = enterScope(scope, previousScope, prefix, sourceAttribute.getValue());
+			}
+		}
+		//declare any namespaces still missing for the element and its attributes
+		previousScope = ensureScopeDeclaration(element, element.getPrefix(), element.getNamespaceURI(), scope, previousScope);
+		for(int attributeIndex = 0; attributeIndex < sourceAttributeCount; attributeIndex++) {
+			final Attr sourceAttribute = (Attr)sourceAttributes.item(attributeIndex);
+			final String attributePrefix = sourceAttribute.getPrefix();
+			if(attributePrefix != null) { //attributes without prefixes are in no namespace, regardless of the default namespace
+				previousScope = ensureScopeDeclaration(element, attributePrefix, sourceAttribute.getNamespaceURI(), scope, previousScope);
+			}
+		}
+		for(Node sourceChildNode = sourceElement.getFirstChild(); sourceChildNode != null; sourceChildNode = sourceChildNode.getNextSibling()) {
+			element.appendChild(importNodeNS(document, sourceChildNode, scope));
+		}
+		if(previousScope != null) { //restore the scope as it was before this element
+			for(final Map.Entry<String, String> previousEntry : previousScope.entrySet()) {
+				if(previousEntry.getValue() != null) {
+					scope.put(previousEntry.getKey(), previousEntry.getValue());
+				} else {
+					scope.remove(previousEntry.getKey());
+				}
+			}
+		}
+		return element;
+	}
+
+	/**
+	 * Declares a namespace on an imported element if it is not already declared in the given scope, updating the scope accordingly.
+	 * @param element The element being imported.
+	 * @param prefix The prefix in use, or <code>null</code> for the default namespace.
+	 * @param namespaceURI The namespace in use, or <code>null</code> for no namespace.
+	 * @param scope The map of namespace URIs declared in scope.
+	 * @param previousScope The previous values of prefixes changed for the current element, or <code>null</code> if none have been changed.
+	 * @return The previous values of prefixes changed for the current element, or <code>null</code> if none have been changed.
+	 * @see #declareNamespace(Element, String, String)
+	 */
+	private static Map<String, String> ensureScopeDeclaration(@Nonnull final Element element, @Nullable final String prefix, @Nullable final String namespaceURI,
+			@Nonnull final Map<String, String> scope, @Nullable final Map<String, String> previousScope) {
+		if(XMLNS_NAMESPACE_URI_STRING.equals(namespaceURI) || (XML_NAMESPACE_PREFIX.equals(prefix) && XML_NAMESPACE_URI_STRING.equals(namespaceURI))) {
+			return previousScope; //the `xmlns` and `xml` namespaces never need to be declared
+		}
+		final String declaredNamespaceURI = scope.get(prefix);
+		final String normalizedNamespaceURI = namespaceURI != null ? namespaceURI : "";
+		if(normalizedNamespaceURI.equals(declaredNamespaceURI) || (declaredNamespaceURI == null && prefix == null && namespaceURI == null)) {
+			return previousScope; //already declared; an undeclared default namespace indicates no namespace
+		}
+		declareNamespace(element, prefix, namespaceURI);
+		return enterScope(scope, previousScope, prefix, normalizedNamespaceURI);
+	}
+
+	/**
+	 * Updates the namespace scope for a declaration, saving the previous value if this is the first change for the prefix at the current level.
+	 * @param scope The map of namespace URIs declared in scope.
+	 * @param previousScope The previous values of prefixes changed for the current element, or <code>null</code> if none have been changed.
+	 * @param prefix The prefix being declared, or <code>null</code> for the default namespace.
+	 * @param namespaceURI The namespace URI being declared, with the empty string representing no namespace.
+	 * @return The previous values of prefixes changed for the current element.
+	 */
+	private static Map<String, String> enterScope(@Nonnull final Map<String, String> scope, @Nullable Map<String, String> previousScope,
+			@Nullable final String prefix, @Nonnull final String namespaceURI) {
+		if(previousScope == null) {
+			previousScope = new HashMap<>();
+		}
+		if(!previousScope.containsKey(prefix)) {
+			previousScope.put(prefix, scope.get(prefix));
+		}
+		scope.put(prefix, namespaceURI);
+		return previousScope;
+	}
+
 	/**
 	 * Performs a clone on the attributes of the source node and adds them to the destination node. It is assumed that all attributes have been added using
 	 * namespace aware methods.
@@ -1416,7 +1572,7 @@ public static StringBuilder getText(final Node node, final Set<String> blockElem
 					break;
 				case Node.ELEMENT_NODE: //if this is an element
 					if(deep) { //if we should get deep text
-						final boolean isBlockElement = !blockElementNames.isEmpty() && blockElementNames.contains(node.getNodeName()); //separate block elements
+						final boolean isBlockElement = !blockElementNames.isEmpty() && blockElementNames.contains(childNode.getNodeName()); //separate block elements
 						if(isBlockElement) {
 							stringBuilder.append(' ');
 						}
@@ -1431,6 +1587,120 @@ public static StringBuilder getText(final Node node, final Set<String> blockElem
 		return stringBuilder;
 	}
 
+	/**
+	 * Retrieves the text of all descendant text and CDATA nodes of the given node, in document order, separating block elements using whitespace.
+	 * @implSpec This implementation delegates to {@link #appendText(Appendable, Node, XmlFormatProfile, boolean)}.
+	 * @param node The node from which text will be retrieved.
+	 * @param formatProfile The profile for determining which elements are block elements, and which elements preserve their whitespace.
+	 * @param collapseSpace Whether runs of space characters, as determined by {@link XmlFormatProfile#getSpaceNormalizationCharacters()}, should be collapsed to a
+	 *          single space, with leading and trailing space removed.
+	 * @return The text of the node, which may be the empty string.
+	 */
+	public static String getText(@Nonnull final Node node, @Nonnull final XmlFormatProfile formatProfile, final boolean collapseSpace) {
+		try {
+			return appendText(new StringBuilder(), node, formatProfile, collapseSpace).toString();
+		} catch(final IOException ioException) {
+			throw impossible(ioException); //string builders never throw I/O exceptions
+		}
+	}
+
+	/**
+	 * Appends the text of all descendant text and CDATA nodes of the given node, in document order, to the given appendable. Text is written as it is
+	 * encountered, so a large document can be streamed to e.g. a {@link Writer} without building its entire text in memory. Block elements are separated from
+	 * surrounding text by a single space; a separator is only written between text that actually appears, never at the beginning or end.
+	 * <p>
+	 * If space collapsing is requested, runs of the profile's {@link XmlFormatProfile#getSpaceNormalizationCharacters()} are collapsed to a single space, even if
+	 * a run spans several text nodes, and no space is written at the beginning or end. Space collapsing is not performed within elements for which
+	 * {@link XmlFormatProfile#isPreserved(Element)} returns <code>true</code>, such as HTML <code>&lt;pre&gt;</code>.
+	 * </p>
+	 * @apiNote This method is useful for extracting text for indexing and searching, for example.
+	 * @implSpec This implementation traverses the tree in linear time without recursion, so that deeply nested documents cannot exhaust the stack. Space
+	 *           collapsing is performed for each text node using {@link XMLSerializer#collapseRuns(CharSequence, Characters, char, boolean, boolean)}.
+	 * @param <A> The type of appendable.
+	 * @param appendable The appendable to which text will be appended.
+	 * @param node The node from which text will be retrieved.
+	 * @param formatProfile The profile for determining which elements are block elements, and which elements preserve their whitespace.
+	 * @param collapseSpace Whether runs of space characters, as determined by {@link XmlFormatProfile#getSpaceNormalizationCharacters()}, should be collapsed to a
+	 *          single space, with leading and trailing space removed.
+	 * @return The given appendable.
+	 * @throws IOException if an error occurs appending the text.
+	 * @see Node#TEXT_NODE
+	 * @see Node#CDATA_SECTION_NODE
+	 */
+	public static <A extends Appendable> A appendText(@Nonnull final A appendable, @Nonnull final Node node, @Nonnull final XmlFormatProfile formatProfile,
+			final boolean collapseSpace) throws IOException {
+		final Characters spaceCharacters = formatProfile.getSpaceNormalizationCharacters();
+		boolean hasText = false; //whether any text has been written
+		boolean separatorPending = false; //whether a separator should be written before any subsequent text
+		//keep track of the outermost element preserving space, if any
+		Node preservedElement = collapseSpace && node.getNodeType() == Node.ELEMENT_NODE && formatProfile.isPreserved((Element)node) ? node : null;
+		Node currentNode = node.getFirstChild();
+		while(currentNode != null) {
+			//enter the node
+			final short nodeType = currentNode.getNodeType();
+			if(nodeType == Node.TEXT_NODE || nodeType == Node.CDATA_SECTION_NODE) {
+				final String text = ((Text)currentNode).getData();
+				if(collapseSpace && preservedElement == null) {
+					final int length = text.length();
+					final boolean hasLeadingSpace = length > 0 && spaceCharacters.contains(text.charAt(0));
+					final boolean hasTrailingSpace = length > 0 && spaceCharacters.contains(text.charAt(length - 1));
+					final CharSequence collapsedText = XMLSerializer.collapseRuns(text, spaceCharacters, SPACE_CHAR, true, true);
+					if(collapsedText.length() > 0) {
+						if(hasText && (separatorPending || hasLeadingSpace)) {
+							appendable.append(SPACE_CHAR);
+						}
+						appendable.append(collapsedText);
+						hasText = true;
+						separatorPending = hasTrailingSpace;
+					} else if(hasLeadingSpace) { //text consisting only of spaces
+						separatorPending = true;
+					}
+				} else if(!text.isEmpty()) {
+					if(hasText && separatorPending) {
+						appendable.append(SPACE_CHAR);
+					}
+					appendable.append(text);
+					hasText = true;
+					separatorPending = false;
+				}
+			} else if(nodeType == Node.ELEMENT_NODE) {
+				final Element element = (Element)currentNode;
+				if(formatProfile.isBlock(element)) {
+					separatorPending = true;
+				}
+				if(collapseSpace && preservedElement == null && formatProfile.isPreserved(element)) {
+					preservedElement = element;
+				}
+				final Node firstChild = element.getFirstChild();
+				if(firstChild != null) { //descend into the element
+					currentNode = firstChild;
+					continue;
+				}
+			}
+			//exit the node, along with any ancestors for which this was the last child
+			while(currentNode != node) {
+				if(currentNode.getNodeType() == Node.ELEMENT_NODE) {
+					if(formatProfile.isBlock((Element)currentNode)) {
+						separatorPending = true;
+					}
+					if(currentNode == preservedElement) {
+						preservedElement = null;
+					}
+				}
+				final Node nextSibling = currentNode.getNextSibling();
+				if(nextSibling != null) {
+					currentNode = nextSibling;
+					break;
+				}
+				currentNode = currentNode.getParentNode();
+			}
+			if(currentNode == node) {
+				break;
+			}
+		}
+		return appendable;
+	}
+
 	/**
 	 * Determines whether the given element has an ancestor with the given namespace and name.
 	 * @implSpec This implementation delegates to {@link #hasAncestorElementNS(Element, String, String)}.
@@ -2048,6 +2318,7 @@ public static void declareNamespace(final Element declarationElement, final Stri
 	 * @param defaultNamespaceURI The default namespace URI of the fragment, or <code>null</code> if there is no default namespace
 	 * @return A document fragment containing the parsed contents of the given fragment text.
 	 * @throws SAXException if there was an error parsing the fragment.
+	 * @see XmlFragmentCache
 	 */
 	public static DocumentFragment parseFragment(final String fragmentText, final DocumentBuilder documentBuilder, final String defaultNamespaceURI)
 			throws SAXException {
@@ -2361,6 +2632,34 @@ public static Stream<Element> childElementsOf(@Nonnull final Node node) {
 		return childNodesOf(node).filter(childNode -> childNode.getNodeType() == Node.ELEMENT_NODE).map(Element.class::cast);
 	}
 
+	/**
+	 * Retrieves the descendants of the given node as a lazy stream of nodes, in the order in which they would be encountered in a pre-order traversal of the node
+	 * tree. The node itself is not included.
+	 * @apiNote Unlike {@link #collectNodesByName(Node, int, Class, String, boolean, Collection)}, no intermediate collection is created; nodes are visited only as
+	 *          the stream is consumed, so short-circuiting operations such as {@link Stream#findFirst()} stop traversing immediately.
+	 * @apiNote The returned stream can be made parallel, in which case it will be split by subtree. See {@link DescendantNodeSpliterator} for caveats regarding
+	 *          thread safety of DOM implementations.
+	 * @param node The node for which descendant nodes should be returned.
+	 * @return A stream of the node's descendant nodes.
+	 * @see DescendantNodeSpliterator
+	 */
+	public static Stream<Node> descendantsOf(@Nonnull final Node node) {
+		return stream(new DescendantNodeSpliterator(node), false);
+	}
+
+	/**
+	 * Retrieves the descendant elements of the given node as a lazy stream of elements, in the order in which they would be encountered in a pre-order traversal
+	 * of the node tree. The node itself is not included.
+	 * @implSpec This is a convenience method that delegates to {@link #descendantsOf(Node)} and filters out all nodes except those of node type
+	 *           {@link Node#ELEMENT_NODE}.
+	 * @param node The node for which descendant elements should be returned.
+	 * @return A stream of the node's descendant elements.
+	 * @see Node#ELEMENT_NODE
+	 */
+	public static Stream<Element> descendantElementsOf(@Nonnull final Node node) {
+		return descendantsOf(node).filter(descendantNode -> descendantNode.getNodeType() == Node.ELEMENT_NODE).map(Element.class::cast);
+	}
+
 	/**
 	 * Retrieves the optional first child of a node.
 	 * @apiNote This method provides no new functionality, but is useful because it is often desirable just to get the first child as an {@link Optional}.
@@ -2593,6 +2892,55 @@ public static Stream<Attr> attributesOf(@Nonnull final Element element) {
 		return streamOf(element.getAttributes()).map(Attr.class::cast); //the nodes should all be instances of Attr in this named node map
 	}
 
+	/**
+	 * Performs the given action for each attribute of the given element, in named node map order.
+	 * @apiNote This method is a lightweight alternative to {@link #attributesOf(Element)} for frequently called code, as it iterates the attributes by index
+	 *          without creating an iterator or stream pipeline. The action must not add or remove attributes of the element.
+	 * @param element The element the attributes of which should be iterated.
+	 * @param action The action to perform on each attribute.
+	 * @throws ConcurrentModificationException if the action added or removed attributes of the element.
+	 */
+	public static void forEachAttribute(@Nonnull final Element element, @Nonnull final Consumer<? super Attr> action) {
+		final NamedNodeMap attributes = element.getAttributes();
+		final int attributeCount = attributes.getLength();
+		for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+			action.accept((Attr)attributes.item(attributeIndex)); //the nodes should all be instances of Attr in this named node map
+		}
+		if(attributes.getLength() != attributeCount) {
+			throw new ConcurrentModificationException("Element attributes were modified during iteration.");
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the attributes of the given element, in named node map order, storing them in the given array if it is large enough; otherwise a new
+	 * array is allocated. If the array has more room than needed, the element immediately following the last attribute is set to <code>null</code>.
+	 * @apiNote This method follows the same convention as {@link Collection#toArray(Object[])}, allowing a caller to reuse a single array across many elements
+	 *          as in the following example, where the number of attributes is given by {@link NamedNodeMap#getLength()}:
+	 *          <pre>
+	 *          {@code
+	 *          attributeBuffer = toAttributeArray(element, attributeBuffer);
+	 *          final int attributeCount = element.getAttributes().getLength();
+	 *          }
+	 *          </pre>
+	 *          Unlike a live {@link NamedNodeMap}, the snapshot can be sorted and remains stable if the element's attributes are subsequently modified.
+	 * @param element The element the attributes of which should be retrieved.
+	 * @param array The array into which the attributes should be stored if it is large enough.
+	 * @return The array containing the element's attributes; either the given array or a new array if the given array was not large enough.
+	 */
+	public static Attr[] toAttributeArray(@Nonnull final Element element, @Nonnull Attr[] array) {
+		final NamedNodeMap attributes = element.getAttributes();
+		final int attributeCount = attributes.getLength();
+		if(array.length < attributeCount) {
+			array = new Attr[Math.max(attributeCount, array.length * 2)]; //allow room for growth when the array is being reused
+		} else if(array.length > attributeCount) {
+			array[attributeCount] = null; //mark the end of the attributes, as Collection.toArray() does
+		}
+		for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+			array[attributeIndex] = (Attr)attributes.item(attributeIndex); //the nodes should all be instances of Attr in this named node map
+		}
+		return array;
+	}
+
 	/**
 	 * Retrieves an attribute value by local name and namespace URI if it exists, and removes that attribute. If no attribute with this local name and namespace
 	 * URI is found, this method has no effect.
@@ -2713,7 +3061,7 @@ public static Optional<String> findAttributeNS(@Nonnull final Element element, @
 	/**
 	 * Merges the attributes of some element into the target element in a namespace-aware manner. If an attribute exists in the other element, its value will
 	 * replace the value, if any, in the target element. Any target element attributes not present in the other element will remain.
-	 * @implSpec This implementation delegates to {@link #mergeAttributesNS(Element, Stream)}.
+	 * @implSpec This implementation iterates the attributes using {@link #forEachAttribute(Element, Consumer)}.
 	 * @implNote Any attribute value set or updated by this method will use the namespace prefix of the other element, which means that even if the target element
 	 *           contains an attribute with the same value, its namespace prefix may change. Although the namespace URI is guaranteed to be correct, no checks are
 	 *           performed to ensure that the target document has defined the new namespace prefix, if any.
@@ -2722,7 +3070,7 @@ public static Optional<String> findAttributeNS(@Nonnull final Element element, @
 	 * @see Element#setAttributeNS(String, String, String)
 	 */
 	public static void mergeAttributesNS(@Nonnull final Element targetElement, @Nonnull final Element element) {
-		mergeAttributesNS(targetElement, attributesOf(element));
+		forEachAttribute(element, attr -> targetElement.setAttributeNS(attr.getNamespaceURI(), attr.getName(), attr.getValue()));
 	}
 
 	/**
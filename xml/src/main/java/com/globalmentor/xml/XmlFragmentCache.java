@@ -0,0 +1,241 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static com.globalmentor.java.Conditions.*;
+import static java.util.Objects.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import javax.annotation.*;
+import javax.xml.parsers.DocumentBuilder;
+
+import org.w3c.dom.*;
+import org.xml.sax.SAXException;
+
+/**
+ * A bounded cache of parsed XML fragments, for efficiently inserting the same fragment text into many documents.
+ * <p>
+ * Each distinct combination of fragment text and default namespace is parsed only once using {@link XmlDom#parseFragment(String, DocumentBuilder, String)};
+ * each request for the fragment returns a deep copy of the cached parsed fragment, imported into the requesting document using
+ * {@link Document#importNode(Node, boolean)}. When the cache reaches its maximum size, the least recently used fragment is evicted.
+ * </p>
+ * <p>
+ * This class is thread-safe. A fragment is parsed by the first thread requesting it, without locking the cache, so that other fragments may be retrieved in
+ * the meantime; other threads requesting the same fragment while it is being parsed wait for the result. The given document builder, which is not
+ * thread-safe, is only used by the thread calling this class. As DOM implementations are not guaranteed to be thread-safe even for reading, copying from a
+ * cached fragment is synchronized on that fragment.
+ * </p>
+ * @author Garret Wilson
+ * @see XmlDom#parseFragment(String, DocumentBuilder, String)
+ */
+public class XmlFragmentCache {
+
+	/** The default maximum number of fragments to cache. */
+	public static final int DEFAULT_MAX_SIZE = 1024;
+
+	private final int maxSize;
+
+	/** @return The maximum number of fragments to cache. */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/** The cached fragments, in access order, each of which may still be in the process of being parsed. */
+	private final Map<Key, CompletableFuture<DocumentFragment>> fragments;
+
+	private long hitCount = 0;
+
+	private long missCount = 0;
+
+	/** Default constructor with the {@link #DEFAULT_MAX_SIZE}. */
+	public XmlFragmentCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Maximum size constructor.
+	 * @param maxSize The maximum number of fragments to cache.
+	 * @throws IllegalArgumentException if the given maximum size is not positive.
+	 */
+	public XmlFragmentCache(final int maxSize) {
+		checkArgument(maxSize > 0, "Maximum fragment cache size %d is not positive.", maxSize);
+		this.maxSize = maxSize;
+		this.fragments = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Key, CompletableFuture<DocumentFragment>> eldest) {
+				return size() > XmlFragmentCache.this.maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns a copy of the given fragment text parsed as a document fragment, parsing the text only if it is not already cached.
+	 * @param document The document that will own the returned fragment.
+	 * @param fragmentText The text of the XML fragment.
+	 * @param documentBuilder The document builder to use to parse the fragment if it is not cached.
+	 * @param defaultNamespaceURI The default namespace URI of the fragment, or <code>null</code> if there is no default namespace
+	 * @return A new document fragment owned by the given document, containing the parsed contents of the given fragment text.
+	 * @throws SAXException if there was an error parsing the fragment.
+	 * @throws DOMException if there was an error importing the cached fragment.
+	 */
+	public DocumentFragment getFragment(@Nonnull final Document document, @Nonnull final String fragmentText, @Nonnull final DocumentBuilder documentBuilder,
+			@Nullable final String defaultNamespaceURI) throws SAXException {
+		requireNonNull(document);
+		final DocumentFragment cachedFragment = getCachedFragment(fragmentText, documentBuilder, defaultNamespaceURI);
+		synchronized(cachedFragment) {
+			return (DocumentFragment)document.importNode(cachedFragment, true);
+		}
+	}
+
+	/**
+	 * Retrieves the cached parsed fragment, parsing and caching it if needed.
+	 * @implSpec The cache is only locked while looking up or recording the fragment; the fragment is parsed without holding the lock. If the fragment is being
+	 *           parsed by another thread, this method waits for the result. A fragment that fails to parse is removed from the cache, so that a later request
+	 *           will attempt to parse it again.
+	 * @param fragmentText The text of the XML fragment.
+	 * @param documentBuilder The document builder to use to parse the fragment if it is not cached.
+	 * @param defaultNamespaceURI The default namespace URI of the fragment, or <code>null</code> if there is no default namespace
+	 * @return The cached parsed fragment, which must not be modified.
+	 * @throws SAXException if there was an error parsing the fragment.
+	 */
+	protected DocumentFragment getCachedFragment(@Nonnull final String fragmentText, @Nonnull final DocumentBuilder documentBuilder,
+			@Nullable final String defaultNamespaceURI) throws SAXException {
+		final Key key = new Key(fragmentText, defaultNamespaceURI);
+		final CompletableFuture<DocumentFragment> cachedFuture;
+		final CompletableFuture<DocumentFragment> newFuture;
+		synchronized(this) {
+			cachedFuture = fragments.get(key);
+			if(cachedFuture != null) {
+				hitCount++;
+				newFuture = null;
+			} else {
+				missCount++;
+				newFuture = new CompletableFuture<>();
+				fragments.put(key, newFuture);
+			}
+		}
+		if(newFuture != null) { //parse the fragment outside the lock
+			try {
+				final DocumentFragment fragment = XmlDom.parseFragment(fragmentText, documentBuilder, defaultNamespaceURI);
+				newFuture.complete(fragment);
+				return fragment;
+			} catch(final SAXException | RuntimeException | Error throwable) {
+				synchronized(this) {
+					fragments.remove(key, newFuture); //don't remove any other fragment cached in the meantime
+				}
+				newFuture.completeExceptionally(throwable);
+				throw throwable;
+			}
+		}
+		try {
+			return cachedFuture.join();
+		} catch(final CompletionException completionException) { //the other thread parsing the fragment failed
+			final Throwable cause = completionException.getCause();
+			if(cause instanceof SAXException) {
+				throw (SAXException)cause;
+			}
+			if(cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			}
+			if(cause instanceof Error) {
+				throw (Error)cause;
+			}
+			throw completionException;
+		}
+	}
+
+	/** @return The number of fragments currently cached. */
+	public synchronized int getSize() {
+		return fragments.size();
+	}
+
+	/** @return The number of fragment requests satisfied from the cache. */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/** @return The number of fragment requests that required parsing. */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Returns the ratio of fragment requests satisfied from the cache.
+	 * @return The hit rate, from <code>0.0</code> to <code>1.0</code>; or <code>0.0</code> if no fragments have been requested.
+	 */
+	public synchronized double getHitRate() {
+		final long requestCount = hitCount + missCount;
+		return requestCount != 0 ? (double)hitCount / requestCount : 0.0;
+	}
+
+	/** Removes all cached fragments and resets the hit and miss counts. */
+	public synchronized void clear() {
+		fragments.clear();
+		hitCount = 0;
+		missCount = 0;
+	}
+
+	/**
+	 * The key identifying a cached fragment.
+	 * @implNote The full fragment text is retained and compared to prevent hash collisions from returning the wrong fragment; the hash code of the text itself is
+	 *           cached by {@link String}.
+	 * @author Garret Wilson
+	 */
+	private static final class Key {
+
+		private final String fragmentText;
+
+		@Nullable
+		private final String defaultNamespaceURI;
+
+		private final int hashCode;
+
+		/**
+		 * Constructor.
+		 * @param fragmentText The text of the XML fragment.
+		 * @param defaultNamespaceURI The default namespace URI of the fragment, or <code>null</code> if there is no default namespace
+		 */
+		public Key(@Nonnull final String fragmentText, @Nullable final String defaultNamespaceURI) {
+			this.fragmentText = requireNonNull(fragmentText);
+			this.defaultNamespaceURI = defaultNamespaceURI;
+			this.hashCode = Objects.hash(fragmentText, defaultNamespaceURI);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object object) {
+			if(this == object) {
+				return true;
+			}
+			if(!(object instanceof Key)) {
+				return false;
+			}
+			final Key key = (Key)object;
+			return hashCode == key.hashCode && fragmentText.equals(key.fragmentText) && Objects.equals(defaultNamespaceURI, key.defaultNamespaceURI);
+		}
+
+	}
+
+}
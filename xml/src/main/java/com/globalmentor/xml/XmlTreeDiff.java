@@ -0,0 +1,518 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static com.globalmentor.xml.def.XML.*;
+import static java.util.Objects.*;
+
+import java.util.*;
+
+import javax.annotation.*;
+
+import org.w3c.dom.*;
+
+/**
+ * Compares DOM trees structurally, using Merkle-style hashes of each subtree to quickly skip unchanged content.
+ * <p>
+ * The hash of a document or element is computed from its own name and attributes and from the hashes of its content in order, so that two subtrees with the
+ * same hash can be considered equal without comparing them further. The hashes of all elements in a tree are computed in a single traversal using
+ * {@link #hashTree(Node)}. A {@link #diff(Node, Node)} then descends only into subtrees with differing hashes, so that beyond hashing the comparison time is
+ * proportional to the amount of changed content rather than to the size of the documents.
+ * </p>
+ * <p>
+ * Text is compared using the same space normalization {@link XMLSerializer} applies when formatting using the {@link XmlFormatProfile}: runs of
+ * {@link XmlFormatProfile#getSpaceNormalizationCharacters()} are collapsed to a single space; text is trimmed at the boundaries of block content and next to
+ * block and break elements; adjacent text nodes are combined; and empty text is discarded. Content of {@link XmlFormatProfile#isPreserved(Element) preserved}
+ * elements is compared exactly. Thus documents differing only in formatting compare equal.
+ * </p>
+ * <p>
+ * Attribute order and namespace declarations are not significant. Comments and processing instructions are significant, as they are serialized.
+ * </p>
+ * <p>
+ * This class is immutable and thread-safe if the format profile is thread-safe. Documents must not be modified while being compared.
+ * </p>
+ * @apiNote The hashes are 64-bit non-cryptographic hashes. Although accidental collisions are extremely unlikely, they are possible, so this class should not be
+ *          used to detect deliberate tampering; use {@link XmlCanonicalizer} with a message digest for that purpose.
+ * @implNote Sibling content is aligned by first skipping the common leading and trailing content having equal hashes, and then pairing the remaining items in
+ *           order by kind and element name. This produces a correct but not necessarily minimal list of changes.
+ * @author Garret Wilson
+ */
+public class XmlTreeDiff {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	/** The golden ratio multiplier, used for combining hashes in order. */
+	private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+	private final XmlFormatProfile formatProfile;
+
+	/** @return The profile determining how whitespace in content is normalized for comparison. */
+	public XmlFormatProfile getFormatProfile() {
+		return formatProfile;
+	}
+
+	/**
+	 * Format profile constructor.
+	 * @param formatProfile The profile determining how whitespace in content is normalized for comparison.
+	 */
+	public XmlTreeDiff(@Nonnull final XmlFormatProfile formatProfile) {
+		this.formatProfile = requireNonNull(formatProfile);
+	}
+
+	/**
+	 * Determines whether the content of a node is preserved, based upon its ancestors and the node itself.
+	 * @param node The node the content of which is to be checked.
+	 * @return <code>true</code> if the node or any of its ancestors is a {@link XmlFormatProfile#isPreserved(Element) preserved} element.
+	 */
+	protected boolean isContentPreserved(@Nonnull final Node node) {
+		for(Node ancestor = node; ancestor != null; ancestor = ancestor.getParentNode()) {
+			if(ancestor.getNodeType() == Node.ELEMENT_NODE && getFormatProfile().isPreserved((Element)ancestor)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	//# hashing
+
+	/**
+	 * Computes the structural hash of a node and its descendants.
+	 * @param node The node to hash.
+	 * @return The structural hash of the node.
+	 */
+	public long hash(@Nonnull final Node node) {
+		return hashTree(node).get(node);
+	}
+
+	/**
+	 * Computes the structural hashes of a node and all its descendant elements in a single traversal.
+	 * @param node The node to hash, typically a document or an element.
+	 * @return A map of the given node and all its descendant elements to their structural hashes, compared by identity.
+	 */
+	public Map<Node, Long> hashTree(@Nonnull final Node node) {
+		final Map<Node, Long> hashes = new IdentityHashMap<>();
+		final boolean isContentPreserved = node.getParentNode() != null && isContentPreserved(node.getParentNode());
+		if(node.getNodeType() == Node.ELEMENT_NODE || node.getNodeType() == Node.DOCUMENT_NODE || node.getNodeType() == Node.DOCUMENT_FRAGMENT_NODE) {
+			hashTree(node, isContentPreserved, hashes);
+		} else {
+			hashes.put(node, hashItem(node, hashes));
+		}
+		return hashes;
+	}
+
+	/**
+	 * Computes the structural hash of a parent node, recording the hashes of it and its descendant elements.
+	 * @param node The document, document fragment, or element to hash.
+	 * @param isParentContentPreserved Whether the content of the parent of the node is preserved.
+	 * @param hashes The map in which to record hashes.
+	 * @return The structural hash of the node.
+	 */
+	private long hashTree(@Nonnull final Node node, final boolean isParentContentPreserved, @Nonnull final Map<Node, Long> hashes) {
+		final boolean isContentPreserved = isParentContentPreserved || node.getNodeType() == Node.ELEMENT_NODE && getFormatProfile().isPreserved((Element)node);
+		long hash = hashOwn(node);
+		for(final Object item : getContentItems(node, isContentPreserved)) {
+			final long itemHash;
+			if(item instanceof Node && ((Node)item).getNodeType() == Node.ELEMENT_NODE) {
+				itemHash = hashTree((Node)item, isContentPreserved, hashes);
+			} else {
+				itemHash = hashItem(item, hashes);
+			}
+			hash = mix(hash * GOLDEN_RATIO + itemHash);
+		}
+		hashes.put(node, hash);
+		return hash;
+	}
+
+	/**
+	 * Computes the hash of a node's own data, not including its content. For an element this includes its name and its attributes in any order.
+	 * @implNote Namespace declaration attributes are not included, as they only determine how names are serialized; the namespaces of the element and its
+	 *           attributes are already part of the hash.
+	 * @param node The node to hash.
+	 * @return The hash of the node's own data.
+	 */
+	private static long hashOwn(@Nonnull final Node node) {
+		long hash = hashChars(FNV_OFFSET_BASIS ^ node.getNodeType(), Objects.toString(node.getNamespaceURI(), ""));
+		hash = hashChars(hash * FNV_PRIME, localNameOf(node));
+		final NamedNodeMap attributes = node.getAttributes();
+		if(attributes != null) {
+			long attributesHash = 0;
+			final int attributeCount = attributes.getLength();
+			for(int attributeIndex = 0; attributeIndex < attributeCount; attributeIndex++) {
+				final Node attribute = attributes.item(attributeIndex);
+				if(XMLNS_NAMESPACE_URI_STRING.equals(attribute.getNamespaceURI())) { //ignore namespace declarations
+					continue;
+				}
+				long attributeHash = hashChars(FNV_OFFSET_BASIS, Objects.toString(attribute.getNamespaceURI(), ""));
+				attributeHash = hashChars(attributeHash * FNV_PRIME, localNameOf(attribute));
+				attributeHash = hashChars(attributeHash * FNV_PRIME, attribute.getNodeValue());
+				attributesHash += mix(attributeHash); //addition is commutative, making attribute order insignificant
+			}
+			hash = mix(hash ^ attributesHash);
+		}
+		return mix(hash);
+	}
+
+	/**
+	 * Computes the hash of a content item other than an element, or looks up the hash of an element.
+	 * @param item The content item, either a {@link TextRun} or a node.
+	 * @param hashes The hashes of elements already computed.
+	 * @return The hash of the item.
+	 */
+	private static long hashItem(@Nonnull final Object item, @Nonnull final Map<Node, Long> hashes) {
+		if(item instanceof TextRun) {
+			return mix(hashChars(FNV_OFFSET_BASIS ^ Node.TEXT_NODE, ((TextRun)item).getText()));
+		}
+		final Node node = (Node)item;
+		final Long elementHash = hashes.get(node);
+		if(elementHash != null) {
+			return elementHash;
+		}
+		long hash = FNV_OFFSET_BASIS ^ node.getNodeType();
+		switch(node.getNodeType()) {
+			case Node.PROCESSING_INSTRUCTION_NODE:
+				hash = hashChars(hash, ((ProcessingInstruction)node).getTarget());
+				hash = hashChars(hash * FNV_PRIME, Objects.toString(((ProcessingInstruction)node).getData(), ""));
+				break;
+			case Node.DOCUMENT_TYPE_NODE:
+				hash = hashChars(hash, ((DocumentType)node).getName());
+				hash = hashChars(hash * FNV_PRIME, Objects.toString(((DocumentType)node).getPublicId(), ""));
+				hash = hashChars(hash * FNV_PRIME, Objects.toString(((DocumentType)node).getSystemId(), ""));
+				break;
+			case Node.ENTITY_REFERENCE_NODE:
+				hash = hashChars(hash, node.getNodeName());
+				break;
+			default: //comments and CDATA sections
+				hash = hashChars(hash, Objects.toString(node.getNodeValue(), ""));
+				break;
+		}
+		return mix(hash);
+	}
+
+	/**
+	 * Hashes characters using the 64-bit FNV-1a algorithm, continuing from an existing hash.
+	 * @param hash The hash so far.
+	 * @param chars The characters to hash.
+	 * @return The updated hash.
+	 */
+	private static long hashChars(long hash, @Nonnull final CharSequence chars) {
+		final int length = chars.length();
+		for(int i = 0; i < length; i++) {
+			hash = (hash ^ chars.charAt(i)) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Mixes the bits of a hash so that every input bit affects every output bit, using the MurmurHash3 finalizer.
+	 * @param hash The hash to mix.
+	 * @return The mixed hash.
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	/**
+	 * Returns the local name of a node, falling back to the node name for nodes created using DOM Level 1 methods.
+	 * @param node The node.
+	 * @return The local name of the node.
+	 */
+	private static String localNameOf(@Nonnull final Node node) {
+		final String localName = node.getLocalName();
+		return localName != null ? localName : node.getNodeName();
+	}
+
+	//# content
+
+	/**
+	 * Collects the content items of a node as they would be serialized, combining adjacent text nodes and normalizing their spaces unless the content is
+	 * preserved.
+	 * @implSpec The normalization is that of {@link XMLSerializer#serializeContent(Appendable, Node, boolean)} when formatting.
+	 * @param node The parent node.
+	 * @param isContentPreserved Whether the content of the node is preserved.
+	 * @return The content items, each either a {@link TextRun} or a non-text node.
+	 */
+	private List<Object> getContentItems(@Nonnull final Node node, final boolean isContentPreserved) {
+		final XmlFormatProfile formatProfile = getFormatProfile();
+		//combine runs of text
+		final List<Object> items = new ArrayList<>();
+		TextRun lastTextRun = null;
+		for(Node childNode = node.getFirstChild(); childNode != null; childNode = childNode.getNextSibling()) {
+			if(childNode.getNodeType() == Node.TEXT_NODE) {
+				if(lastTextRun != null) {
+					lastTextRun.text = lastTextRun.text.toString() + childNode.getNodeValue();
+				} else {
+					lastTextRun = new TextRun(childNode, childNode.getNodeValue());
+					items.add(lastTextRun);
+				}
+			} else {
+				items.add(childNode);
+				lastTextRun = null;
+			}
+		}
+		//normalize spaces
+		if(!isContentPreserved) {
+			final boolean isBlockElement = node.getNodeType() == Node.ELEMENT_NODE && formatProfile.isBlock((Element)node);
+			for(int itemIndex = items.size() - 1; itemIndex >= 0; --itemIndex) {
+				final Object item = items.get(itemIndex);
+				if(item instanceof TextRun) {
+					final TextRun textRun = (TextRun)item;
+					final int itemCount = items.size();
+					textRun.text = XMLSerializer.normalizeContentSpaces(formatProfile, textRun.text, isBlockElement, itemIndex > 0 ? items.get(itemIndex - 1) : null,
+							itemIndex < itemCount - 1 ? items.get(itemIndex + 1) : null);
+					if(textRun.text.length() == 0) { //discard empty text
+						items.remove(itemIndex);
+					}
+				}
+			}
+		}
+		return items;
+	}
+
+	/**
+	 * A run of adjacent text nodes, with the text combined and normalized.
+	 * @author Garret Wilson
+	 */
+	private static final class TextRun {
+
+		private final Node node;
+
+		/** @return The first text node in the run. */
+		public Node getNode() {
+			return node;
+		}
+
+		private CharSequence text;
+
+		/** @return The combined and normalized text of the run. */
+		public CharSequence getText() {
+			return text;
+		}
+
+		/**
+		 * Constructor.
+		 * @param node The first text node in the run.
+		 * @param text The text of the run.
+		 */
+		TextRun(@Nonnull final Node node, @Nonnull final CharSequence text) {
+			this.node = requireNonNull(node);
+			this.text = requireNonNull(text);
+		}
+
+	}
+
+	//# diff
+
+	/**
+	 * Determines whether two nodes and their descendants are structurally equal, ignoring formatting.
+	 * @param oldNode The first node to compare.
+	 * @param newNode The second node to compare.
+	 * @return <code>true</code> if the nodes have the same structural hash.
+	 */
+	public boolean isEqual(@Nonnull final Node oldNode, @Nonnull final Node newNode) {
+		return hash(oldNode) == hash(newNode);
+	}
+
+	/**
+	 * Compares two trees and returns the changes needed to transform the old tree into the new tree.
+	 * @apiNote Typically the nodes are documents, or elements with the same name.
+	 * @param oldNode The root of the old tree.
+	 * @param newNode The root of the new tree.
+	 * @return The changes, ordered depth-first; empty if the trees are structurally equal.
+	 */
+	public List<Change> diff(@Nonnull final Node oldNode, @Nonnull final Node newNode) {
+		final Map<Node, Long> oldHashes = hashTree(oldNode);
+		final Map<Node, Long> newHashes = hashTree(newNode);
+		final List<Change> changes = new ArrayList<>();
+		if(getKey(oldNode).equals(getKey(newNode))) {
+			final boolean isOldContentPreserved = oldNode.getParentNode() != null && isContentPreserved(oldNode.getParentNode());
+			final boolean isNewContentPreserved = newNode.getParentNode() != null && isContentPreserved(newNode.getParentNode());
+			diff(oldNode, oldHashes, isOldContentPreserved, newNode, newHashes, isNewContentPreserved, changes);
+		} else {
+			changes.add(new Change(Change.Type.REMOVED, oldNode, null));
+			changes.add(new Change(Change.Type.ADDED, null, newNode));
+		}
+		return changes;
+	}
+
+	/**
+	 * Compares two matched nodes with the same key, descending only into content with differing hashes.
+	 * @param oldNode The old node.
+	 * @param oldHashes The hashes of the old tree.
+	 * @param isOldParentContentPreserved Whether the content of the parent of the old node is preserved.
+	 * @param newNode The new node.
+	 * @param newHashes The hashes of the new tree.
+	 * @param isNewParentContentPreserved Whether the content of the parent of the new node is preserved.
+	 * @param changes The list to which changes should be added.
+	 */
+	private void diff(@Nonnull final Node oldNode, @Nonnull final Map<Node, Long> oldHashes, final boolean isOldParentContentPreserved,
+			@Nonnull final Node newNode, @Nonnull final Map<Node, Long> newHashes, final boolean isNewParentContentPreserved, @Nonnull final List<Change> changes) {
+		if(oldHashes.get(oldNode).longValue() == newHashes.get(newNode).longValue()) { //unchanged subtree
+			return;
+		}
+		if(hashOwn(oldNode) != hashOwn(newNode)) { //e.g. changed attributes
+			changes.add(new Change(Change.Type.MODIFIED, oldNode, newNode));
+		}
+		final boolean isOldContentPreserved = isOldParentContentPreserved
+				|| oldNode.getNodeType() == Node.ELEMENT_NODE && getFormatProfile().isPreserved((Element)oldNode);
+		final boolean isNewContentPreserved = isNewParentContentPreserved
+				|| newNode.getNodeType() == Node.ELEMENT_NODE && getFormatProfile().isPreserved((Element)newNode);
+		final List<Object> oldItems = getContentItems(oldNode, isOldContentPreserved);
+		final List<Object> newItems = getContentItems(newNode, isNewContentPreserved);
+		final int oldItemCount = oldItems.size();
+		final int newItemCount = newItems.size();
+		final long[] oldItemHashes = new long[oldItemCount];
+		for(int itemIndex = 0; itemIndex < oldItemCount; itemIndex++) {
+			oldItemHashes[itemIndex] = hashItem(oldItems.get(itemIndex), oldHashes);
+		}
+		final long[] newItemHashes = new long[newItemCount];
+		for(int itemIndex = 0; itemIndex < newItemCount; itemIndex++) {
+			newItemHashes[itemIndex] = hashItem(newItems.get(itemIndex), newHashes);
+		}
+		//skip common leading and trailing content
+		int start = 0;
+		while(start < oldItemCount && start < newItemCount && oldItemHashes[start] == newItemHashes[start]) {
+			start++;
+		}
+		int oldEnd = oldItemCount;
+		int newEnd = newItemCount;
+		while(oldEnd > start && newEnd > start && oldItemHashes[oldEnd - 1] == newItemHashes[newEnd - 1]) {
+			oldEnd--;
+			newEnd--;
+		}
+		//pair the remaining items in order by key
+		int newIndex = start;
+		for(int oldIndex = start; oldIndex < oldEnd; oldIndex++) {
+			final Object oldItem = oldItems.get(oldIndex);
+			final Object oldKey = getKey(oldItem);
+			int matchIndex = newIndex;
+			while(matchIndex < newEnd && !oldKey.equals(getKey(newItems.get(matchIndex)))) {
+				matchIndex++;
+			}
+			if(matchIndex == newEnd) { //no match
+				changes.add(new Change(Change.Type.REMOVED, toNode(oldItem), null));
+				continue;
+			}
+			for(; newIndex < matchIndex; newIndex++) { //skipped new items were added
+				changes.add(new Change(Change.Type.ADDED, null, toNode(newItems.get(newIndex))));
+			}
+			final Object newItem = newItems.get(newIndex++);
+			if(oldItem instanceof Node && ((Node)oldItem).getNodeType() == Node.ELEMENT_NODE) {
+				diff((Node)oldItem, oldHashes, isOldContentPreserved, (Node)newItem, newHashes, isNewContentPreserved, changes);
+			} else if(oldItemHashes[oldIndex] != hashItem(newItem, newHashes)) {
+				changes.add(new Change(Change.Type.MODIFIED, toNode(oldItem), toNode(newItem)));
+			}
+		}
+		for(; newIndex < newEnd; newIndex++) {
+			changes.add(new Change(Change.Type.ADDED, null, toNode(newItems.get(newIndex))));
+		}
+	}
+
+	/**
+	 * Returns the node representing a content item.
+	 * @param item The content item, either a {@link TextRun} or a node.
+	 * @return The node itself, or the first text node of a text run.
+	 */
+	private static Node toNode(@Nonnull final Object item) {
+		return item instanceof TextRun ? ((TextRun)item).getNode() : (Node)item;
+	}
+
+	/**
+	 * Returns a key identifying which content items may be paired for comparison: nodes of the same type, and for elements the same name, and for processing
+	 * instructions the same target.
+	 * @param item The content item, either a {@link TextRun} or a node.
+	 * @return The key for pairing the item.
+	 */
+	private static Object getKey(@Nonnull final Object item) {
+		final Node node = toNode(item);
+		switch(node.getNodeType()) {
+			case Node.ELEMENT_NODE:
+				return List.of(Node.ELEMENT_NODE, Objects.toString(node.getNamespaceURI(), ""), localNameOf(node));
+			case Node.PROCESSING_INSTRUCTION_NODE:
+				return List.of(Node.PROCESSING_INSTRUCTION_NODE, ((ProcessingInstruction)node).getTarget());
+			default:
+				return node.getNodeType();
+		}
+	}
+
+	/**
+	 * A single difference between two trees.
+	 * @author Garret Wilson
+	 */
+	public static final class Change {
+
+		/** The type of change. */
+		public enum Type {
+			/** A node present only in the new tree. */
+			ADDED,
+			/** A node present only in the old tree. */
+			REMOVED,
+			/**
+			 * A node present in both trees with changed data of its own, such as the attributes of an element or the normalized value of text. Changes to the
+			 * content of an element are reported separately.
+			 */
+			MODIFIED
+		}
+
+		private final Type type;
+
+		/** @return The type of change. */
+		public Type getType() {
+			return type;
+		}
+
+		private final Node oldNode;
+
+		/** @return The node in the old tree, which will not be present for {@link Type#ADDED}. */
+		public Optional<Node> findOldNode() {
+			return Optional.ofNullable(oldNode);
+		}
+
+		private final Node newNode;
+
+		/** @return The node in the new tree, which will not be present for {@link Type#REMOVED}. */
+		public Optional<Node> findNewNode() {
+			return Optional.ofNullable(newNode);
+		}
+
+		/**
+		 * Constructor.
+		 * @param type The type of change.
+		 * @param oldNode The node in the old tree, or <code>null</code> if the node was added. For text, this is the first node of the text run.
+		 * @param newNode The node in the new tree, or <code>null</code> if the node was removed. For text, this is the first node of the text run.
+		 */
+		Change(@Nonnull final Type type, @Nullable final Node oldNode, @Nullable final Node newNode) {
+			this.type = requireNonNull(type);
+			this.oldNode = oldNode;
+			this.newNode = newNode;
+		}
+
+		@Override
+		public String toString() {
+			return type + " " + (oldNode != null ? oldNode.getNodeName() : "") + (oldNode != null && newNode != null ? " -> " : "")
+					+ (newNode != null ? newNode.getNodeName() : "");
+		}
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.*;
+import java.util.zip.*;
+
+import org.junit.jupiter.api.*;
+
+import com.globalmentor.xml.CompressingOutputStream.Format;
+import com.globalmentor.xml.CompressingOutputStream.Segment;
+
+/**
+ * Tests of {@link CompressingOutputStream}.
+ * @author Garret Wilson
+ */
+public class CompressingOutputStreamTest {
+
+	private static final byte[] STATIC_CONTENT = "<p>This is static content that will be compressed once and written many times.</p>\n".repeat(20).getBytes(UTF_8);
+
+	/**
+	 * Decompresses data in the given format.
+	 * @param format The compressed data format.
+	 * @param bytes The compressed data.
+	 * @return The uncompressed data.
+	 * @throws IOException if there is an error decompressing the data.
+	 */
+	private static byte[] decompress(final Format format, final byte[] bytes) throws IOException {
+		final InputStream inputStream;
+		switch(format) {
+			case DEFLATE:
+				inputStream = new InflaterInputStream(new ByteArrayInputStream(bytes), new Inflater(true));
+				break;
+			case ZLIB:
+				inputStream = new InflaterInputStream(new ByteArrayInputStream(bytes));
+				break;
+			case GZIP:
+				inputStream = new GZIPInputStream(new ByteArrayInputStream(bytes));
+				break;
+			default:
+				throw new AssertionError(format);
+		}
+		try (inputStream) {
+			return inputStream.readAllBytes();
+		}
+	}
+
+	/** @see CompressingOutputStream#write(Segment) */
+	@Test
+	public void testWriteWithSegmentsRoundTrip() throws IOException {
+		final Segment segment = Segment.compress(STATIC_CONTENT, Deflater.BEST_COMPRESSION);
+		assertThat(segment.getUncompressedLength(), is(STATIC_CONTENT.length));
+		for(final Format format : Format.values()) {
+			final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+			final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+			try (final CompressingOutputStream compressingOutputStream = new CompressingOutputStream(byteArrayOutputStream, format, Deflater.BEST_SPEED)) {
+				for(int i = 0; i < 3; i++) {
+					final byte[] dynamicContent = ("<p>dynamic content " + i + "</p>").getBytes(UTF_8);
+					compressingOutputStream.write(dynamicContent);
+					expected.write(dynamicContent);
+					compressingOutputStream.write(segment);
+					expected.write(STATIC_CONTENT);
+				}
+				compressingOutputStream.write(Segment.compress("short".getBytes(UTF_8), Deflater.DEFAULT_COMPRESSION));
+				expected.write("short".getBytes(UTF_8));
+				compressingOutputStream.finish();
+				assertThat(compressingOutputStream.getUncompressedByteCount(), is((long)expected.size()));
+				assertThat(compressingOutputStream.getCompressedByteCount(), is((long)byteArrayOutputStream.size()));
+				assertThat(compressingOutputStream.getCompressionRatio(), is(greaterThan(1.0)));
+			}
+			assertThat(format.toString(), decompress(format, byteArrayOutputStream.toByteArray()), is(expected.toByteArray()));
+		}
+	}
+
+	/** Verifies that a stream with no content produces valid compressed data. */
+	@Test
+	public void testEmpty() throws IOException {
+		for(final Format format : Format.values()) {
+			final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+			new CompressingOutputStream(byteArrayOutputStream, format, Deflater.DEFAULT_COMPRESSION).close();
+			assertThat(format.toString(), decompress(format, byteArrayOutputStream.toByteArray()).length, is(0));
+		}
+	}
+
+}
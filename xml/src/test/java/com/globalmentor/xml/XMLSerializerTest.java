@@ -25,6 +25,7 @@
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.security.*;
 import java.util.*;
 import java.util.stream.Stream;
 
@@ -59,6 +60,18 @@ public void testChangeDoctype() throws IOException, ParserConfigurationException
 		assertThat(serializer.serialize(document, (String)null, (String)null), startsWith("<!DOCTYPE html>"));
 	}
 
+	/** @see XMLSerializer#serializeDigested(Document, OutputStream, java.nio.charset.Charset, MessageDigest) */
+	@Test
+	public void testSerializeDigested() throws IOException, NoSuchAlgorithmException {
+		final Document document = createDocumentBuilder(true).getDOMImplementation().createDocument("http://example.com/ns/", "root", null);
+		document.getDocumentElement().appendChild(document.createTextNode("foo & bar"));
+		final XMLSerializer serializer = new XMLSerializer(false);
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		final byte[] digest = serializer.serializeDigested(document, byteArrayOutputStream, StandardCharsets.UTF_8, MessageDigest.getInstance("SHA-256"));
+		assertThat(new String(byteArrayOutputStream.toByteArray(), StandardCharsets.UTF_8), endsWith("foo &amp; bar</root>"));
+		assertThat(digest, is(MessageDigest.getInstance("SHA-256").digest(byteArrayOutputStream.toByteArray())));
+	}
+
 	/**
 	 * @see XMLSerializer#encodeContent(Appendable, CharSequence)
 	 * @see XMLSerializer#setUsePredefinedEntities(PredefinedEntitiesUse)
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static com.globalmentor.xml.XmlDom.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.*;
+import org.w3c.dom.*;
+
+import com.globalmentor.xml.def.*;
+
+/**
+ * Tests of {@link XmlBuilder}.
+ * @author Garret Wilson
+ */
+public class XmlBuilderTest {
+
+	private static final String NS = "http://example.com/ns/";
+	private static final NsName ITEM = NsName.of(NS, "item");
+	private static final NsName LABEL = NsName.of("label");
+
+	/**
+	 * Builds the test content.
+	 * @param builder The builder with which to build the content.
+	 */
+	private static void buildContent(final XmlBuilder builder) {
+		builder.startElement(ITEM).attribute(LABEL, "a<b").text("one & two").endElement();
+		builder.startElement(ITEM).startElementNS(NS, "ex:sub").attributeNS(NS, "ex:flag", "yes").endElement().element(ITEM, "three").endElement();
+		builder.finish();
+	}
+
+	/** @see XmlBuilder#forParent(Node) */
+	@Test
+	public void testForParent() {
+		final Document document = createDocumentBuilder(true).getDOMImplementation().createDocument(NS, "root", null);
+		final Element root = document.getDocumentElement();
+		buildContent(XmlBuilder.forParent(root));
+		assertThat(root.getChildNodes().getLength(), is(2));
+		final Element first = (Element)root.getFirstChild();
+		assertThat(NsName.ofNode(first), is(ITEM));
+		assertThat(first.getAttributeNS(null, "label"), is("a<b"));
+		assertThat(first.getTextContent(), is("one & two"));
+		final Element sub = (Element)root.getLastChild().getFirstChild();
+		assertThat(sub.getNodeName(), is("ex:sub"));
+		assertThat(sub.getAttributeNS(NS, "flag"), is("yes"));
+		assertThat(root.getLastChild().getLastChild().getTextContent(), is("three"));
+	}
+
+	/** @see XmlBuilder#forSerializer(XMLSerializer, Appendable) */
+	@Test
+	public void testForSerializer() {
+		final StringBuilder stringBuilder = new StringBuilder();
+		buildContent(XmlBuilder.forSerializer(new XMLSerializer(), stringBuilder));
+		assertThat(stringBuilder.toString(), is("<item xmlns=\"http://example.com/ns/\" label=\"a&lt;b\">one &amp; two</item>"
+				+ "<item xmlns=\"http://example.com/ns/\"><ex:sub xmlns:ex=\"http://example.com/ns/\" ex:flag=\"yes\" /><item>three</item></item>"));
+	}
+
+	/**
+	 * Verifies that an attribute in a namespace given with no prefix is serialized with a prefix, as an unprefixed attribute would be in no namespace.
+	 * @see XmlBuilder#attribute(NsName, String)
+	 */
+	@Test
+	public void testForSerializerNamespacedAttributeGivenPrefix() {
+		final StringBuilder stringBuilder = new StringBuilder();
+		XmlBuilder.forSerializer(new XMLSerializer(), stringBuilder).startElement(ITEM).attribute(XML.ATTRIBUTE_LANG, "en")
+				.attribute(NsName.of(NS, "flag"), "yes").attribute(NsName.of(NS, "other"), "no").endElement().finish();
+		assertThat(stringBuilder.toString(),
+				is("<item xmlns=\"http://example.com/ns/\" xml:lang=\"en\" xmlns:ns1=\"http://example.com/ns/\" ns1:flag=\"yes\" ns1:other=\"no\" />"));
+	}
+
+	/**
+	 * Verifies that setting an attribute again replaces its value, when serializing as when building a DOM tree.
+	 * @see XmlBuilder#attribute(NsName, String)
+	 */
+	@Test
+	public void testForSerializerDuplicateAttributeReplaced() {
+		final StringBuilder stringBuilder = new StringBuilder();
+		XmlBuilder.forSerializer(new XMLSerializer(), stringBuilder).startElement(ITEM).attribute(LABEL, "one").attribute(NsName.of(NS, "flag"), "yes")
+				.attribute(LABEL, "two").attribute(NsName.of(NS, "flag"), "no").text("x").endElement().finish();
+		assertThat(stringBuilder.toString(), is("<item xmlns=\"http://example.com/ns/\" label=\"two\" xmlns:ns1=\"http://example.com/ns/\" ns1:flag=\"no\">x</item>"));
+	}
+
+	/** @see XmlBuilder#endElement() */
+	@Test
+	public void testUnbalancedElementsRejected() {
+		final XmlBuilder builder = XmlBuilder.forSerializer(new XMLSerializer(), new StringBuilder());
+		assertThrows(IllegalStateException.class, builder::endElement);
+		builder.startElement(ITEM);
+		assertThrows(IllegalStateException.class, builder::finish);
+		builder.text("foo");
+		assertThrows(IllegalStateException.class, () -> builder.attribute(LABEL, "bar"));
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+import org.w3c.dom.*;
+
+import com.globalmentor.xml.XmlCanonicalizer.Algorithm;
+
+/**
+ * Tests of {@link XmlCanonicalizer}.
+ * @author Garret Wilson
+ */
+public class XmlCanonicalizerTest {
+
+	/**
+	 * Parses a namespace-aware document from a string.
+	 * @param text The text of the document.
+	 * @return The parsed document.
+	 * @throws IOException if there is an error parsing the document.
+	 */
+	private static Document parse(final String text) throws IOException {
+		return XmlDom.parse(new ByteArrayInputStream(text.getBytes(UTF_8)), true);
+	}
+
+	/**
+	 * Canonicalizes a node to a string.
+	 * @param canonicalizer The canonicalizer to use.
+	 * @param node The document or element to canonicalize.
+	 * @return The canonical form, decoded from UTF-8.
+	 */
+	private static String canonicalize(final XmlCanonicalizer canonicalizer, final Node node) {
+		return new String(canonicalizer.canonicalize(node), UTF_8);
+	}
+
+	/**
+	 * Document-level processing instructions and comments.
+	 * @see <a href="https://www.w3.org/TR/xml-c14n11/#Example-OutsideDoc">Canonical XML Version 1.1 § 3.1 PIs, Comments, and Outside of Document Element</a>
+	 */
+	@Test
+	public void testDocumentLevelNodes() throws IOException {
+		final Document document = parse("<?xml version=\"1.0\"?>\n\n<?xml-stylesheet href=\"doc.xsl\"\n   type=\"text/xsl\"   ?>\n\n"
+				+ "<!DOCTYPE doc []>\n\n<doc>Hello, world!<!-- Comment 1 --></doc>\n\n<?pi-without-data     ?>\n\n<!-- Comment 2 -->\n\n<!-- Comment 3 -->");
+		assertThat(canonicalize(new XmlCanonicalizer(Algorithm.INCLUSIVE), document),
+				is("<?xml-stylesheet href=\"doc.xsl\"\n   type=\"text/xsl\"   ?>\n<doc>Hello, world!</doc>\n<?pi-without-data?>"));
+		assertThat(canonicalize(new XmlCanonicalizer(Algorithm.INCLUSIVE, true, Set.of()), document),
+				is("<?xml-stylesheet href=\"doc.xsl\"\n   type=\"text/xsl\"   ?>\n<doc>Hello, world!<!-- Comment 1 --></doc>\n<?pi-without-data?>\n<!-- Comment 2 -->\n<!-- Comment 3 -->"));
+	}
+
+	/**
+	 * Empty elements, attribute ordering, and removal of superfluous namespace declarations.
+	 * @see <a href="https://www.w3.org/TR/xml-c14n11/#Example-SETags">Canonical XML Version 1.1 § 3.3 Start and End Tags</a>
+	 */
+	@Test
+	public void testStartAndEndTags() throws IOException {
+		final Document document = parse("<doc>\n" //
+				+ "   <e1   />\n" //
+				+ "   <e5 a:attr=\"out\" b:attr=\"sorted\" attr2=\"all\" attr=\"I'm\"\n" //
+				+ "      xmlns:b=\"http://www.ietf.org\"\n" //
+				+ "      xmlns:a=\"http://www.w3.org\"\n" //
+				+ "      xmlns=\"http://example.org\"/>\n" //
+				+ "   <e6 xmlns=\"\" xmlns:a=\"http://www.w3.org\">\n" //
+				+ "      <e7 xmlns=\"http://www.ietf.org\">\n" //
+				+ "         <e8 xmlns=\"\" xmlns:a=\"http://www.w3.org\">\n" //
+				+ "            <e9 xmlns=\"\" xmlns:a=\"http://www.ietf.org\"/>\n" //
+				+ "         </e8>\n" //
+				+ "      </e7>\n" //
+				+ "   </e6>\n" //
+				+ "</doc>");
+		assertThat(canonicalize(new XmlCanonicalizer(Algorithm.INCLUSIVE), document), is("<doc>\n" //
+				+ "   <e1></e1>\n" //
+				+ "   <e5 xmlns=\"http://example.org\" xmlns:a=\"http://www.w3.org\" xmlns:b=\"http://www.ietf.org\" attr=\"I'm\" attr2=\"all\" b:attr=\"sorted\" a:attr=\"out\"></e5>\n" //
+				+ "   <e6 xmlns:a=\"http://www.w3.org\">\n" //
+				+ "      <e7 xmlns=\"http://www.ietf.org\">\n" //
+				+ "         <e8 xmlns=\"\">\n" //
+				+ "            <e9 xmlns:a=\"http://www.ietf.org\"></e9>\n" //
+				+ "         </e8>\n" //
+				+ "      </e7>\n" //
+				+ "   </e6>\n" //
+				+ "</doc>"));
+		assertThat(canonicalize(new XmlCanonicalizer(Algorithm.EXCLUSIVE), document), is("<doc>\n" //
+				+ "   <e1></e1>\n" //
+				+ "   <e5 xmlns=\"http://example.org\" xmlns:a=\"http://www.w3.org\" xmlns:b=\"http://www.ietf.org\" attr=\"I'm\" attr2=\"all\" b:attr=\"sorted\" a:attr=\"out\"></e5>\n" //
+				+ "   <e6>\n" //
+				+ "      <e7 xmlns=\"http://www.ietf.org\">\n" //
+				+ "         <e8 xmlns=\"\">\n" //
+				+ "            <e9></e9>\n" //
+				+ "         </e8>\n" //
+				+ "      </e7>\n" //
+				+ "   </e6>\n" //
+				+ "</doc>"));
+	}
+
+	/** Escaping of text and attribute values, and replacement of CDATA sections. */
+	@Test
+	public void testEscaping() throws IOException {
+		final Document document = parse("<doc attr=\"&quot;&#9;&#10;&#13;&amp;&lt;>'\">a&amp;b&lt;c&gt;d&#13;e\"'<![CDATA[<f>&]]></doc>");
+		assertThat(canonicalize(new XmlCanonicalizer(Algorithm.INCLUSIVE), document),
+				is("<doc attr=\"&quot;&#x9;&#xA;&#xD;&amp;&lt;>'\">a&amp;b&lt;c&gt;d&#xD;e\"'&lt;f&gt;&amp;</doc>"));
+	}
+
+	/** Non-ASCII characters, including supplementary characters, are encoded in UTF-8. */
+	@Test
+	public void testUtf8() throws IOException {
+		final Document document = parse("<doc attr=\"é\">€😀</doc>");
+		assertThat(new XmlCanonicalizer(Algorithm.INCLUSIVE).canonicalize(document), is("<doc attr=\"é\">€😀</doc>".getBytes(UTF_8)));
+	}
+
+	/**
+	 * Canonicalization of an element as a document subset.
+	 * @see <a href="https://www.w3.org/TR/xml-exc-c14n/#sec-Enveloping">Exclusive XML Canonicalization Version 1.0 § 2.2 Constrained Implementation</a>
+	 */
+	@Test
+	public void testSubset() throws IOException {
+		final Document document = parse("<n0:local xmlns:n0=\"foo:bar\" xmlns:n3=\"ftp://example.org\" xml:space=\"preserve\">" //
+				+ "<n1:elem2 xmlns:n1=\"http://example.net\" xml:lang=\"en\"><n3:stuff xmlns:n3=\"ftp://example.org\"/></n1:elem2>" //
+				+ "</n0:local>");
+		final Element element = (Element)document.getDocumentElement().getFirstChild();
+		assertThat(canonicalize(new XmlCanonicalizer(Algorithm.INCLUSIVE), element),
+				is("<n1:elem2 xmlns:n0=\"foo:bar\" xmlns:n1=\"http://example.net\" xmlns:n3=\"ftp://example.org\" xml:lang=\"en\" xml:space=\"preserve\">"
+						+ "<n3:stuff></n3:stuff></n1:elem2>"));
+		assertThat(canonicalize(new XmlCanonicalizer(Algorithm.EXCLUSIVE), element),
+				is("<n1:elem2 xmlns:n1=\"http://example.net\" xml:lang=\"en\"><n3:stuff xmlns:n3=\"ftp://example.org\"></n3:stuff></n1:elem2>"));
+		assertThat(canonicalize(new XmlCanonicalizer(Algorithm.EXCLUSIVE, false, Set.of("n0")), element),
+				is("<n1:elem2 xmlns:n0=\"foo:bar\" xmlns:n1=\"http://example.net\" xml:lang=\"en\"><n3:stuff xmlns:n3=\"ftp://example.org\"></n3:stuff></n1:elem2>"));
+	}
+
+	/** Equivalent documents differing in serialization details produce identical canonical forms. */
+	@Test
+	public void testEquivalentDocumentsIdentical() throws IOException {
+		final Document document1 = parse("<x:doc xmlns:x=\"http://example.com/\" b='2' a=\"1\"><x:e/></x:doc>");
+		final Document document2 = parse("<x:doc a='1' b=\"2\" xmlns:x='http://example.com/'><x:e xmlns:x=\"http://example.com/\"></x:e></x:doc>");
+		for(final Algorithm algorithm : Algorithm.values()) {
+			final XmlCanonicalizer canonicalizer = new XmlCanonicalizer(algorithm);
+			assertThat(canonicalizer.canonicalize(document2), is(canonicalizer.canonicalize(document1)));
+		}
+	}
+
+	/** Inclusive namespace prefixes are only allowed for exclusive canonicalization. */
+	@Test
+	public void testInclusiveNamespacePrefixesRequireExclusive() {
+		assertThrows(IllegalArgumentException.class, () -> new XmlCanonicalizer(Algorithm.INCLUSIVE, false, Set.of("n0")));
+	}
+
+}
@@ -24,7 +24,8 @@
 
 import java.io.*;
 import java.nio.charset.Charset;
-import java.util.stream.Stream;
+import java.util.*;
+import java.util.stream.*;
 
 import javax.xml.parsers.DocumentBuilder;
 
@@ -33,6 +34,7 @@
 
 import com.globalmentor.io.ByteOrderMark;
 import com.globalmentor.model.MutableReference;
+import com.globalmentor.xml.def.XML;
 
 /**
  * Tests of XML DOM utilities.
@@ -181,4 +183,158 @@ public void testMergeAttributesNS() {
 		assertThat(element2.getAttributeNodeNS(EXAMPLE_NS_URI_STRING, "one").getName(), is("new:one"));
 	}
 
+	/**
+	 * Creates a test document with a mixture of wide and deep subtrees and text nodes.
+	 * @return A new test document.
+	 */
+	private static Document createTreeDocument() {
+		final Document document = createDocumentBuilder(true).getDOMImplementation().createDocument(null, "root", null);
+		final Element root = document.getDocumentElement();
+		final Element wrapper = appendElementNS(root, null, "wrapper"); //single chain to exercise descending splits
+		for(int i = 0; i < 10; i++) {
+			final Element item = appendElementNS(wrapper, null, "item" + i);
+			item.appendChild(document.createTextNode("text" + i));
+			final Element child = appendElementNS(item, null, "child" + i);
+			appendElementNS(child, null, "grandchild" + i);
+		}
+		appendElementNS(root, null, "last");
+		return document;
+	}
+
+	/** @see XmlDom#descendantsOf(Node) */
+	@Test
+	public void testDescendantsOf() {
+		final Document document = createTreeDocument();
+		final List<Node> expectedElements = collectNodesByName(document, Node.ELEMENT_NODE, Node.class, MATCH_ALL, true, new ArrayList<>());
+		assertThat(descendantsOf(document).filter(node -> node.getNodeType() == Node.ELEMENT_NODE).collect(Collectors.toList()), is(expectedElements));
+		assertThat(descendantElementsOf(document).collect(Collectors.toList()), is(expectedElements));
+		assertThat(descendantsOf(document).count(), is(expectedElements.size() + 10L)); //include the text nodes
+		assertThat(descendantsOf(document.getDocumentElement()).findFirst().map(Node::getNodeName).orElseThrow(), is("wrapper"));
+		assertThat(descendantsOf(document.getDocumentElement().getLastChild()).count(), is(0L));
+	}
+
+	/** @see XmlDom#descendantsOf(Node) */
+	@Test
+	public void testDescendantsOfParallel() {
+		final Document document = createTreeDocument();
+		final List<Node> expectedNodes = descendantsOf(document).collect(Collectors.toList());
+		assertThat(descendantsOf(document).parallel().collect(Collectors.toList()), is(expectedNodes));
+	}
+
+	/** @see DescendantNodeSpliterator#trySplit() */
+	@Test
+	public void testDescendantNodeSpliteratorSplitsBySubtree() {
+		final Document document = createTreeDocument();
+		final List<Node> expectedNodes = descendantsOf(document).collect(Collectors.toList());
+		final List<Node> nodes = new ArrayList<>();
+		splitFully(new DescendantNodeSpliterator(document), nodes);
+		assertThat(nodes, is(expectedNodes));
+	}
+
+	/**
+	 * Recursively splits a spliterator as far as possible, gathering the nodes of the resulting spliterators in encounter order.
+	 * @param spliterator The spliterator to split.
+	 * @param nodes The list into which the nodes will be gathered.
+	 */
+	private static void splitFully(final Spliterator<Node> spliterator, final List<Node> nodes) {
+		spliterator.tryAdvance(nodes::add); //advance partway to test splitting during traversal
+		final Spliterator<Node> prefix = spliterator.trySplit();
+		if(prefix != null) {
+			splitFully(prefix, nodes);
+			splitFully(spliterator, nodes);
+		} else {
+			spliterator.forEachRemaining(nodes::add);
+		}
+	}
+
+	/** @see XmlDom#forEachAttribute(Element, java.util.function.Consumer) */
+	@Test
+	public void testForEachAttribute() {
+		final Document document = createDocumentBuilder(true).getDOMImplementation().createDocument(null, "foo", null);
+		final Element element = document.getDocumentElement();
+		element.setAttributeNS(null, "one", "1");
+		element.setAttributeNS(null, "two", "2");
+		final List<Attr> attributes = new ArrayList<>();
+		forEachAttribute(element, attributes::add);
+		assertThat(attributes, is(attributesOf(element).collect(Collectors.toList())));
+		assertThrows(ConcurrentModificationException.class, () -> forEachAttribute(element, attr -> element.setAttributeNS(null, "three", "3")));
+	}
+
+	/** @see XmlDom#toAttributeArray(Element, Attr[]) */
+	@Test
+	public void testToAttributeArray() {
+		final Document document = createDocumentBuilder(true).getDOMImplementation().createDocument(null, "foo", null);
+		final Element element = document.getDocumentElement();
+		element.setAttributeNS(null, "one", "1");
+		element.setAttributeNS(null, "two", "2");
+		final Attr[] largeArray = new Attr[] {null, null, element.getAttributeNodeNS(null, "one"), null};
+		assertThat(toAttributeArray(element, largeArray), is(sameInstance(largeArray)));
+		assertThat(Arrays.asList(largeArray).subList(0, 2), is(attributesOf(element).collect(Collectors.toList())));
+		assertThat(largeArray[2], is(nullValue()));
+		final Attr[] smallArray = new Attr[1];
+		final Attr[] newArray = toAttributeArray(element, smallArray);
+		assertThat(newArray, is(not(sameInstance(smallArray))));
+		assertThat(Arrays.asList(newArray).subList(0, 2), is(attributesOf(element).collect(Collectors.toList())));
+	}
+
+	/**
+	 * Parses a test document from a string.
+	 * @param xml The XML document text.
+	 * @return The parsed document.
+	 */
+	private static Document parseDocument(final String xml) throws IOException {
+		try (final InputStream inputStream = new ByteArrayInputStream(xml.getBytes(UTF_8))) {
+			return parse(inputStream, true);
+		}
+	}
+
+	/** @see XmlDom#getText(Node, Set) */
+	@Test
+	public void testGetTextSeparatesBlockChildren() throws IOException {
+		final Document document = parseDocument("<root><block>foo</block><inline>bar</inline><block>baz</block></root>");
+		assertThat(getText(document.getDocumentElement(), Set.of("block")), is(" foo bar baz "));
+	}
+
+	/** @see XmlDom#appendText(Appendable, Node, XmlFormatProfile, boolean) */
+	@Test
+	public void testAppendTextCollapsed() throws IOException {
+		final Document document = parseDocument(
+				"<root>\n\t<block>Hello  \n <inline>big</inline> world</block><block>  second</block>tail<pre>  a  b </pre><block>  </block>\n</root>");
+		assertThat(appendText(new StringBuilder(), document, XMLSerializerTest.BLOCK_BREAK_FLUSH_PRE_FORMAT_PROFILE, true).toString(),
+				is("Hello big world second tail   a  b "));
+		assertThat(getText(document.getDocumentElement(), XMLSerializerTest.BLOCK_BREAK_FLUSH_PRE_FORMAT_PROFILE, true), is("Hello big world second tail   a  b "));
+	}
+
+	/** @see XmlDom#appendText(Appendable, Node, XmlFormatProfile, boolean) */
+	@Test
+	public void testAppendTextNotCollapsed() throws IOException {
+		final Document document = parseDocument("<root><block>foo </block><inline>bar</inline><block>baz</block></root>");
+		final StringWriter writer = new StringWriter();
+		appendText(writer, document, XMLSerializerTest.BLOCK_BREAK_FLUSH_PRE_FORMAT_PROFILE, false);
+		assertThat(writer.toString(), is("foo  bar baz"));
+	}
+
+	/** @see XmlDom#appendImportedChildNodesNS(Node, Iterable) */
+	@Test
+	public void testAppendImportedChildNodesNS() throws IOException {
+		final Document destinationDocument = parseDocument("<root xmlns=\"urn:a\" xmlns:x=\"urn:x\"><target/></root>");
+		final Element target = (Element)destinationDocument.getDocumentElement().getFirstChild();
+		final Document source1 = parseDocument("<src xmlns=\"urn:a\" xmlns:x=\"urn:x\" xmlns:y=\"urn:y\"><p x:foo=\"1\">one</p><y:q/></src>");
+		final Document source2 = parseDocument("<src><plain/></src>");
+		assertThat(appendImportedChildNodesNS(target, List.of(source1.getDocumentElement(), source2.getDocumentElement())), is(sameInstance(target)));
+		assertThat(target.getChildNodes().getLength(), is(3));
+		final Element p = (Element)target.getFirstChild();
+		assertThat(p.getNamespaceURI(), is("urn:a"));
+		assertThat("Namespaces already in scope are not redeclared.", p.getAttributes().getLength(), is(1));
+		assertThat(p.getAttributeNS("urn:x", "foo"), is("1"));
+		assertThat(p.getTextContent(), is("one"));
+		final Element q = (Element)p.getNextSibling();
+		assertThat(q.getNamespaceURI(), is("urn:y"));
+		assertThat(q.getAttributeNS(XML.XMLNS_NAMESPACE_URI_STRING, "y"), is("urn:y"));
+		final Element plain = (Element)q.getNextSibling();
+		assertThat(plain.getNamespaceURI(), is(nullValue()));
+		assertThat("Default namespace is undeclared for elements in no namespace.", plain.getAttributeNS(XML.XMLNS_NAMESPACE_URI_STRING, "xmlns"), is(""));
+		assertThat(plain.hasAttributeNS(XML.XMLNS_NAMESPACE_URI_STRING, "xmlns"), is(true));
+	}
+
 }
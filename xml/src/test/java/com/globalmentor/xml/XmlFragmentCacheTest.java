@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static com.globalmentor.xml.XmlDom.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import org.junit.jupiter.api.*;
+import org.w3c.dom.*;
+import org.xml.sax.SAXException;
+
+/**
+ * Tests of {@link XmlFragmentCache}.
+ * @author Garret Wilson
+ */
+public class XmlFragmentCacheTest {
+
+	private static final String NS = "http://example.com/ns/";
+
+	/** @see XmlFragmentCache#getFragment(Document, String, DocumentBuilder, String) */
+	@Test
+	public void testGetFragmentReturnsImportedCopies() throws SAXException {
+		final DocumentBuilder documentBuilder = createDocumentBuilder(true);
+		final Document document = documentBuilder.getDOMImplementation().createDocument(NS, "root", null);
+		final XmlFragmentCache cache = new XmlFragmentCache();
+		final DocumentFragment fragment1 = cache.getFragment(document, "<p>foo</p>bar", documentBuilder, NS);
+		final DocumentFragment fragment2 = cache.getFragment(document, "<p>foo</p>bar", documentBuilder, NS);
+		assertThat(fragment1, is(not(sameInstance(fragment2))));
+		assertThat(fragment1.getOwnerDocument(), is(sameInstance(document)));
+		assertThat(fragment2.getChildNodes().getLength(), is(2));
+		final Element p = (Element)fragment2.getFirstChild();
+		assertThat(p.getNamespaceURI(), is(NS));
+		assertThat(p.getTextContent(), is("foo"));
+		fragment1.getFirstChild().setTextContent("changed");
+		assertThat("Cached fragment is not affected by changes to copies.", cache.getFragment(document, "<p>foo</p>bar", documentBuilder, NS).getTextContent(),
+				is("foobar"));
+		assertThat(cache.getSize(), is(1));
+		assertThat(cache.getHitCount(), is(2L));
+		assertThat(cache.getMissCount(), is(1L));
+		assertThat(cache.getHitRate(), is(2.0 / 3));
+		assertThat("Default namespace is part of the key.", cache.getFragment(document, "<p>foo</p>bar", documentBuilder, null).getFirstChild().getNamespaceURI(),
+				is(nullValue()));
+		assertThat(cache.getSize(), is(2));
+	}
+
+	/** @see XmlFragmentCache#getMaxSize() */
+	@Test
+	public void testLeastRecentlyUsedEviction() throws SAXException {
+		final DocumentBuilder documentBuilder = createDocumentBuilder(true);
+		final Document document = documentBuilder.getDOMImplementation().createDocument(NS, "root", null);
+		final XmlFragmentCache cache = new XmlFragmentCache(2);
+		cache.getFragment(document, "<a/>", documentBuilder, NS);
+		cache.getFragment(document, "<b/>", documentBuilder, NS);
+		cache.getFragment(document, "<a/>", documentBuilder, NS); //make `<b/>` the least recently used
+		cache.getFragment(document, "<c/>", documentBuilder, NS);
+		assertThat(cache.getSize(), is(2));
+		assertThat(cache.getMissCount(), is(3L));
+		cache.getFragment(document, "<a/>", documentBuilder, NS);
+		assertThat(cache.getMissCount(), is(3L));
+		cache.getFragment(document, "<b/>", documentBuilder, NS);
+		assertThat(cache.getMissCount(), is(4L));
+	}
+
+	/**
+	 * Verifies that a fragment that fails to parse is not cached.
+	 * @see XmlFragmentCache#getFragment(Document, String, DocumentBuilder, String)
+	 */
+	@Test
+	public void testParseErrorNotCached() throws SAXException {
+		final DocumentBuilder documentBuilder = createDocumentBuilder(true);
+		final Document document = documentBuilder.getDOMImplementation().createDocument(NS, "root", null);
+		final XmlFragmentCache cache = new XmlFragmentCache();
+		assertThrows(SAXException.class, () -> cache.getFragment(document, "<p>foo", documentBuilder, NS));
+		assertThat(cache.getSize(), is(0));
+		assertThrows(SAXException.class, () -> cache.getFragment(document, "<p>foo", documentBuilder, NS));
+		assertThat(cache.getMissCount(), is(2L));
+		cache.getFragment(document, "<p>foo</p>", documentBuilder, NS);
+		assertThat(cache.getSize(), is(1));
+	}
+
+	/**
+	 * Verifies that a fragment requested by several threads at the same time is only parsed once.
+	 * @see XmlFragmentCache#getFragment(Document, String, DocumentBuilder, String)
+	 */
+	@Test
+	public void testConcurrentRequestsParseOnce() throws InterruptedException, ExecutionException {
+		final int threadCount = 8;
+		final XmlFragmentCache cache = new XmlFragmentCache();
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+		try {
+			final List<Future<String>> results = new ArrayList<>();
+			for(int i = 0; i < threadCount; i++) {
+				results.add(executorService.submit(() -> {
+					final DocumentBuilder documentBuilder = createDocumentBuilder(true); //each thread needs its own document builder
+					final Document document = documentBuilder.getDOMImplementation().createDocument(NS, "root", null);
+					startLatch.await();
+					return cache.getFragment(document, "<p>foo</p>bar", documentBuilder, NS).getTextContent();
+				}));
+			}
+			startLatch.countDown();
+			for(final Future<String> result : results) {
+				assertThat(result.get(), is("foobar"));
+			}
+		} finally {
+			executorService.shutdown();
+		}
+		assertThat(cache.getSize(), is(1));
+		assertThat(cache.getMissCount(), is(1L));
+		assertThat(cache.getHitCount(), is((long)threadCount - 1));
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2026 GlobalMentor, Inc. <https://www.globalmentor.com/>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.globalmentor.xml;
+
+import static com.globalmentor.xml.XMLSerializerTest.BLOCK_BREAK_FLUSH_PRE_FORMAT_PROFILE;
+import static java.nio.charset.StandardCharsets.*;
+import static java.util.stream.Collectors.*;
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+import org.w3c.dom.*;
+
+import com.globalmentor.xml.XmlTreeDiff.Change;
+
+/**
+ * Tests of {@link XmlTreeDiff}.
+ * @author Garret Wilson
+ */
+public class XmlTreeDiffTest {
+
+	private final XmlTreeDiff treeDiff = new XmlTreeDiff(BLOCK_BREAK_FLUSH_PRE_FORMAT_PROFILE);
+
+	/**
+	 * Parses a namespace-aware document from a string.
+	 * @param text The text of the document.
+	 * @return The parsed document.
+	 * @throws IOException if there is an error parsing the document.
+	 */
+	private static Document parse(final String text) throws IOException {
+		return XmlDom.parse(new ByteArrayInputStream(text.getBytes(UTF_8)), true);
+	}
+
+	/**
+	 * Compares two documents and describes the changes.
+	 * @param oldText The text of the old document.
+	 * @param newText The text of the new document.
+	 * @return Descriptions of the changes, in order.
+	 * @throws IOException if there is an error parsing the documents.
+	 */
+	private List<String> diff(final String oldText, final String newText) throws IOException {
+		return treeDiff.diff(parse(oldText), parse(newText)).stream().map(Change::toString).collect(toList());
+	}
+
+	/** @see XmlTreeDiff#hashTree(Node) */
+	@Test
+	public void testHashTreeIncludesAllElements() throws IOException {
+		final Document document = parse("<block><foo>one</foo><foo>two</foo><bar/></block>");
+		final Map<Node, Long> hashes = treeDiff.hashTree(document);
+		assertThat(hashes.size(), is(5));
+		final NodeList foos = document.getElementsByTagName("foo");
+		assertThat(hashes.get(foos.item(0)), is(not(hashes.get(foos.item(1)))));
+		assertThat(hashes.get(document), is(treeDiff.hash(document)));
+	}
+
+	/** Formatting and attribute order differences do not change the hash. */
+	@Test
+	public void testFormattingIgnored() throws IOException {
+		final Document document1 = parse("<block a=\"1\" b=\"2\"><block>one  two</block><foo>x</foo> <foo>y</foo></block>");
+		final Document document2 = parse("<block b=\"2\" a=\"1\">\n\t<block>\n\t\tone\n\t\ttwo\n\t</block>\n\t<foo>x</foo>\n\t<foo>y</foo>\n</block>");
+		assertThat(treeDiff.isEqual(document1, document2), is(true));
+		assertThat(treeDiff.diff(document1, document2), is(empty()));
+	}
+
+	/** Whitespace within preserved elements is significant. */
+	/** Verifies that namespace declarations are not significant, although the namespaces of elements and attributes are. */
+	@Test
+	public void testNamespaceDeclarationsIgnored() throws IOException {
+		assertThat(treeDiff.isEqual(parse("<block xmlns:a=\"urn:a\"><a:foo a:x=\"1\"/></block>"), parse("<block><b:foo xmlns:b=\"urn:a\" b:x=\"1\"/></block>")),
+				is(true));
+		assertThat(treeDiff.isEqual(parse("<block xmlns:unused=\"urn:unused\"/>"), parse("<block/>")), is(true));
+		assertThat(treeDiff.isEqual(parse("<block><foo xmlns=\"urn:a\"/></block>"), parse("<block><foo xmlns=\"urn:b\"/></block>")), is(false));
+	}
+
+	@Test
+	public void testPreservedWhitespaceSignificant() throws IOException {
+		assertThat(treeDiff.isEqual(parse("<block><pre>a  b</pre></block>"), parse("<block><pre>a b</pre></block>")), is(false));
+		assertThat(treeDiff.isEqual(parse("<block><pre><foo>a  b</foo></pre></block>"), parse("<block><pre><foo>a b</foo></pre></block>")), is(false));
+		assertThat(treeDiff.isEqual(parse("<block><foo>a  b</foo></block>"), parse("<block><foo>a b</foo></block>")), is(true));
+	}
+
+	/** Space between inline elements is significant, although its amount is not. */
+	@Test
+	public void testInlineSpaceSignificant() throws IOException {
+		assertThat(treeDiff.isEqual(parse("<block><foo>x</foo> <foo>y</foo></block>"), parse("<block><foo>x</foo><foo>y</foo></block>")), is(false));
+		assertThat(treeDiff.isEqual(parse("<block><foo>x</foo> <foo>y</foo></block>"), parse("<block><foo>x</foo>\n\t<foo>y</foo></block>")), is(true));
+	}
+
+	/** @see XmlTreeDiff#diff(Node, Node) */
+	@Test
+	public void testDiffReportsChangedSubtreesOnly() throws IOException {
+		assertThat(diff("<block><block id=\"1\">one</block><block id=\"2\">two</block><block id=\"3\">three</block></block>",
+				"<block><block id=\"1\">one</block><block id=\"2\">TWO</block><block id=\"3\">three</block></block>"), contains("MODIFIED #text -> #text"));
+		assertThat(diff("<block><block id=\"1\">one</block></block>", "<block><block id=\"1\" class=\"x\">one</block></block>"),
+				contains("MODIFIED block -> block"));
+	}
+
+	/** @see XmlTreeDiff#diff(Node, Node) */
+	@Test
+	public void testDiffAddedAndRemoved() throws IOException {
+		assertThat(diff("<block><foo>1</foo><foo>3</foo></block>", "<block><foo>1</foo><bar/><foo>3</foo></block>"), contains("ADDED bar"));
+		assertThat(diff("<block><foo>1</foo><bar/><foo>3</foo></block>", "<block><foo>1</foo><foo>3</foo></block>"), contains("REMOVED bar"));
+		assertThat(diff("<block><foo>1</foo><!--note--></block>", "<block><foo>1</foo></block>"), contains("REMOVED #comment"));
+		assertThat(diff("<foo/>", "<bar/>"), contains("REMOVED foo", "ADDED bar"));
+	}
+
+}